@@ -3,8 +3,10 @@ package g56065.atlir.othello.controller;
 import g56065.atlir.othello.model.ColorPiece;
 import g56065.atlir.othello.model.GameOthello;
 import g56065.atlir.othello.model.Position;
+import g56065.atlir.othello.strategy.AsyncStrategy;
 import g56065.atlir.othello.view.javafx.MainPane;
 import g56065.atlir.othello.model.Board;
+import java.util.concurrent.Executor;
 
 
 /**
@@ -14,17 +16,43 @@ import g56065.atlir.othello.model.Board;
 public class Controler {
 
     private final GameOthello game;
-    private final MainPane view;
+    private MainPane view; // Shows the progress of the computer, null if none.
+    private final AsyncStrategy computer; // Null when the computer plays on the calling thread.
 
     /**
-     * Constructor for the Controller.
+     * Constructor for the Controller. The computer plays on the calling thread.
      *
      * @param game The Othello game model.
      * @param view The main application view.
      */
     public Controler(GameOthello game, MainPane view) {
+        this(game, view, null);
+    }
+
+    /**
+     * Constructor for the Controller where the computer thinks in the
+     * background and plays its moves on the thread of the game.
+     *
+     * @param game The Othello game model.
+     * @param view The main application view.
+     * @param gameThread Runs tasks on the thread of the game, or null to
+     * think on the calling thread.
+     */
+    public Controler(GameOthello game, MainPane view, Executor gameThread) {
         this.game = game;
         this.view = view;
+        this.computer = gameThread == null || game.getStrategy() == null ? null
+                : new AsyncStrategy(game.getStrategy(), gameThread);
+    }
+
+    /**
+     * Sets the view showing the progress of the computer while it thinks,
+     * when the view is created after the controller.
+     *
+     * @param view The main application view, or null for none.
+     */
+    public void setView(MainPane view) {
+        this.view = view;
     }
 
     /**
@@ -34,17 +62,90 @@ public class Controler {
      * @param col The column of the clicked cell.
      */
     public void handleCellClick(int row, int col) {
-        if (game.getBoard().isValidMove(new Position(row, col), game.getCurrentPlayer())) {
+        if (isComputerThinking()) {
+            return; // The turn belongs to the computer
+        }
+        if (game.getBoard().isValidMove(Position.of(row, col), game.getCurrentPlayer())) {
             game.addPiece(row, col);}
     }
     
     
+    /**
+     * Undoes the last moves, unless the computer is choosing its move: the
+     * undo takes back a move of each player, which would give the turn back
+     * to the computer with no search left to play it.
+     */
+    public void undo() {
+        if (isComputerThinking()) {
+            return; // The turn belongs to the computer
+        }
+        game.undo();
+    }
+
+    /**
+     * Redoes the last undone moves, unless the computer is choosing its move.
+     */
+    public void redo() {
+        if (isComputerThinking()) {
+            return; // The turn belongs to the computer
+        }
+        game.redo();
+    }
+
     /**
      * Handles the computer's turn if the current player is white and a strategy is defined.
+     * While it thinks in the background, the view shows the best move found so far.
+     * Once the computer has played, it ponders on the time of the human player.
      */
     public void computerPlay() {
         if (game.getCurrentPlayer() == ColorPiece.WHITE && game.getStrategy() != null) {
-            game.getStrategy().strat(game);
+            if (computer != null) {
+                if (view != null) {
+                    view.showSearchProgress(null);
+                }
+                computer.play(game, view == null ? null : view::showSearchProgress).thenRun(this::ponder);
+            } else {
+                game.getStrategy().strat(game);
+                ponder();
+            }
+        }
+    }
+
+    /**
+     * Checks if the computer is choosing a move in the background.
+     *
+     * @return True while the computer thinks on its own turn.
+     */
+    public boolean isComputerThinking() {
+        return computer != null && computer.isRunning();
+    }
+
+    /**
+     * Lets the computer think while the human player, black, is to move.
+     * A ponder on a position that is no longer played is replaced.
+     */
+    public void ponder() {
+        if (game.getStrategy() == null || isComputerThinking()) {
+            return;
+        }
+        if (game.getCurrentPlayer() == ColorPiece.BLACK && !game.isGameOver()) {
+            game.getStrategy().ponder(game);
+        } else {
+            game.getStrategy().stopPondering();
+        }
+    }
+
+    /**
+     * Stops the thinking of the computer, on its turn or on the turn of the
+     * human player, when the position it thinks about is gone: at the end of
+     * the game, after a forfeit, an undo or a redo.
+     */
+    public void stopThinking() {
+        if (computer != null) {
+            computer.cancel();
+        }
+        if (game.getStrategy() != null) {
+            game.getStrategy().stopPondering();
         }
     }
 }
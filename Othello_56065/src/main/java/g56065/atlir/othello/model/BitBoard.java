@@ -0,0 +1,306 @@
+package g56065.atlir.othello.model;
+
+/**
+ * Engine for the standard 8x8 board. Each color is stored as a 64-bit mask
+ * where the bit (row * 8 + col) is set when the square holds a piece of that
+ * color. Moves and captures are computed by shifting whole masks, eight
+ * squares at a time, instead of walking the grid square by square.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public class BitBoard implements MoveEngine {
+
+    /**
+     * The only board size handled by this engine.
+     */
+    public static final int SIZE = 8;
+
+    private static final long NOT_COL_0 = 0xFEFEFEFEFEFEFEFEL; // every square except the first column
+    private static final long NOT_COL_7 = 0x7F7F7F7F7F7F7F7FL; // every square except the last column
+    private static final long INNER_COLS = NOT_COL_0 & NOT_COL_7;  // every square except the border columns
+
+    private long black;
+    private long white;
+    private long legalBlack; // Valid moves of black, computed again only after a change.
+    private long legalWhite; // Valid moves of white, computed again only after a change.
+    private boolean blackOutdated = true;
+    private boolean whiteOutdated = true;
+
+    @Override
+    public int getSize() {
+        return SIZE;
+    }
+
+    @Override
+    public ColorPiece getSquare(int square) {
+        long bit = 1L << square;
+        if ((black & bit) != 0) {
+            return ColorPiece.BLACK;
+        } else if ((white & bit) != 0) {
+            return ColorPiece.WHITE;
+        }
+        return null;
+    }
+
+    @Override
+    public void setSquare(int square, ColorPiece color) {
+        long bit = 1L << square;
+        black &= ~bit;
+        white &= ~bit;
+        if (color == ColorPiece.BLACK) {
+            black |= bit;
+        } else if (color == ColorPiece.WHITE) {
+            white |= bit;
+        }
+        changed();
+    }
+
+    @Override
+    public void clear() {
+        black = 0;
+        white = 0;
+        changed();
+    }
+
+    @Override
+    public boolean isValidMove(int square, ColorPiece color) {
+        return flips(player(color), opponent(color), square) != 0;
+    }
+
+    @Override
+    public int countCaptures(int square, ColorPiece color) {
+        return Long.bitCount(flips(player(color), opponent(color), square));
+    }
+
+    @Override
+    public int makeMove(int square, ColorPiece color, long[] flips) {
+        long flipped = flips(player(color), opponent(color), square);
+        flips[0] = flipped;
+        if (flipped == 0) {
+            return 0;
+        }
+        if (color == ColorPiece.BLACK) {
+            black |= flipped | (1L << square);
+            white &= ~flipped;
+        } else {
+            white |= flipped | (1L << square);
+            black &= ~flipped;
+        }
+        changed();
+        return Long.bitCount(flipped);
+    }
+
+    @Override
+    public void unmakeMove(int square, ColorPiece color, long[] flips) {
+        long flipped = flips[0];
+        if (color == ColorPiece.BLACK) {
+            black &= ~(flipped | (1L << square));
+            white |= flipped;
+        } else {
+            white &= ~(flipped | (1L << square));
+            black |= flipped;
+        }
+        changed();
+    }
+
+    @Override
+    public void remakeMove(int square, ColorPiece color, long[] flips) {
+        long flipped = flips[0];
+        if (color == ColorPiece.BLACK) {
+            black |= flipped | (1L << square);
+            white &= ~flipped;
+        } else {
+            white |= flipped | (1L << square);
+            black &= ~flipped;
+        }
+        changed();
+    }
+
+    @Override
+    public int generateMoves(ColorPiece color, int[] moves) {
+        long legal = legal(color);
+        int count = 0;
+        while (legal != 0) {
+            moves[count++] = Long.numberOfTrailingZeros(legal);
+            legal &= legal - 1;
+        }
+        return count;
+    }
+
+    @Override
+    public boolean hasValidMoves(ColorPiece color) {
+        return legal(color) != 0;
+    }
+
+    @Override
+    public int countMoves(ColorPiece color) {
+        return Long.bitCount(legal(color));
+    }
+
+    @Override
+    public int countPieces(ColorPiece color) {
+        return Long.bitCount(player(color));
+    }
+
+    @Override
+    public int countEmpty() {
+        return SIZE * SIZE - Long.bitCount(black | white);
+    }
+
+    @Override
+    public void copyPieces(long[] blackLanes, long[] whiteLanes) {
+        blackLanes[0] = black;
+        whiteLanes[0] = white;
+    }
+
+    /**
+     * Marks the valid moves of both colors as outdated after a change.
+     */
+    private void changed() {
+        blackOutdated = true;
+        whiteOutdated = true;
+    }
+
+    /**
+     * Returns the valid moves of a color, computed again only if a piece
+     * changed since the last time they were requested. During a search only
+     * the side to move is needed, so the other color is not computed.
+     *
+     * @param color The color of the player.
+     * @return The mask of the valid moves.
+     */
+    private long legal(ColorPiece color) {
+        if (color == ColorPiece.BLACK) {
+            if (blackOutdated) {
+                legalBlack = legalMoves(black, white);
+                blackOutdated = false;
+            }
+            return legalBlack;
+        }
+        if (whiteOutdated) {
+            legalWhite = legalMoves(white, black);
+            whiteOutdated = false;
+        }
+        return legalWhite;
+    }
+
+    /**
+     * Returns the mask of the pieces of a color.
+     *
+     * @param color The color of the pieces.
+     * @return The mask of the pieces.
+     */
+    private long player(ColorPiece color) {
+        return color == ColorPiece.BLACK ? black : white;
+    }
+
+    /**
+     * Returns the mask of the pieces of the opponent of a color.
+     *
+     * @param color The color of the player.
+     * @return The mask of the opponent pieces.
+     */
+    private long opponent(ColorPiece color) {
+        return color == ColorPiece.BLACK ? white : black;
+    }
+
+    /**
+     * Moves every bit of a mask one square in a direction. Bits leaving the
+     * board are dropped.
+     *
+     * @param mask The mask to shift.
+     * @param dir The index of the direction (0 to 7).
+     * @return The shifted mask.
+     */
+    static long shift(long mask, int dir) {
+        switch (dir) {
+            case 0:
+                return (mask << 1) & NOT_COL_0;   // next column
+            case 1:
+                return (mask >>> 1) & NOT_COL_7;  // previous column
+            case 2:
+                return mask << 8;                 // next row
+            case 3:
+                return mask >>> 8;                // previous row
+            case 4:
+                return (mask << 9) & NOT_COL_0;   // next row, next column
+            case 5:
+                return (mask << 7) & NOT_COL_7;   // next row, previous column
+            case 6:
+                return (mask >>> 7) & NOT_COL_0;  // previous row, next column
+            default:
+                return (mask >>> 9) & NOT_COL_7;  // previous row, previous column
+        }
+    }
+
+    /**
+     * Computes the mask of all the valid moves of a player.
+     *
+     * @param player The pieces of the player.
+     * @param opponent The pieces of the opponent.
+     * @return The mask of the empty squares where the player can play.
+     */
+    public static long legalMoves(long player, long opponent) {
+        // Opponent pieces on the border columns cannot be inside a horizontal or diagonal line
+        long inner = opponent & INNER_COLS;
+        long moves = lines(player, inner, 1) | lines(player, opponent, 8)
+                | lines(player, inner, 7) | lines(player, inner, 9);
+        return moves & ~(player | opponent);
+    }
+
+    /**
+     * Finds the squares closing a line of opponent pieces that starts next to
+     * a player piece, in both directions of an axis. The mask keeps the runs
+     * from wrapping around the border columns, so the shifts need no other
+     * masking.
+     *
+     * @param player The pieces of the player.
+     * @param mask The opponent pieces that can be inside a line on this axis.
+     * @param step The index offset of a step on the axis (1, 7, 8 or 9).
+     * @return The squares just after a run, empty or not.
+     */
+    private static long lines(long player, long mask, int step) {
+        // Extend runs of opponent pieces starting next to a player piece (at most 6 long)
+        long up = mask & (player << step);
+        up |= mask & (up << step);
+        up |= mask & (up << step);
+        up |= mask & (up << step);
+        up |= mask & (up << step);
+        up |= mask & (up << step);
+        long down = mask & (player >>> step);
+        down |= mask & (down >>> step);
+        down |= mask & (down >>> step);
+        down |= mask & (down >>> step);
+        down |= mask & (down >>> step);
+        down |= mask & (down >>> step);
+        return (up << step) | (down >>> step);
+    }
+
+    /**
+     * Computes the opponent pieces captured by a move.
+     *
+     * @param player The pieces of the player.
+     * @param opponent The pieces of the opponent.
+     * @param square The index of the square where the player plays.
+     * @return The mask of the captured pieces, 0 if the move is not valid.
+     */
+    public static long flips(long player, long opponent, int square) {
+        long move = 1L << square;
+        if (((player | opponent) & move) != 0) {
+            return 0;
+        }
+        long flipped = 0;
+        for (int dir = 0; dir < 8; dir++) {
+            long line = 0;
+            long next = shift(move, dir);
+            while ((next & opponent) != 0) {
+                line |= next;
+                next = shift(next, dir);
+            }
+            if ((next & player) != 0) {
+                flipped |= line;
+            }
+        }
+        return flipped;
+    }
+}
@@ -1,6 +1,7 @@
 package g56065.atlir.othello.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -9,10 +10,24 @@ import java.util.List;
  */
 public class Board {
 
-    private ColorPiece[][] grid; // Represents the game board as an 8x8 grid.
+    /**
+     * Maximum number of positions whose derived data is kept.
+     */
+    public static final int CACHE_CAPACITY = 4096;
+
+    private final MoveEngine engine; // Stores the pieces (a bitboard engine for every size).
+    private final int size;
+    private final RayTable rays; // Shared positions and rays of this board size.
+    private final int[] moveBuffer; // Reused to collect the valid moves.
     private List<Position> possibleMovesBlack = new ArrayList<>();
     private List<Position> possibleMovesWhite = new ArrayList<>();
-    private int captureCount; // Stores the number of captures for the current move validation
+    private final List<Position> movesBlackView = Collections.unmodifiableList(possibleMovesBlack); // Read-only views given to callers.
+    private final List<Position> movesWhiteView = Collections.unmodifiableList(possibleMovesWhite);
+    private long modificationCount; // Incremented on every change of the pieces.
+    private long movesVersion = -1; // Value of modificationCount when the valid moves were last updated.
+    private long pieceKey; // Zobrist hash of the pieces, updated on every change.
+    private ColorPiece sideToMove = ColorPiece.BLACK;
+    private final PositionCache cache = new PositionCache(CACHE_CAPACITY); // Derived data of the positions met.
 
     /**
      * Constructor that initializes the board with a specific size.
@@ -23,7 +38,10 @@ public class Board {
         if (size < 3 || size > 15) {
             throw new IllegalArgumentException("The board size must be between 3 and 15.");
         }
-        this.grid = new ColorPiece[size][size];
+        this.size = size;
+        this.engine = MoveEngine.create(size);
+        this.rays = RayTable.of(size);
+        this.moveBuffer = new int[size * size];
         initializeBoard(size);
     }
 
@@ -35,14 +53,15 @@ public class Board {
     public void initializeBoard(int size) {
         if (size >= 4) {
             int middle = size / 2;
-            grid[middle - 1][middle - 1] = ColorPiece.WHITE;
-            grid[middle][middle] = ColorPiece.WHITE;
-            grid[middle - 1][middle] = ColorPiece.BLACK;
-            grid[middle][middle - 1] = ColorPiece.BLACK;
+            setSquare(toSquare(middle - 1, middle - 1), ColorPiece.WHITE);
+            setSquare(toSquare(middle, middle), ColorPiece.WHITE);
+            setSquare(toSquare(middle - 1, middle), ColorPiece.BLACK);
+            setSquare(toSquare(middle, middle - 1), ColorPiece.BLACK);
         } else if (size == 3) {
-            grid[1][1] = ColorPiece.WHITE;
-            grid[1][2] = ColorPiece.BLACK;
+            setSquare(toSquare(1, 1), ColorPiece.WHITE);
+            setSquare(toSquare(1, 2), ColorPiece.BLACK);
         }
+        modificationCount++;
     }
 
     /**
@@ -53,7 +72,47 @@ public class Board {
      * @return The color of the piece at the position.
      */
     public ColorPiece getColorAtPosition(int row, int col) {
-        return grid[row][col];
+        return engine.getSquare(toSquare(row, col));
+    }
+
+    /**
+     * Gets the color of the piece on a square.
+     *
+     * @param square The index of the square (row * size + col).
+     * @return The color of the piece on the square, or null if it is empty.
+     */
+    public ColorPiece getColorAtSquare(int square) {
+        return engine.getSquare(square);
+    }
+
+    /**
+     * Returns the shared position of a square.
+     *
+     * @param square The index of the square (row * size + col).
+     * @return The position of the square.
+     */
+    public Position getPosition(int square) {
+        return rays.getPosition(square);
+    }
+
+    /**
+     * Returns the precomputed rays of this board size.
+     *
+     * @return The ray table of the board.
+     */
+    public RayTable getRayTable() {
+        return rays;
+    }
+
+    /**
+     * Converts a row and a column into the index of the square (row * size + col).
+     *
+     * @param row The row of the position.
+     * @param col The column of the position.
+     * @return The index of the square.
+     */
+    public int toSquare(int row, int col) {
+        return row * size + col;
     }
 
     /**
@@ -62,7 +121,7 @@ public class Board {
      * @return The size of the board.
      */
     public int getSize() {
-        return grid.length;
+        return size;
     }
 
     /**
@@ -75,7 +134,7 @@ public class Board {
         if (position == null) {
             throw new IllegalArgumentException("Position cannot be null.");
         }
-        return grid[position.getRow()][position.getCol()];
+        return engine.getSquare(toSquare(position.getRow(), position.getCol()));
     }
 
     /**
@@ -91,12 +150,100 @@ public class Board {
         if (color == null) {
             throw new IllegalArgumentException("Color cannot be null.");
         }
-        grid[position.getRow()][position.getCol()] = color;
+        setSquare(toSquare(position.getRow(), position.getCol()), color);
+        modificationCount++;
+    }
+
+    /**
+     * Changes the piece of a square and updates the hash of the pieces.
+     *
+     * @param square The index of the square.
+     * @param color The new color of the square, or null to empty it.
+     */
+    private void setSquare(int square, ColorPiece color) {
+        pieceKey ^= Zobrist.pieceKey(engine.getSquare(square), square) ^ Zobrist.pieceKey(color, square);
+        engine.setSquare(square, color);
+    }
+
+    /**
+     * Plays a move in a single pass: checks it, then places the piece and flips
+     * the captured pieces. Nothing is changed if the move is not valid.
+     *
+     * @param square The index of the square (row * size + col).
+     * @param color The color of the player making the move.
+     * @return The record of the move, or null if the move is not valid.
+     * @throws IllegalArgumentException If the square is not on the board.
+     */
+    public MoveRecord makeMove(int square, ColorPiece color) {
+        if (color == null) {
+            throw new IllegalArgumentException("Color cannot be null.");
+        }
+        checkSquare(square);
+        long[] flips = new long[SquareSet.wordsFor(size)];
+        if (makeMove(square, color, flips) == 0) {
+            return null;
+        }
+        return new MoveRecord(square, color, SquareSet.wrap(flips));
+    }
+
+    /**
+     * Plays a move in a single pass without allocating: the captured squares
+     * are written in a buffer owned by the caller.
+     *
+     * @param square The index of the square (row * size + col).
+     * @param color The color of the player making the move.
+     * @param flips The words receiving the flipped squares, of length
+     * SquareSet.wordsFor(size) at least.
+     * @return The number of flipped pieces, 0 if the move is not valid.
+     * @throws IllegalArgumentException If the square is not on the board.
+     */
+    public int makeMove(int square, ColorPiece color, long[] flips) {
+        checkSquare(square);
+        int captures = engine.makeMove(square, color, flips);
+        if (captures > 0) {
+            pieceKey ^= Zobrist.pieceKey(color, square) ^ Zobrist.flipKey(flips);
+            modificationCount++;
+        }
+        return captures;
+    }
+
+    /**
+     * Checks that a square index is on the board. The engines only read the
+     * low bits of the index, so a square outside would be played elsewhere.
+     *
+     * @param square The index of the square.
+     */
+    private void checkSquare(int square) {
+        if (square < 0 || square >= size * size) {
+            throw new IllegalArgumentException("The square " + square + " is not on the board.");
+        }
+    }
+
+    /**
+     * Takes back a move played with makeMove. Only the square of the move and
+     * the flipped pieces are touched.
+     *
+     * @param move The record of the move to take back.
+     */
+    public void unmakeMove(MoveRecord move) {
+        engine.unmakeMove(move.getSquare(), move.getColor(), move.getFlips().words());
+        pieceKey ^= Zobrist.pieceKey(move.getColor(), move.getSquare()) ^ Zobrist.flipKey(move.getFlips().words());
+        modificationCount++;
+    }
+
+    /**
+     * Plays again a move that was taken back, using its recorded flips.
+     *
+     * @param move The record of the move to play again.
+     */
+    public void remakeMove(MoveRecord move) {
+        engine.remakeMove(move.getSquare(), move.getColor(), move.getFlips().words());
+        pieceKey ^= Zobrist.pieceKey(move.getColor(), move.getSquare()) ^ Zobrist.flipKey(move.getFlips().words());
+        modificationCount++;
     }
 
     /**
      * Checks if a move at a given position is valid for a specific color.
-     * Simultaneously counts the number of opponent pieces that would be captured.
      *
      * @param position The position of the move to check.
      * @param color The color of the piece for which to check the move.
@@ -113,114 +260,213 @@ public class Board {
         int row = position.getRow();
         int col = position.getCol();
 
-        if (!isValidPosition(row, col) || grid[row][col] != null) {
+        if (!isValidPosition(row, col)) {
             return false;
         }
+        return engine.isValidMove(toSquare(row, col), color);
+    }
 
-        captureCount = 0; 
-
-        boolean valid = false;
-        for (Direction dir : Direction.values()) {
-            if (countCapturesInDirection(row, col, color, dir) > 0) {
-                valid = true;
-            }
-        }
+    /**
+     * Checks if a position on the board is valid (i.e., within board boundaries).
+     *
+     * @param row The row to check.
+     * @param col The column to check.
+     * @return True if the position is valid, false otherwise.
+     */
+    public boolean isValidPosition(int row, int col) {
+        return row >= 0 && row < size && col >= 0 && col < size;
+    }
 
-        return valid;
+    /**
+     * Counts the number of pieces for each color on the board.
+     *
+     * @return An array of two integers where the first element is the number of black pieces,
+     * and the second element is the number of white pieces.
+     */
+    public int[] countPieces() {
+        return new int[]{engine.countPieces(ColorPiece.BLACK), engine.countPieces(ColorPiece.WHITE)};
     }
 
     /**
-     * Counts the number of opponent pieces capturable in a given direction
-     * from a specified position and returns the count.
+     * Counts the pieces of a color, in constant time.
      *
-     * @param startX The starting X coordinate.
-     * @param startY The starting Y coordinate.
-     * @param currentColor The current player's color.
-     * @param direction The direction to check.
-     * @return The number of opponent pieces capturable in the given direction.
+     * @param color The color of the pieces.
+     * @return The number of pieces of that color.
      */
-    private int countCapturesInDirection(int startX, int startY, ColorPiece currentColor, Direction direction) {
-        if (currentColor == null) {
+    public int countPieces(ColorPiece color) {
+        if (color == null) {
             throw new IllegalArgumentException("Color cannot be null.");
         }
-        if (direction == null) {
-            throw new IllegalArgumentException("Direction cannot be null.");
+        return engine.countPieces(color);
+    }
+
+    /**
+     * Counts the discs of a color that can never be flipped again, see
+     * {@link Stability}.
+     *
+     * @param color The color of the pieces.
+     * @return The number of stable discs of that color.
+     */
+    public int countStableDiscs(ColorPiece color) {
+        if (color == null) {
+            throw new IllegalArgumentException("Color cannot be null.");
         }
+        long[] black = new long[SquareSet.wordsFor(size)];
+        long[] white = new long[black.length];
+        engine.copyPieces(black, white);
+        return color == ColorPiece.BLACK ? Stability.countStable(size, black, white)
+                : Stability.countStable(size, white, black);
+    }
 
-        int captures = 0;
-        int nextX = startX + direction.getDeltaX();
-        int nextY = startY + direction.getDeltaY();
+    /**
+     * Counts the empty squares of the board, in constant time.
+     *
+     * @return The number of empty squares.
+     */
+    public int getEmptyCount() {
+        return engine.countEmpty();
+    }
 
-        // Check if the next position is out of bounds, empty, or the same color as the current player
-        if (!isValidPosition(nextX, nextY) || grid[nextX][nextY] == null || grid[nextX][nextY] == currentColor) {
-            return 0;
+    /**
+     * Checks if a color has at least one valid move. The valid moves are kept
+     * by the engine between changes, so repeated calls are cheap.
+     *
+     * @param color The color of the player.
+     * @return True if the player can play.
+     */
+    public boolean hasValidMoves(ColorPiece color) {
+        if (color == null) {
+            throw new IllegalArgumentException("Color cannot be null.");
         }
+        return engine.hasValidMoves(color);
+    }
 
-        // Continue in the direction until an ending condition is met
-        while (isValidPosition(nextX, nextY) && grid[nextX][nextY] != null) {
-            if (grid[nextX][nextY] == currentColor.opposite()) {
-                captures++; // An opponent piece is found
-                nextX += direction.getDeltaX();
-                nextY += direction.getDeltaY();
-            } else if (grid[nextX][nextY] == currentColor) {
-                captureCount += captures; // Add captures to the overall capture count
-                return captures;
-            } else {
-                break;
-            }
+    /**
+     * Returns a counter incremented on every change of the pieces. Two equal
+     * values mean that the board did not change in between, which lets callers
+     * keep values derived from the board.
+     *
+     * @return The number of changes made to the board.
+     */
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Sets the color of the player to move, which is part of the hash key.
+     *
+     * @param color The color of the player to move.
+     */
+    public void setSideToMove(ColorPiece color) {
+        if (color == null) {
+            throw new IllegalArgumentException("Color cannot be null.");
         }
+        sideToMove = color;
+    }
 
-        return 0;
+    /**
+     * Gets the color of the player to move.
+     *
+     * @return The color of the player to move.
+     */
+    public ColorPiece getSideToMove() {
+        return sideToMove;
     }
 
     /**
-     * Checks if a position on the board is valid (i.e., within board boundaries).
+     * Returns the Zobrist hash of the position: the pieces and the side to
+     * move. It is kept up to date on every change, in constant time for a
+     * placed piece and in O(flips) for a move.
      *
-     * @param row The row to check.
-     * @param col The column to check.
-     * @return True if the position is valid, false otherwise.
+     * @return The 64-bit hash key of the position.
      */
-    public boolean isValidPosition(int row, int col) {
-        return row >= 0 && row < grid.length && col >= 0 && col < grid[0].length;
+    public long getHashKey() {
+        return sideToMove == ColorPiece.WHITE ? pieceKey ^ Zobrist.WHITE_TO_MOVE : pieceKey;
     }
 
     /**
-     * Counts the number of pieces for each color on the board.
+     * Returns the data derived from the current pieces: valid moves of both
+     * colors, piece counts and end of game. It is taken from the position
+     * cache when the same pieces were already met, after an undo or a redo
+     * for example, and computed then stored otherwise.
      *
-     * @return An array of two integers where the first element is the number of black pieces,
-     * and the second element is the number of white pieces.
+     * @return The data of the current position.
      */
-    public int[] countPieces() {
-        int blackCount = 0;
-        int whiteCount = 0;
-        for (int row = 0; row < grid.length; row++) {
-            for (int col = 0; col < grid[row].length; col++) {
-                if (grid[row][col] == ColorPiece.BLACK) {
-                    blackCount++;
-                } else if (grid[row][col] == ColorPiece.WHITE) {
-                    whiteCount++;
-                }
-            }
+    public PositionInfo getPositionInfo() {
+        PositionInfo info = cache.get(pieceKey);
+        if (info == null) {
+            SquareSet movesBlack = collectValidMoves(ColorPiece.BLACK);
+            SquareSet movesWhite = collectValidMoves(ColorPiece.WHITE);
+            boolean terminal = engine.countEmpty() == 0 || movesBlack.isEmpty() && movesWhite.isEmpty();
+            info = new PositionInfo(movesBlack, movesWhite,
+                    engine.countPieces(ColorPiece.BLACK), engine.countPieces(ColorPiece.WHITE), terminal);
+            cache.put(pieceKey, info);
         }
-        return new int[]{blackCount, whiteCount};
+        return info;
     }
 
     /**
-     * Updates the valid moves for black and white pieces.
+     * Gives access to the cache of derived data, mostly for statistics.
+     *
+     * @return The position cache of the board.
+     */
+    public PositionCache getPositionCache() {
+        return cache;
+    }
+
+    /**
+     * Collects the valid moves of a color in a set of squares.
+     *
+     * @param color The color of the player.
+     * @return The set of the squares where the player can play.
+     */
+    private SquareSet collectValidMoves(ColorPiece color) {
+        long[] words = new long[SquareSet.wordsFor(size)];
+        int count = engine.generateMoves(color, moveBuffer);
+        for (int i = 0; i < count; i++) {
+            words[moveBuffer[i] >>> 6] |= 1L << moveBuffer[i];
+        }
+        return SquareSet.wrap(words);
+    }
+
+    /**
+     * Updates the valid moves for black and white pieces. Nothing is done if no
+     * piece changed since the last update.
      */
     public void updateValidMoves() {
-        possibleMovesBlack.clear();
-        possibleMovesWhite.clear();
-        for (int row = 0; row < grid.length; row++) {
-            for (int col = 0; col < grid[row].length; col++) {
-                Position position = new Position(row, col);
-                if (isValidMove(position, ColorPiece.BLACK)) {
-                    possibleMovesBlack.add(position);
-                }
-                if (isValidMove(position, ColorPiece.WHITE)) {
-                    possibleMovesWhite.add(position);
-                }
-            }
+        if (movesVersion == modificationCount) {
+            return;
+        }
+        movesVersion = modificationCount;
+        PositionInfo info = getPositionInfo();
+        fillValidMoves(info.getValidMoves(ColorPiece.BLACK), possibleMovesBlack);
+        fillValidMoves(info.getValidMoves(ColorPiece.WHITE), possibleMovesWhite);
+    }
+
+    /**
+     * Replaces the content of a list with the positions of a set of squares.
+     *
+     * @param squares The squares to add.
+     * @param moves The list to fill.
+     */
+    private void fillValidMoves(SquareSet squares, List<Position> moves) {
+        moves.clear();
+        for (int square = squares.nextSquare(0); square >= 0; square = squares.nextSquare(square + 1)) {
+            moves.add(rays.getPosition(square));
+        }
+    }
+
+    /**
+     * Replaces the content of a list with the valid moves of a color.
+     *
+     * @param color The color of the player.
+     * @param moves The list to fill.
+     */
+    private void fillValidMoves(ColorPiece color, List<Position> moves) {
+        moves.clear();
+        int count = engine.generateMoves(color, moveBuffer);
+        for (int i = 0; i < count; i++) {
+            moves.add(rays.getPosition(moveBuffer[i]));
         }
     }
 
@@ -230,38 +476,70 @@ public class Board {
      * @return A 2D array representing the current state of the board.
      */
     public ColorPiece[][] saveState() {
-        ColorPiece[][] currentState = new ColorPiece[getSize()][getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            for (int j = 0; j < getSize(); j++) {
-                currentState[i][j] = grid[i][j];
+        ColorPiece[][] currentState = new ColorPiece[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                currentState[i][j] = engine.getSquare(toSquare(i, j));
             }
         }
         return currentState;
     }
 
     /**
-     * Returns the list of valid moves for a given color.
+     * Returns the list of valid moves for a given color, as computed by the
+     * last call to updateValidMoves. The list is a read-only view that follows
+     * the next updates; copy it to keep its current content.
      *
      * @param color The color of the pieces for which valid moves are being searched.
-     * @return List of valid move positions.
+     * @return Unmodifiable list of valid move positions.
      */
     public List<Position> getValidMoves(ColorPiece color) {
         if (color == null) {
             throw new IllegalArgumentException("Color cannot be null.");
         }
-        List<Position> validMoves = color == ColorPiece.BLACK ? possibleMovesBlack : possibleMovesWhite;
-        return validMoves;
+        return color == ColorPiece.BLACK ? movesBlackView : movesWhiteView;
+    }
+
+    /**
+     * Writes the valid moves of a color in an array owned by the caller, in
+     * increasing order of square index, without allocating.
+     *
+     * @param color The color of the player.
+     * @param moves The array receiving the square indexes, of length
+     * size * size at least.
+     * @return The number of valid moves written.
+     */
+    public int generateMoves(ColorPiece color, int[] moves) {
+        if (color == null) {
+            throw new IllegalArgumentException("Color cannot be null.");
+        }
+        return engine.generateMoves(color, moves);
+    }
+
+    /**
+     * Fills a reusable move list with the valid moves of a color, without
+     * allocating.
+     *
+     * @param color The color of the player.
+     * @param moves The list to fill, created for this board size.
+     * @return The number of valid moves.
+     */
+    public int generateMoves(ColorPiece color, MoveList moves) {
+        if (moves == null) {
+            throw new IllegalArgumentException("Move list cannot be null.");
+        }
+        int count = generateMoves(color, moves.buffer());
+        moves.setSize(count);
+        return count;
     }
 
     /**
      * Clears all pieces from the board, resetting it to an empty state.
      */
     public void clearBoard() {
-        for (int row = 0; row < grid.length; row++) {
-            for (int col = 0; col < grid[row].length; col++) {
-                grid[row][col] = null;
-            }
-        }
+        engine.clear();
+        pieceKey = 0;
+        modificationCount++;
     }
 
     /**
@@ -273,8 +551,14 @@ public class Board {
         if (board == null) {
             throw new IllegalArgumentException("Board cannot be null.");
         }
-        for (int row = 0; row < grid.length; row++) {
-            System.arraycopy(board[row], 0, grid[row], 0, grid.length);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int square = toSquare(row, col);
+                if (engine.getSquare(square) != board[row][col]) {
+                    setSquare(square, board[row][col]); // Only the changed squares are touched
+                    modificationCount++;
+                }
+            }
         }
     }
 
@@ -290,20 +574,14 @@ public class Board {
             throw new IllegalArgumentException("Current player cannot be null.");
         }
         List<Position> legalPositions = new ArrayList<>();
-        for (int row = 0; row < getSize(); row++) {
-            for (int col = 0; col < getSize(); col++) {
-                Position pos = new Position(row, col);
-                if (isValidMove(pos, currentPlayer)) {
-                    legalPositions.add(pos);
-                }
-            }
-        }
+        fillValidMoves(currentPlayer, legalPositions);
         return legalPositions;
     }
 
     /**
      * Evaluates the efficiency of a proposed move in terms of the number of opponent pieces
      * that would be captured if the move were played.
+     * This query has no side effect on the board.
      *
      * @param move The position of the proposed move.
      * @param currentPlayer The current player considering the move.
@@ -316,24 +594,31 @@ public class Board {
         if (currentPlayer == null) {
             throw new IllegalArgumentException("Current player cannot be null.");
         }
-        isValidMove(move, currentPlayer); // This will calculate the captureCount
-        return captureCount;
+        if (!isValidPosition(move.getRow(), move.getCol())) {
+            return 0;
+        }
+        return engine.countCaptures(toSquare(move.getRow(), move.getCol()), currentPlayer);
+    }
+
+    /**
+     * Takes an immutable copy of the pieces of the board. The snapshot can be
+     * queried from any thread while the board keeps changing.
+     *
+     * @return The snapshot of the current position.
+     */
+    public BoardSnapshot snapshot() {
+        long[] black = new long[SquareSet.wordsFor(size)];
+        long[] white = new long[black.length];
+        engine.copyPieces(black, white);
+        return new BoardSnapshot(size, black, white);
     }
 
     /**
-     * Checks if the game board is completely filled with pieces.
+     * Checks if the game board is completely filled with pieces, in constant time.
      *
      * @return true if the board is full, false otherwise.
      */
     public boolean isBoardFull() {
-        int size = this.getSize();
-        for (int row = 0; row < size; row++) {
-            for (int col = 0; col < size; col++) {
-                if (this.getPieceAt(new Position(row, col)) == null) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return engine.countEmpty() == 0;
     }
 }
@@ -0,0 +1,250 @@
+package g56065.atlir.othello.model;
+
+/**
+ * Immutable copy of the pieces of a board at a given moment. All its queries
+ * are pure functions of the copied position: they use no shared mutable
+ * state, so a snapshot can be read by several threads at the same time, and
+ * evaluations can be nested freely.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public final class BoardSnapshot {
+
+    private final int size;
+    private final RayTable rays;
+    private final long[] black; // Bit (row * size + col) set for each black piece.
+    private final long[] white; // Bit (row * size + col) set for each white piece.
+
+    /**
+     * Constructor that takes ownership of the lanes of both colors.
+     *
+     * @param size The size of the board.
+     * @param black The lanes of the black pieces.
+     * @param white The lanes of the white pieces.
+     */
+    BoardSnapshot(int size, long[] black, long[] white) {
+        this.size = size;
+        this.rays = RayTable.of(size);
+        this.black = black;
+        this.white = white;
+    }
+
+    /**
+     * Creates a snapshot from the sets of squares of both colors, for example
+     * to set up a position that was not reached on a Board.
+     *
+     * @param size The size of the board (between 3 and 15).
+     * @param black The squares of the black pieces.
+     * @param white The squares of the white pieces.
+     * @return The snapshot of the position.
+     */
+    public static BoardSnapshot of(int size, SquareSet black, SquareSet white) {
+        if (black == null || white == null) {
+            throw new IllegalArgumentException("Piece sets cannot be null.");
+        }
+        int words = SquareSet.wordsFor(RayTable.of(size).getSize());
+        if (black.getWordCount() != words || white.getWordCount() != words) {
+            throw new IllegalArgumentException("The piece sets do not match the board size.");
+        }
+        for (int i = 0; i < words; i++) {
+            if ((black.getWord(i) & white.getWord(i)) != 0) {
+                throw new IllegalArgumentException("A square cannot hold two pieces.");
+            }
+        }
+        return new BoardSnapshot(size, black.words(), white.words()); // Both sets are immutable, their words can be shared
+    }
+
+    /**
+     * Returns the size of the board.
+     *
+     * @return The size of the board.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the color of the piece on a square.
+     *
+     * @param square The index of the square (row * size + col).
+     * @return The color of the piece, or null if the square is empty.
+     */
+    public ColorPiece getColorAtSquare(int square) {
+        if (isSet(black, square)) {
+            return ColorPiece.BLACK;
+        } else if (isSet(white, square)) {
+            return ColorPiece.WHITE;
+        }
+        return null;
+    }
+
+    /**
+     * Counts the pieces of a color.
+     *
+     * @param color The color of the pieces.
+     * @return The number of pieces of that color.
+     */
+    public int countPieces(ColorPiece color) {
+        long[] pieces = color == ColorPiece.BLACK ? black : white;
+        int count = 0;
+        for (long word : pieces) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Finds the stable discs of a color, those that can never be flipped
+     * again (see {@link Stability}).
+     *
+     * @param color The color of the pieces.
+     * @return The set of the stable discs of that color.
+     */
+    public SquareSet getStableDiscs(ColorPiece color) {
+        long[] stable = new long[black.length];
+        Stability.stableDiscs(size, lanes(color), lanes(color.opposite()), stable);
+        return SquareSet.wrap(stable);
+    }
+
+    /**
+     * Counts the stable discs of a color.
+     *
+     * @param color The color of the pieces.
+     * @return The number of discs of that color that can never be flipped.
+     */
+    public int countStableDiscs(ColorPiece color) {
+        return Stability.countStable(size, lanes(color), lanes(color.opposite()));
+    }
+
+    /**
+     * Returns the pieces of a color.
+     *
+     * @param color The color of the pieces.
+     * @return The set of the squares holding a piece of that color.
+     */
+    public SquareSet getPieces(ColorPiece color) {
+        return SquareSet.of(color == ColorPiece.BLACK ? black : white);
+    }
+
+    /**
+     * Checks if a move is valid for a color.
+     *
+     * @param square The index of the square.
+     * @param color The color of the player.
+     * @return True if the move captures at least one piece.
+     */
+    public boolean isValidMove(int square, ColorPiece color) {
+        return countCaptures(square, color) > 0;
+    }
+
+    /**
+     * Counts the opponent pieces that a move would capture, without allocating.
+     *
+     * @param square The index of the square.
+     * @param color The color of the player.
+     * @return The number of captured pieces, 0 if the move is not valid.
+     */
+    public int countCaptures(int square, ColorPiece color) {
+        return computeFlips(square, color, null);
+    }
+
+    /**
+     * Analyzes a move: validity, number and set of the captured pieces.
+     *
+     * @param square The index of the square.
+     * @param color The color of the player.
+     * @return The analysis of the move.
+     */
+    public MoveAnalysis analyzeMove(int square, ColorPiece color) {
+        long[] flips = new long[black.length];
+        computeFlips(square, color, flips);
+        return new MoveAnalysis(square, color, SquareSet.wrap(flips));
+    }
+
+    /**
+     * Writes the indexes of all valid moves for a color in the given array, in
+     * increasing order.
+     *
+     * @param color The color of the player.
+     * @param moves The array receiving the moves, of length size * size at least.
+     * @return The number of valid moves.
+     */
+    public int generateMoves(ColorPiece color, int[] moves) {
+        int count = 0;
+        if (size == BitBoard.SIZE) {
+            long legal = color == ColorPiece.BLACK ? BitBoard.legalMoves(black[0], white[0]) : BitBoard.legalMoves(white[0], black[0]);
+            while (legal != 0) {
+                moves[count++] = Long.numberOfTrailingZeros(legal);
+                legal &= legal - 1;
+            }
+            return count;
+        }
+        for (int square = 0; square < size * size; square++) {
+            if (isValidMove(square, color)) {
+                moves[count++] = square;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Computes the pieces captured by a move.
+     *
+     * @param square The index of the square.
+     * @param color The color of the player.
+     * @param flips The words receiving the captured squares, or null to only count them.
+     * @return The number of captured pieces.
+     */
+    private int computeFlips(int square, ColorPiece color, long[] flips) {
+        long[] player = color == ColorPiece.BLACK ? black : white;
+        long[] opponent = color == ColorPiece.BLACK ? white : black;
+        if (size == BitBoard.SIZE) {
+            long mask = BitBoard.flips(player[0], opponent[0], square);
+            if (flips != null) {
+                flips[0] = mask;
+            }
+            return Long.bitCount(mask);
+        }
+        if (isSet(player, square) || isSet(opponent, square)) {
+            return 0;
+        }
+        int captures = 0;
+        for (int dir = 0; dir < RayTable.DIRECTIONS; dir++) {
+            int[] ray = rays.getRay(square, dir);
+            int length = 0;
+            while (length < ray.length && isSet(opponent, ray[length])) {
+                length++;
+            }
+            if (length > 0 && length < ray.length && isSet(player, ray[length])) {
+                captures += length;
+                if (flips != null) {
+                    for (int i = 0; i < length; i++) {
+                        flips[ray[i] >>> 6] |= 1L << ray[i];
+                    }
+                }
+            }
+        }
+        return captures;
+    }
+
+    /**
+     * Gives the lanes of a color, without copying them.
+     *
+     * @param color The color of the pieces.
+     * @return The lanes of that color.
+     */
+    private long[] lanes(ColorPiece color) {
+        return color == ColorPiece.BLACK ? black : white;
+    }
+
+    /**
+     * Checks if the bit of a square is set in some lanes.
+     *
+     * @param lanes The lanes to read.
+     * @param square The index of the square.
+     * @return True if the bit is set.
+     */
+    private static boolean isSet(long[] lanes, int square) {
+        return (lanes[square >>> 6] & (1L << square)) != 0;
+    }
+}
@@ -17,6 +17,12 @@ public enum Direction {
     S_E(1, 1),   // South-East
     S_O(-1, 1);  // South-West
 
+    /**
+     * Shared copy of values(), which clones its array on every call. Must not
+     * be modified.
+     */
+    static final Direction[] ALL = values();
+
     private final int deltaX;
     private final int deltaY;
 
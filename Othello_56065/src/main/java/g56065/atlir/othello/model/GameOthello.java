@@ -21,14 +21,14 @@ public class GameOthello {
     private Board board;
     private ColorPiece currentPlayer;
     private int size;
-    private int blackCount;
-    private int whiteCount;
+    private long statusVersion = -1; // Board modification count when gameOver was computed
+    private boolean gameOver;
     private List<Position> previousValidMoves;
     private Command undo;
     private Command redo;
     private Strategy strategy;
-    private Stack<ColorPiece[][]> undoStack = new Stack<>();
-    private Stack<ColorPiece[][]> redoStack = new Stack<>();
+    private Stack<MoveRecord> undoStack = new Stack<>(); // Moves played, the last one on top
+    private Stack<MoveRecord> redoStack = new Stack<>(); // Moves taken back, the last one on top
 
     /**
      * Constructor for GameOthello that initializes a game with a specific board
@@ -40,13 +40,12 @@ public class GameOthello {
         this.size = size;
         ob = new PropertyChangeSupport(this);
         board = new Board(size);
-        initializePieceCounts();
         board.updateValidMoves();
         currentPlayer = ColorPiece.BLACK;
+        board.setSideToMove(currentPlayer);
         previousValidMoves = new ArrayList<>();
         undo = new Undo(board);
         redo = new Redo(board);
-        undoStack.push(board.saveState());
         List<Position> validMoves = getValidMoves();
         ob.firePropertyChange("init", null, board);
     }
@@ -64,13 +63,12 @@ public class GameOthello {
         this.size = size;
         ob = new PropertyChangeSupport(this);
         board = new Board(size);
-        initializePieceCounts();
         board.updateValidMoves();
         currentPlayer = ColorPiece.BLACK;
+        board.setSideToMove(currentPlayer);
         previousValidMoves = new ArrayList<>();
         undo = new Undo(board);
         redo = new Redo(board);
-        undoStack.push(board.saveState());
         this.strategy = strategy;
     }
 
@@ -101,16 +99,6 @@ public class GameOthello {
         addObserver(view);
     }
 
-    /**
-     * Initializes piece counters by counting black and white pieces on the
-     * board.
-     */
-    private void initializePieceCounts() {
-        int[] counts = board.countPieces();
-        blackCount = counts[0];
-        whiteCount = counts[1];
-    }
-
     /**
      * Adds a listener for property changes.
      *
@@ -121,39 +109,24 @@ public class GameOthello {
     }
 
     public void addPiece(int row, int col) {
-        Position position = new Position(row, col);
-
         int nbPass = 0;
-        if (board.isValidMove(position, currentPlayer)) {
+        MoveRecord move = null;
+        if (board.isValidPosition(row, col)) {
+            move = board.makeMove(board.toSquare(row, col), currentPlayer); // Validates, places and flips in one pass
+        }
+        if (move != null) {
             if (!redoStack.isEmpty()) {
                 redoStack.clear();
             }
-            board.placePiece(position, currentPlayer);
-            updatePieceCount(currentPlayer, 1);
-            capturePieces(row, col, currentPlayer);
             nbPass = passTurn();
+            undoStack.push(move.withPasses(Math.min(nbPass - 1, 2))); // Save the move, before listeners may play the next one
             ob.firePropertyChange("addPiece", null, board); // Notifies that the piece has been added
-            undoStack.push(board.saveState()); // Save the board state
         } else {
             ob.firePropertyChange("invalidMove", null, null);
         }
         checkGameState(nbPass); // Check if the game is over
     }
 
-    /**
-     * Updates the piece count based on the specified color and quantity.
-     *
-     * @param color The color of the piece.
-     * @param count The number of pieces to add (can be negative to remove).
-     */
-    private void updatePieceCount(ColorPiece color, int count) {
-        if (color == ColorPiece.BLACK) {
-            blackCount += count;
-        } else if (color == ColorPiece.WHITE) {
-            whiteCount += count;
-        }
-    }
-
     public int passTurn() {
         List<Position> validMoves;
         int nbPass = 0;
@@ -191,43 +164,22 @@ public class GameOthello {
         if (playerColor == null) {
             throw new IllegalArgumentException("Player color cannot be null.");
         }
+        RayTable rays = board.getRayTable();
+        int square = board.toSquare(x, y);
         // Iterate over all available directions
-        for (Direction d : Direction.values()) {
-            int newX = x + d.getDeltaX(); // New x coordinate
-            int newY = y + d.getDeltaY(); // New y coordinate
-
-            // Check if the new position is valid
-            if (board.isValidPosition(newX, newY)) {
-                ColorPiece color = board.getColorAtPosition(newX, newY);
-
-                // If the first square in the specified direction is of opposite color
-                if (color != null && color != playerColor) {
-                    List<Position> canTurn = new ArrayList<>();
-                    boolean turnImpossible = false;
-
-                    // Traverse the direction until a square of the same color is found
-                    while (!turnImpossible && color != null && color != playerColor) {
-                        canTurn.add(new Position(newX, newY));
-                        newX += d.getDeltaX();
-                        newY += d.getDeltaY();
-
-                        // Check the next position
-                        if (board.isValidPosition(newX, newY)) {
-                            color = board.getColorAtPosition(newX, newY);
-                        } else {
-                            turnImpossible = true;  // The next position is not valid
-                        }
-                    }
-
-                    // If a square of the same color is found at the end, flip the pieces
-                    if (!turnImpossible && color != null && color == playerColor) {
-                        for (Position position : canTurn) {
-                            board.placePiece(position, playerColor);
-                            updatePieceCount(playerColor, 1);
-                            updatePieceCount(playerColor.opposite(), -1);
-
-                        }
-                    }
+        for (int dir = 0; dir < RayTable.DIRECTIONS; dir++) {
+            int[] ray = rays.getRay(square, dir);
+            int length = 0;
+
+            // Traverse the direction while the squares hold opponent pieces
+            while (length < ray.length && board.getColorAtSquare(ray[length]) == playerColor.opposite()) {
+                length++;
+            }
+
+            // If a square of the same color is found at the end, flip the pieces
+            if (length > 0 && length < ray.length && board.getColorAtSquare(ray[length]) == playerColor) {
+                for (int i = 0; i < length; i++) {
+                    board.placePiece(rays.getPosition(ray[i]), playerColor);
                 }
             }
         }
@@ -239,6 +191,7 @@ public class GameOthello {
      */
     public void togglePlayer() {
         currentPlayer = currentPlayer.opposite();
+        board.setSideToMove(currentPlayer);
         board.updateValidMoves();
 
     }
@@ -256,12 +209,28 @@ public class GameOthello {
 
     /**
      * Determines if the game is over by checking the absence of valid moves for
-     * both players or if the board is full.
+     * both players or if the board is full. The result is kept until the board
+     * changes, so calling this method in a loop costs constant time, and it is
+     * taken from the position cache of the board for positions already met.
      *
      * @return true if the game is over, false otherwise.
      */
     public boolean isGameOver() {
-        return !hasValidMoves(ColorPiece.BLACK) && !hasValidMoves(ColorPiece.WHITE) || board.isBoardFull();
+        if (statusVersion != board.getModificationCount()) {
+            gameOver = board.getPositionInfo().isTerminal();
+            statusVersion = board.getModificationCount();
+        }
+        return gameOver;
+    }
+
+    /**
+     * Gets the number of turns passed right after the last move: 1 when the
+     * opponent could not play, 2 when nobody could play anymore.
+     *
+     * @return The number of consecutive passes, 0 if no move was played.
+     */
+    public int getPassCount() {
+        return undoStack.isEmpty() ? 0 : undoStack.peek().getPasses();
     }
 
     /**
@@ -271,15 +240,7 @@ public class GameOthello {
      * @return true if valid moves are available, false otherwise.
      */
     public boolean hasValidMoves(ColorPiece color) {
-        int boardSize = board.getSize();
-        for (int row = 0; row < boardSize; row++) {
-            for (int col = 0; col < boardSize; col++) {
-                if (board.isValidMove(new Position(row, col), color)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return board.hasValidMoves(color);
     }
 
     /**
@@ -289,6 +250,8 @@ public class GameOthello {
      * null in case of a tie.
      */
     public ColorPiece determineWinner() {
+        int blackCount = board.countPieces(ColorPiece.BLACK);
+        int whiteCount = board.countPieces(ColorPiece.WHITE);
         return blackCount > whiteCount ? ColorPiece.BLACK : whiteCount > blackCount ? ColorPiece.WHITE : null;
     }
 
@@ -313,7 +276,7 @@ public class GameOthello {
     /**
      * Gets the list of valid moves for the current player.
      *
-     * @return The list of valid move positions.
+     * @return The unmodifiable list of valid move positions.
      */
     public List<Position> getValidMoves() {
         //ob.firePropertyChange("validMovesUpdated", null, board.getValidMoves(currentPlayer));
@@ -321,6 +284,17 @@ public class GameOthello {
         return validMoves;
     }
 
+    /**
+     * Writes the valid moves of the current player in an array owned by the
+     * caller, without allocating.
+     *
+     * @param moves The array receiving the square indexes (row * size + col).
+     * @return The number of valid moves written.
+     */
+    public int generateMoves(int[] moves) {
+        return board.generateMoves(currentPlayer, moves);
+    }
+
     /**
      * Gets the size of the game board.
      *
@@ -338,7 +312,6 @@ public class GameOthello {
             undoMove();
         }
         undoMove();
-        board.countPieces();
         refreshGameState();
         ob.firePropertyChange("undo", null, board);
         
@@ -352,7 +325,6 @@ public class GameOthello {
             redoMove();
         }
         redoMove();
-        board.countPieces();
         refreshGameState();
         ob.firePropertyChange("redo", null, board);
       
@@ -368,37 +340,32 @@ public class GameOthello {
     }
 
     /**
-     * Undoes the last move made on the game board. This method restores the
-     * board to the previous state by extracting this state from the undo stack.
-     * If the stack is not empty after the undo, it updates the board with the
-     * new top state of the stack. If the stack is empty after undoing a state,
-     * this means there are no more states to restore, and in this case, it
-     * attempts to redo a move previously undone by the user.
+     * Undoes the last move made on the game board. The move is taken from the
+     * undo stack and taken back on the board: its square is emptied and the
+     * pieces it flipped are given back to the opponent. It is then the turn of
+     * the player who made it. Nothing happens if no move was played.
      */
     public void undoMove() {
         if (!undoStack.isEmpty()) {
-            redoStack.push(undoStack.pop()); // Get the top of undo stack and put it in redo stack
-            togglePlayer(); // Toggle because we go one step back, so it's the previous player's turn
-            if (!undoStack.isEmpty()) {
-                var grid = undoStack.peek(); // Get the top of the stack and update the board according to it
-                board.setBoard(grid);
-            } else {
-                redoMove(); // If in the initial case, undo is empty because we put the only element in redo, so we just call redo.
-            }
+            MoveRecord move = undoStack.pop();
+            board.unmakeMove(move);
+            currentPlayer = move.getColor();
+            board.setSideToMove(currentPlayer);
+            redoStack.push(move);
         }
     }
 
     /**
-     * Restores the last undone move by restoring the next state of the board.
+     * Restores the last undone move by playing it again with its recorded flips.
      */
     public void redoMove() {
         if (!redoStack.isEmpty()) {
-            var grid = redoStack.peek();
-            undoStack.push(redoStack.pop()); // Save current state before redo for undo
-            board.setBoard(grid);
-            togglePlayer();
+            MoveRecord move = redoStack.pop();
+            board.remakeMove(move);
+            currentPlayer = move.getNextPlayer();
+            board.setSideToMove(currentPlayer);
+            undoStack.push(move);
         }
-
     }
 
 }
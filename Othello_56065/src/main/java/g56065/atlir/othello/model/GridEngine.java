@@ -0,0 +1,218 @@
+package g56065.atlir.othello.model;
+
+/**
+ * Engine storing the board as a grid of colors. It works for every board size
+ * and checks the moves by walking the precomputed rays of the RayTable.
+ * Nothing is cached: every query scans the grid again, which keeps it simple
+ * enough to be trusted.
+ * No board uses it: MoveEngine.create() picks a bitboard engine for every
+ * size. It is kept only as the reference implementation of the rules, which
+ * the tests and the perft tool check the bitboard engines against.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public class GridEngine implements MoveEngine {
+
+    private final int size;
+    private final RayTable rays;
+    private final ColorPiece[] cells; // cells[row * size + col] = color of the piece, or null.
+
+    /**
+     * Constructor that creates an empty grid.
+     *
+     * @param size The size of the board.
+     */
+    public GridEngine(int size) {
+        this.size = size;
+        this.rays = RayTable.of(size);
+        this.cells = new ColorPiece[size * size];
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public ColorPiece getSquare(int square) {
+        return cells[square];
+    }
+
+    @Override
+    public void setSquare(int square, ColorPiece color) {
+        cells[square] = color;
+    }
+
+    @Override
+    public void clear() {
+        for (int square = 0; square < cells.length; square++) {
+            cells[square] = null;
+        }
+    }
+
+    @Override
+    public boolean isValidMove(int square, ColorPiece color) {
+        if (cells[square] != null) {
+            return false;
+        }
+        for (int dir = 0; dir < RayTable.DIRECTIONS; dir++) {
+            if (countCapturesInDirection(square, color, dir) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int countCaptures(int square, ColorPiece color) {
+        if (cells[square] != null) {
+            return 0;
+        }
+        int captures = 0;
+        for (int dir = 0; dir < RayTable.DIRECTIONS; dir++) {
+            captures += countCapturesInDirection(square, color, dir);
+        }
+        return captures;
+    }
+
+    @Override
+    public int makeMove(int square, ColorPiece color, long[] flips) {
+        for (int i = 0; i < flips.length; i++) {
+            flips[i] = 0;
+        }
+        if (cells[square] != null) {
+            return 0;
+        }
+        int captures = 0;
+        for (int dir = 0; dir < RayTable.DIRECTIONS; dir++) {
+            int length = countCapturesInDirection(square, color, dir);
+            int[] ray = rays.getRay(square, dir);
+            for (int i = 0; i < length; i++) {
+                setSquare(ray[i], color);
+                flips[ray[i] >>> 6] |= 1L << ray[i];
+            }
+            captures += length;
+        }
+        if (captures > 0) {
+            setSquare(square, color);
+        }
+        return captures;
+    }
+
+    @Override
+    public void unmakeMove(int square, ColorPiece color, long[] flips) {
+        setSquare(square, null);
+        setFlipped(flips, color.opposite());
+    }
+
+    @Override
+    public void remakeMove(int square, ColorPiece color, long[] flips) {
+        setFlipped(flips, color);
+        setSquare(square, color);
+    }
+
+    /**
+     * Gives a color to every square of a set of flipped squares.
+     *
+     * @param flips The flipped squares.
+     * @param color The new color of the squares.
+     */
+    private void setFlipped(long[] flips, ColorPiece color) {
+        for (int i = 0; i < flips.length; i++) {
+            long bits = flips[i];
+            while (bits != 0) {
+                setSquare((i << 6) + Long.numberOfTrailingZeros(bits), color);
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    @Override
+    public int generateMoves(ColorPiece color, int[] moves) {
+        int count = 0;
+        for (int square = 0; square < cells.length; square++) {
+            if (isValidMove(square, color)) {
+                moves[count++] = square;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public boolean hasValidMoves(ColorPiece color) {
+        for (int square = 0; square < cells.length; square++) {
+            if (isValidMove(square, color)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int countMoves(ColorPiece color) {
+        int count = 0;
+        for (int square = 0; square < cells.length; square++) {
+            if (isValidMove(square, color)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int countPieces(ColorPiece color) {
+        int count = 0;
+        for (ColorPiece cell : cells) {
+            if (cell == color) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int countEmpty() {
+        return countPieces(null);
+    }
+
+    @Override
+    public void copyPieces(long[] black, long[] white) {
+        for (int i = 0; i < black.length; i++) {
+            black[i] = 0;
+            white[i] = 0;
+        }
+        for (int square = 0; square < cells.length; square++) {
+            if (cells[square] == ColorPiece.BLACK) {
+                black[square >>> 6] |= 1L << square;
+            } else if (cells[square] == ColorPiece.WHITE) {
+                white[square >>> 6] |= 1L << square;
+            }
+        }
+    }
+
+    /**
+     * Counts the number of opponent pieces capturable in a given direction
+     * from a specified square.
+     *
+     * @param square The index of the starting square.
+     * @param currentColor The current player's color.
+     * @param dir The index of the direction to check.
+     * @return The number of opponent pieces capturable in the given direction.
+     */
+    private int countCapturesInDirection(int square, ColorPiece currentColor, int dir) {
+        int[] ray = rays.getRay(square, dir);
+        ColorPiece opponent = currentColor.opposite();
+        int captures = 0;
+
+        // Continue in the direction while opponent pieces are found
+        while (captures < ray.length && cells[ray[captures]] == opponent) {
+            captures++;
+        }
+
+        // The line must be closed by a piece of the current player
+        if (captures > 0 && captures < ray.length && cells[ray[captures]] == currentColor) {
+            return captures;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,75 @@
+package g56065.atlir.othello.model;
+
+/**
+ * Result of the analysis of a move on a board snapshot: whether the move is
+ * valid and which opponent pieces it captures. Instances are immutable and
+ * can be shared between threads.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public final class MoveAnalysis {
+
+    private final int square;
+    private final ColorPiece color;
+    private final SquareSet flips;
+    private final int captureCount;
+
+    /**
+     * Constructor for the MoveAnalysis class.
+     *
+     * @param square The index of the square of the move.
+     * @param color The color of the player making the move.
+     * @param flips The opponent pieces captured by the move.
+     */
+    public MoveAnalysis(int square, ColorPiece color, SquareSet flips) {
+        this.square = square;
+        this.color = color;
+        this.flips = flips;
+        this.captureCount = flips.size();
+    }
+
+    /**
+     * Gets the index of the square of the move.
+     *
+     * @return The index of the square.
+     */
+    public int getSquare() {
+        return square;
+    }
+
+    /**
+     * Gets the color of the player making the move.
+     *
+     * @return The color of the player.
+     */
+    public ColorPiece getColor() {
+        return color;
+    }
+
+    /**
+     * Checks if the move is valid, i.e. captures at least one piece.
+     *
+     * @return True if the move is valid.
+     */
+    public boolean isValid() {
+        return captureCount > 0;
+    }
+
+    /**
+     * Gets the number of opponent pieces captured by the move.
+     *
+     * @return The number of captured pieces, 0 if the move is not valid.
+     */
+    public int getCaptureCount() {
+        return captureCount;
+    }
+
+    /**
+     * Gets the opponent pieces captured by the move.
+     *
+     * @return The set of the captured squares, empty if the move is not valid.
+     */
+    public SquareSet getFlips() {
+        return flips;
+    }
+}
@@ -0,0 +1,158 @@
+package g56065.atlir.othello.model;
+
+/**
+ * Low-level representation of the pieces of a board, used by the Board class
+ * to store the position and to apply the rules of the game. Squares are
+ * identified by their index (row * size + col).
+ *
+ * Author: Youssef El Ouahabi
+ */
+public interface MoveEngine {
+
+    /**
+     * Returns the size of the board handled by this engine.
+     *
+     * @return The size of the board.
+     */
+    int getSize();
+
+    /**
+     * Gets the color of the piece on a square.
+     *
+     * @param square The index of the square.
+     * @return The color of the piece, or null if the square is empty.
+     */
+    ColorPiece getSquare(int square);
+
+    /**
+     * Places a piece on a square, or empties it.
+     *
+     * @param square The index of the square.
+     * @param color The color of the piece, or null to empty the square.
+     */
+    void setSquare(int square, ColorPiece color);
+
+    /**
+     * Removes all pieces from the board.
+     */
+    void clear();
+
+    /**
+     * Checks if a move on a square is valid for a specific color.
+     *
+     * @param square The index of the square.
+     * @param color The color of the player making the move.
+     * @return True if the move is valid, false otherwise.
+     */
+    boolean isValidMove(int square, ColorPiece color);
+
+    /**
+     * Counts the opponent pieces that a move would capture.
+     *
+     * @param square The index of the square.
+     * @param color The color of the player making the move.
+     * @return The number of captured pieces, 0 if the move is not valid.
+     */
+    int countCaptures(int square, ColorPiece color);
+
+    /**
+     * Plays a move in a single pass: checks it, computes the captured pieces
+     * and flips them. Nothing is changed if the move is not valid.
+     *
+     * @param square The index of the square.
+     * @param color The color of the player making the move.
+     * @param flips The words receiving the captured squares (bit row * size + col),
+     * cleared first. Its length must be at least SquareSet.wordsFor(size).
+     * @return The number of captured pieces, 0 if the move is not valid.
+     */
+    int makeMove(int square, ColorPiece color, long[] flips);
+
+    /**
+     * Takes back a move: empties its square and gives the flipped pieces back
+     * to the opponent. The cost only depends on the number of flipped pieces.
+     *
+     * @param square The index of the square of the move.
+     * @param color The color of the player who made the move.
+     * @param flips The squares flipped by the move.
+     */
+    void unmakeMove(int square, ColorPiece color, long[] flips);
+
+    /**
+     * Plays again a move whose flips are already known, without checking it.
+     *
+     * @param square The index of the square of the move.
+     * @param color The color of the player who made the move.
+     * @param flips The squares flipped by the move.
+     */
+    void remakeMove(int square, ColorPiece color, long[] flips);
+
+    /**
+     * Writes the indexes of all valid moves for a color in the given array, in
+     * increasing order.
+     *
+     * @param color The color of the player.
+     * @param moves The array receiving the moves, of length size * size at least.
+     * @return The number of valid moves.
+     */
+    int generateMoves(ColorPiece color, int[] moves);
+
+    /**
+     * Checks if a color has at least one valid move.
+     *
+     * @param color The color of the player.
+     * @return True if the player can play.
+     */
+    boolean hasValidMoves(ColorPiece color);
+
+    /**
+     * Counts the valid moves of a color (its mobility) without listing them.
+     *
+     * @param color The color of the player.
+     * @return The number of valid moves.
+     */
+    int countMoves(ColorPiece color);
+
+    /**
+     * Counts the pieces of a color in constant time.
+     *
+     * @param color The color of the pieces.
+     * @return The number of pieces of that color.
+     */
+    int countPieces(ColorPiece color);
+
+    /**
+     * Counts the empty squares in constant time.
+     *
+     * @return The number of empty squares.
+     */
+    int countEmpty();
+
+    /**
+     * Copies the pieces into lanes of 64-bit words, where the bit
+     * (row * size + col) is set for each piece of the color.
+     *
+     * @param black The words receiving the black pieces, cleared first.
+     * @param white The words receiving the white pieces, cleared first.
+     */
+    void copyPieces(long[] black, long[] white);
+
+    /**
+     * Creates the engine best suited for a given board size: a bitboard of
+     * one word up to 8x8, several words above. The GridEngine is never
+     * chosen, it only serves as a reference for the tests and the perft tool.
+     *
+     * @param size The size of the board, from 3 to 15.
+     * @return A new empty engine.
+     * @throws IllegalArgumentException If no engine handles the size.
+     */
+    static MoveEngine create(int size) {
+        if (size == BitBoard.SIZE) {
+            return new BitBoard();
+        } else if (size > BitBoard.SIZE && size <= WideBitBoard.MAX_SIZE) {
+            return new WideBitBoard(size);
+        } else if (size >= 3 && size < BitBoard.SIZE) {
+            return new SmallBitBoard(size);
+        }
+        throw new IllegalArgumentException("The board size must be between 3 and 15.");
+    }
+}
@@ -0,0 +1,99 @@
+package g56065.atlir.othello.model;
+
+/**
+ * Reusable list of moves stored as square indexes (row * size + col). It is
+ * filled by {@link Board#generateMoves(ColorPiece, MoveList)} without any
+ * allocation, so the same instance can be used for millions of generations.
+ * Not thread-safe.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public final class MoveList {
+
+    private final int[] squares;
+    private int size;
+
+    /**
+     * Constructor that creates an empty list able to hold every square of a
+     * board.
+     *
+     * @param boardSize The size of the board.
+     */
+    public MoveList(int boardSize) {
+        if (boardSize < 3 || boardSize > 15) {
+            throw new IllegalArgumentException("The board size must be between 3 and 15.");
+        }
+        this.squares = new int[boardSize * boardSize];
+    }
+
+    /**
+     * Returns the number of moves in the list.
+     *
+     * @return The number of moves.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the list is empty.
+     *
+     * @return True if the list contains no move.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns a move of the list.
+     *
+     * @param index The index of the move, between 0 and size() - 1.
+     * @return The square index of the move.
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size + ".");
+        }
+        return squares[index];
+    }
+
+    /**
+     * Checks if a square is one of the moves of the list.
+     *
+     * @param square The index of the square.
+     * @return True if the square is in the list.
+     */
+    public boolean contains(int square) {
+        for (int i = 0; i < size; i++) {
+            if (squares[i] == square) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes all the moves of the list.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Gives access to the array filled by the move generation.
+     *
+     * @return The array of the squares.
+     */
+    int[] buffer() {
+        return squares;
+    }
+
+    /**
+     * Sets the number of valid moves written in the buffer.
+     *
+     * @param size The number of moves.
+     */
+    void setSize(int size) {
+        this.size = size;
+    }
+}
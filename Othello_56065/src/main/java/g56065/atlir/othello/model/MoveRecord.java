@@ -0,0 +1,108 @@
+package g56065.atlir.othello.model;
+
+/**
+ * Record of a move played on the board: the square, the color of the player,
+ * the opponent pieces it flipped and the number of turns passed right after
+ * it. This is all that is needed to undo or redo the move, so the history of
+ * a game costs a few words per move. Instances are immutable.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public final class MoveRecord {
+
+    private final int square;
+    private final ColorPiece color;
+    private final SquareSet flips;
+    private final int passes;
+
+    /**
+     * Constructor for the MoveRecord class, for a move not followed by a pass.
+     *
+     * @param square The index of the square of the move.
+     * @param color The color of the player who made the move.
+     * @param flips The opponent pieces flipped by the move.
+     */
+    public MoveRecord(int square, ColorPiece color, SquareSet flips) {
+        this(square, color, flips, 0);
+    }
+
+    /**
+     * Constructor for the MoveRecord class.
+     *
+     * @param square The index of the square of the move.
+     * @param color The color of the player who made the move.
+     * @param flips The opponent pieces flipped by the move.
+     * @param passes The number of turns passed after the move (0 to 2).
+     */
+    public MoveRecord(int square, ColorPiece color, SquareSet flips, int passes) {
+        this.square = square;
+        this.color = color;
+        this.flips = flips;
+        this.passes = passes;
+    }
+
+    /**
+     * Returns a copy of this record with the number of turns passed after the move.
+     *
+     * @param passes The number of turns passed after the move (0 to 2).
+     * @return The new record.
+     */
+    public MoveRecord withPasses(int passes) {
+        return new MoveRecord(square, color, flips, passes);
+    }
+
+    /**
+     * Gets the index of the square of the move.
+     *
+     * @return The index of the square.
+     */
+    public int getSquare() {
+        return square;
+    }
+
+    /**
+     * Gets the color of the player who made the move.
+     *
+     * @return The color of the player.
+     */
+    public ColorPiece getColor() {
+        return color;
+    }
+
+    /**
+     * Gets the opponent pieces flipped by the move.
+     *
+     * @return The set of the flipped squares.
+     */
+    public SquareSet getFlips() {
+        return flips;
+    }
+
+    /**
+     * Gets the number of pieces flipped by the move.
+     *
+     * @return The number of flipped pieces.
+     */
+    public int getCaptureCount() {
+        return flips.size();
+    }
+
+    /**
+     * Gets the number of turns passed right after the move: 1 when the
+     * opponent could not play, 2 when nobody could play anymore.
+     *
+     * @return The number of passed turns.
+     */
+    public int getPasses() {
+        return passes;
+    }
+
+    /**
+     * Gets the player whose turn it was after the move and the passes.
+     *
+     * @return The color of the next player.
+     */
+    public ColorPiece getNextPlayer() {
+        return passes % 2 == 0 ? color.opposite() : color;
+    }
+}
@@ -3,13 +3,26 @@ package g56065.atlir.othello.model;
 /**
  * Represents a position on the Othello game board.
  * This class encapsulates the row and column of a position.
- * It provides methods to access and modify these coordinates.
- * 
+ * Positions are immutable: the ones inside the largest board are created once
+ * and shared, use {@link #of(int, int)} to get them without allocating.
+ *
  * Author: Youssef El Ouahabi
  */
-public class Position {
-    private int row; // The row of the position.
-    private int col; // The column of the position.
+public final class Position {
+
+    private static final int MAX_SIZE = 15;
+    private static final Position[] INTERNED = new Position[MAX_SIZE * MAX_SIZE];
+
+    static {
+        for (int row = 0; row < MAX_SIZE; row++) {
+            for (int col = 0; col < MAX_SIZE; col++) {
+                INTERNED[row * MAX_SIZE + col] = new Position(row, col);
+            }
+        }
+    }
+
+    private final int row; // The row of the position.
+    private final int col; // The column of the position.
 
     /**
      * Constructor for the Position class.
@@ -24,21 +37,27 @@ public class Position {
     }
 
     /**
-     * Gets the row of the position.
+     * Returns the shared instance of a position. Positions outside the largest
+     * board are created on demand.
      *
-     * @return The row of the position.
+     * @param row The row of the position.
+     * @param col The column of the position.
+     * @return The position.
      */
-    public int getRow() {
-        return row;
+    public static Position of(int row, int col) {
+        if (row >= 0 && row < MAX_SIZE && col >= 0 && col < MAX_SIZE) {
+            return INTERNED[row * MAX_SIZE + col];
+        }
+        return new Position(row, col);
     }
 
     /**
-     * Sets the row of the position.
+     * Gets the row of the position.
      *
-     * @param row The row to set for the position.
+     * @return The row of the position.
      */
-    public void setRow(int row) {
-        this.row = row;
+    public int getRow() {
+        return row;
     }
 
     /**
@@ -50,12 +69,25 @@ public class Position {
         return col;
     }
 
-    /**
-     * Sets the column of the position.
-     *
-     * @param col The column to set for the position.
-     */
-    public void setCol(int col) {
-        this.col = col;
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Position)) {
+            return false;
+        }
+        Position other = (Position) obj;
+        return row == other.row && col == other.col;
+    }
+
+    @Override
+    public int hashCode() {
+        return row * 31 + col;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + row + ", " + col + ")";
     }
 }
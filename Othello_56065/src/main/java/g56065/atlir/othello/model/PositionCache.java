@@ -0,0 +1,89 @@
+package g56065.atlir.othello.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of the data derived from positions, keyed by their Zobrist
+ * hash. When full, the least recently used position is evicted. Positions
+ * met again (undo, redo, transpositions during analysis) reuse their data
+ * instead of computing it again. Not thread-safe.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public class PositionCache {
+
+    private final Map<Long, PositionInfo> entries;
+    private long hits;
+    private long misses;
+
+    /**
+     * Constructor for the PositionCache class.
+     *
+     * @param capacity The maximum number of positions kept.
+     */
+    public PositionCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive.");
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, PositionInfo> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Looks up the data of a position.
+     *
+     * @param key The hash of the position.
+     * @return The data of the position, or null if it is not in the cache.
+     */
+    public PositionInfo get(long key) {
+        PositionInfo info = entries.get(key);
+        if (info == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return info;
+    }
+
+    /**
+     * Stores the data of a position, evicting the oldest one if needed.
+     *
+     * @param key The hash of the position.
+     * @param info The data of the position.
+     */
+    public void put(long key, PositionInfo info) {
+        entries.put(key, info);
+    }
+
+    /**
+     * Returns the number of positions in the cache.
+     *
+     * @return The number of positions.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of lookups that found their position.
+     *
+     * @return The number of hits.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that did not find their position.
+     *
+     * @return The number of misses.
+     */
+    public long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,63 @@
+package g56065.atlir.othello.model;
+
+/**
+ * Data derived from a position that is worth keeping in a cache: the valid
+ * moves of both colors, the piece counts and whether the game is over.
+ * Instances are immutable.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public final class PositionInfo {
+
+    private final SquareSet movesBlack;
+    private final SquareSet movesWhite;
+    private final int blackCount;
+    private final int whiteCount;
+    private final boolean terminal;
+
+    /**
+     * Constructor for the PositionInfo class.
+     *
+     * @param movesBlack The valid moves of black.
+     * @param movesWhite The valid moves of white.
+     * @param blackCount The number of black pieces.
+     * @param whiteCount The number of white pieces.
+     * @param terminal True if no player can play anymore.
+     */
+    public PositionInfo(SquareSet movesBlack, SquareSet movesWhite, int blackCount, int whiteCount, boolean terminal) {
+        this.movesBlack = movesBlack;
+        this.movesWhite = movesWhite;
+        this.blackCount = blackCount;
+        this.whiteCount = whiteCount;
+        this.terminal = terminal;
+    }
+
+    /**
+     * Gets the valid moves of a color.
+     *
+     * @param color The color of the player.
+     * @return The set of the squares where the player can play.
+     */
+    public SquareSet getValidMoves(ColorPiece color) {
+        return color == ColorPiece.BLACK ? movesBlack : movesWhite;
+    }
+
+    /**
+     * Gets the number of pieces of a color.
+     *
+     * @param color The color of the pieces.
+     * @return The number of pieces.
+     */
+    public int getPieceCount(ColorPiece color) {
+        return color == ColorPiece.BLACK ? blackCount : whiteCount;
+    }
+
+    /**
+     * Checks if the game is over in this position.
+     *
+     * @return True if the board is full or no player can play.
+     */
+    public boolean isTerminal() {
+        return terminal;
+    }
+}
@@ -0,0 +1,116 @@
+package g56065.atlir.othello.model;
+
+/**
+ * Precomputed geometry of a board size. For every square it gives the shared
+ * Position and, for each of the eight directions, the ordered indexes of the
+ * squares met when walking from it to the edge of the board. Walking a ray
+ * is then a simple loop over an array, without bounds checks nor allocation.
+ * The tables of every size are built once, when the class is loaded.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public final class RayTable {
+
+    /**
+     * Number of directions on the board.
+     */
+    public static final int DIRECTIONS = 8;
+
+    private static final RayTable[] TABLES = new RayTable[16];
+
+    static {
+        for (int size = 3; size < TABLES.length; size++) {
+            TABLES[size] = new RayTable(size);
+        }
+    }
+
+    private final int size;
+    private final Position[] positions;
+    private final int[][] rays; // rays[square * 8 + direction] = squares in that direction.
+
+    /**
+     * Constructor that computes the tables of a board size.
+     *
+     * @param size The size of the board.
+     */
+    private RayTable(int size) {
+        this.size = size;
+        this.positions = new Position[size * size];
+        this.rays = new int[size * size * DIRECTIONS][];
+        Direction[] directions = Direction.ALL;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int square = row * size + col;
+                positions[square] = Position.of(row, col);
+                for (int dir = 0; dir < DIRECTIONS; dir++) {
+                    int dx = directions[dir].getDeltaX();
+                    int dy = directions[dir].getDeltaY();
+                    int length = 0;
+                    while (isInside(row + (length + 1) * dx, col + (length + 1) * dy)) {
+                        length++;
+                    }
+                    int[] ray = new int[length];
+                    for (int i = 0; i < length; i++) {
+                        ray[i] = (row + (i + 1) * dx) * size + col + (i + 1) * dy;
+                    }
+                    rays[square * DIRECTIONS + dir] = ray;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the tables of a board size.
+     *
+     * @param size The size of the board (between 3 and 15).
+     * @return The shared tables.
+     */
+    public static RayTable of(int size) {
+        if (size < 3 || size >= TABLES.length) {
+            throw new IllegalArgumentException("The board size must be between 3 and 15.");
+        }
+        return TABLES[size];
+    }
+
+    /**
+     * Returns the size of the board described by these tables.
+     *
+     * @return The size of the board.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the shared position of a square.
+     *
+     * @param square The index of the square.
+     * @return The position of the square.
+     */
+    public Position getPosition(int square) {
+        return positions[square];
+    }
+
+    /**
+     * Returns the squares met when walking from a square in a direction, from
+     * the nearest to the edge of the board. The array must not be modified.
+     *
+     * @param square The index of the starting square.
+     * @param dir The index of the direction (ordinal of {@link Direction}).
+     * @return The indexes of the squares of the ray.
+     */
+    public int[] getRay(int square, int dir) {
+        return rays[square * DIRECTIONS + dir];
+    }
+
+    /**
+     * Checks if a position is within the board boundaries.
+     *
+     * @param row The row to check.
+     * @param col The column to check.
+     * @return True if the position is on the board, false otherwise.
+     */
+    private boolean isInside(int row, int col) {
+        return row >= 0 && row < size && col >= 0 && col < size;
+    }
+}
@@ -0,0 +1,276 @@
+package g56065.atlir.othello.model;
+
+/**
+ * Engine for the boards smaller than 8x8 (3 to 7). At most 49 squares, so
+ * each color fits in a single 64-bit word where the bit (row * size + col)
+ * is set when the square holds a piece of that color. Moves are generated by
+ * shifting the whole word in each direction, masked so that no bit wraps
+ * around a border, like the 8x8 BitBoard does.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public class SmallBitBoard implements MoveEngine {
+
+    private final int size;
+    private final long boardMask;   // Squares of the board.
+    private final int[] shifts;     // Index offset of a step in each direction.
+    private final long[] targets;   // Squares a step in each direction may land on.
+    private long black;
+    private long white;
+    private long legalBlack;        // Valid moves of black, valid while blackOutdated is false.
+    private long legalWhite;        // Valid moves of white, valid while whiteOutdated is false.
+    private boolean blackOutdated;
+    private boolean whiteOutdated;
+
+    /**
+     * Constructor that creates an empty board.
+     *
+     * @param size The size of the board (between 3 and 7).
+     */
+    public SmallBitBoard(int size) {
+        if (size < 3 || size >= BitBoard.SIZE) {
+            throw new IllegalArgumentException("The small bitboard handles sizes 3 to 7.");
+        }
+        this.size = size;
+        long board = 0;
+        long notFirstCol = 0;
+        long notLastCol = 0;
+        for (int square = 0; square < size * size; square++) {
+            board |= 1L << square;
+            if (square % size != 0) {
+                notFirstCol |= 1L << square;
+            }
+            if (square % size != size - 1) {
+                notLastCol |= 1L << square;
+            }
+        }
+        this.boardMask = board;
+        this.shifts = new int[]{1, -1, size, -size, size + 1, size - 1, -size + 1, -size - 1};
+        this.targets = new long[]{notFirstCol, notLastCol, board, board, notFirstCol, notLastCol, notFirstCol, notLastCol};
+        this.blackOutdated = true;
+        this.whiteOutdated = true;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public ColorPiece getSquare(int square) {
+        long bit = 1L << square;
+        if ((black & bit) != 0) {
+            return ColorPiece.BLACK;
+        } else if ((white & bit) != 0) {
+            return ColorPiece.WHITE;
+        }
+        return null;
+    }
+
+    @Override
+    public void setSquare(int square, ColorPiece color) {
+        long bit = 1L << square;
+        black &= ~bit;
+        white &= ~bit;
+        if (color == ColorPiece.BLACK) {
+            black |= bit;
+        } else if (color == ColorPiece.WHITE) {
+            white |= bit;
+        }
+        changed();
+    }
+
+    @Override
+    public void clear() {
+        black = 0;
+        white = 0;
+        changed();
+    }
+
+    @Override
+    public boolean isValidMove(int square, ColorPiece color) {
+        return flips(square, color) != 0;
+    }
+
+    @Override
+    public int countCaptures(int square, ColorPiece color) {
+        return Long.bitCount(flips(square, color));
+    }
+
+    @Override
+    public int makeMove(int square, ColorPiece color, long[] flips) {
+        long flipped = flips(square, color);
+        flips[0] = flipped;
+        if (flipped == 0) {
+            return 0;
+        }
+        if (color == ColorPiece.BLACK) {
+            black |= flipped | (1L << square);
+            white &= ~flipped;
+        } else {
+            white |= flipped | (1L << square);
+            black &= ~flipped;
+        }
+        changed();
+        return Long.bitCount(flipped);
+    }
+
+    @Override
+    public void unmakeMove(int square, ColorPiece color, long[] flips) {
+        long flipped = flips[0];
+        if (color == ColorPiece.BLACK) {
+            black &= ~(flipped | (1L << square));
+            white |= flipped;
+        } else {
+            white &= ~(flipped | (1L << square));
+            black |= flipped;
+        }
+        changed();
+    }
+
+    @Override
+    public void remakeMove(int square, ColorPiece color, long[] flips) {
+        long flipped = flips[0];
+        if (color == ColorPiece.BLACK) {
+            black |= flipped | (1L << square);
+            white &= ~flipped;
+        } else {
+            white |= flipped | (1L << square);
+            black &= ~flipped;
+        }
+        changed();
+    }
+
+    @Override
+    public int generateMoves(ColorPiece color, int[] moves) {
+        long legal = legal(color);
+        int count = 0;
+        while (legal != 0) {
+            moves[count++] = Long.numberOfTrailingZeros(legal);
+            legal &= legal - 1;
+        }
+        return count;
+    }
+
+    @Override
+    public boolean hasValidMoves(ColorPiece color) {
+        return legal(color) != 0;
+    }
+
+    @Override
+    public int countMoves(ColorPiece color) {
+        return Long.bitCount(legal(color));
+    }
+
+    @Override
+    public int countPieces(ColorPiece color) {
+        return Long.bitCount(color == ColorPiece.BLACK ? black : white);
+    }
+
+    @Override
+    public int countEmpty() {
+        return size * size - Long.bitCount(black | white);
+    }
+
+    @Override
+    public void copyPieces(long[] blackLanes, long[] whiteLanes) {
+        blackLanes[0] = black;
+        whiteLanes[0] = white;
+    }
+
+    /**
+     * Marks the valid moves of both colors as outdated after a change.
+     */
+    private void changed() {
+        blackOutdated = true;
+        whiteOutdated = true;
+    }
+
+    /**
+     * Returns the valid moves of a color, computed again only if a piece
+     * changed since the last time they were requested.
+     *
+     * @param color The color of the player.
+     * @return The mask of the valid moves.
+     */
+    private long legal(ColorPiece color) {
+        if (color == ColorPiece.BLACK) {
+            if (blackOutdated) {
+                legalBlack = legalMoves(black, white);
+                blackOutdated = false;
+            }
+            return legalBlack;
+        }
+        if (whiteOutdated) {
+            legalWhite = legalMoves(white, black);
+            whiteOutdated = false;
+        }
+        return legalWhite;
+    }
+
+    /**
+     * Computes the mask of all the valid moves of a player.
+     *
+     * @param player The pieces of the player.
+     * @param opponent The pieces of the opponent.
+     * @return The mask of the empty squares where the player can play.
+     */
+    private long legalMoves(long player, long opponent) {
+        long empty = ~(player | opponent) & boardMask;
+        long moves = 0;
+        for (int dir = 0; dir < RayTable.DIRECTIONS; dir++) {
+            // Extend runs of opponent pieces starting next to a player piece (at most size - 2 long)
+            long run = shift(player, dir) & opponent;
+            for (int step = 0; step < size - 3; step++) {
+                run |= shift(run, dir) & opponent;
+            }
+            moves |= shift(run, dir) & empty;
+        }
+        return moves;
+    }
+
+    /**
+     * Moves every bit of a mask one square in a direction. Bits leaving the
+     * board are dropped.
+     *
+     * @param mask The mask to shift.
+     * @param dir The index of the direction (0 to 7).
+     * @return The shifted mask.
+     */
+    private long shift(long mask, int dir) {
+        int amount = shifts[dir];
+        long moved = amount > 0 ? mask << amount : mask >>> -amount;
+        return moved & targets[dir];
+    }
+
+    /**
+     * Computes the opponent pieces captured by a move, as BitBoard.flips
+     * does: the bit of the move is shifted step by step in each direction
+     * while it lands on opponent pieces.
+     *
+     * @param square The index of the square.
+     * @param color The color of the player.
+     * @return The mask of the captured pieces, 0 if the move is not valid.
+     */
+    private long flips(int square, ColorPiece color) {
+        long move = 1L << square;
+        if (((black | white) & move) != 0) {
+            return 0;
+        }
+        long player = color == ColorPiece.BLACK ? black : white;
+        long opponent = color == ColorPiece.BLACK ? white : black;
+        long flipped = 0;
+        for (int dir = 0; dir < RayTable.DIRECTIONS; dir++) {
+            long line = 0;
+            long next = shift(move, dir);
+            while ((next & opponent) != 0) {
+                line |= next;
+                next = shift(next, dir);
+            }
+            if ((next & player) != 0) {
+                flipped |= line;
+            }
+        }
+        return flipped;
+    }
+}
@@ -0,0 +1,161 @@
+package g56065.atlir.othello.model;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of squares of a board, stored as 64-bit words where the bit
+ * (row * size + col) is set for each square of the set. One word is enough
+ * up to 8x8, four words cover a 15x15 board.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public final class SquareSet {
+
+    private final long[] words;
+
+    /**
+     * Constructor that keeps the given words without copying them.
+     *
+     * @param words The words of the set.
+     */
+    private SquareSet(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Creates a set from a copy of some words.
+     *
+     * @param words The words of the set.
+     * @return The new set.
+     */
+    public static SquareSet of(long[] words) {
+        return new SquareSet(words.clone());
+    }
+
+    /**
+     * Creates a set from words that the caller will never modify again.
+     *
+     * @param words The words of the set.
+     * @return The set using the array directly.
+     */
+    static SquareSet wrap(long[] words) {
+        return new SquareSet(words);
+    }
+
+    /**
+     * Gives access to the words of the set without copying. The array must
+     * not be modified.
+     *
+     * @return The words of the set.
+     */
+    long[] words() {
+        return words;
+    }
+
+    /**
+     * Returns the number of words needed for a board size.
+     *
+     * @param size The size of the board.
+     * @return The number of 64-bit words covering size * size squares.
+     */
+    public static int wordsFor(int size) {
+        return (size * size + 63) / 64;
+    }
+
+    /**
+     * Checks if a square belongs to the set.
+     *
+     * @param square The index of the square.
+     * @return True if the square is in the set.
+     */
+    public boolean contains(int square) {
+        int word = square >>> 6;
+        return word < words.length && (words[word] & (1L << square)) != 0;
+    }
+
+    /**
+     * Returns the number of squares in the set.
+     *
+     * @return The number of squares.
+     */
+    public int size() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Checks if the set is empty.
+     *
+     * @return True if the set contains no square.
+     */
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the first square of the set starting from a given index, which
+     * allows iterating without allocation:
+     * {@code for (int sq = set.nextSquare(0); sq >= 0; sq = set.nextSquare(sq + 1))}.
+     *
+     * @param from The first index to consider.
+     * @return The smallest square of the set greater or equal to from, or -1.
+     */
+    public int nextSquare(int from) {
+        int word = from >>> 6;
+        if (word >= words.length) {
+            return -1;
+        }
+        long bits = words[word] & (-1L << from);
+        while (bits == 0) {
+            word++;
+            if (word >= words.length) {
+                return -1;
+            }
+            bits = words[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Returns the number of words of the set.
+     *
+     * @return The number of words.
+     */
+    public int getWordCount() {
+        return words.length;
+    }
+
+    /**
+     * Returns a word of the set.
+     *
+     * @param index The index of the word.
+     * @return The 64 bits of the squares index * 64 to index * 64 + 63.
+     */
+    public long getWord(int index) {
+        return words[index];
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof SquareSet)) {
+            return false;
+        }
+        return Arrays.equals(words, ((SquareSet) obj).words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+}
@@ -0,0 +1,435 @@
+package g56065.atlir.othello.model;
+
+import java.util.Arrays;
+
+/**
+ * Finds the stable discs of a position: the discs that no sequence of moves
+ * can ever flip. The result is a lower bound of the real stability, computed
+ * in three steps.
+ * <ul>
+ * <li>The discs of the four edges are looked up in tables giving, for every
+ * configuration of an edge, the discs that can never be flipped whatever is
+ * played on that edge. A disc on an edge can only be flipped along it.</li>
+ * <li>A disc whose four lines (row, column and both diagonals) are full can
+ * never be flipped either.</li>
+ * <li>The stability then spreads: a disc is stable when, on each of the four
+ * axes, its line is full, or it touches the border, or one of its two
+ * neighbours on the axis is a stable disc of the same color.</li>
+ * </ul>
+ * The edge tables are built once, when the class is loaded, for the edges of
+ * up to {@value #MAX_TABLE_EDGE} squares. On the larger boards, only the
+ * discs of a full edge and the runs of one color starting from a corner are
+ * taken as stable on the edges. The 8x8 board is computed on whole 64-bit
+ * masks, the other sizes square by square.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public final class Stability {
+
+    /**
+     * Longest edge that has a table.
+     */
+    public static final int MAX_TABLE_EDGE = 10;
+
+    private static final int[][] AXES = {{0, 1}, {2, 3}, {4, 7}, {5, 6}}; // Opposite directions (Direction ordinals) of each axis
+    private static final int[][] EDGE_TABLES = new int[MAX_TABLE_EDGE + 1][]; // By length, stable discs of each edge
+    private static final int[] TERNARY = new int[1 << MAX_TABLE_EDGE]; // Base-3 value of the bits of an edge
+    private static final int[][][][] LINES = new int[16][][][]; // By size and axis, squares of each line
+    private static final int[][][] EDGES = new int[16][][]; // By size, squares of the four edges
+    private static final long[][] LINES_8 = new long[AXES.length][]; // Masks of the lines of each axis on 8x8
+    private static final long[] BORDER_8 = new long[AXES.length]; // Squares without a neighbour on an axis on 8x8
+
+    static {
+        for (int bits = 1; bits < TERNARY.length; bits++) {
+            TERNARY[bits] = TERNARY[bits >>> 1] * 3 + (bits & 1); // Bit i is worth 3^i
+        }
+        for (int length = 1; length <= MAX_TABLE_EDGE; length++) {
+            int[] table = new int[pow3(length)];
+            Arrays.fill(table, -1);
+            for (int index = 0; index < table.length; index++) {
+                edgeStable(length, table, index);
+            }
+            EDGE_TABLES[length] = table;
+        }
+        for (int size = 3; size < LINES.length; size++) {
+            RayTable rays = RayTable.of(size);
+            LINES[size] = new int[AXES.length][][];
+            for (int axis = 0; axis < AXES.length; axis++) {
+                LINES[size][axis] = lines(rays, axis);
+            }
+            EDGES[size] = edges(size);
+        }
+        RayTable rays = RayTable.of(BitBoard.SIZE);
+        for (int axis = 0; axis < AXES.length; axis++) {
+            int[][] lines = LINES[BitBoard.SIZE][axis];
+            LINES_8[axis] = new long[lines.length];
+            for (int i = 0; i < lines.length; i++) {
+                for (int square : lines[i]) {
+                    LINES_8[axis][i] |= 1L << square;
+                }
+            }
+            for (int square = 0; square < BitBoard.SIZE * BitBoard.SIZE; square++) {
+                if (rays.getRay(square, AXES[axis][0]).length == 0 || rays.getRay(square, AXES[axis][1]).length == 0) {
+                    BORDER_8[axis] |= 1L << square;
+                }
+            }
+        }
+    }
+
+    /**
+     * Private constructor, this class only holds static helpers.
+     */
+    private Stability() {
+    }
+
+    /**
+     * Computes the stable discs of a player on the 8x8 board.
+     *
+     * @param player The pieces of the player.
+     * @param opponent The pieces of the opponent.
+     * @return The mask of the stable discs of the player.
+     */
+    public static long stableDiscs(long player, long opponent) {
+        long occupied = player | opponent;
+        long fullH = fullLines(occupied, 0);
+        long fullV = fullLines(occupied, 1);
+        long fullD = fullLines(occupied, 2);
+        long fullA = fullLines(occupied, 3);
+        long stable = player & (edgeStable8(player, opponent) | fullH & fullV & fullD & fullA);
+        if (stable == 0) {
+            return 0;
+        }
+        fullH |= BORDER_8[0];
+        fullV |= BORDER_8[1];
+        fullD |= BORDER_8[2];
+        fullA |= BORDER_8[3];
+        while (true) {
+            long spread = player & ~stable
+                    & (fullH | BitBoard.shift(stable, 0) | BitBoard.shift(stable, 1))
+                    & (fullV | BitBoard.shift(stable, 2) | BitBoard.shift(stable, 3))
+                    & (fullD | BitBoard.shift(stable, 5) | BitBoard.shift(stable, 6))
+                    & (fullA | BitBoard.shift(stable, 4) | BitBoard.shift(stable, 7));
+            if (spread == 0) {
+                return stable;
+            }
+            stable |= spread;
+        }
+    }
+
+    /**
+     * Gives the squares of the full lines of an axis on the 8x8 board.
+     *
+     * @param occupied The occupied squares.
+     * @param axis The index of the axis.
+     * @return The squares of the lines of the axis without any empty square.
+     */
+    private static long fullLines(long occupied, int axis) {
+        long full = 0;
+        for (long line : LINES_8[axis]) {
+            if ((occupied & line) == line) {
+                full |= line;
+            }
+        }
+        return full;
+    }
+
+    /**
+     * Computes the stable discs of a player on a board of any size.
+     *
+     * @param size The size of the board (between 3 and 15).
+     * @param player The lanes of the pieces of the player.
+     * @param opponent The lanes of the pieces of the opponent.
+     * @param stable The lanes receiving the stable discs of the player,
+     * cleared first.
+     */
+    public static void stableDiscs(int size, long[] player, long[] opponent, long[] stable) {
+        if (size == BitBoard.SIZE) {
+            stable[0] = stableDiscs(player[0], opponent[0]);
+            return;
+        }
+        stableDiscsBySquare(size, player, opponent, stable);
+    }
+
+    /**
+     * Counts the stable discs of a player on a board of any size.
+     *
+     * @param size The size of the board (between 3 and 15).
+     * @param player The lanes of the pieces of the player.
+     * @param opponent The lanes of the pieces of the opponent.
+     * @return The number of stable discs of the player.
+     */
+    public static int countStable(int size, long[] player, long[] opponent) {
+        if (size == BitBoard.SIZE) {
+            return Long.bitCount(stableDiscs(player[0], opponent[0]));
+        }
+        long[] stable = new long[player.length];
+        stableDiscsBySquare(size, player, opponent, stable);
+        int count = 0;
+        for (long word : stable) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Computes the stable discs square by square, on any board size.
+     *
+     * @param size The size of the board.
+     * @param player The lanes of the pieces of the player.
+     * @param opponent The lanes of the pieces of the opponent.
+     * @param stable The lanes receiving the stable discs of the player.
+     */
+    static void stableDiscsBySquare(int size, long[] player, long[] opponent, long[] stable) {
+        RayTable rays = RayTable.of(size);
+        int words = stable.length;
+        long[][] full = new long[AXES.length][words];
+        for (int axis = 0; axis < AXES.length; axis++) {
+            for (int[] line : LINES[size][axis]) {
+                boolean filled = true;
+                for (int square : line) {
+                    filled &= isSet(player, square) || isSet(opponent, square);
+                }
+                if (filled) {
+                    for (int square : line) {
+                        full[axis][square >>> 6] |= 1L << square;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < words; i++) {
+            stable[i] = player[i] & full[0][i] & full[1][i] & full[2][i] & full[3][i];
+        }
+        for (int[] edge : EDGES[size]) {
+            int mine = 0;
+            int theirs = 0;
+            for (int i = 0; i < edge.length; i++) {
+                mine |= isSet(player, edge[i]) ? 1 << i : 0;
+                theirs |= isSet(opponent, edge[i]) ? 1 << i : 0;
+            }
+            int edgeStable = mine & edgeStable(edge.length, mine, theirs);
+            for (int i = 0; i < edge.length; i++) {
+                if ((edgeStable & 1 << i) != 0) {
+                    stable[edge[i] >>> 6] |= 1L << edge[i];
+                }
+            }
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int square = 0; square < size * size; square++) {
+                if (!isSet(player, square) || isSet(stable, square)) {
+                    continue;
+                }
+                boolean spread = true;
+                for (int axis = 0; axis < AXES.length && spread; axis++) {
+                    spread = isSet(full[axis], square)
+                            || isStableNeighbour(rays.getRay(square, AXES[axis][0]), stable)
+                            || isStableNeighbour(rays.getRay(square, AXES[axis][1]), stable);
+                }
+                if (spread) {
+                    stable[square >>> 6] |= 1L << square;
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gives the stable discs of an edge, of both colors.
+     *
+     * @param length The number of squares of the edge.
+     * @param player The bits of the player on the edge.
+     * @param opponent The bits of the opponent on the edge.
+     * @return The bits of the discs that can never be flipped along the edge.
+     */
+    static int edgeStable(int length, int player, int opponent) {
+        if (length <= MAX_TABLE_EDGE) {
+            return EDGE_TABLES[length][TERNARY[player] + 2 * TERNARY[opponent]];
+        }
+        int all = (1 << length) - 1;
+        if ((player | opponent) == all) {
+            return all;
+        }
+        int stable = 0;
+        for (int bits : new int[]{player, opponent}) {
+            stable |= Integer.lowestOneBit(~bits) - 1; // Run from the first corner
+            int last = 1 << (length - 1);
+            for (int bit = last; (bits & bit) != 0; bit >>>= 1) { // Run from the other corner
+                stable |= bit;
+            }
+        }
+        return stable;
+    }
+
+    /**
+     * Reads the stable discs of the four edges of the 8x8 board in the table.
+     *
+     * @param player The pieces of the player.
+     * @param opponent The pieces of the opponent.
+     * @return The mask of the stable discs of both colors on the edges.
+     */
+    private static long edgeStable8(long player, long opponent) {
+        int[] table = EDGE_TABLES[BitBoard.SIZE];
+        long stable = (long) table[TERNARY[(int) player & 0xFF] + 2 * TERNARY[(int) opponent & 0xFF]];
+        stable |= (long) table[TERNARY[(int) (player >>> 56)] + 2 * TERNARY[(int) (opponent >>> 56)]] << 56;
+        stable |= unpackColumn(table[TERNARY[packColumn(player, 0)] + 2 * TERNARY[packColumn(opponent, 0)]], 0);
+        stable |= unpackColumn(table[TERNARY[packColumn(player, 7)] + 2 * TERNARY[packColumn(opponent, 7)]], 7);
+        return stable;
+    }
+
+    /**
+     * Gathers the squares of a column of the 8x8 board into a byte.
+     */
+    private static int packColumn(long mask, int col) {
+        int bits = 0;
+        for (int row = 0; row < BitBoard.SIZE; row++) {
+            bits |= (int) (mask >>> (row * BitBoard.SIZE + col) & 1) << row;
+        }
+        return bits;
+    }
+
+    /**
+     * Spreads a byte back on a column of the 8x8 board.
+     */
+    private static long unpackColumn(int bits, int col) {
+        long mask = 0;
+        for (int row = 0; row < BitBoard.SIZE; row++) {
+            mask |= (long) (bits >>> row & 1) << (row * BitBoard.SIZE + col);
+        }
+        return mask;
+    }
+
+    /**
+     * Computes the stable discs of an edge configuration and those of every
+     * configuration reachable from it, by playing either color on each
+     * empty square. A disc is stable when it is still there, of the same
+     * color and stable, after every possible move.
+     *
+     * @param length The number of squares of the edge.
+     * @param table The table being filled, -1 for the unknown entries.
+     * @param index The base-3 index of the configuration: 1 for a disc of
+     * the first color, 2 for the second one.
+     * @return The bits of the stable discs of both colors.
+     */
+    private static int edgeStable(int length, int[] table, int index) {
+        if (table[index] >= 0) {
+            return table[index];
+        }
+        int[] colors = new int[length];
+        int first = 0;
+        int second = 0;
+        for (int i = 0, rest = index; i < length; i++, rest /= 3) {
+            colors[i] = rest % 3;
+            first |= colors[i] == 1 ? 1 << i : 0;
+            second |= colors[i] == 2 ? 1 << i : 0;
+        }
+        int stable = first | second;
+        for (int square = 0; square < length && stable != 0; square++) {
+            if (colors[square] != 0) {
+                continue;
+            }
+            for (int color = 1; color <= 2; color++) {
+                int flipped = edgeFlips(colors, square, color);
+                int next = index + color * pow3(square);
+                for (int i = 0; i < length; i++) {
+                    if ((flipped & 1 << i) != 0) {
+                        next += (3 - 2 * colors[i]) * pow3(i); // 1 becomes 2 and 2 becomes 1
+                    }
+                }
+                stable &= edgeStable(length, table, next) & ~flipped;
+            }
+        }
+        table[index] = stable;
+        return stable;
+    }
+
+    /**
+     * Finds the discs of an edge flipped along it by a move.
+     *
+     * @param colors The color of each square, 0 when empty.
+     * @param square The square played.
+     * @param color The color played.
+     * @return The bits of the flipped discs.
+     */
+    private static int edgeFlips(int[] colors, int square, int color) {
+        int flipped = 0;
+        for (int step = -1; step <= 1; step += 2) {
+            int line = 0;
+            int i = square + step;
+            while (i >= 0 && i < colors.length && colors[i] == 3 - color) {
+                line |= 1 << i;
+                i += step;
+            }
+            if (i >= 0 && i < colors.length && colors[i] == color) {
+                flipped |= line;
+            }
+        }
+        return flipped;
+    }
+
+    /**
+     * Lists the lines of an axis, each from one end to the other.
+     *
+     * @param rays The rays of the board size.
+     * @param axis The index of the axis.
+     * @return The squares of each line.
+     */
+    private static int[][] lines(RayTable rays, int axis) {
+        int size = rays.getSize();
+        int[][] lines = new int[4 * size][];
+        int count = 0;
+        for (int square = 0; square < size * size; square++) {
+            if (rays.getRay(square, AXES[axis][1]).length == 0) { // First square of a line
+                int[] ray = rays.getRay(square, AXES[axis][0]);
+                int[] line = new int[ray.length + 1];
+                line[0] = square;
+                System.arraycopy(ray, 0, line, 1, ray.length);
+                lines[count++] = line;
+            }
+        }
+        return Arrays.copyOf(lines, count);
+    }
+
+    /**
+     * Lists the four edges of a board, each along its row or column.
+     *
+     * @param size The size of the board.
+     * @return The squares of each edge.
+     */
+    private static int[][] edges(int size) {
+        int[][] edges = new int[4][size];
+        for (int i = 0; i < size; i++) {
+            edges[0][i] = i;
+            edges[1][i] = (size - 1) * size + i;
+            edges[2][i] = i * size;
+            edges[3][i] = i * size + size - 1;
+        }
+        return edges;
+    }
+
+    /**
+     * Checks if the neighbour at the start of a ray is off the board or a
+     * stable disc.
+     */
+    private static boolean isStableNeighbour(int[] ray, long[] stable) {
+        return ray.length == 0 || isSet(stable, ray[0]);
+    }
+
+    /**
+     * Checks if the bit of a square is set in some lanes.
+     */
+    private static boolean isSet(long[] lanes, int square) {
+        return (lanes[square >>> 6] & (1L << square)) != 0;
+    }
+
+    /**
+     * Computes a power of 3.
+     */
+    private static int pow3(int exponent) {
+        int value = 1;
+        for (int i = 0; i < exponent; i++) {
+            value *= 3;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,403 @@
+package g56065.atlir.othello.model;
+
+/**
+ * Engine for the boards larger than 8x8 (9 to 15). Each color is stored as a
+ * multi-word bitboard: an array of 64-bit lanes where the bit (row * size +
+ * col) is set when the square holds a piece of that color. Up to four lanes
+ * (256 bits) are used, enough for a 15x15 board. Moves are generated by
+ * shifting whole lanes like the 8x8 BitBoard does, and the captures of a
+ * move by shifting its single bit with the same steps and column masks.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public class WideBitBoard implements MoveEngine {
+
+    /**
+     * The largest board size handled by this engine.
+     */
+    public static final int MAX_SIZE = 15;
+
+    private final int size;
+    private final int words;
+    private final long[] black;
+    private final long[] white;
+    private final int[] shifts;     // Index offset of a step in each direction.
+    private final long[][] targets; // Squares a step in each direction may land on.
+
+    private final long[] legalBlack; // Valid moves of black, computed again only after a change.
+    private final long[] legalWhite; // Valid moves of white, computed again only after a change.
+    private boolean blackOutdated = true;
+    private boolean whiteOutdated = true;
+
+    // Work lanes reused by the move generation.
+    private final long[] run;
+    private final long[] empty;
+
+    /**
+     * Constructor that creates an empty board.
+     *
+     * @param size The size of the board (between 9 and 15).
+     */
+    public WideBitBoard(int size) {
+        if (size <= BitBoard.SIZE || size > MAX_SIZE) {
+            throw new IllegalArgumentException("The wide bitboard handles sizes 9 to 15.");
+        }
+        this.size = size;
+        this.words = (size * size + 63) / 64;
+        this.black = new long[words];
+        this.white = new long[words];
+        this.run = new long[words];
+        this.empty = new long[words];
+        this.legalBlack = new long[words];
+        this.legalWhite = new long[words];
+
+        long[] board = new long[words];
+        long[] notFirstCol = new long[words];
+        long[] notLastCol = new long[words];
+        for (int square = 0; square < size * size; square++) {
+            board[square >>> 6] |= 1L << square;
+            if (square % size != 0) {
+                notFirstCol[square >>> 6] |= 1L << square;
+            }
+            if (square % size != size - 1) {
+                notLastCol[square >>> 6] |= 1L << square;
+            }
+        }
+        this.shifts = new int[]{1, -1, size, -size, size + 1, size - 1, -size + 1, -size - 1};
+        this.targets = new long[][]{notFirstCol, notLastCol, board, board, notFirstCol, notLastCol, notFirstCol, notLastCol};
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public ColorPiece getSquare(int square) {
+        long bit = 1L << square;
+        if ((black[square >>> 6] & bit) != 0) {
+            return ColorPiece.BLACK;
+        } else if ((white[square >>> 6] & bit) != 0) {
+            return ColorPiece.WHITE;
+        }
+        return null;
+    }
+
+    @Override
+    public void setSquare(int square, ColorPiece color) {
+        int word = square >>> 6;
+        long bit = 1L << square;
+        black[word] &= ~bit;
+        white[word] &= ~bit;
+        if (color == ColorPiece.BLACK) {
+            black[word] |= bit;
+        } else if (color == ColorPiece.WHITE) {
+            white[word] |= bit;
+        }
+        changed();
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < words; i++) {
+            black[i] = 0;
+            white[i] = 0;
+        }
+        changed();
+    }
+
+    @Override
+    public boolean isValidMove(int square, ColorPiece color) {
+        return countCaptures(square, color) > 0;
+    }
+
+    @Override
+    public int countCaptures(int square, ColorPiece color) {
+        return computeFlips(square, color, null);
+    }
+
+    @Override
+    public int makeMove(int square, ColorPiece color, long[] flips) {
+        for (int i = 0; i < words; i++) {
+            flips[i] = 0;
+        }
+        int captures = computeFlips(square, color, flips);
+        if (captures == 0) {
+            return 0;
+        }
+        long[] player = color == ColorPiece.BLACK ? black : white;
+        long[] opponent = color == ColorPiece.BLACK ? white : black;
+        for (int i = 0; i < words; i++) {
+            player[i] |= flips[i];
+            opponent[i] &= ~flips[i];
+        }
+        player[square >>> 6] |= 1L << square;
+        changed();
+        return captures;
+    }
+
+    @Override
+    public int generateMoves(ColorPiece color, int[] moves) {
+        long[] legal = legal(color);
+        int count = 0;
+        for (int i = 0; i < words; i++) {
+            long bits = legal[i];
+            while (bits != 0) {
+                moves[count++] = (i << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public boolean hasValidMoves(ColorPiece color) {
+        long[] legal = legal(color);
+        for (int i = 0; i < words; i++) {
+            if (legal[i] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int countMoves(ColorPiece color) {
+        long[] legal = legal(color);
+        int count = 0;
+        for (int i = 0; i < words; i++) {
+            count += Long.bitCount(legal[i]);
+        }
+        return count;
+    }
+
+    @Override
+    public int countPieces(ColorPiece color) {
+        long[] pieces = color == ColorPiece.BLACK ? black : white;
+        int count = 0;
+        for (int i = 0; i < words; i++) {
+            count += Long.bitCount(pieces[i]);
+        }
+        return count;
+    }
+
+    @Override
+    public int countEmpty() {
+        return size * size - countPieces(ColorPiece.BLACK) - countPieces(ColorPiece.WHITE);
+    }
+
+    @Override
+    public void copyPieces(long[] blackLanes, long[] whiteLanes) {
+        System.arraycopy(black, 0, blackLanes, 0, words);
+        System.arraycopy(white, 0, whiteLanes, 0, words);
+    }
+
+    @Override
+    public void unmakeMove(int square, ColorPiece color, long[] flips) {
+        long[] player = color == ColorPiece.BLACK ? black : white;
+        long[] opponent = color == ColorPiece.BLACK ? white : black;
+        for (int i = 0; i < words; i++) {
+            player[i] &= ~flips[i];
+            opponent[i] |= flips[i];
+        }
+        player[square >>> 6] &= ~(1L << square);
+        changed();
+    }
+
+    @Override
+    public void remakeMove(int square, ColorPiece color, long[] flips) {
+        long[] player = color == ColorPiece.BLACK ? black : white;
+        long[] opponent = color == ColorPiece.BLACK ? white : black;
+        for (int i = 0; i < words; i++) {
+            player[i] |= flips[i];
+            opponent[i] &= ~flips[i];
+        }
+        player[square >>> 6] |= 1L << square;
+        changed();
+    }
+
+    /**
+     * Marks the valid moves of both colors as outdated after a change.
+     */
+    private void changed() {
+        blackOutdated = true;
+        whiteOutdated = true;
+    }
+
+    /**
+     * Returns the lanes of the valid moves of a color, computed again only if
+     * a piece changed since the last time they were requested.
+     *
+     * @param color The color of the player.
+     * @return The lanes of the valid moves, owned by the engine.
+     */
+    private long[] legal(ColorPiece color) {
+        if (color == ColorPiece.BLACK) {
+            if (blackOutdated) {
+                legalMoves(black, white, legalBlack);
+                blackOutdated = false;
+            }
+            return legalBlack;
+        }
+        if (whiteOutdated) {
+            legalMoves(white, black, legalWhite);
+            whiteOutdated = false;
+        }
+        return legalWhite;
+    }
+
+    /**
+     * Computes the pieces captured by a move, as BitBoard.flips does: the bit
+     * of the move is shifted step by step in each direction while it lands
+     * on opponent pieces. A single bit is shifted as an index, the column
+     * masks of the lane shifts dropping the steps that wrap around the board.
+     *
+     * @param square The index of the square.
+     * @param color The color of the player.
+     * @param flips The lanes receiving the captured squares, or null to only count them.
+     * @return The number of captured pieces, 0 if the move is not valid.
+     */
+    private int computeFlips(int square, ColorPiece color, long[] flips) {
+        if (getSquare(square) != null) {
+            return 0;
+        }
+        long[] player = color == ColorPiece.BLACK ? black : white;
+        long[] opponent = color == ColorPiece.BLACK ? white : black;
+        int captures = 0;
+        for (int dir = 0; dir < 8; dir++) {
+            int step = shifts[dir];
+            long[] target = targets[dir];
+            int next = square + step;
+            int length = 0;
+            while (isSet(target, next) && isSet(opponent, next)) {
+                next += step;
+                length++;
+            }
+            if (length > 0 && isSet(target, next) && isSet(player, next)) {
+                captures += length;
+                if (flips != null) {
+                    for (int flipped = square + step; flipped != next; flipped += step) {
+                        flips[flipped >>> 6] |= 1L << flipped;
+                    }
+                }
+            }
+        }
+        return captures;
+    }
+
+    /**
+     * Computes the lanes of all the valid moves of a player.
+     *
+     * @param player The pieces of the player.
+     * @param opponent The pieces of the opponent.
+     * @param moves The lanes receiving the empty squares where the player can play.
+     */
+    private void legalMoves(long[] player, long[] opponent, long[] moves) {
+        long[] board = targets[2];
+        for (int i = 0; i < words; i++) {
+            empty[i] = ~(player[i] | opponent[i]) & board[i];
+            moves[i] = 0;
+        }
+        for (int dir = 0; dir < 8; dir++) {
+            // Extend runs of opponent pieces starting next to a player piece (at most size - 2 long)
+            shift(player, dir, run);
+            and(run, opponent, run);
+            for (int step = 0; step < size - 3; step++) {
+                shiftOr(run, dir, opponent);
+            }
+            shiftOr(run, dir, empty, moves);
+        }
+    }
+
+    /**
+     * Moves every bit of the lanes one square in a direction. Bits leaving the
+     * board are dropped.
+     *
+     * @param src The lanes to shift.
+     * @param dir The index of the direction (0 to 7).
+     * @param dst The lanes receiving the result (can be src).
+     */
+    private void shift(long[] src, int dir, long[] dst) {
+        int amount = shifts[dir];
+        long[] target = targets[dir];
+        if (amount > 0) {
+            for (int i = words - 1; i > 0; i--) {
+                dst[i] = ((src[i] << amount) | (src[i - 1] >>> (64 - amount))) & target[i];
+            }
+            dst[0] = (src[0] << amount) & target[0];
+        } else {
+            amount = -amount;
+            for (int i = 0; i < words - 1; i++) {
+                dst[i] = ((src[i] >>> amount) | (src[i + 1] << (64 - amount))) & target[i];
+            }
+            dst[words - 1] = (src[words - 1] >>> amount) & target[words - 1];
+        }
+    }
+
+    /**
+     * Extends a run by one step: run |= shift(run) & mask.
+     *
+     * @param run The lanes of the run, updated in place.
+     * @param dir The index of the direction (0 to 7).
+     * @param mask The squares the run may extend to.
+     */
+    private void shiftOr(long[] run, int dir, long[] mask) {
+        shiftOr(run, dir, mask, run);
+    }
+
+    /**
+     * Computes dst |= shift(src) & mask, word by word.
+     *
+     * @param src The lanes to shift.
+     * @param dir The index of the direction (0 to 7).
+     * @param mask The squares kept after the shift.
+     * @param dst The lanes receiving the result.
+     */
+    private void shiftOr(long[] src, int dir, long[] mask, long[] dst) {
+        int amount = shifts[dir];
+        long[] target = targets[dir];
+        if (amount > 0) {
+            for (int i = words - 1; i >= 0; i--) {
+                long shifted = src[i] << amount;
+                if (i > 0) {
+                    shifted |= src[i - 1] >>> (64 - amount);
+                }
+                dst[i] |= shifted & target[i] & mask[i];
+            }
+        } else {
+            amount = -amount;
+            for (int i = 0; i < words; i++) {
+                long shifted = src[i] >>> amount;
+                if (i < words - 1) {
+                    shifted |= src[i + 1] << (64 - amount);
+                }
+                dst[i] |= shifted & target[i] & mask[i];
+            }
+        }
+    }
+
+    /**
+     * Computes the intersection of two sets of lanes.
+     *
+     * @param a The first lanes.
+     * @param b The second lanes.
+     * @param dst The lanes receiving a &amp; b.
+     */
+    private void and(long[] a, long[] b, long[] dst) {
+        for (int i = 0; i < words; i++) {
+            dst[i] = a[i] & b[i];
+        }
+    }
+
+    /**
+     * Checks if the bit of a square is set in some lanes.
+     *
+     * @param lanes The lanes to read.
+     * @param square The index of the square, off the lanes when negative or
+     * too large.
+     * @return True if the bit is set, false off the lanes.
+     */
+    private boolean isSet(long[] lanes, int square) {
+        return square >= 0 && square < words << 6 && (lanes[square >>> 6] & (1L << square)) != 0;
+    }
+}
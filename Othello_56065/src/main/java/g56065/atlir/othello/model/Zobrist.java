@@ -0,0 +1,108 @@
+package g56065.atlir.othello.model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys used to compute the Zobrist hash of a position: the XOR of one
+ * key per piece on the board, plus one key when white is to move. The hash
+ * can be updated incrementally when a piece is placed or flipped, and is the
+ * same for equal positions. Keys are drawn from a fixed seed so that hashes
+ * are stable from one run to another.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public final class Zobrist {
+
+    /**
+     * Key added to the hash when white is the side to move.
+     */
+    public static final long WHITE_TO_MOVE;
+
+    private static final int MAX_SQUARES = 15 * 15;
+    private static final long[] BLACK_KEYS = new long[MAX_SQUARES];
+    private static final long[] WHITE_KEYS = new long[MAX_SQUARES];
+    private static final long[] FLIP_KEYS = new long[MAX_SQUARES];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x0DE110L);
+        for (int square = 0; square < MAX_SQUARES; square++) {
+            BLACK_KEYS[square] = random.nextLong();
+            WHITE_KEYS[square] = random.nextLong();
+            FLIP_KEYS[square] = BLACK_KEYS[square] ^ WHITE_KEYS[square];
+        }
+        WHITE_TO_MOVE = random.nextLong();
+    }
+
+    /**
+     * Private constructor, this class only holds static keys.
+     */
+    private Zobrist() {
+    }
+
+    /**
+     * Returns the key of a piece on a square.
+     *
+     * @param color The color of the piece, or null for an empty square.
+     * @param square The index of the square.
+     * @return The key of the piece, 0 for an empty square.
+     */
+    public static long pieceKey(ColorPiece color, int square) {
+        if (color == null) {
+            return 0;
+        }
+        return color == ColorPiece.BLACK ? BLACK_KEYS[square] : WHITE_KEYS[square];
+    }
+
+    /**
+     * Returns the change of the hash when the piece of a square is flipped.
+     *
+     * @param square The index of the square.
+     * @return The XOR of the black and white keys of the square.
+     */
+    public static long flipKey(int square) {
+        return FLIP_KEYS[square];
+    }
+
+    /**
+     * Returns the change of the hash when a set of squares is flipped.
+     *
+     * @param flips The words of the flipped squares.
+     * @return The XOR of the flip keys of all the squares.
+     */
+    public static long flipKey(long[] flips) {
+        long key = 0;
+        for (int i = 0; i < flips.length; i++) {
+            long bits = flips[i];
+            while (bits != 0) {
+                key ^= FLIP_KEYS[(i << 6) + Long.numberOfTrailingZeros(bits)];
+                bits &= bits - 1;
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Computes the hash of a position from scratch.
+     *
+     * @param black The words of the black pieces.
+     * @param white The words of the white pieces.
+     * @param sideToMove The color of the player to move.
+     * @return The hash of the position.
+     */
+    public static long hash(long[] black, long[] white, ColorPiece sideToMove) {
+        long key = sideToMove == ColorPiece.WHITE ? WHITE_TO_MOVE : 0;
+        for (int i = 0; i < black.length; i++) {
+            long bits = black[i];
+            while (bits != 0) {
+                key ^= BLACK_KEYS[(i << 6) + Long.numberOfTrailingZeros(bits)];
+                bits &= bits - 1;
+            }
+            bits = white[i];
+            while (bits != 0) {
+                key ^= WHITE_KEYS[(i << 6) + Long.numberOfTrailingZeros(bits)];
+                bits &= bits - 1;
+            }
+        }
+        return key;
+    }
+}
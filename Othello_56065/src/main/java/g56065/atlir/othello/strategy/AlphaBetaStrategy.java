@@ -0,0 +1,380 @@
+package g56065.atlir.othello.strategy;
+
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import g56065.atlir.othello.model.GameOthello;
+import g56065.atlir.othello.strategy.book.BookMove;
+import g56065.atlir.othello.strategy.book.OpeningBook;
+import g56065.atlir.othello.strategy.search.EndgameSolver;
+import g56065.atlir.othello.strategy.search.ParallelSearch;
+import g56065.atlir.othello.strategy.search.PatternEvaluator;
+import g56065.atlir.othello.strategy.search.ProbCut;
+import g56065.atlir.othello.strategy.search.SearchBoard;
+import g56065.atlir.othello.strategy.search.SearchLimits;
+import g56065.atlir.othello.strategy.search.SearchResult;
+import g56065.atlir.othello.strategy.search.TranspositionTable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * The AlphaBetaStrategy class implements the Strategy interface with a
+ * negamax alpha-beta search looking several moves ahead, within a time or
+ * node budget. Positions are scored by patterns on the trained board sizes.
+ * The search runs on all the cores of the machine by default, and the last
+ * moves of the game are solved exactly. On the sizes calibrated for it, the
+ * search prunes with Multi-ProbCut the moves that shallow searches show to be
+ * almost surely irrelevant, which takes it several plies deeper.
+ *
+ * While the opponent thinks, the strategy can ponder: it searches the
+ * position after the reply it expects, taken from the transposition table,
+ * or the position of the opponent itself when no reply is expected. If the
+ * expected reply is played, the search goes on for the rest of the budget
+ * and its move is played; otherwise it is stopped, and the next search still
+ * finds its results in the shared table.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public class AlphaBetaStrategy implements Strategy {
+
+    /**
+     * Time budget used by default for each move, in milliseconds.
+     */
+    public static final long DEFAULT_TIME_MILLIS = 500;
+
+    /**
+     * Memory given by default to the transposition table, in bytes.
+     */
+    public static final long DEFAULT_TABLE_BYTES = 16L << 20;
+
+    private final ParallelSearch search;
+    private final SearchLimits limits;
+    private OpeningBook book;
+    private volatile SearchResult lastResult;
+    private volatile boolean stopRequested; // Stop of chooseMove, kept across the end of a ponder.
+    private Consumer<SearchResult> progress;
+    // The ponder state is guarded by the lock of chooseMove, which ends the ponder on its own thread
+    private boolean ponderingEnabled = true;
+    private ExecutorService ponderThread; // Created on the first ponder.
+    private Future<SearchResult> pondering; // Null when not pondering.
+    private BoardSnapshot ponderedPosition;
+    private ColorPiece ponderedPlayer;
+    private long ponderStart;
+    private int ponderHits;
+
+    /**
+     * Constructor that uses the default time budget.
+     */
+    public AlphaBetaStrategy() {
+        this(SearchLimits.ofTime(DEFAULT_TIME_MILLIS));
+    }
+
+    /**
+     * Constructor that searches on all the available cores.
+     *
+     * @param limits The budget of the search for each move.
+     */
+    public AlphaBetaStrategy(SearchLimits limits) {
+        this(limits, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for the AlphaBetaStrategy class.
+     *
+     * @param limits The budget of the search for each move.
+     * @param threads The number of search threads.
+     */
+    public AlphaBetaStrategy(SearchLimits limits, int threads) {
+        if (limits == null) {
+            throw new IllegalArgumentException("Limits cannot be null.");
+        }
+        this.limits = limits;
+        this.search = new ParallelSearch(threads, PatternEvaluator::new, new TranspositionTable(DEFAULT_TABLE_BYTES),
+                new EndgameSolver(), ProbCut::forSize);
+    }
+
+    /**
+     * Takes the move of the opening book, or else searches the best move. A
+     * search pondering the same position is finished instead of starting a
+     * new one.
+     *
+     * @param snapshot The position of the board.
+     * @param player The color of the player to move.
+     * @param limits The budget of the search, or null for the budget given
+     * to the constructor.
+     * @return The chosen move with its score and statistics.
+     */
+    @Override
+    public synchronized SearchResult chooseMove(BoardSnapshot snapshot, ColorPiece player, SearchLimits limits) {
+        if (snapshot == null || player == null) {
+            throw new IllegalArgumentException("Snapshot and player cannot be null.");
+        }
+        SearchLimits budget = limits == null ? this.limits : limits;
+        long start = System.nanoTime();
+        SearchResult pondered = finishPondering(snapshot, player, budget);
+        BookMove known = book == null ? null : book.lookup(snapshot, player);
+        if (known != null) {
+            lastResult = new SearchResult(known.getMove(), known.getScore(), 0, 0, System.nanoTime() - start);
+        } else if (pondered != null) {
+            lastResult = pondered;
+        } else {
+            search.setProgressListener(progress);
+            try {
+                lastResult = search.search(snapshot, player, budget);
+            } finally {
+                search.setProgressListener(null);
+            }
+        }
+        return lastResult;
+    }
+
+    /**
+     * Stops the running search, which returns the best move of its last
+     * finished iteration.
+     */
+    @Override
+    public void stop() {
+        stopRequested = true;
+        search.stop();
+    }
+
+    /**
+     * Clears a previous stop request before the next search.
+     */
+    @Override
+    public void resetStop() {
+        stopRequested = false;
+        search.resetStop();
+    }
+
+    /**
+     * Sets the listener told of the best move after each finished depth of
+     * the next searches. Searches made while pondering are not reported.
+     *
+     * @param listener The listener, or null for none.
+     */
+    @Override
+    public void setProgressListener(Consumer<SearchResult> listener) {
+        this.progress = listener;
+    }
+
+    /**
+     * Starts searching in the background while the opponent thinks. The
+     * position searched is the one after the reply found in the
+     * transposition table, which is the reply expected by the last search,
+     * or the position of the opponent when there is none. Nothing is done if
+     * the same position is already pondered, if pondering is disabled or if
+     * the game is over.
+     *
+     * @param game The Othello game, with the opponent to move.
+     */
+    @Override
+    public synchronized void ponder(GameOthello game) {
+        if (!ponderingEnabled || game.isGameOver()) {
+            return;
+        }
+        BoardSnapshot position = game.getBoard().snapshot();
+        ColorPiece player = game.getCurrentPlayer();
+        int reply = expectedReply(position, player);
+        if (reply >= 0) {
+            SearchBoard board = new SearchBoard(position, false);
+            board.makeMove(reply, player, new long[board.getWordCount()]);
+            if (board.hasValidMoves(player.opposite())) {
+                position = board.snapshot();
+                player = player.opposite();
+            }
+        }
+        if (isPondering(position, player)) {
+            return;
+        }
+        stopPondering();
+        if (book != null && book.lookup(position, player) != null) {
+            return; // The answer is known at once
+        }
+        if (ponderThread == null) {
+            ponderThread = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "search-ponder");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        BoardSnapshot root = position;
+        ColorPiece side = player;
+        SearchLimits ponderLimits = new SearchLimits(limits.getMaxDepth(), 0, 0); // Until stopped
+        ponderedPosition = root;
+        ponderedPlayer = side;
+        ponderStart = System.nanoTime();
+        search.resetStop(); // Before queuing, so that a stop coming first is kept
+        pondering = ponderThread.submit(() -> search.search(root, side, ponderLimits));
+    }
+
+    /**
+     * Stops the background search and waits for its threads to be free. The
+     * results it stored in the transposition table are kept.
+     */
+    @Override
+    public synchronized void stopPondering() {
+        if (pondering != null) {
+            join(pondering, true);
+            pondering = null;
+        }
+    }
+
+    /**
+     * Enables or disables pondering. Disabling it stops a running ponder.
+     *
+     * @param enabled True to search while the opponent thinks.
+     */
+    public synchronized void setPondering(boolean enabled) {
+        this.ponderingEnabled = enabled;
+        if (!enabled) {
+            stopPondering();
+        }
+    }
+
+    /**
+     * Counts the moves played from the search of the expected position,
+     * after the opponent played the reply that was expected.
+     *
+     * @return The number of ponder hits since the creation of the strategy.
+     */
+    public synchronized int getPonderHits() {
+        return ponderHits;
+    }
+
+    /**
+     * Ends the background search when the strategy has to move, with the
+     * lock of chooseMove held. On a ponder
+     * hit, the search goes on until the budget is spent, counted from the
+     * start of the ponder, or until its last depth is done for a fixed
+     * depth. Budgets in nodes cannot be compared with a search of unknown
+     * length, so the position is searched again, on a warm table.
+     *
+     * @param snapshot The position to play.
+     * @param player The color of the player to move.
+     * @param limits The budget of the move.
+     * @return The result of the ponder, or null if the position must be
+     * searched.
+     */
+    private SearchResult finishPondering(BoardSnapshot snapshot, ColorPiece player, SearchLimits limits) {
+        if (pondering == null) {
+            return null;
+        }
+        if (!isPondering(snapshot, player) || limits.getMaxDepth() != this.limits.getMaxDepth()
+                || (limits.getTimeMillis() == 0 && limits.getMaxDepth() == 0)) {
+            stopPondering();
+            return null;
+        }
+        if (limits.getTimeMillis() > 0) {
+            long left = limits.getTimeMillis() - (System.nanoTime() - ponderStart) / 1_000_000L;
+            try {
+                pondering.get(Math.max(0, left), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // The budget is spent, the search is stopped below
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("The ponder search failed.", e.getCause());
+            }
+        }
+        SearchResult result = join(pondering, limits.getTimeMillis() > 0);
+        pondering = null;
+        if (result.getDepth() == 0) {
+            return null; // Not even one iteration was finished
+        }
+        ponderHits++;
+        return result;
+    }
+
+    /**
+     * Checks if the background search is running on a position.
+     *
+     * @param snapshot The position.
+     * @param player The color of the player to move.
+     * @return True if this position is pondered.
+     */
+    private boolean isPondering(BoardSnapshot snapshot, ColorPiece player) {
+        return pondering != null && ponderedPlayer == player
+                && ponderedPosition.getPieces(ColorPiece.BLACK).equals(snapshot.getPieces(ColorPiece.BLACK))
+                && ponderedPosition.getPieces(ColorPiece.WHITE).equals(snapshot.getPieces(ColorPiece.WHITE));
+    }
+
+    /**
+     * Finds the reply expected from the opponent in the transposition table,
+     * where the last search left the second move of its principal variation.
+     *
+     * @param snapshot The position of the opponent.
+     * @param player The color of the opponent.
+     * @return The square of the expected reply, or -1 if none is known.
+     */
+    private int expectedReply(BoardSnapshot snapshot, ColorPiece player) {
+        long data = search.getTranspositionTable().probe(new SearchBoard(snapshot).getKey(player));
+        int move = data == 0 ? -1 : TranspositionTable.moveOf(data);
+        return move >= 0 && snapshot.isValidMove(move, player) ? move : -1;
+    }
+
+    /**
+     * Waits for the end of the background search. A stopped ponder clears
+     * its stop once it ended, but keeps a stop asked for the move meanwhile.
+     *
+     * @param future The pending ponder.
+     * @param stop True to stop the search first, false to let it finish its
+     * fixed depth.
+     * @return The result of the ponder.
+     */
+    private SearchResult join(Future<SearchResult> future, boolean stop) {
+        if (stop) {
+            search.stop();
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the ponder search.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("The ponder search failed.", e.getCause());
+        } finally {
+            if (stop) {
+                search.resetStop();
+                if (stopRequested) {
+                    search.stop();
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops the background search and the threads of the strategy for good.
+     */
+    @Override
+    public synchronized void shutdown() {
+        stopPondering();
+        if (ponderThread != null) {
+            ponderThread.shutdownNow();
+        }
+        search.shutdown();
+    }
+
+    /**
+     * Sets the opening book consulted before searching. A move found in the
+     * book is played at once.
+     *
+     * @param book The opening book, or null to always search.
+     */
+    public synchronized void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * Gets the result of the last search, with its score and statistics.
+     *
+     * @return The last search result, or null if no move was searched yet.
+     */
+    public SearchResult getLastResult() {
+        return lastResult;
+    }
+}
@@ -0,0 +1,182 @@
+package g56065.atlir.othello.strategy;
+
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import g56065.atlir.othello.model.GameOthello;
+import g56065.atlir.othello.model.Position;
+import g56065.atlir.othello.strategy.search.SearchResult;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Runs a strategy away from the thread of the game, so that a long search
+ * does not freeze the window. The move is chosen on a snapshot of the board
+ * by a dedicated thread, then played back on the thread of the game, where
+ * the progress of the search is reported too. A move that is cancelled, or
+ * whose position changed in the meantime, is never played.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public final class AsyncStrategy {
+
+    private final Strategy strategy;
+    private final Executor gameThread;
+    private final ExecutorService worker;
+    private CompletableFuture<SearchResult> pending; // Move not played yet, null if none.
+    private Future<?> task; // Last choice submitted to the worker.
+
+    /**
+     * Constructor for the AsyncStrategy class.
+     *
+     * @param strategy The strategy choosing the moves.
+     * @param gameThread Runs tasks on the thread of the game, such as
+     * Platform::runLater for a JavaFX view. It must not run them on the
+     * calling thread.
+     */
+    public AsyncStrategy(Strategy strategy, Executor gameThread) {
+        if (strategy == null || gameThread == null) {
+            throw new IllegalArgumentException("Strategy and game thread cannot be null.");
+        }
+        this.strategy = strategy;
+        this.gameThread = gameThread;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "strategy-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Chooses the move of the current player in the background and plays it
+     * on the thread of the game. A move still being chosen is cancelled
+     * first. This method must be called on the thread of the game.
+     *
+     * @param game The Othello game on which to apply the strategy.
+     * @param progress Told of the best move found so far on the thread of the
+     * game, or null.
+     * @return The future of the chosen move, completed once it is played, or
+     * cancelled if it is not.
+     */
+    public CompletableFuture<SearchResult> play(GameOthello game, Consumer<SearchResult> progress) {
+        if (game == null) {
+            throw new IllegalArgumentException("Game cannot be null.");
+        }
+        cancel();
+        BoardSnapshot snapshot = game.getBoard().snapshot();
+        ColorPiece player = game.getCurrentPlayer();
+        long version = game.getBoard().getModificationCount();
+        CompletableFuture<SearchResult> move = new CompletableFuture<>();
+        pending = move;
+        strategy.resetStop(); // Before queuing, so that a cancel coming first is kept
+        task = worker.submit(() -> {
+            strategy.setProgressListener(progress == null ? null
+                    : result -> gameThread.execute(() -> {
+                        if (!move.isDone()) {
+                            progress.accept(result);
+                        }
+                    }));
+            try {
+                SearchResult result = strategy.chooseMove(snapshot, player);
+                gameThread.execute(() -> apply(game, move, result, version, player));
+            } catch (RuntimeException e) {
+                gameThread.execute(() -> {
+                    if (pending == move) {
+                        pending = null;
+                    }
+                    move.completeExceptionally(e);
+                });
+            } finally {
+                strategy.setProgressListener(null);
+            }
+        });
+        return move;
+    }
+
+    /**
+     * Cancels the move being chosen, stops its search and waits for the
+     * worker to be free, which takes a few milliseconds. The stop holds even
+     * if the search has not started yet. This method must be called on the
+     * thread of the game.
+     */
+    public void cancel() {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+        if (task != null) {
+            strategy.stop();
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // Reported by the future of the move
+            }
+            task = null;
+        }
+    }
+
+    /**
+     * Checks if a move is being chosen and not played yet.
+     *
+     * @return True while the strategy thinks.
+     */
+    public boolean isRunning() {
+        return pending != null;
+    }
+
+    /**
+     * Gets the strategy run by this object.
+     *
+     * @return The strategy.
+     */
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Cancels the running move and stops the worker and the threads of the
+     * strategy for good.
+     */
+    public void shutdown() {
+        cancel();
+        worker.shutdownNow();
+        strategy.shutdown();
+    }
+
+    /**
+     * Plays a chosen move on the thread of the game, unless it was cancelled
+     * or the game changed since the move was asked.
+     *
+     * @param game The Othello game.
+     * @param move The future of the move.
+     * @param result The chosen move.
+     * @param version The modification count of the board when asked.
+     * @param player The color of the player who was to move.
+     */
+    private void apply(GameOthello game, CompletableFuture<SearchResult> move, SearchResult result, long version,
+            ColorPiece player) {
+        if (move.isDone()) {
+            return;
+        }
+        if (pending == move) {
+            pending = null; // Playing the move can ask for the next one
+        }
+        if (game.getBoard().getModificationCount() != version || game.getCurrentPlayer() != player) {
+            move.cancel(false);
+            return;
+        }
+        if (result.isPass()) {
+            game.checkGameState();
+        } else {
+            Position position = game.getBoard().getPosition(result.getMove());
+            game.addPiece(position.getRow(), position.getCol());
+        }
+        move.complete(result);
+    }
+}
@@ -0,0 +1,138 @@
+package g56065.atlir.othello.strategy;
+
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import g56065.atlir.othello.strategy.book.BookMove;
+import g56065.atlir.othello.strategy.book.OpeningBook;
+import g56065.atlir.othello.strategy.search.EndgameSolver;
+import g56065.atlir.othello.strategy.search.MctsSearch;
+import g56065.atlir.othello.strategy.search.SearchLimits;
+import g56065.atlir.othello.strategy.search.SearchResult;
+
+/**
+ * The MctsStrategy class implements the Strategy interface with a Monte Carlo
+ * tree search, which plays every board size without a hand-tuned evaluation.
+ * The last moves of the game are solved exactly.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public class MctsStrategy implements Strategy {
+
+    /**
+     * Time budget used by default for each move, in milliseconds.
+     */
+    public static final long DEFAULT_TIME_MILLIS = 500;
+
+    private final MctsSearch search;
+    private final SearchLimits limits;
+    private OpeningBook book;
+    private volatile SearchResult lastResult;
+
+    /**
+     * Constructor that grows one tree on all the available cores, with the
+     * default time budget and exploration constant.
+     */
+    public MctsStrategy() {
+        this(SearchLimits.ofTime(DEFAULT_TIME_MILLIS), 1, Runtime.getRuntime().availableProcessors(),
+                MctsSearch.DEFAULT_EXPLORATION);
+    }
+
+    /**
+     * Constructor with playouts seeded by the clock, so that games differ.
+     *
+     * @param limits The budget of each move: time and number of playouts.
+     * @param trees The number of independent trees.
+     * @param threadsPerTree The number of threads growing each tree.
+     * @param exploration The exploration constant of UCT.
+     */
+    public MctsStrategy(SearchLimits limits, int trees, int threadsPerTree, double exploration) {
+        this(limits, trees, threadsPerTree, exploration, System.nanoTime());
+    }
+
+    /**
+     * Constructor for the MctsStrategy class. With a single thread and a
+     * budget of playouts, the same seed always plays the same moves, which
+     * makes games and tournaments reproducible.
+     *
+     * @param limits The budget of each move: time and number of playouts.
+     * @param trees The number of independent trees.
+     * @param threadsPerTree The number of threads growing each tree.
+     * @param exploration The exploration constant of UCT.
+     * @param seed The seed of the random playouts.
+     */
+    public MctsStrategy(SearchLimits limits, int trees, int threadsPerTree, double exploration, long seed) {
+        if (limits == null) {
+            throw new IllegalArgumentException("Limits cannot be null.");
+        }
+        this.limits = limits;
+        this.search = new MctsSearch(trees, threadsPerTree, exploration, seed, new EndgameSolver());
+    }
+
+    /**
+     * Takes the move of the opening book, or else searches the most visited
+     * move of the trees.
+     *
+     * @param snapshot The position of the board.
+     * @param player The color of the player to move.
+     * @param limits The budget of the search, or null for the budget given
+     * to the constructor.
+     * @return The chosen move with its score and statistics.
+     */
+    @Override
+    public synchronized SearchResult chooseMove(BoardSnapshot snapshot, ColorPiece player, SearchLimits limits) {
+        if (snapshot == null || player == null) {
+            throw new IllegalArgumentException("Snapshot and player cannot be null.");
+        }
+        long start = System.nanoTime();
+        BookMove known = book == null ? null : book.lookup(snapshot, player);
+        if (known != null) {
+            lastResult = new SearchResult(known.getMove(), known.getScore(), 0, 0, System.nanoTime() - start);
+        } else {
+            lastResult = search.search(snapshot, player, limits == null ? this.limits : limits);
+        }
+        return lastResult;
+    }
+
+    /**
+     * Stops the running search, which returns the most visited move so far.
+     */
+    @Override
+    public void stop() {
+        search.stop();
+    }
+
+    /**
+     * Clears a previous stop request before the next search.
+     */
+    @Override
+    public void resetStop() {
+        search.resetStop();
+    }
+
+    /**
+     * Stops the worker threads of the search for good.
+     */
+    @Override
+    public void shutdown() {
+        search.shutdown();
+    }
+
+    /**
+     * Sets the opening book consulted before searching. A move found in the
+     * book is played at once.
+     *
+     * @param book The opening book, or null to always search.
+     */
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * Gets the result of the last search, with the number of playouts.
+     *
+     * @return The last search result, or null if no move was searched yet.
+     */
+    public SearchResult getLastResult() {
+        return lastResult;
+    }
+}
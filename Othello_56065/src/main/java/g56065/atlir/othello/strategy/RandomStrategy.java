@@ -1,8 +1,9 @@
 package g56065.atlir.othello.strategy;
 
-import g56065.atlir.othello.model.GameOthello;
-import g56065.atlir.othello.model.Position;
-import java.util.List;
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import g56065.atlir.othello.strategy.search.SearchLimits;
+import g56065.atlir.othello.strategy.search.SearchResult;
 import java.util.Random;
 
 /**
@@ -14,28 +15,23 @@ import java.util.Random;
 public class RandomStrategy implements Strategy {
 
     /**
-     * Strategy method that randomly selects a valid move to make in the game.
-     * If no valid move is possible, the method checks the game state to determine if
-     * there is a winner or if it is a draw.
+     * Randomly selects one of the valid moves of a player.
      *
-     * @param game The Othello game on which to apply the strategy.
+     * @param snapshot The position of the board.
+     * @param player The color of the player to move.
+     * @param limits Ignored, the move is chosen at once.
+     * @return The chosen move with a score of 0, or a pass.
      */
     @Override
-    public void strat(GameOthello game) {
-        // Get the list of valid moves for the current player
-        List<Position> possibleMoves = game.getBoard().getValidMoves(game.getCurrentPlayer());
-
-        // Check if there are no valid moves
-        if (possibleMoves.isEmpty()) {
-            // Check the game state to determine if there is a winner or if it is a draw
-            game.checkGameState();
-        } else {
-            // Randomly select a move from the valid moves
-            Random random = new Random();
-            Position randomMove = possibleMoves.get(random.nextInt(possibleMoves.size()));
-
-            // Add the piece to the game board at the randomly chosen position
-            game.addPiece(randomMove.getRow(), randomMove.getCol());
+    public SearchResult chooseMove(BoardSnapshot snapshot, ColorPiece player, SearchLimits limits) {
+        // Get the valid moves for the player
+        int[] possibleMoves = new int[snapshot.getSize() * snapshot.getSize()];
+        int count = snapshot.generateMoves(player, possibleMoves);
+        if (count == 0) {
+            return new SearchResult(SearchResult.PASS, 0, 0, 0, 0);
         }
+        // Randomly select a move from the valid moves
+        Random random = new Random();
+        return new SearchResult(possibleMoves[random.nextInt(count)], 0, 0, 0, 0);
     }
 }
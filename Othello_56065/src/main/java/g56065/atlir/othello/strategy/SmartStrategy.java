@@ -1,9 +1,9 @@
 package g56065.atlir.othello.strategy;
 
+import g56065.atlir.othello.model.BoardSnapshot;
 import g56065.atlir.othello.model.ColorPiece;
-import g56065.atlir.othello.model.GameOthello;
-import g56065.atlir.othello.model.Position;
-import java.util.List;
+import g56065.atlir.othello.strategy.search.SearchLimits;
+import g56065.atlir.othello.strategy.search.SearchResult;
 
 /**
  * The SmartStrategy class implements the Strategy interface to define an intelligent
@@ -14,45 +14,41 @@ import java.util.List;
 public class SmartStrategy implements Strategy {
 
     /**
-     * Strategy method that selects the best possible move by evaluating potential captures.
-     * If no valid move is found, the method checks the game state to determine if there is a winner
-     * or if it is a draw.
+     * Selects the move of a player capturing the most pieces.
      *
-     * @param game The Othello game on which to apply the strategy.
+     * @param snapshot The position of the board.
+     * @param player The color of the player to move.
+     * @param limits Ignored, the move is chosen at once.
+     * @return The chosen move, scored by its number of captures, or a pass.
      */
     @Override
-    public void strat(GameOthello game) {
-        // Retrieve all legal moves for the current player
-        List<Position> validMoves = game.getBoard().getLegalPositions(game.getCurrentPlayer());
-        Position bestMove = null;
+    public SearchResult chooseMove(BoardSnapshot snapshot, ColorPiece player, SearchLimits limits) {
+        // Retrieve all legal moves for the player
+        int[] validMoves = new int[snapshot.getSize() * snapshot.getSize()];
+        int count = snapshot.generateMoves(player, validMoves);
+        int bestMove = SearchResult.PASS;
         int maxCaptures = 0;
 
         // Evaluate each move to find the one with the maximum potential captures
-        for (Position move : validMoves) {
-            int captures = calculatePotentialCaptures(game, move);
+        for (int i = 0; i < count; i++) {
+            int captures = calculatePotentialCaptures(snapshot, validMoves[i], player);
             if (captures > maxCaptures) {
                 maxCaptures = captures;
-                bestMove = move;
+                bestMove = validMoves[i];
             }
         }
-
-        // If an optimal move is found, execute it
-        if (bestMove != null) {
-            game.addPiece(bestMove.getRow(), bestMove.getCol());
-        } else {
-            // No legal move found, possibly handle the end of the game here
-            game.checkGameState();
-        }
+        return new SearchResult(bestMove, maxCaptures, 1, count, 0);
     }
 
     /**
      * Method to calculate the potential number of captures for a given move.
      *
-     * @param game The Othello game on which to apply the calculation.
-     * @param move The move for which to evaluate potential captures.
+     * @param snapshot The snapshot of the board on which to apply the calculation.
+     * @param move The index of the square of the move.
+     * @param player The color of the player making the move.
      * @return The potential number of captures for the given move.
      */
-    private int calculatePotentialCaptures(GameOthello game, Position move) {
-        return game.getBoard().evaluateMoveEfficiency(move, game.getCurrentPlayer());
+    private int calculatePotentialCaptures(BoardSnapshot snapshot, int move, ColorPiece player) {
+        return snapshot.countCaptures(move, player);
     }
 }
@@ -4,21 +4,118 @@
  */
 package g56065.atlir.othello.strategy;
 
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
 import g56065.atlir.othello.model.GameOthello;
+import g56065.atlir.othello.model.Position;
+import g56065.atlir.othello.strategy.search.SearchLimits;
+import g56065.atlir.othello.strategy.search.SearchResult;
+import java.util.function.Consumer;
 
 /**
  * The Strategy interface defines the contract for different game strategies in Othello.
- * Any class implementing this interface must provide a strat() method that takes a
- * GameOthello object as a parameter and defines the logic for selecting the next move.
+ * Any class implementing this interface must provide a chooseMove() method that
+ * selects the next move on a snapshot of the board, without touching the game, so
+ * that strategies can run in batch, on other threads or in benchmarks without a
+ * full game. The strat() method adapts it to a live GameOthello object by playing
+ * the chosen move. See {@link AsyncStrategy} to choose it in the background.
  * 
  * Author: Youssef El Ouahabi
  */
 public interface Strategy {
 
     /**
-     * Strategy method that defines the logic for selecting the next move in the game.
+     * Strategy method that chooses the move of the current player on a
+     * snapshot of the board and plays it. If no valid move is found, the
+     * method checks the game state to determine if there is a winner or if it
+     * is a draw.
      *
      * @param game The Othello game on which to apply the strategy.
      */
-    void strat(GameOthello game);
+    default void strat(GameOthello game) {
+        SearchResult chosen = chooseMove(game.getBoard().snapshot(), game.getCurrentPlayer());
+        if (chosen.isPass()) {
+            game.checkGameState();
+        } else {
+            Position move = game.getBoard().getPosition(chosen.getMove());
+            game.addPiece(move.getRow(), move.getCol());
+        }
+    }
+
+    /**
+     * Chooses the move of a player on a snapshot of the board, without
+     * playing it. The game is never touched, so the method can run on a
+     * thread other than the one of the game. An instance answers one call at
+     * a time; parallel callers use one instance each.
+     *
+     * @param snapshot The position of the board.
+     * @param player The color of the player to move.
+     * @param limits The budget of the search, or null for the default
+     * budget of the strategy. Strategies that answer at once ignore it.
+     * @return The chosen move with its score, or a pass if the player cannot play.
+     */
+    SearchResult chooseMove(BoardSnapshot snapshot, ColorPiece player, SearchLimits limits);
+
+    /**
+     * Chooses the move of a player within the default budget of the strategy.
+     *
+     * @param snapshot The position of the board.
+     * @param player The color of the player to move.
+     * @return The chosen move with its score, or a pass if the player cannot play.
+     */
+    default SearchResult chooseMove(BoardSnapshot snapshot, ColorPiece player) {
+        return chooseMove(snapshot, player, null);
+    }
+
+    /**
+     * Asks a running chooseMove() to return as soon as possible, with the
+     * best move found so far. The request holds until resetStop(), so a
+     * chooseMove() that has not started yet returns at once too. Strategies
+     * that answer at once ignore it.
+     */
+    default void stop() {
+    }
+
+    /**
+     * Clears a previous stop request. A chooseMove() run on another thread
+     * is reset by the thread submitting it, before it is queued, so that a
+     * stop coming before it starts is not lost. Strategies that answer at
+     * once ignore it.
+     */
+    default void resetStop() {
+    }
+
+    /**
+     * Sets the listener told of the best move found so far while chooseMove()
+     * runs, on the thread of the search. Strategies that answer at once
+     * ignore it.
+     *
+     * @param listener The listener, or null for none.
+     */
+    default void setProgressListener(Consumer<SearchResult> listener) {
+    }
+
+    /**
+     * Starts thinking on the time of the opponent, who is about to move. The
+     * work done is reused by the next call to strat(). Strategies that do not
+     * ponder ignore it.
+     *
+     * @param game The Othello game, with the opponent to move.
+     */
+    default void ponder(GameOthello game) {
+    }
+
+    /**
+     * Stops thinking on the time of the opponent, when the position pondered
+     * will not be played anymore. Strategies that do not ponder ignore it.
+     */
+    default void stopPondering() {
+    }
+
+    /**
+     * Stops the threads of the strategy for good, once it will not be asked
+     * for moves anymore. Strategies without threads of their own ignore it.
+     */
+    default void shutdown() {
+    }
 }
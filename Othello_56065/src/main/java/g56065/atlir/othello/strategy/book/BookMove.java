@@ -0,0 +1,59 @@
+package g56065.atlir.othello.strategy.book;
+
+/**
+ * A move stored in the opening book, with the score given by the search
+ * when the book was built and the number of times it was met.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public final class BookMove {
+
+    private final int move;
+    private final int score;
+    private final int count;
+
+    /**
+     * Constructor for the BookMove class.
+     *
+     * @param move The index of the square of the move.
+     * @param score The score of the move for the player to move.
+     * @param count The number of times the move was met.
+     */
+    public BookMove(int move, int score, int count) {
+        this.move = move;
+        this.score = score;
+        this.count = count;
+    }
+
+    /**
+     * Gets the square of the move.
+     *
+     * @return The index of the square (row * size + col).
+     */
+    public int getMove() {
+        return move;
+    }
+
+    /**
+     * Gets the score of the move.
+     *
+     * @return The score for the player to move, see Score.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the number of times the move was met when building the book.
+     *
+     * @return The count of the move.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "BookMove[move=" + move + ", score=" + score + ", count=" + count + "]";
+    }
+}
@@ -0,0 +1,111 @@
+package g56065.atlir.othello.strategy.book;
+
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import g56065.atlir.othello.model.SquareSet;
+import g56065.atlir.othello.model.Zobrist;
+
+/**
+ * A position normalized under the 8 symmetries of the board: its key is the
+ * smallest Zobrist key of the 8 transformed positions, so that positions
+ * equal up to a rotation or a reflection share one entry of the book. The
+ * symmetry giving that key converts moves to and from the book. A position
+ * that is symmetric itself reaches the key by several symmetries; its moves
+ * then take their smallest image, so that equivalent moves share a record.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public final class CanonicalPosition {
+
+    private final int size;
+    private final long key;
+    private final int symmetry;
+    private final int symmetries; // Bit s set when symmetry s gives the key.
+
+    private CanonicalPosition(int size, long key, int symmetry, int symmetries) {
+        this.size = size;
+        this.key = key;
+        this.symmetry = symmetry;
+        this.symmetries = symmetries;
+    }
+
+    /**
+     * Normalizes a position.
+     *
+     * @param snapshot The position.
+     * @param sideToMove The color of the player to move.
+     * @return The canonical form of the position.
+     */
+    public static CanonicalPosition of(BoardSnapshot snapshot, ColorPiece sideToMove) {
+        if (snapshot == null || sideToMove == null) {
+            throw new IllegalArgumentException("Snapshot and side to move cannot be null.");
+        }
+        int size = snapshot.getSize();
+        int[][] table = Symmetry.table(size);
+        long side = sideToMove == ColorPiece.WHITE ? Zobrist.WHITE_TO_MOVE : 0;
+        long[] keys = new long[Symmetry.COUNT];
+        for (ColorPiece color : ColorPiece.values()) {
+            SquareSet pieces = snapshot.getPieces(color);
+            for (int square = pieces.nextSquare(0); square >= 0; square = pieces.nextSquare(square + 1)) {
+                for (int s = 0; s < Symmetry.COUNT; s++) {
+                    keys[s] ^= Zobrist.pieceKey(color, table[s][square]);
+                }
+            }
+        }
+        int best = 0;
+        int symmetries = 1;
+        for (int s = 1; s < Symmetry.COUNT; s++) {
+            if (keys[s] < keys[best]) {
+                best = s;
+                symmetries = 1 << s;
+            } else if (keys[s] == keys[best]) {
+                symmetries |= 1 << s;
+            }
+        }
+        return new CanonicalPosition(size, keys[best] ^ side, best, symmetries);
+    }
+
+    /**
+     * Gets the key of the position, the same for all its symmetric forms.
+     *
+     * @return The canonical key.
+     */
+    public long getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the symmetry that turns the position into its canonical form.
+     *
+     * @return The index of the symmetry.
+     */
+    public int getSymmetry() {
+        return symmetry;
+    }
+
+    /**
+     * Converts a move of the position to the canonical form.
+     *
+     * @param square The index of the square on the real board.
+     * @return The index of the square on the canonical board.
+     */
+    public int toCanonical(int square) {
+        int canonical = Integer.MAX_VALUE;
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            if ((symmetries & (1 << s)) != 0) {
+                canonical = Math.min(canonical, Symmetry.transform(s, square, size));
+            }
+        }
+        return canonical;
+    }
+
+    /**
+     * Converts a move of the canonical form back to the position.
+     *
+     * @param square The index of the square on the canonical board.
+     * @return The index of the square on the real board.
+     */
+    public int fromCanonical(int square) {
+        return Symmetry.transform(Symmetry.inverse(symmetry), square, size);
+    }
+}
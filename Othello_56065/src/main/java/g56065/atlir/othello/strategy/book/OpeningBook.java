@@ -0,0 +1,191 @@
+package g56065.atlir.othello.strategy.book;
+
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opening book read from a binary file mapped in memory. The file holds a
+ * header followed by fixed-size records (key, move, score, count) sorted by
+ * key then move, the key being the {@link CanonicalPosition} of the
+ * position and the move being given on the canonical board. A lookup is a
+ * binary search on the mapped records: nothing is copied on the heap, so
+ * opening a book is immediate and the pages of the file are shared by all
+ * the processes using it. The book only reads absolute positions of the
+ * buffer, so it can be used by several threads at the same time.
+ * <p>
+ * Layout, big-endian: magic (int), version (short), board size (short),
+ * number of records (long), then each record: key (long), move (int),
+ * score (int), count (int).
+ *
+ * Author: Youssef El Ouahabi
+ */
+public class OpeningBook {
+
+    /**
+     * First bytes of a book file, "OBK1".
+     */
+    public static final int MAGIC = 0x4F424B31;
+
+    /**
+     * Version of the file format.
+     */
+    public static final short VERSION = 1;
+
+    /**
+     * Size of the header, in bytes.
+     */
+    public static final int HEADER_BYTES = 16;
+
+    /**
+     * Size of a record, in bytes.
+     */
+    public static final int RECORD_BYTES = 20;
+
+    private final ByteBuffer records;
+    private final int size;
+    private final int recordCount;
+
+    /**
+     * Constructor over a buffer holding a whole book file.
+     *
+     * @param buffer The content of the file, read from its start.
+     */
+    OpeningBook(ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION) {
+            throw new IllegalArgumentException("Not an opening book file.");
+        }
+        long count = buffer.getLong(8);
+        if (count < 0 || count > (buffer.capacity() - HEADER_BYTES) / RECORD_BYTES) {
+            throw new IllegalArgumentException("The opening book file is truncated.");
+        }
+        this.size = buffer.getShort(6);
+        this.recordCount = (int) count;
+        this.records = buffer;
+    }
+
+    /**
+     * Gives the usual name of the book file of a board size.
+     *
+     * @param size The size of the board.
+     * @return The file name, such as othello-8.book.
+     */
+    public static String defaultFileName(int size) {
+        return "othello-" + size + ".book";
+    }
+
+    /**
+     * Opens a book file by mapping it in memory, read-only.
+     *
+     * @param file The path of the book file.
+     * @return The opened book.
+     * @throws IOException If the file cannot be read.
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null.");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new OpeningBook(buffer);
+        }
+    }
+
+    /**
+     * Gets the size of the board of the book.
+     *
+     * @return The size of the board.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the number of records of the book.
+     *
+     * @return The number of records, one per position and move.
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Gets the best move of a position: the highest score, then the most
+     * frequent.
+     *
+     * @param snapshot The position.
+     * @param player The color of the player to move.
+     * @return The best move on the real board, or null if the position is not
+     * in the book.
+     */
+    public BookMove lookup(BoardSnapshot snapshot, ColorPiece player) {
+        BookMove best = null;
+        for (BookMove move : getMoves(snapshot, player)) {
+            if (best == null || move.getScore() > best.getScore()
+                    || move.getScore() == best.getScore() && move.getCount() > best.getCount()) {
+                best = move;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gets all the moves stored for a position. Moves that are not valid in
+     * the position, which a collision of keys could give, are left out.
+     *
+     * @param snapshot The position.
+     * @param player The color of the player to move.
+     * @return The moves on the real board, empty if the position is not in the book.
+     */
+    public List<BookMove> getMoves(BoardSnapshot snapshot, ColorPiece player) {
+        if (snapshot == null || player == null) {
+            throw new IllegalArgumentException("Snapshot and player cannot be null.");
+        }
+        List<BookMove> moves = new ArrayList<>();
+        if (snapshot.getSize() != size) {
+            return moves;
+        }
+        CanonicalPosition position = CanonicalPosition.of(snapshot, player);
+        long key = position.getKey();
+        for (int index = firstRecord(key); index < recordCount && keyAt(index) == key; index++) {
+            int offset = HEADER_BYTES + index * RECORD_BYTES;
+            int move = position.fromCanonical(records.getInt(offset + 8));
+            if (snapshot.isValidMove(move, player)) {
+                moves.add(new BookMove(move, records.getInt(offset + 12), records.getInt(offset + 16)));
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Finds the first record whose key is not smaller than a key.
+     *
+     * @param key The key to search.
+     * @return The index of the record, recordCount if there is none.
+     */
+    private int firstRecord(long key) {
+        int low = 0;
+        int high = recordCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keyAt(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long keyAt(int index) {
+        return records.getLong(HEADER_BYTES + index * RECORD_BYTES);
+    }
+}
@@ -0,0 +1,125 @@
+package g56065.atlir.othello.strategy.book;
+
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collects the moves of an opening book and writes them in the format read
+ * by {@link OpeningBook}. Positions are normalized under the symmetries of
+ * the board, so adding a position and its mirror image gives one entry.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public class OpeningBookWriter {
+
+    private final int size;
+    // Records by key then canonical move: {score, count}. The TreeMaps keep them sorted for the file.
+    private final TreeMap<Long, TreeMap<Integer, int[]>> entries = new TreeMap<>();
+    private int recordCount;
+
+    /**
+     * Constructor for the OpeningBookWriter class.
+     *
+     * @param size The size of the board of the book.
+     */
+    public OpeningBookWriter(int size) {
+        Symmetry.table(size); // Checks the size
+        this.size = size;
+    }
+
+    /**
+     * Adds a move of a position. A move already added gets the new score and
+     * its counts are summed.
+     *
+     * @param snapshot The position.
+     * @param player The color of the player to move.
+     * @param move The index of the square of the move on the real board.
+     * @param score The score of the move for the player.
+     * @param count The number of times the move was met.
+     */
+    public void add(BoardSnapshot snapshot, ColorPiece player, int move, int score, int count) {
+        if (snapshot == null || player == null) {
+            throw new IllegalArgumentException("Snapshot and player cannot be null.");
+        }
+        if (snapshot.getSize() != size) {
+            throw new IllegalArgumentException("The position does not have the size of the book.");
+        }
+        if (!snapshot.isValidMove(move, player)) {
+            throw new IllegalArgumentException("The move is not valid in the position.");
+        }
+        CanonicalPosition position = CanonicalPosition.of(snapshot, player);
+        TreeMap<Integer, int[]> moves = entries.computeIfAbsent(position.getKey(), key -> new TreeMap<>());
+        int[] record = moves.get(position.toCanonical(move));
+        if (record == null) {
+            moves.put(position.toCanonical(move), new int[]{score, count});
+            recordCount++;
+        } else {
+            record[0] = score;
+            record[1] += count;
+        }
+    }
+
+    /**
+     * Checks if a position is already in the book.
+     *
+     * @param snapshot The position.
+     * @param player The color of the player to move.
+     * @return True if at least one move of the position was added.
+     */
+    public boolean contains(BoardSnapshot snapshot, ColorPiece player) {
+        return entries.containsKey(CanonicalPosition.of(snapshot, player).getKey());
+    }
+
+    /**
+     * Gets the number of records added so far.
+     *
+     * @return The number of records, one per position and move.
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Writes the book to a file, replacing it.
+     *
+     * @param file The path of the book file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(Path file) throws IOException {
+        try (OutputStream stream = Files.newOutputStream(file)) {
+            write(stream);
+        }
+    }
+
+    /**
+     * Writes the book to a stream.
+     *
+     * @param stream The stream receiving the book, not closed.
+     * @throws IOException If the stream cannot be written.
+     */
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(OpeningBook.MAGIC);
+        out.writeShort(OpeningBook.VERSION);
+        out.writeShort(size);
+        out.writeLong(recordCount);
+        // Signed order of the keys, the one of the binary search
+        for (Map.Entry<Long, TreeMap<Integer, int[]>> entry : entries.entrySet()) {
+            for (Map.Entry<Integer, int[]> move : entry.getValue().entrySet()) {
+                out.writeLong(entry.getKey());
+                out.writeInt(move.getKey());
+                out.writeInt(move.getValue()[0]);
+                out.writeInt(move.getValue()[1]);
+            }
+        }
+        out.flush();
+    }
+}
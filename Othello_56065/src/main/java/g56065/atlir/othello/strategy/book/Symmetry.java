@@ -0,0 +1,90 @@
+package g56065.atlir.othello.strategy.book;
+
+/**
+ * The 8 symmetries of a square board: the 4 rotations and the 4 reflections.
+ * A symmetry maps the index of a square (row * size + col) to the index of
+ * the same square on the transformed board. The tables of each size are
+ * computed once.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public final class Symmetry {
+
+    /**
+     * Number of symmetries, the identity being the first one.
+     */
+    public static final int COUNT = 8;
+
+    private static final int MAX_SIZE = 15;
+    private static final int[][][] TABLES = new int[MAX_SIZE + 1][][];
+    private static final int[] INVERSES = {0, 3, 2, 1, 4, 5, 6, 7};
+
+    /**
+     * Private constructor, this class only holds static helpers.
+     */
+    private Symmetry() {
+    }
+
+    /**
+     * Applies a symmetry to a square.
+     *
+     * @param symmetry The index of the symmetry (0 to 7).
+     * @param square The index of the square.
+     * @param size The size of the board.
+     * @return The index of the transformed square.
+     */
+    public static int transform(int symmetry, int square, int size) {
+        return table(size)[symmetry][square];
+    }
+
+    /**
+     * Gets the symmetry that undoes another one.
+     *
+     * @param symmetry The index of the symmetry.
+     * @return The index of its inverse.
+     */
+    public static int inverse(int symmetry) {
+        return INVERSES[symmetry];
+    }
+
+    /**
+     * Gets the table of all the symmetries of a size, indexed by symmetry then
+     * square.
+     *
+     * @param size The size of the board (1 to 15).
+     * @return The shared table, not to be modified.
+     */
+    static int[][] table(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("The size must be between 1 and " + MAX_SIZE + ".");
+        }
+        synchronized (TABLES) {
+            if (TABLES[size] == null) {
+                TABLES[size] = build(size);
+            }
+            return TABLES[size];
+        }
+    }
+
+    /**
+     * Computes the tables of a size.
+     */
+    private static int[][] build(int size) {
+        int last = size - 1;
+        int[][] table = new int[COUNT][size * size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int square = row * size + col;
+                table[0][square] = square;                             // identity
+                table[1][square] = col * size + last - row;            // quarter turn
+                table[2][square] = (last - row) * size + last - col;   // half turn
+                table[3][square] = (last - col) * size + row;          // three quarter turn
+                table[4][square] = row * size + last - col;            // mirror left-right
+                table[5][square] = (last - row) * size + col;          // mirror top-bottom
+                table[6][square] = col * size + row;                   // main diagonal
+                table[7][square] = (last - col) * size + last - row;   // anti-diagonal
+            }
+        }
+        return table;
+    }
+}
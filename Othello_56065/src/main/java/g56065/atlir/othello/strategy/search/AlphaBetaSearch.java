@@ -0,0 +1,758 @@
+package g56065.atlir.othello.strategy.search;
+
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Negamax alpha-beta search with principal-variation search, aspiration
+ * windows and iterative deepening. Each iteration searches one ply deeper,
+ * starting with the best move of the previous one, until the depth, time or
+ * node budget of the {@link SearchLimits} is spent. Moves are played and
+ * taken back on a private {@link SearchBoard} with per-ply buffers, so the
+ * search allocates nothing once started. An optional
+ * {@link TranspositionTable} stores the results of the positions searched:
+ * transpositions are cut off and the stored best move is tried first.
+ * Moves are ordered by a pluggable {@link MoveOrdering}, and with a table
+ * the children of a position are probed before searching it (enhanced
+ * transposition cutoff): a child already known to refute the window cuts
+ * the position off at once. The search counts its cutoffs and how many of
+ * them came from the first move, which measures the ordering.
+ * Close to the end of the game, an optional {@link EndgameSolver} searches
+ * the position to the end first.
+ * Positions whose stable discs already decide the game against the window
+ * are cut off with the bound they give.
+ * With {@link ProbCut} parameters for the board size, the search is
+ * selective: before searching a null window, shallow searches predict the
+ * deep score and the position is cut off when it is very likely outside the
+ * window, which lets the iterative deepening go several plies deeper in the
+ * same time.
+ * An instance is used by one thread at a time, but {@link #stop()} can be
+ * called from any thread.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public class AlphaBetaSearch {
+
+    /**
+     * Maximum number of plies from the root, passes included.
+     */
+    public static final int MAX_PLY = 128;
+
+    private static final int ASPIRATION_WINDOW = 60;
+    private static final int CHECK_INTERVAL = 1023; // Limits are checked every 1024 nodes.
+    private static final int ETC_MIN_DEPTH = 3;
+    private static final int NO_CUT = Integer.MIN_VALUE;
+    private static final long SOLVER_NODES_PER_DEPTH = 10_000; // Solver nodes of a fixed depth: 10000 * 3^depth.
+    private static final long MAX_SOLVER_NODES = 3_000_000; // About one second
+
+    private final Evaluator evaluator;
+    private final TranspositionTable table;
+    private final EndgameSolver solver;
+    private final MoveOrdering ordering;
+    private final IntFunction<ProbCut> probCuts;
+    private volatile boolean stopRequested;
+    private volatile Consumer<SearchResult> progress;
+    private boolean aborted;
+    private long nodes;
+    private long cutoffs;
+    private long firstMoveCutoffs;
+    private long etcCutoffs;
+    private long probCutCutoffs;
+    private long stabilityCutoffs;
+    private ProbCut probCut; // Parameters of the board searched, null to search it fully.
+    private boolean probing; // In the shallow search of a ProbCut check.
+    private long nodeLimit;
+    private AtomicLong sharedNodes; // Nodes of all the threads of a parallel search, null alone.
+    private long reportedNodes; // Nodes already added to the shared count.
+    private long deadline;
+    private SearchBoard board;
+    private int[][] moves = new int[0][];
+    private long[][] flips = new long[0][];
+
+    /**
+     * Constructor for the AlphaBetaSearch class.
+     *
+     * @param evaluator The evaluation used at the horizon.
+     */
+    public AlphaBetaSearch(Evaluator evaluator) {
+        this(evaluator, null);
+    }
+
+    /**
+     * Constructor with a transposition table, which may be shared with other
+     * searches.
+     *
+     * @param evaluator The evaluation used at the horizon.
+     * @param table The transposition table, or null to search without one.
+     */
+    public AlphaBetaSearch(Evaluator evaluator, TranspositionTable table) {
+        this(evaluator, table, null);
+    }
+
+    /**
+     * Constructor with a transposition table and an endgame solver.
+     *
+     * @param evaluator The evaluation used at the horizon.
+     * @param table The transposition table, or null to search without one.
+     * @param solver The solver of the end of the game, or null to always use
+     * the evaluation.
+     */
+    public AlphaBetaSearch(Evaluator evaluator, TranspositionTable table, EndgameSolver solver) {
+        this(evaluator, table, solver, new HeuristicMoveOrdering());
+    }
+
+    /**
+     * Constructor with a move ordering, searching every move fully.
+     *
+     * @param evaluator The evaluation used at the horizon.
+     * @param table The transposition table, or null to search without one.
+     * @param solver The solver of the end of the game, or null to always use
+     * the evaluation.
+     * @param ordering The move ordering, used by this search only.
+     */
+    public AlphaBetaSearch(Evaluator evaluator, TranspositionTable table, EndgameSolver solver, MoveOrdering ordering) {
+        this(evaluator, table, solver, ordering, null);
+    }
+
+    /**
+     * Constructor with all the parts of the search.
+     *
+     * @param evaluator The evaluation used at the horizon.
+     * @param table The transposition table, or null to search without one.
+     * @param solver The solver of the end of the game, or null to always use
+     * the evaluation.
+     * @param ordering The move ordering, used by this search only.
+     * @param probCuts Gives the ProbCut parameters of a board size, or null
+     * for none, such as ProbCut::forSize for the calibrated ones. Null to
+     * search every position fully.
+     */
+    public AlphaBetaSearch(Evaluator evaluator, TranspositionTable table, EndgameSolver solver, MoveOrdering ordering,
+            IntFunction<ProbCut> probCuts) {
+        if (evaluator == null || ordering == null) {
+            throw new IllegalArgumentException("Evaluator and ordering cannot be null.");
+        }
+        this.evaluator = evaluator;
+        this.table = table;
+        this.solver = solver;
+        this.ordering = ordering;
+        this.probCuts = probCuts;
+    }
+
+    /**
+     * Gets the transposition table of the search.
+     *
+     * @return The table, or null if the search has none.
+     */
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * Searches the best move of a player. A search stopped before it starts
+     * returns at once, see {@link #resetStop()}.
+     *
+     * @param snapshot The position to search.
+     * @param player The color of the player to move.
+     * @param limits The budget of the search.
+     * @return The best move found with its score.
+     */
+    public SearchResult search(BoardSnapshot snapshot, ColorPiece player, SearchLimits limits) {
+        if (snapshot == null || player == null || limits == null) {
+            throw new IllegalArgumentException("Snapshot, player and limits cannot be null.");
+        }
+        if (table != null) {
+            table.newSearch();
+        }
+        return iterate(snapshot, player, limits, 1, 0);
+    }
+
+    /**
+     * Checks if a position will be given to the endgame solver.
+     *
+     * @param snapshot The position.
+     * @return True if the search has a solver able to solve the position.
+     */
+    boolean solvesEndgame(BoardSnapshot snapshot) {
+        return solver != null && solver.canSolve(snapshot);
+    }
+
+    /**
+     * Runs the iterative deepening. Helper threads of a parallel search start
+     * at other depths and with other root orders, so that they do not all
+     * search the same subtrees at the same time. The age of the table is
+     * left to the caller, which starts one search for all the threads.
+     *
+     * @param snapshot The position to search.
+     * @param player The color of the player to move.
+     * @param limits The budget of the search.
+     * @param firstDepth The depth of the first iteration.
+     * @param rotation The number of places the root moves are rotated by.
+     * @return The best move found with its score.
+     */
+    SearchResult iterate(BoardSnapshot snapshot, ColorPiece player, SearchLimits limits, int firstDepth, int rotation) {
+        long start = System.nanoTime();
+        prepare(new SearchBoard(snapshot), limits, start);
+
+        int[] rootMoves = new int[board.getSquareCount()];
+        int count = board.generateMoves(player, rootMoves);
+        if (count == 0) {
+            return new SearchResult(SearchResult.PASS, 0, 0, 0, System.nanoTime() - start);
+        }
+        ordering.order(board, player, rootMoves, count, 0, board.countEmpty(), -1);
+        rotate(rootMoves, count, rotation);
+
+        if (solvesEndgame(snapshot)) {
+            SearchResult solved = solver.solve(snapshot, player, solverLimits(limits));
+            if (solved != null) {
+                return new SearchResult(solved.getMove(), solved.getScore(), solved.getDepth(),
+                        solved.getNodes(), System.nanoTime() - start);
+            }
+            spendNodes(solver.getNodes()); // The search gets what the solver left
+        }
+
+        int maxDepth = Math.min(board.countEmpty(), MAX_PLY / 2 - 1);
+        if (limits.getMaxDepth() > 0) {
+            maxDepth = Math.min(maxDepth, limits.getMaxDepth());
+        }
+        int bestMove = rootMoves[0];
+        int bestScore = 0;
+        int completedDepth = 0;
+        int[] rootScore = new int[1];
+        for (int depth = Math.min(firstDepth, maxDepth); depth <= maxDepth; depth++) {
+            int score;
+            int move;
+            if (completedDepth == 0) {
+                move = searchRoot(rootMoves, count, player, depth, -Score.INFINITY, Score.INFINITY, rootScore);
+                score = rootScore[0];
+            } else {
+                int alpha = bestScore - ASPIRATION_WINDOW;
+                int beta = bestScore + ASPIRATION_WINDOW;
+                move = searchRoot(rootMoves, count, player, depth, alpha, beta, rootScore);
+                score = rootScore[0];
+                if (!aborted && (score <= alpha || score >= beta)) { // Outside the window, search again fully
+                    move = searchRoot(rootMoves, count, player, depth, -Score.INFINITY, Score.INFINITY, rootScore);
+                    score = rootScore[0];
+                }
+            }
+            if (aborted) {
+                if (move >= 0) { // The previous best was searched first, a better move can be trusted
+                    bestMove = move;
+                }
+                break;
+            }
+            bestMove = move;
+            bestScore = score;
+            completedDepth = depth;
+            Consumer<SearchResult> listener = progress;
+            if (listener != null) {
+                listener.accept(new SearchResult(bestMove, bestScore, completedDepth, nodes, System.nanoTime() - start));
+            }
+            if (Score.isResult(score) && depth >= board.countEmpty()) {
+                break; // The game is solved, deeper iterations would not change anything
+            }
+        }
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Gives the budget of the endgame solver: two thirds of the time and of
+     * the nodes of the search, the rest being left to the search if the
+     * solver fails. A search limited by its depth only gives the solver
+     * about the nodes a midgame search of that depth would visit, so that a
+     * fixed depth keeps a bounded time per move. Only a search without any
+     * limit solves without one.
+     *
+     * @param limits The budget of the search.
+     * @return The budget of the solver.
+     */
+    static SearchLimits solverLimits(SearchLimits limits) {
+        long time = limits.getTimeMillis() > 0 ? Math.max(1, limits.getTimeMillis() * 2 / 3) : 0;
+        long nodes = limits.getMaxNodes() > 0 ? Math.max(1, limits.getMaxNodes() * 2 / 3) : 0;
+        if (time == 0 && nodes == 0 && limits.getMaxDepth() > 0) {
+            nodes = SOLVER_NODES_PER_DEPTH;
+            for (int depth = 0; depth < limits.getMaxDepth() && nodes < MAX_SOLVER_NODES; depth++) {
+                nodes *= 3;
+            }
+            nodes = Math.min(nodes, MAX_SOLVER_NODES);
+        }
+        return new SearchLimits(0, time, nodes);
+    }
+
+    /**
+     * Searches a single root move with a window, for the root splitting of a
+     * parallel search.
+     *
+     * @param snapshot The position of the root.
+     * @param player The color of the player to move at the root.
+     * @param move The root move to search.
+     * @param depth The depth of the search, the root move included.
+     * @param alpha The lower bound of the window.
+     * @param beta The upper bound of the window.
+     * @param limits The budget of the search.
+     * @return The score of the move for the player, meaningless if the
+     * search was aborted.
+     */
+    int searchMove(BoardSnapshot snapshot, ColorPiece player, int move, int depth, int alpha, int beta, SearchLimits limits) {
+        prepare(new SearchBoard(snapshot), limits, System.nanoTime());
+        long[] flipped = new long[board.getWordCount()];
+        board.makeMove(move, player, flipped);
+        return -negamax(depth - 1, 1, player.opposite(), -beta, -alpha);
+    }
+
+    /**
+     * Shares the node budget with the other threads of a parallel search:
+     * the limit then holds for the nodes of all the threads together.
+     *
+     * @param counter The nodes of all the threads, reset by the caller at
+     * the start of each search, or null for a budget of its own.
+     */
+    void shareNodes(AtomicLong counter) {
+        this.sharedNodes = counter;
+    }
+
+    /**
+     * Checks if a stop was requested and not reset since.
+     *
+     * @return True if the next search will stop at once.
+     */
+    boolean isStopRequested() {
+        return stopRequested;
+    }
+
+    /**
+     * Checks if the last search was stopped by a limit or a stop request.
+     *
+     * @return True if the last search did not finish.
+     */
+    boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * Clears a previous stop request. A stop holds until this method is
+     * called, so that a stop coming before the search starts is not lost:
+     * a search run on another thread is reset by the thread submitting it,
+     * before it is queued.
+     */
+    public void resetStop() {
+        stopRequested = false;
+        if (solver != null) {
+            solver.resetStop();
+        }
+    }
+
+    /**
+     * Asks a running search to stop as soon as possible. The search then
+     * returns the best move of its last finished iteration. The request also
+     * stops the next searches at once, until {@link #resetStop()}.
+     */
+    public void stop() {
+        stopRequested = true;
+        if (solver != null) {
+            solver.stop();
+        }
+    }
+
+    /**
+     * Sets the listener told of the best move after each finished iteration
+     * of the iterative deepening, on the thread of the search.
+     *
+     * @param listener The listener, or null for none.
+     */
+    public void setProgressListener(Consumer<SearchResult> listener) {
+        this.progress = listener;
+    }
+
+    /**
+     * Returns the number of nodes visited by the current or last search.
+     *
+     * @return The number of nodes.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the number of beta cutoffs of the current or last search.
+     *
+     * @return The number of cutoffs.
+     */
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    /**
+     * Returns the number of beta cutoffs caused by the first move searched,
+     * which is as high as the ordering is good.
+     *
+     * @return The number of first-move cutoffs.
+     */
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    /**
+     * Returns the number of positions cut off by a child found in the
+     * transposition table before searching them.
+     *
+     * @return The number of enhanced transposition cutoffs.
+     */
+    public long getEtcCutoffs() {
+        return etcCutoffs;
+    }
+
+    /**
+     * Returns the number of positions cut off by a ProbCut check.
+     *
+     * @return The number of selective cutoffs.
+     */
+    public long getProbCutCutoffs() {
+        return probCutCutoffs;
+    }
+
+    /**
+     * Returns the number of positions cut off by their stable discs.
+     *
+     * @return The number of stability cutoffs.
+     */
+    public long getStabilityCutoffs() {
+        return stabilityCutoffs;
+    }
+
+    /**
+     * Resets the state of the search and allocates the per-ply buffers.
+     *
+     * @param board The position to search.
+     * @param limits The budget of the search.
+     * @param start The start time in nanoseconds.
+     */
+    private void prepare(SearchBoard board, SearchLimits limits, long start) {
+        this.board = board;
+        this.nodes = 0;
+        this.cutoffs = 0;
+        this.firstMoveCutoffs = 0;
+        this.etcCutoffs = 0;
+        this.probCutCutoffs = 0;
+        this.stabilityCutoffs = 0;
+        this.probCut = probCuts == null ? null : probCuts.apply(board.getSize());
+        this.probing = false;
+        this.aborted = stopRequested;
+        this.nodeLimit = limits.getMaxNodes() > 0 ? limits.getMaxNodes() : Long.MAX_VALUE;
+        this.reportedNodes = 0;
+        this.deadline = limits.getTimeMillis() > 0 ? start + limits.getTimeMillis() * 1_000_000L : Long.MAX_VALUE;
+        if (moves.length == 0 || moves[0].length != board.getSquareCount()) {
+            moves = new int[MAX_PLY][board.getSquareCount()];
+            flips = new long[MAX_PLY][board.getWordCount()];
+        }
+        ordering.newSearch(board);
+    }
+
+    /**
+     * Searches the moves of the root with a window, the best move found so far
+     * being moved to the front for the next iteration.
+     *
+     * @param rootMoves The moves of the root, best first.
+     * @param count The number of moves.
+     * @param player The color of the player to move.
+     * @param depth The depth of the iteration.
+     * @param alpha The lower bound of the window.
+     * @param beta The upper bound of the window.
+     * @param score Receives the score of the best move.
+     * @return The best move, or -1 if the search was aborted before any move
+     * was fully searched.
+     */
+    private int searchRoot(int[] rootMoves, int count, ColorPiece player, int depth, int alpha, int beta, int[] score) {
+        int best = -Score.INFINITY;
+        int bestIndex = -1;
+        long[] flipped = flips[0];
+        for (int i = 0; i < count; i++) {
+            board.makeMove(rootMoves[i], player, flipped);
+            int value;
+            if (i == 0) {
+                value = -negamax(depth - 1, 1, player.opposite(), -beta, -alpha);
+            } else {
+                value = -negamax(depth - 1, 1, player.opposite(), -alpha - 1, -alpha);
+                if (value > alpha && value < beta && !aborted) {
+                    value = -negamax(depth - 1, 1, player.opposite(), -beta, -alpha);
+                }
+            }
+            board.unmakeMove(rootMoves[i], player, flipped);
+            if (aborted) {
+                break;
+            }
+            if (value > best) {
+                best = value;
+                bestIndex = i;
+                if (value > alpha) {
+                    alpha = value;
+                }
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+        score[0] = best;
+        if (bestIndex < 0 || aborted && bestIndex == 0) {
+            return -1;
+        }
+        int move = rootMoves[bestIndex];
+        System.arraycopy(rootMoves, 0, rootMoves, 1, bestIndex); // Best move first for the next iteration
+        rootMoves[0] = move;
+        return move;
+    }
+
+    /**
+     * Principal-variation negamax search of a position.
+     *
+     * @param depth The remaining depth.
+     * @param ply The distance to the root.
+     * @param player The color of the player to move.
+     * @param alpha The lower bound of the window.
+     * @param beta The upper bound of the window.
+     * @return The score of the position for the player.
+     */
+    private int negamax(int depth, int ply, ColorPiece player, int alpha, int beta) {
+        if ((++nodes & CHECK_INTERVAL) == 0) {
+            checkLimits();
+        }
+        if (aborted) {
+            return 0;
+        }
+        if (depth == 0 || ply >= MAX_PLY - 1) {
+            return evaluator.evaluate(board, player);
+        }
+        int[] list = moves[ply];
+        int count = board.generateMoves(player, list);
+        if (count == 0) {
+            if (!board.hasValidMoves(player.opposite())) {
+                return Score.ofResult(board.countPieces(player) - board.countPieces(player.opposite()));
+            }
+            return -negamax(depth, ply + 1, player.opposite(), -beta, -alpha); // Pass, the depth is kept
+        }
+
+        int alphaOrigin = alpha;
+        long key = 0;
+        int tableMove = -1;
+        if (table != null) {
+            key = board.getKey(player);
+            long entry = table.probe(key);
+            if (entry != 0) {
+                if (TranspositionTable.depthOf(entry) >= depth) {
+                    int stored = TranspositionTable.scoreOf(entry);
+                    int bound = TranspositionTable.boundOf(entry);
+                    if (bound == TranspositionTable.EXACT
+                            || bound == TranspositionTable.LOWER && stored >= beta
+                            || bound == TranspositionTable.UPPER && stored <= alpha) {
+                        return stored;
+                    }
+                }
+                tableMove = TranspositionTable.moveOf(entry);
+            }
+            if (depth >= ETC_MIN_DEPTH) {
+                int refutation = probeChildren(list, count, player, depth, ply, beta);
+                if (refutation >= beta) {
+                    etcCutoffs++;
+                    return refutation;
+                }
+            }
+        }
+        int stabilityBound = stabilityCutoff(player, alpha, beta);
+        if (stabilityBound != NO_CUT) {
+            stabilityCutoffs++;
+            return stabilityBound;
+        }
+        if (probCut != null && !probing && beta == alpha + 1 && depth >= ProbCut.MIN_DEPTH
+                && depth < board.countEmpty() && alpha > -Score.MAX_EVAL && beta < Score.MAX_EVAL) {
+            int cut = probCut(depth, ply, player, alpha, beta);
+            if (cut != NO_CUT) {
+                probCutCutoffs++;
+                return cut;
+            }
+        }
+        ordering.order(board, player, list, count, ply, depth, tableMove);
+
+        long[] flipped = flips[ply];
+        int best = -Score.INFINITY;
+        int bestMove = -1;
+        for (int i = 0; i < count; i++) {
+            int move = list[i];
+            board.makeMove(move, player, flipped);
+            int value;
+            if (i == 0) {
+                value = -negamax(depth - 1, ply + 1, player.opposite(), -beta, -alpha);
+            } else {
+                value = -negamax(depth - 1, ply + 1, player.opposite(), -alpha - 1, -alpha);
+                if (value > alpha && value < beta) {
+                    value = -negamax(depth - 1, ply + 1, player.opposite(), -beta, -alpha);
+                }
+            }
+            board.unmakeMove(move, player, flipped);
+            if (value > best) {
+                best = value;
+                bestMove = move;
+                if (value > alpha) {
+                    alpha = value;
+                    if (alpha >= beta) {
+                        cutoffs++;
+                        if (i == 0) {
+                            firstMoveCutoffs++;
+                        }
+                        ordering.cutoff(player, move, ply, depth);
+                        break;
+                    }
+                }
+            }
+        }
+        if (table != null && !aborted) {
+            int bound = best <= alphaOrigin ? TranspositionTable.UPPER
+                    : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(key, depth, bound, best, bestMove);
+        }
+        return best;
+    }
+
+    /**
+     * Looks for a child of a position whose stored score already refutes the
+     * window: its upper bound, seen from the parent, is at least beta.
+     *
+     * @param list The moves of the position.
+     * @param count The number of moves.
+     * @param player The color of the player to move.
+     * @param depth The remaining depth of the position.
+     * @param ply The distance to the root.
+     * @param beta The upper bound of the window.
+     * @return The score of the refuting child for the player, or
+     * -Score.INFINITY if none was found.
+     */
+    private int probeChildren(int[] list, int count, ColorPiece player, int depth, int ply, int beta) {
+        long[] flipped = flips[ply];
+        for (int i = 0; i < count; i++) {
+            board.makeMove(list[i], player, flipped);
+            long entry = table.probe(board.getKey(player.opposite()));
+            board.unmakeMove(list[i], player, flipped);
+            if (entry != 0 && TranspositionTable.depthOf(entry) >= depth - 1) {
+                int bound = TranspositionTable.boundOf(entry);
+                int value = -TranspositionTable.scoreOf(entry);
+                if ((bound == TranspositionTable.UPPER || bound == TranspositionTable.EXACT) && value >= beta) {
+                    return value;
+                }
+            }
+        }
+        return -Score.INFINITY;
+    }
+
+    /**
+     * Bounds the final result of a position by its stable discs: the player
+     * cannot end with more than the squares the opponent's stable discs leave
+     * free, nor with less than its own stable discs. The stable discs are
+     * only computed when the pieces on the board allow a cutoff.
+     *
+     * @param player The color of the player to move.
+     * @param alpha The lower bound of the window.
+     * @param beta The upper bound of the window.
+     * @return The bound outside the window, or NO_CUT.
+     */
+    private int stabilityCutoff(ColorPiece player, int alpha, int beta) {
+        int squares = board.getSquareCount();
+        ColorPiece opponent = player.opposite();
+        if (Score.ofResult(squares - 2 * board.countPieces(opponent)) <= alpha) {
+            int upper = Score.ofResult(squares - 2 * board.countStableDiscs(opponent));
+            if (upper <= alpha) {
+                return upper;
+            }
+        }
+        if (Score.ofResult(2 * board.countPieces(player) - squares) >= beta) {
+            int lower = Score.ofResult(2 * board.countStableDiscs(player) - squares);
+            if (lower >= beta) {
+                return lower;
+            }
+        }
+        return NO_CUT;
+    }
+
+    /**
+     * Runs the ProbCut checks of a position: null-window shallow searches
+     * around the scores that make the deep score likely to be outside the
+     * window. The shallow searches are not selective themselves, as during
+     * the calibration.
+     *
+     * @param depth The remaining depth of the position.
+     * @param ply The distance to the root.
+     * @param player The color of the player to move.
+     * @param alpha The lower bound of the null window.
+     * @param beta The upper bound of the null window.
+     * @return Beta or alpha if the position is cut off, NO_CUT otherwise.
+     */
+    private int probCut(int depth, int ply, ColorPiece player, int alpha, int beta) {
+        int phase = probCut.phaseOf(board.countEmpty());
+        int checks = probCut.getCheckCount(phase, depth);
+        probing = true;
+        try {
+            for (int check = 0; check < checks && !aborted; check++) {
+                int shallow = probCut.getShallowDepth(phase, depth, check);
+                int bound = probCut.getBetaBound(phase, depth, check, beta);
+                if (bound < Score.MAX_EVAL && negamax(shallow, ply, player, bound - 1, bound) >= bound) {
+                    return beta;
+                }
+                bound = probCut.getAlphaBound(phase, depth, check, alpha);
+                if (bound > -Score.MAX_EVAL && negamax(shallow, ply, player, bound, bound + 1) <= bound) {
+                    return alpha;
+                }
+            }
+        } finally {
+            probing = false;
+        }
+        return NO_CUT;
+    }
+
+    /**
+     * Rotates the first moves of a list.
+     *
+     * @param list The moves.
+     * @param count The number of moves.
+     * @param rotation The number of places to rotate by.
+     */
+    private static void rotate(int[] list, int count, int rotation) {
+        int shift = rotation % count;
+        if (shift == 0) {
+            return;
+        }
+        int[] copy = new int[count];
+        for (int i = 0; i < count; i++) {
+            copy[i] = list[(i + shift) % count];
+        }
+        System.arraycopy(copy, 0, list, 0, count);
+    }
+
+    /**
+     * Stops the search when the time or node budget is spent, or when a stop
+     * was requested.
+     */
+    private void checkLimits() {
+        long spent = nodes;
+        if (sharedNodes != null) {
+            spent = sharedNodes.addAndGet(nodes - reportedNodes);
+            reportedNodes = nodes;
+        }
+        if (stopRequested || spent >= nodeLimit || System.nanoTime() >= deadline) {
+            aborted = true;
+        }
+    }
+
+    /**
+     * Counts nodes visited outside of the search, such as those of the
+     * solver, against the node budget.
+     *
+     * @param spent The number of nodes.
+     */
+    private void spendNodes(long spent) {
+        if (sharedNodes != null) {
+            sharedNodes.addAndGet(spent);
+        } else {
+            nodeLimit = Math.max(1, nodeLimit - spent);
+        }
+    }
+}
@@ -0,0 +1,583 @@
+package g56065.atlir.othello.strategy.search;
+
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+
+/**
+ * Exact solver of the end of the game. It searches every move until the end
+ * and returns the final disc difference, the result that
+ * GameOthello.determineWinner uses (the empty squares of a game ended early
+ * count for nobody). It can also only prove the result (win, loss or draw),
+ * which is much faster with a null window.
+ * <ul>
+ * <li>The empty squares are kept in a linked list, corners first, so that the
+ * moves are found without generating them.</li>
+ * <li>Far from the end, moves are tried fastest-first: the one leaving the
+ * opponent the fewest replies first.</li>
+ * <li>Closer to the end, moves in quadrants with an odd number of empty squares
+ * come first (parity): playing last in a region is an advantage.</li>
+ * <li>A position is cut off when the stable discs of the opponent leave the
+ * player no chance to reach alpha, or its own stable discs already reach
+ * beta.</li>
+ * <li>The last four empty squares are played by a specialized kernel, and the
+ * very last one is scored without playing it.</li>
+ * </ul>
+ * The solver has its own transposition table, whose scores are disc
+ * differences. An instance is used by one thread at a time, but
+ * {@link #stop()} can be called from any thread.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public class EndgameSolver {
+
+    /**
+     * Number of empty squares solved exactly by default.
+     */
+    public static final int DEFAULT_EXACT_EMPTIES = 18;
+
+    /**
+     * Additional empty squares for which only the result is proven.
+     */
+    public static final int WIN_LOSS_DRAW_EXTRA = 2;
+
+    private static final int KERNEL_EMPTIES = 4;
+    private static final int FASTEST_FIRST_EMPTIES = 7;
+    private static final int TABLE_MIN_EMPTIES = 9;
+    private static final int STABILITY_MIN_EMPTIES = 6;
+    private static final int CHECK_INTERVAL = 4095;
+    private static final int NO_CUT = Integer.MIN_VALUE;
+
+    private final int exactEmpties;
+    private final TranspositionTable table;
+    private volatile boolean stopRequested;
+    private boolean aborted;
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+
+    private SearchBoard board;
+    private int squares;
+    private int[] next;      // Linked list of the empty squares, the sentinel being squares.
+    private int[] previous;
+    private int[] quadrant;  // Quadrant of each square, for the parity.
+    private int parity;      // Bit q set when quadrant q has an odd number of empty squares.
+    private long[][] flips;
+    private int[][] orderedMoves;
+    private int[][] orderKeys;
+
+    /**
+     * Constructor with the default number of empty squares and a 16 MB table.
+     */
+    public EndgameSolver() {
+        this(DEFAULT_EXACT_EMPTIES, new TranspositionTable(16L << 20));
+    }
+
+    /**
+     * Constructor for the EndgameSolver class.
+     *
+     * @param exactEmpties The largest number of empty squares solved exactly.
+     * @param table The transposition table of the solver, not shared with
+     * midgame searches since its scores are disc differences.
+     */
+    public EndgameSolver(int exactEmpties, TranspositionTable table) {
+        if (exactEmpties < 1) {
+            throw new IllegalArgumentException("The solver needs at least one empty square.");
+        }
+        if (table == null) {
+            throw new IllegalArgumentException("Table cannot be null.");
+        }
+        this.exactEmpties = exactEmpties;
+        this.table = table;
+    }
+
+    /**
+     * Gets the largest number of empty squares solved exactly.
+     *
+     * @return The number of empty squares.
+     */
+    public int getExactEmpties() {
+        return exactEmpties;
+    }
+
+    /**
+     * Checks if a position is close enough to the end to be solved, exactly
+     * or for the result only.
+     *
+     * @param snapshot The position.
+     * @return True if the solver handles the position.
+     */
+    public boolean canSolve(BoardSnapshot snapshot) {
+        return emptiesOf(snapshot) <= exactEmpties + WIN_LOSS_DRAW_EXTRA;
+    }
+
+    /**
+     * Solves a position the best way its number of empty squares allows:
+     * exactly, or for the result only a little further from the end.
+     *
+     * @param snapshot The position to solve.
+     * @param player The color of the player to move.
+     * @param limits The budget of the solver.
+     * @return The best move with its exact score (see {@link Score}), or null
+     * if the budget was spent first.
+     */
+    public SearchResult solve(BoardSnapshot snapshot, ColorPiece player, SearchLimits limits) {
+        if (emptiesOf(snapshot) <= exactEmpties) {
+            return solveExact(snapshot, player, limits);
+        }
+        return solveWinLossDraw(snapshot, player, limits);
+    }
+
+    /**
+     * Finds the move giving the best final disc difference.
+     *
+     * @param snapshot The position to solve.
+     * @param player The color of the player to move.
+     * @param limits The budget of the solver.
+     * @return The best move and its score, Score.ofResult of the final disc
+     * difference, or null if the budget was spent first.
+     */
+    public SearchResult solveExact(BoardSnapshot snapshot, ColorPiece player, SearchLimits limits) {
+        int bound = snapshot.getSize() * snapshot.getSize() + 1;
+        return solveRoot(snapshot, player, limits, -bound, bound, false);
+    }
+
+    /**
+     * Proves the result of the game only: a winning move if there is one,
+     * else a drawing move.
+     *
+     * @param snapshot The position to solve.
+     * @param player The color of the player to move.
+     * @param limits The budget of the solver.
+     * @return The move and its score: Score.WIN for a win of unknown margin,
+     * 0 for a draw, -Score.WIN for a loss, or null if the budget was spent first.
+     */
+    public SearchResult solveWinLossDraw(BoardSnapshot snapshot, ColorPiece player, SearchLimits limits) {
+        return solveRoot(snapshot, player, limits, -1, 1, true);
+    }
+
+    /**
+     * Asks a running solver to stop as soon as possible.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Clears a previous stop request before a solve started by another thread.
+     */
+    void resetStop() {
+        stopRequested = false;
+    }
+
+    /**
+     * Returns the number of nodes of the current or last solve.
+     *
+     * @return The number of nodes.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Counts the empty squares of a position.
+     *
+     * @param snapshot The position.
+     * @return The number of empty squares.
+     */
+    private static int emptiesOf(BoardSnapshot snapshot) {
+        return snapshot.getSize() * snapshot.getSize()
+                - snapshot.countPieces(ColorPiece.BLACK) - snapshot.countPieces(ColorPiece.WHITE);
+    }
+
+    /**
+     * Searches the moves of the root with a window.
+     *
+     * @return The best move, or null if aborted.
+     */
+    private SearchResult solveRoot(BoardSnapshot snapshot, ColorPiece player, SearchLimits limits,
+            int alpha, int beta, boolean winLossDraw) {
+        if (snapshot == null || player == null || limits == null) {
+            throw new IllegalArgumentException("Snapshot, player and limits cannot be null.");
+        }
+        long start = System.nanoTime();
+        prepare(snapshot, limits, start);
+        int empties = board.countEmpty();
+        int count = orderMoves(player, empties, 0, -1);
+        if (count == 0) {
+            return new SearchResult(SearchResult.PASS, 0, 0, 0, System.nanoTime() - start);
+        }
+        int[] moves = orderedMoves[0];
+        long[] flipped = flips[0];
+        int best = -Integer.MAX_VALUE;
+        int bestMove = moves[0];
+        for (int i = 0; i < count && alpha < beta; i++) {
+            int move = moves[i];
+            play(move, player, flipped);
+            int value;
+            if (i == 0) {
+                value = -solve(player.opposite(), -beta, -alpha, empties - 1, 1);
+            } else {
+                value = -solve(player.opposite(), -alpha - 1, -alpha, empties - 1, 1);
+                if (value > alpha && value < beta) {
+                    value = -solve(player.opposite(), -beta, -value, empties - 1, 1);
+                }
+            }
+            undo(move, player, flipped);
+            if (aborted) {
+                return null;
+            }
+            if (value > best) {
+                best = value;
+                bestMove = move;
+                alpha = Math.max(alpha, value);
+            }
+        }
+        int score;
+        if (winLossDraw) {
+            score = best > 0 ? Score.WIN : best < 0 ? -Score.WIN : 0;
+        } else {
+            score = Score.ofResult(best);
+        }
+        return new SearchResult(bestMove, score, empties, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Copies the position and builds the list of empty squares and the parity.
+     */
+    private void prepare(BoardSnapshot snapshot, SearchLimits limits, long start) {
+        board = new SearchBoard(snapshot);
+        int size = board.getSize();
+        if (next == null || squares != size * size) {
+            squares = size * size;
+            next = new int[squares + 1];
+            previous = new int[squares + 1];
+            quadrant = new int[squares];
+            for (int square = 0; square < squares; square++) {
+                quadrant[square] = (square / size < size / 2 ? 0 : 2) + (square % size < size / 2 ? 0 : 1);
+            }
+            int plies = 2 * squares + 2; // Passes included
+            flips = new long[plies][board.getWordCount()];
+            orderedMoves = new int[plies][squares];
+            orderKeys = new int[plies][squares];
+        }
+        int last = squares; // Sentinel
+        parity = 0;
+        for (int priority = 0; priority <= 4; priority++) {
+            for (int square = 0; square < squares; square++) {
+                if (board.getSquare(square) == null && priority(square, size) == priority) {
+                    next[last] = square;
+                    previous[square] = last;
+                    last = square;
+                    parity ^= 1 << quadrant[square];
+                }
+            }
+        }
+        next[last] = squares;
+        previous[squares] = last;
+
+        nodes = 0;
+        aborted = stopRequested;
+        nodeLimit = limits.getMaxNodes() > 0 ? limits.getMaxNodes() : Long.MAX_VALUE;
+        deadline = limits.getTimeMillis() > 0 ? start + limits.getTimeMillis() * 1_000_000L : Long.MAX_VALUE;
+    }
+
+    /**
+     * Gives the static priority of a square in the list of empty squares:
+     * corners first, then edges, inner squares, squares next to a corner on
+     * an edge, and the squares diagonally next to a corner last.
+     */
+    private static int priority(int square, int size) {
+        int row = square / size;
+        int col = square % size;
+        boolean rowEdge = row == 0 || row == size - 1;
+        boolean colEdge = col == 0 || col == size - 1;
+        boolean rowNear = row == 1 || row == size - 2;
+        boolean colNear = col == 1 || col == size - 2;
+        if (rowEdge && colEdge) {
+            return 0;
+        }
+        if (rowNear && colNear && size > 4) {
+            return 4;
+        }
+        if (rowEdge && colNear || colEdge && rowNear) {
+            return 3;
+        }
+        return rowEdge || colEdge ? 1 : 2;
+    }
+
+    /**
+     * Negamax search of the final disc difference.
+     *
+     * @param player The color of the player to move.
+     * @param alpha The lower bound of the window.
+     * @param beta The upper bound of the window.
+     * @param empties The number of empty squares.
+     * @param ply The distance to the root.
+     * @return The final disc difference for the player, or a bound outside
+     * the window.
+     */
+    private int solve(ColorPiece player, int alpha, int beta, int empties, int ply) {
+        if ((++nodes & CHECK_INTERVAL) == 0) {
+            checkLimits();
+        }
+        if (aborted) {
+            return 0;
+        }
+        if (empties == 0) {
+            return difference(player);
+        }
+        if (empties == 1) {
+            return solveLast(player, next[squares]);
+        }
+        if (empties <= KERNEL_EMPTIES) {
+            return solveKernel(player, alpha, beta, empties, ply, false);
+        }
+
+        long key = 0;
+        int tableMove = -1;
+        if (empties >= TABLE_MIN_EMPTIES) {
+            key = board.getKey(player);
+            long entry = table.probe(key);
+            if (entry != 0) {
+                if (TranspositionTable.depthOf(entry) >= empties) {
+                    int stored = TranspositionTable.scoreOf(entry);
+                    int bound = TranspositionTable.boundOf(entry);
+                    if (bound == TranspositionTable.EXACT
+                            || bound == TranspositionTable.LOWER && stored >= beta
+                            || bound == TranspositionTable.UPPER && stored <= alpha) {
+                        return stored;
+                    }
+                }
+                tableMove = TranspositionTable.moveOf(entry);
+            }
+        }
+
+        if (empties >= STABILITY_MIN_EMPTIES) {
+            int bound = stabilityCutoff(player, alpha, beta);
+            if (bound != NO_CUT) {
+                return bound;
+            }
+        }
+
+        int count = orderMoves(player, empties, ply, tableMove);
+        if (count == 0) {
+            if (!board.hasValidMoves(player.opposite())) {
+                return difference(player);
+            }
+            return -solve(player.opposite(), -beta, -alpha, empties, ply + 1); // Pass
+        }
+        int alphaOrigin = alpha;
+        int[] moves = orderedMoves[ply];
+        long[] flipped = flips[ply];
+        int best = -Integer.MAX_VALUE;
+        int bestMove = -1;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            play(move, player, flipped);
+            int value;
+            if (i == 0) {
+                value = -solve(player.opposite(), -beta, -alpha, empties - 1, ply + 1);
+            } else {
+                value = -solve(player.opposite(), -alpha - 1, -alpha, empties - 1, ply + 1);
+                if (value > alpha && value < beta) {
+                    value = -solve(player.opposite(), -beta, -value, empties - 1, ply + 1);
+                }
+            }
+            undo(move, player, flipped);
+            if (value > best) {
+                best = value;
+                bestMove = move;
+                if (value > alpha) {
+                    alpha = value;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (empties >= TABLE_MIN_EMPTIES && !aborted) {
+            int bound = best <= alphaOrigin ? TranspositionTable.UPPER
+                    : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(key, empties, bound, best, bestMove);
+        }
+        return best;
+    }
+
+    /**
+     * Bounds the final disc difference by the stable discs: the opponent
+     * keeps at least its stable discs and the player at least its own. The
+     * stable discs are only computed when the pieces allow a cutoff.
+     *
+     * @param player The color of the player to move.
+     * @param alpha The lower bound of the window.
+     * @param beta The upper bound of the window.
+     * @return The bound outside the window, or NO_CUT.
+     */
+    private int stabilityCutoff(ColorPiece player, int alpha, int beta) {
+        ColorPiece opponent = player.opposite();
+        if (squares - 2 * board.countPieces(opponent) <= alpha) {
+            int upper = squares - 2 * board.countStableDiscs(opponent);
+            if (upper <= alpha) {
+                return upper;
+            }
+        }
+        if (2 * board.countPieces(player) - squares >= beta) {
+            int lower = 2 * board.countStableDiscs(player) - squares;
+            if (lower >= beta) {
+                return lower;
+            }
+        }
+        return NO_CUT;
+    }
+
+    /**
+     * Kernel for the last few empty squares: the moves are found by trying
+     * the squares of the list, those in odd quadrants first, without any
+     * ordering nor table.
+     *
+     * @param passed True if the opponent just passed.
+     */
+    private int solveKernel(ColorPiece player, int alpha, int beta, int empties, int ply, boolean passed) {
+        long[] flipped = flips[ply];
+        int best = -Integer.MAX_VALUE;
+        for (int pass = 0; pass < 2; pass++) {
+            for (int square = next[squares]; square != squares; square = next[square]) {
+                boolean odd = (parity & (1 << quadrant[square])) != 0;
+                if (odd != (pass == 0) || board.makeMove(square, player, flipped) == 0) {
+                    continue;
+                }
+                remove(square);
+                int value = empties == 2
+                        ? -solveLast(player.opposite(), next[squares])
+                        : -solve(player.opposite(), -beta, -Math.max(alpha, best), empties - 1, ply + 1);
+                restore(square);
+                board.unmakeMove(square, player, flipped);
+                if (value > best) {
+                    best = value;
+                    if (best >= beta) {
+                        return best;
+                    }
+                }
+            }
+        }
+        if (best != -Integer.MAX_VALUE) {
+            return best;
+        }
+        if (passed) {
+            return difference(player); // Nobody can play
+        }
+        nodes++;
+        return -solveKernel(player.opposite(), -beta, -alpha, empties, ply + 1, true);
+    }
+
+    /**
+     * Scores the last empty square without playing it: the player gains the
+     * square and the flipped pieces, which the opponent loses.
+     *
+     * @param player The color of the player to move.
+     * @param square The last empty square.
+     * @return The final disc difference for the player.
+     */
+    private int solveLast(ColorPiece player, int square) {
+        nodes++;
+        int difference = difference(player);
+        int captures = board.countCaptures(square, player);
+        if (captures > 0) {
+            return difference + 2 * captures + 1;
+        }
+        captures = board.countCaptures(square, player.opposite());
+        if (captures > 0) {
+            return difference - 2 * captures - 1;
+        }
+        return difference;
+    }
+
+    /**
+     * Lists and orders the valid moves of a position: the table move first,
+     * then fastest-first far from the end, odd quadrants first closer to it.
+     *
+     * @param tableMove The best move stored in the table, or -1.
+     * @return The number of valid moves.
+     */
+    private int orderMoves(ColorPiece player, int empties, int ply, int tableMove) {
+        int[] moves = orderedMoves[ply];
+        int[] keys = orderKeys[ply];
+        long[] flipped = flips[ply];
+        int count = 0;
+        for (int square = next[squares]; square != squares; square = next[square]) {
+            int key;
+            if (empties > FASTEST_FIRST_EMPTIES) {
+                if (board.makeMove(square, player, flipped) == 0) {
+                    continue;
+                }
+                key = board.countMoves(player.opposite()) * 2;
+                board.unmakeMove(square, player, flipped);
+            } else {
+                if (board.countCaptures(square, player) == 0) {
+                    continue;
+                }
+                key = 0;
+            }
+            if ((parity & (1 << quadrant[square])) == 0) {
+                key++;
+            }
+            if (square == tableMove) {
+                key = -1;
+            }
+            int i = count++;
+            while (i > 0 && keys[i - 1] > key) { // Insertion sort, stable for equal keys
+                moves[i] = moves[i - 1];
+                keys[i] = keys[i - 1];
+                i--;
+            }
+            moves[i] = square;
+            keys[i] = key;
+        }
+        return count;
+    }
+
+    /**
+     * Plays a move and removes its square from the list of empty squares.
+     */
+    private void play(int square, ColorPiece player, long[] flipped) {
+        board.makeMove(square, player, flipped);
+        remove(square);
+    }
+
+    /**
+     * Takes back a move and puts its square back in the list.
+     */
+    private void undo(int square, ColorPiece player, long[] flipped) {
+        restore(square);
+        board.unmakeMove(square, player, flipped);
+    }
+
+    private void remove(int square) {
+        next[previous[square]] = next[square];
+        previous[next[square]] = previous[square];
+        parity ^= 1 << quadrant[square];
+    }
+
+    private void restore(int square) {
+        next[previous[square]] = square;
+        previous[next[square]] = square;
+        parity ^= 1 << quadrant[square];
+    }
+
+    /**
+     * Returns the disc difference of the current position.
+     */
+    private int difference(ColorPiece player) {
+        return board.countPieces(player) - board.countPieces(player.opposite());
+    }
+
+    /**
+     * Stops the solver when the time or node budget is spent, or when a stop
+     * was requested.
+     */
+    private void checkLimits() {
+        if (stopRequested || nodes >= nodeLimit || System.nanoTime() >= deadline) {
+            aborted = true;
+        }
+    }
+}
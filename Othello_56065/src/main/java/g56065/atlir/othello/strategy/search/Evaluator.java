@@ -0,0 +1,24 @@
+package g56065.atlir.othello.strategy.search;
+
+import g56065.atlir.othello.model.ColorPiece;
+
+/**
+ * Static evaluation of the positions reached at the horizon of a search.
+ * Scores are seen from the side of the given player and must stay strictly
+ * between -Score.MAX_EVAL and Score.MAX_EVAL, so that they never get mixed up
+ * with the exact scores of finished games. An evaluator may keep scratch
+ * state, so each search thread uses its own instance.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public interface Evaluator {
+
+    /**
+     * Evaluates a position.
+     *
+     * @param board The position to evaluate.
+     * @param player The color of the player to move.
+     * @return The score of the position for that player, higher is better.
+     */
+    int evaluate(SearchBoard board, ColorPiece player);
+}
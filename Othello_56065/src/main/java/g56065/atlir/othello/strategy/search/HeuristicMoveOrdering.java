@@ -0,0 +1,142 @@
+package g56065.atlir.othello.strategy.search;
+
+import g56065.atlir.othello.model.ColorPiece;
+import java.util.Arrays;
+
+/**
+ * Move ordering combining the usual heuristics of Othello programs. Each move
+ * gets a key, the highest first:
+ * <ul>
+ * <li>the best move stored in the transposition table comes first;</li>
+ * <li>then the two killer moves of the ply, the last moves that caused a
+ * cutoff at the same distance from the root;</li>
+ * <li>far enough from the horizon, the fewer moves the opponent has after
+ * the move the better (fastest-first), which also favours quiet moves;</li>
+ * <li>a static prior of the square: corners are good, the squares next to a
+ * corner are bad while it is empty;</li>
+ * <li>the history of the square: how deep the cutoffs it caused were.</li>
+ * </ul>
+ *
+ * Author: Youssef El Ouahabi
+ */
+public class HeuristicMoveOrdering implements MoveOrdering {
+
+    private static final int TABLE_MOVE = 1 << 30;
+    private static final int FIRST_KILLER = 4 << 16;
+    private static final int SECOND_KILLER = 2 << 16;
+    private static final int MOBILITY = 1 << 16;          // Value of one opponent move fewer.
+    private static final int MAX_MOBILITY = 256;
+    private static final int MOBILITY_MIN_DEPTH = 3;     // Closer to the horizon, counting replies costs too much.
+    private static final int CORNER = 12 * MOBILITY;
+    private static final int X_SQUARE = -6 * MOBILITY;
+    private static final int C_SQUARE = -2 * MOBILITY;
+    private static final int MAX_HISTORY = MOBILITY - 1;
+
+    private final int[][] killers = new int[AlphaBetaSearch.MAX_PLY][2];
+    private final int[][] history = new int[2][];
+    private int[] keys = new int[0];
+    private long[] flips = new long[0];
+    private int size;
+    private int[] priors = new int[0];
+    private int[] corners = new int[0]; // Corner next to each square, or -1.
+
+    @Override
+    public void newSearch(SearchBoard board) {
+        if (board.getSize() != size) {
+            size = board.getSize();
+            int squares = board.getSquareCount();
+            keys = new int[squares];
+            flips = new long[board.getWordCount()];
+            history[0] = new int[squares];
+            history[1] = new int[squares];
+            priors = new int[squares];
+            corners = new int[squares];
+            computePriors();
+        }
+        for (int[] pair : killers) {
+            pair[0] = -1;
+            pair[1] = -1;
+        }
+        for (int[] colorHistory : history) {
+            for (int square = 0; square < colorHistory.length; square++) {
+                colorHistory[square] /= 4; // The old cutoffs count less
+            }
+        }
+    }
+
+    @Override
+    public void order(SearchBoard board, ColorPiece player, int[] moves, int count, int ply, int depth, int tableMove) {
+        int[] colorHistory = history[player.ordinal()];
+        int[] killer = killers[Math.min(ply, killers.length - 1)];
+        boolean mobility = depth >= MOBILITY_MIN_DEPTH && count > 1;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int key;
+            if (move == tableMove) {
+                key = TABLE_MOVE;
+            } else {
+                int prior = priors[move];
+                if (prior < 0 && board.getSquare(corners[move]) != null) {
+                    prior = 0; // The corner is taken, its neighbours are safe
+                }
+                key = prior + colorHistory[move];
+                if (move == killer[0]) {
+                    key += FIRST_KILLER;
+                } else if (move == killer[1]) {
+                    key += SECOND_KILLER;
+                }
+                if (mobility) {
+                    board.makeMove(move, player, flips);
+                    key += (MAX_MOBILITY - board.countMoves(player.opposite())) * MOBILITY;
+                    board.unmakeMove(move, player, flips);
+                }
+            }
+            int j = i; // Insertion sort, highest key first
+            while (j > 0 && keys[j - 1] < key) {
+                moves[j] = moves[j - 1];
+                keys[j] = keys[j - 1];
+                j--;
+            }
+            moves[j] = move;
+            keys[j] = key;
+        }
+    }
+
+    @Override
+    public void cutoff(ColorPiece player, int move, int ply, int depth) {
+        int[] killer = killers[Math.min(ply, killers.length - 1)];
+        if (killer[0] != move) {
+            killer[1] = killer[0];
+            killer[0] = move;
+        }
+        int[] colorHistory = history[player.ordinal()];
+        colorHistory[move] = Math.min(MAX_HISTORY, colorHistory[move] + depth * depth);
+    }
+
+    /**
+     * Computes the static priors of the squares: corners are good, the
+     * squares next to a corner are bad, but only while the corner is empty.
+     */
+    private void computePriors() {
+        int last = size - 1;
+        Arrays.fill(corners, -1);
+        if (size < 4) {
+            return;
+        }
+        int[] cornerSquares = {0, last, last * size, last * size + last};
+        int[] rowSteps = {size, size, -size, -size};
+        int[] colSteps = {1, -1, 1, -1};
+        for (int c = 0; c < 4; c++) {
+            int corner = cornerSquares[c];
+            priors[corner] = CORNER;
+            int[] neighbours = {corner + rowSteps[c], corner + colSteps[c], corner + rowSteps[c] + colSteps[c]};
+            for (int i = 0; i < neighbours.length; i++) {
+                if (i == 2 && size < 5) {
+                    continue; // The X-square is too close to the other corners on tiny boards
+                }
+                priors[neighbours[i]] = i == 2 ? X_SQUARE : C_SQUARE;
+                corners[neighbours[i]] = corner;
+            }
+        }
+    }
+}
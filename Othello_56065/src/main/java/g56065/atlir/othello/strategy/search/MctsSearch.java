@@ -0,0 +1,440 @@
+package g56065.atlir.othello.strategy.search;
+
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monte Carlo tree search with the UCT selection rule. It needs no evaluation,
+ * so it plays every board size from 3 to 15 without tuning.
+ * Several threads grow the same tree (tree parallelism): the visit of a node
+ * is counted as soon as a thread goes through it, before its result is
+ * known, which acts as a virtual loss and sends the other threads elsewhere.
+ * Several independent trees can also be grown at the same time (root
+ * parallelism), their root statistics being merged at the end.
+ * Playouts play random moves on a private {@link SearchBoard} of each
+ * thread and take them back afterwards, without allocating.
+ * Close to the end of the game, an optional {@link EndgameSolver} replaces
+ * the playouts by an exact search.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public class MctsSearch {
+
+    /**
+     * Exploration constant used by default, close to sqrt(2).
+     */
+    public static final double DEFAULT_EXPLORATION = 1.4;
+
+    /**
+     * Number of playouts used when the limits give no budget.
+     */
+    public static final long DEFAULT_PLAYOUTS = 20_000;
+
+    private static final int MAX_TREE_NODES = 4_000_000; // Per tree, the leaves stop growing beyond.
+    private static final int CHECK_INTERVAL = 64; // Playouts between two checks of the limits.
+
+    private final int trees;
+    private final int threadsPerTree;
+    private final double exploration;
+    private final long seed;
+    private final EndgameSolver solver;
+    private final ExecutorService executor; // Null with a single thread.
+    private volatile boolean stopRequested;
+
+    /**
+     * Constructor for the MctsSearch class.
+     *
+     * @param trees The number of independent trees (root parallelism).
+     * @param threadsPerTree The number of threads growing each tree (tree parallelism).
+     * @param exploration The exploration constant of UCT.
+     * @param seed The seed of the random playouts.
+     */
+    public MctsSearch(int trees, int threadsPerTree, double exploration, long seed) {
+        this(trees, threadsPerTree, exploration, seed, null);
+    }
+
+    /**
+     * Constructor with an endgame solver.
+     *
+     * @param trees The number of independent trees (root parallelism).
+     * @param threadsPerTree The number of threads growing each tree (tree parallelism).
+     * @param exploration The exploration constant of UCT.
+     * @param seed The seed of the random playouts.
+     * @param solver The solver of the end of the game, or null.
+     */
+    public MctsSearch(int trees, int threadsPerTree, double exploration, long seed, EndgameSolver solver) {
+        if (trees < 1 || threadsPerTree < 1) {
+            throw new IllegalArgumentException("At least one tree and one thread are needed.");
+        }
+        if (exploration < 0) {
+            throw new IllegalArgumentException("The exploration constant cannot be negative.");
+        }
+        this.trees = trees;
+        this.threadsPerTree = threadsPerTree;
+        this.exploration = exploration;
+        this.seed = seed;
+        this.solver = solver;
+        int threads = trees * threadsPerTree;
+        if (threads > 1) {
+            AtomicInteger number = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(threads - 1, runnable -> {
+                Thread thread = new Thread(runnable, "mcts-worker-" + number.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Searches the best move of a player. The move with the most visits is
+     * chosen; its score is its win rate scaled to [-1000, 1000]. A position
+     * solved by the endgame solver scores 1000 for a win, 0 for a draw and
+     * -1000 for a loss.
+     *
+     * @param snapshot The position to search.
+     * @param player The color of the player to move.
+     * @param limits The budget: time and number of playouts, the depth is
+     * ignored. The endgame solver uses half of it, one playout being worth
+     * one solver node per square. A search stopped before it starts returns
+     * at once, see {@link #resetStop()}.
+     * @return The chosen move, with the number of playouts as nodes.
+     */
+    public SearchResult search(BoardSnapshot snapshot, ColorPiece player, SearchLimits limits) {
+        if (snapshot == null || player == null || limits == null) {
+            throw new IllegalArgumentException("Snapshot, player and limits cannot be null.");
+        }
+        long start = System.nanoTime();
+        int squares = snapshot.getSize() * snapshot.getSize();
+        int[] rootMoves = new int[squares];
+        if (snapshot.generateMoves(player, rootMoves) == 0) {
+            return new SearchResult(SearchResult.PASS, 0, 0, 0, System.nanoTime() - start);
+        }
+        long maxPlayouts = limits.getMaxNodes() > 0 ? limits.getMaxNodes()
+                : limits.getTimeMillis() > 0 ? Long.MAX_VALUE : DEFAULT_PLAYOUTS;
+        if (solver != null && solver.canSolve(snapshot)) {
+            // The solver gets half of the budget, the playouts use the rest if it fails. A playout
+            // plays about one move per square, so it is worth that many solver nodes.
+            long solverTime = limits.getTimeMillis() > 0 ? Math.max(1, limits.getTimeMillis() / 2) : 0;
+            long solverNodes = maxPlayouts == Long.MAX_VALUE ? 0 : Math.max(1, maxPlayouts / 2 * squares);
+            SearchResult solved = solver.solve(snapshot, player, new SearchLimits(0, solverTime, solverNodes));
+            if (solved != null) {
+                return new SearchResult(solved.getMove(), Integer.signum(solved.getScore()) * 1000,
+                        solved.getDepth(), solved.getNodes(), System.nanoTime() - start);
+            }
+            if (maxPlayouts != Long.MAX_VALUE) {
+                maxPlayouts = Math.max(1, maxPlayouts - solver.getNodes() / squares);
+            }
+        }
+        long deadline = limits.getTimeMillis() > 0 ? start + limits.getTimeMillis() * 1_000_000L : Long.MAX_VALUE;
+        long budget = maxPlayouts;
+        AtomicLong playouts = new AtomicLong();
+
+        Tree[] forest = new Tree[trees];
+        List<Future<?>> workers = new ArrayList<>();
+        Runnable own = null;
+        for (int t = 0; t < trees; t++) {
+            forest[t] = new Tree(player);
+            for (int w = 0; w < threadsPerTree; w++) {
+                Worker worker = new Worker(forest[t], snapshot, player, seed + t * threadsPerTree + w);
+                Runnable task = () -> worker.run(playouts, budget, deadline);
+                if (own == null) {
+                    own = task;
+                } else {
+                    workers.add(executor.submit(task));
+                }
+            }
+        }
+        own.run();
+        for (Future<?> worker : workers) {
+            SearchThreads.join(worker);
+        }
+
+        long[] visits = new long[squares]; // Root statistics of all the trees, by move
+        long[] rewards = new long[squares];
+        int depth = 0;
+        for (Tree tree : forest) {
+            depth = Math.max(depth, tree.maxDepth.get());
+            Node[] children = tree.root.children;
+            if (children != null) {
+                for (Node child : children) {
+                    visits[child.move] += child.visits();
+                    rewards[child.move] += child.reward();
+                }
+            }
+        }
+        int best = rootMoves[0];
+        for (int square = 0; square < squares; square++) {
+            if (visits[square] > visits[best]) {
+                best = square;
+            }
+        }
+        int score = visits[best] == 0 ? 0 : (int) Math.round((rewards[best] / (double) visits[best] - 1) * 1000);
+        return new SearchResult(best, score, depth, playouts.get(), System.nanoTime() - start);
+    }
+
+    /**
+     * Asks a running search to stop as soon as possible. The request also
+     * stops the next searches at once, until {@link #resetStop()}.
+     */
+    public void stop() {
+        stopRequested = true;
+        if (solver != null) {
+            solver.stop();
+        }
+    }
+
+    /**
+     * Clears a previous stop request. A search run on another thread is
+     * reset by the thread submitting it, before it is queued, so that a stop
+     * coming before it starts is not lost.
+     */
+    public void resetStop() {
+        stopRequested = false;
+        if (solver != null) {
+            solver.resetStop();
+        }
+    }
+
+    /**
+     * Stops the worker threads for good. The search can still be used, on
+     * the calling thread only.
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * A tree shared by the threads of tree parallelism.
+     */
+    private static final class Tree {
+
+        final Node root;
+        final AtomicInteger nodeCount = new AtomicInteger(1);
+        final AtomicInteger maxDepth = new AtomicInteger();
+
+        Tree(ColorPiece player) {
+            this.root = new Node(SearchResult.PASS, player.opposite());
+        }
+    }
+
+    /**
+     * A node of the tree. Visits and rewards are packed in one atomic word so
+     * that threads update them without locks: the high 32 bits count the
+     * visits, the low 32 bits the rewards in half points (2 for a win, 1 for
+     * a draw) of the player who made the move leading to the node.
+     */
+    private static final class Node {
+
+        private static final long VISIT = 1L << 32;
+
+        final int move;
+        final ColorPiece mover;
+        final AtomicLong stats = new AtomicLong();
+        volatile Node[] children; // Null until expanded, empty at the end of the game.
+
+        Node(int move, ColorPiece mover) {
+            this.move = move;
+            this.mover = mover;
+        }
+
+        int visits() {
+            return (int) (stats.get() >>> 32);
+        }
+
+        long reward() {
+            return stats.get() & 0xFFFF_FFFFL;
+        }
+
+        /**
+         * Counts a visit before its result is known, as a virtual loss.
+         */
+        void addVisit() {
+            stats.addAndGet(VISIT);
+        }
+
+        /**
+         * Adds the result of a visit already counted.
+         *
+         * @param reward The reward in half points.
+         */
+        void addReward(int reward) {
+            stats.addAndGet(reward);
+        }
+    }
+
+    /**
+     * A thread growing a tree, with its own board, buffers and random numbers.
+     */
+    private final class Worker {
+
+        private final Tree tree;
+        private final SearchBoard board;
+        private final ColorPiece rootPlayer;
+        private final SplittableRandom random;
+        private final Node[] path;
+        private final int[] moveStack;
+        private final ColorPiece[] colorStack;
+        private final long[][] flips;
+        private final int[] moves;
+
+        Worker(Tree tree, BoardSnapshot snapshot, ColorPiece rootPlayer, long seed) {
+            this.tree = tree;
+            this.board = new SearchBoard(snapshot, false);
+            this.rootPlayer = rootPlayer;
+            this.random = new SplittableRandom(seed);
+            int maxPlies = 2 * board.getSquareCount() + 2; // Every move may be followed by a pass
+            this.path = new Node[maxPlies];
+            this.moveStack = new int[maxPlies];
+            this.colorStack = new ColorPiece[maxPlies];
+            this.flips = new long[maxPlies][board.getWordCount()];
+            this.moves = new int[board.getSquareCount()];
+        }
+
+        /**
+         * Runs iterations until a limit is reached.
+         */
+        void run(AtomicLong playouts, long maxPlayouts, long deadline) {
+            while (true) {
+                for (int i = 0; i < CHECK_INTERVAL; i++) {
+                    iterate();
+                }
+                long done = playouts.addAndGet(CHECK_INTERVAL);
+                if (stopRequested || done >= maxPlayouts || System.nanoTime() >= deadline) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Selects a leaf, expands it, plays a random game from it and backs
+         * the result up to the root. The board is back at the root after.
+         */
+        void iterate() {
+            Node node = tree.root;
+            ColorPiece toMove = rootPlayer;
+            int length = 0;
+            int plies = 0;
+            node.addVisit();
+            path[length++] = node;
+            while (true) {
+                Node[] children = node.children;
+                if (children == null) {
+                    if (node.visits() < 2 || tree.nodeCount.get() >= MAX_TREE_NODES) {
+                        break; // New leaves are only expanded on their second visit
+                    }
+                    children = expand(node, toMove);
+                }
+                if (children.length == 0) {
+                    break; // End of the game
+                }
+                node = select(node, children);
+                node.addVisit();
+                path[length++] = node;
+                plies = play(node.move, toMove, plies);
+                toMove = toMove.opposite();
+            }
+            tree.maxDepth.accumulateAndGet(length - 1, Math::max);
+
+            int passes = 0;
+            while (passes < 2) { // Random playout
+                int count = board.generateMoves(toMove, moves);
+                if (count == 0) {
+                    passes++;
+                } else {
+                    passes = 0;
+                    plies = play(moves[random.nextInt(count)], toMove, plies);
+                }
+                toMove = toMove.opposite();
+            }
+            int difference = board.countPieces(ColorPiece.BLACK) - board.countPieces(ColorPiece.WHITE);
+            ColorPiece winner = difference > 0 ? ColorPiece.BLACK : difference < 0 ? ColorPiece.WHITE : null;
+            while (plies > 0) {
+                plies--;
+                if (moveStack[plies] >= 0) {
+                    board.unmakeMove(moveStack[plies], colorStack[plies], flips[plies]);
+                }
+            }
+            for (int i = 0; i < length; i++) {
+                Node visited = path[i];
+                visited.addReward(winner == null ? 1 : winner == visited.mover ? 2 : 0);
+            }
+        }
+
+        /**
+         * Plays a move, or a pass, and remembers it to take it back later.
+         *
+         * @return The new number of plies played.
+         */
+        private int play(int move, ColorPiece color, int plies) {
+            moveStack[plies] = move;
+            colorStack[plies] = color;
+            if (move >= 0) {
+                board.makeMove(move, color, flips[plies]);
+            }
+            return plies + 1;
+        }
+
+        /**
+         * Creates the children of a node, once even if several threads reach
+         * it at the same time.
+         */
+        private Node[] expand(Node node, ColorPiece toMove) {
+            synchronized (node) {
+                Node[] children = node.children;
+                if (children != null) {
+                    return children;
+                }
+                int count = board.generateMoves(toMove, moves);
+                if (count == 0) {
+                    children = board.hasValidMoves(toMove.opposite())
+                            ? new Node[]{new Node(SearchResult.PASS, toMove)}
+                            : new Node[0];
+                } else {
+                    children = new Node[count];
+                    for (int i = 0; i < count; i++) {
+                        children[i] = new Node(moves[i], toMove);
+                    }
+                }
+                tree.nodeCount.addAndGet(children.length);
+                node.children = children;
+                return children;
+            }
+        }
+
+        /**
+         * Chooses the child with the best UCT value, an unvisited child first.
+         */
+        private Node select(Node parent, Node[] children) {
+            double logVisits = Math.log(Math.max(1, parent.visits()));
+            Node best = children[0];
+            double bestValue = Double.NEGATIVE_INFINITY;
+            int offset = children.length > 1 ? random.nextInt(children.length) : 0; // Spreads the ties
+            for (int i = 0; i < children.length; i++) {
+                Node child = children[(i + offset) % children.length];
+                long stats = child.stats.get();
+                int visits = (int) (stats >>> 32);
+                if (visits == 0) {
+                    return child;
+                }
+                double value = (stats & 0xFFFF_FFFFL) / (2.0 * visits) + exploration * Math.sqrt(logVisits / visits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+}
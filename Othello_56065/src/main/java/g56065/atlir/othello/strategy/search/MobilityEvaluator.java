@@ -0,0 +1,77 @@
+package g56065.atlir.othello.strategy.search;
+
+import g56065.atlir.othello.model.ColorPiece;
+
+/**
+ * Simple evaluation that works on every board size: corners are worth a lot,
+ * the squares diagonally next to an empty corner are penalized, mobility is
+ * rewarded, stable discs are worth more than the others once the corners
+ * start to fill, and the disc difference only counts near the end of the game.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public class MobilityEvaluator implements Evaluator {
+
+    private static final int CORNER = 250;
+    private static final int X_SQUARE = -80;
+    private static final int MOBILITY = 20;
+    private static final int DISC = 10;
+    private static final int STABLE = 30;
+
+    @Override
+    public int evaluate(SearchBoard board, ColorPiece player) {
+        ColorPiece opponent = player.opposite();
+        int size = board.getSize();
+        int score = MOBILITY * (board.countMoves(player) - board.countMoves(opponent));
+        score += corner(board, player, 0, size + 1);
+        score += corner(board, player, size - 1, 2 * size - 2);
+        score += corner(board, player, size * (size - 1), size * (size - 2) + 1);
+        score += corner(board, player, size * size - 1, size * (size - 1) - 2);
+        if (hasCorner(board)) { // Speed heuristic: the rare stable discs before a corner are not worth the analysis
+            score += STABLE * (board.countStableDiscs(player) - board.countStableDiscs(opponent));
+        }
+        if (board.countEmpty() * 3 < board.getSquareCount()) { // Discs matter in the last third of the game
+            score += DISC * (board.countPieces(player) - board.countPieces(opponent));
+        }
+        return Score.clampEval(score);
+    }
+
+    /**
+     * Checks if a corner of the board holds a disc. Stable discs can exist
+     * without one, when the four lines through a disc are full, but they are
+     * rare enough that the evaluation only counts them once a corner is
+     * taken, sparing the analysis in the opening and the early midgame.
+     *
+     * @param board The position to evaluate.
+     * @return True if at least one corner is taken.
+     */
+    private static boolean hasCorner(SearchBoard board) {
+        int size = board.getSize();
+        return board.getSquare(0) != null || board.getSquare(size - 1) != null
+                || board.getSquare(size * (size - 1)) != null || board.getSquare(size * size - 1) != null;
+    }
+
+    /**
+     * Scores a corner and the square diagonally next to it.
+     *
+     * @param board The position to evaluate.
+     * @param player The color of the player.
+     * @param corner The index of the corner.
+     * @param xSquare The index of the diagonal neighbour of the corner.
+     * @return The score of the corner area for the player.
+     */
+    private int corner(SearchBoard board, ColorPiece player, int corner, int xSquare) {
+        ColorPiece owner = board.getSquare(corner);
+        if (owner != null) {
+            return owner == player ? CORNER : -CORNER;
+        }
+        if (board.getSize() < 5) { // The X-square is too close to the other corners on tiny boards
+            return 0;
+        }
+        ColorPiece xOwner = board.getSquare(xSquare);
+        if (xOwner == null) {
+            return 0;
+        }
+        return xOwner == player ? X_SQUARE : -X_SQUARE;
+    }
+}
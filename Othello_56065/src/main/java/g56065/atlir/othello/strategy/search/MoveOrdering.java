@@ -0,0 +1,60 @@
+package g56065.atlir.othello.strategy.search;
+
+import g56065.atlir.othello.model.ColorPiece;
+
+/**
+ * Orders the moves of the positions of an {@link AlphaBetaSearch}, the best
+ * first, so that cutoffs come early. The search tells the ordering about the
+ * moves that caused a cutoff, which it may remember for the next positions.
+ * An ordering may keep state, so each search thread uses its own instance.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public interface MoveOrdering {
+
+    /**
+     * Ordering that keeps the moves as generated, in increasing square order.
+     */
+    MoveOrdering NONE = new MoveOrdering() {
+    };
+
+    /**
+     * Called when a search starts, before any position is ordered.
+     *
+     * @param board The board of the search.
+     */
+    default void newSearch(SearchBoard board) {
+    }
+
+    /**
+     * Orders the moves of a position, the most promising first.
+     *
+     * @param board The position, which must be the same once ordered.
+     * @param player The color of the player to move.
+     * @param moves The valid moves, reordered in place.
+     * @param count The number of moves.
+     * @param ply The distance to the root.
+     * @param depth The remaining depth of the search.
+     * @param tableMove The best move stored in the transposition table, or -1.
+     */
+    default void order(SearchBoard board, ColorPiece player, int[] moves, int count, int ply, int depth, int tableMove) {
+        for (int i = 1; i < count; i++) {
+            if (moves[i] == tableMove) {
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = tableMove;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Called when a move caused a beta cutoff.
+     *
+     * @param player The color of the player who made the move.
+     * @param move The square of the move.
+     * @param ply The distance to the root.
+     * @param depth The remaining depth of the position.
+     */
+    default void cutoff(ColorPiece player, int move, int ply, int depth) {
+    }
+}
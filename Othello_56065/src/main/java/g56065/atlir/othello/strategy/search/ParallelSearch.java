@@ -0,0 +1,340 @@
+package g56065.atlir.othello.strategy.search;
+
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Search running on several threads that share one transposition table.
+ * By default it uses Lazy SMP: every thread runs its own iterative deepening
+ * on the same root, the helpers starting at staggered depths and with
+ * rotated root orders, and the results they store in the shared table speed
+ * up the others. Fixed shallow searches, where Lazy SMP brings little, split
+ * the root moves between the threads instead, with a shared alpha bound.
+ * With a single thread, it is a plain {@link AlphaBetaSearch}.
+ *
+ * A node budget holds for the nodes of all the threads together, so that
+ * a search of n nodes costs about the same on any number of threads. Which
+ * thread visits which node depends on the timing, so with several threads
+ * the move chosen within a node budget is not reproducible; only a single
+ * thread or a fixed depth searched by splitting the root is.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public class ParallelSearch {
+
+    /**
+     * Deepest fixed depth searched by splitting the root moves.
+     */
+    public static final int ROOT_SPLIT_DEPTH = 4;
+
+    private final AlphaBetaSearch[] searches;
+    private final TranspositionTable table;
+    private final ExecutorService executor; // Runs the helpers, null with a single thread.
+    private final AtomicLong nodes = new AtomicLong(); // Nodes of all the threads, for the node budget.
+
+    /**
+     * Constructor for the ParallelSearch class.
+     *
+     * @param threads The number of threads, the calling one included.
+     * @param evaluators Creates one evaluator per thread.
+     * @param table The transposition table shared by the threads.
+     */
+    public ParallelSearch(int threads, Supplier<? extends Evaluator> evaluators, TranspositionTable table) {
+        this(threads, evaluators, table, null);
+    }
+
+    /**
+     * Constructor with an endgame solver, used by the main thread while the
+     * helpers keep searching in case it runs out of time.
+     *
+     * @param threads The number of threads, the calling one included.
+     * @param evaluators Creates one evaluator per thread.
+     * @param table The transposition table shared by the threads.
+     * @param solver The solver of the end of the game, or null.
+     */
+    public ParallelSearch(int threads, Supplier<? extends Evaluator> evaluators, TranspositionTable table,
+            EndgameSolver solver) {
+        this(threads, evaluators, table, solver, null);
+    }
+
+    /**
+     * Constructor with an endgame solver and a selective search.
+     *
+     * @param threads The number of threads, the calling one included.
+     * @param evaluators Creates one evaluator per thread.
+     * @param table The transposition table shared by the threads.
+     * @param solver The solver of the end of the game, or null.
+     * @param probCuts Gives the ProbCut parameters of a board size, or null
+     * to search every position fully.
+     */
+    public ParallelSearch(int threads, Supplier<? extends Evaluator> evaluators, TranspositionTable table,
+            EndgameSolver solver, IntFunction<ProbCut> probCuts) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed.");
+        }
+        if (evaluators == null || table == null) {
+            throw new IllegalArgumentException("Evaluators and table cannot be null.");
+        }
+        this.table = table;
+        this.searches = new AlphaBetaSearch[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new AlphaBetaSearch(evaluators.get(), table, i == 0 ? solver : null,
+                    new HeuristicMoveOrdering(), probCuts);
+            searches[i].shareNodes(threads > 1 ? nodes : null);
+        }
+        if (threads > 1) {
+            AtomicInteger number = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(threads - 1, runnable -> {
+                Thread thread = new Thread(runnable, "search-helper-" + number.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Searches the best move of a player, with root splitting for fixed
+     * shallow depths and Lazy SMP otherwise. Positions given to the endgame
+     * solver always use Lazy SMP. A search stopped before it starts returns
+     * at once, see {@link #resetStop()}.
+     *
+     * @param snapshot The position to search.
+     * @param player The color of the player to move.
+     * @param limits The budget of the search.
+     * @return The best move found, with the nodes of all the threads.
+     */
+    public SearchResult search(BoardSnapshot snapshot, ColorPiece player, SearchLimits limits) {
+        if (snapshot == null || player == null || limits == null) {
+            throw new IllegalArgumentException("Snapshot, player and limits cannot be null.");
+        }
+        table.newSearch();
+        nodes.set(0);
+        if (searches.length > 1 && !searches[0].solvesEndgame(snapshot) && limits.getMaxDepth() > 0 && limits.getMaxDepth() <= ROOT_SPLIT_DEPTH) {
+            return searchRootSplit(snapshot, player, limits);
+        }
+        return searchLazySmp(snapshot, player, limits);
+    }
+
+    /**
+     * Searches with Lazy SMP: the calling thread runs the main search while
+     * the helpers search the same root, and all of them stop when the main
+     * search ends. The result of the deepest finished iteration is kept.
+     * The age of the table and the node count are left to {@link #search}.
+     *
+     * @param snapshot The position to search.
+     * @param player The color of the player to move.
+     * @param limits The budget of the search.
+     * @return The best move found, with the nodes of all the threads.
+     */
+    public SearchResult searchLazySmp(BoardSnapshot snapshot, ColorPiece player, SearchLimits limits) {
+        long start = System.nanoTime();
+        resetHelpers();
+        List<Future<SearchResult>> helpers = new ArrayList<>();
+        for (int i = 1; i < searches.length; i++) {
+            AlphaBetaSearch helper = searches[i];
+            int firstDepth = 1 + (i & 1); // Half of the helpers are one ply ahead
+            int rotation = i;
+            helpers.add(executor.submit(() -> helper.iterate(snapshot, player, limits, firstDepth, rotation)));
+        }
+        SearchResult best = searches[0].iterate(snapshot, player, limits, 1, 0);
+        long nodes = best.getNodes();
+        for (int i = 1; i < searches.length; i++) {
+            searches[i].stop();
+        }
+        for (Future<SearchResult> helper : helpers) {
+            SearchResult result = SearchThreads.join(helper);
+            nodes += result.getNodes();
+            if (result.getDepth() > best.getDepth() && !result.isPass()) {
+                best = result;
+            }
+        }
+        return new SearchResult(best.getMove(), best.getScore(), best.getDepth(), nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Searches to a fixed depth by splitting the root moves: each thread takes
+     * the next unsearched move and searches it with the best score found so
+     * far as lower bound. Ties go to the lowest square, so the chosen move
+     * does not depend on the timing of the threads. The age of the table and
+     * the node count are left to {@link #search}.
+     *
+     * @param snapshot The position to search.
+     * @param player The color of the player to move.
+     * @param limits The budget of the search, with a fixed depth.
+     * @return The best move found, with the nodes of all the threads.
+     */
+    public SearchResult searchRootSplit(BoardSnapshot snapshot, ColorPiece player, SearchLimits limits) {
+        long start = System.nanoTime();
+        int[] rootMoves = new int[snapshot.getSize() * snapshot.getSize()];
+        int count = snapshot.generateMoves(player, rootMoves);
+        if (count == 0) {
+            return new SearchResult(SearchResult.PASS, 0, 0, 0, System.nanoTime() - start);
+        }
+        int depth = Math.max(1, limits.getMaxDepth());
+        resetHelpers();
+        RootSplit split = new RootSplit(rootMoves, count);
+        List<Future<Long>> helpers = new ArrayList<>();
+        for (int i = 1; i < searches.length; i++) {
+            AlphaBetaSearch helper = searches[i];
+            helpers.add(executor.submit(() -> split.run(helper, snapshot, player, depth, limits)));
+        }
+        long nodes = split.run(searches[0], snapshot, player, depth, limits);
+        for (Future<Long> helper : helpers) {
+            nodes += SearchThreads.join(helper);
+        }
+        int completedDepth = split.isComplete() ? depth : 0;
+        int score = split.getBestScore() == -Score.INFINITY ? 0 : split.getBestScore();
+        return new SearchResult(split.getBestMove(), score, completedDepth, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Stops every thread of the running search. The request also stops the
+     * next searches at once, until {@link #resetStop()}.
+     */
+    public void stop() {
+        for (AlphaBetaSearch search : searches) {
+            search.stop();
+        }
+    }
+
+    /**
+     * Clears a previous stop request. A search run on another thread is
+     * reset by the thread submitting it, before it is queued, so that a stop
+     * coming before it starts is not lost.
+     */
+    public void resetStop() {
+        for (AlphaBetaSearch search : searches) {
+            search.resetStop();
+        }
+    }
+
+    /**
+     * Clears the stop of the helpers, which are stopped at the end of every
+     * search. A stop asked before the search started is still held by the
+     * main thread, and is passed on to the helpers.
+     */
+    private void resetHelpers() {
+        for (int i = 1; i < searches.length; i++) {
+            searches[i].resetStop();
+        }
+        if (searches[0].isStopRequested()) {
+            stop();
+        }
+    }
+
+    /**
+     * Sets the listener told of the best move after each iteration finished
+     * by the main thread of a Lazy SMP search. The nodes reported are those
+     * of the main thread only.
+     *
+     * @param listener The listener, or null for none.
+     */
+    public void setProgressListener(Consumer<SearchResult> listener) {
+        searches[0].setProgressListener(listener);
+    }
+
+    /**
+     * Stops the helper threads for good. The search can still be used, on
+     * the calling thread only.
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Gets the number of threads of the search.
+     *
+     * @return The number of threads, the calling one included.
+     */
+    public int getThreadCount() {
+        return searches.length;
+    }
+
+    /**
+     * Gets the transposition table shared by the threads.
+     *
+     * @return The shared table.
+     */
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * Root moves shared between the threads of a root splitting search.
+     */
+    private static final class RootSplit {
+
+        private final int[] moves;
+        private final int count;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger searched = new AtomicInteger();
+        private volatile int bestScore = -Score.INFINITY;
+        private int bestMove;
+
+        RootSplit(int[] moves, int count) {
+            this.moves = moves;
+            this.count = count;
+            this.bestMove = moves[0];
+        }
+
+        /**
+         * Searches root moves until none is left.
+         *
+         * @return The number of nodes visited by this thread.
+         */
+        long run(AlphaBetaSearch search, BoardSnapshot snapshot, ColorPiece player, int depth, SearchLimits limits) {
+            long nodes = 0;
+            int index;
+            while ((index = next.getAndIncrement()) < count) {
+                int alpha = bestScore - 1; // Ties must get an exact score too
+                int score = search.searchMove(snapshot, player, moves[index], depth, alpha, Score.INFINITY, limits);
+                nodes += search.getNodes();
+                if (search.isAborted()) {
+                    break;
+                }
+                searched.incrementAndGet();
+                if (score > alpha) { // Inside the window, so the score is exact
+                    update(moves[index], score);
+                }
+            }
+            return nodes;
+        }
+
+        /**
+         * Keeps a move if it is better than the best one, the lowest square
+         * winning ties so that the result does not depend on the timing.
+         */
+        synchronized void update(int move, int score) {
+            if (score > bestScore || score == bestScore && move < bestMove) {
+                bestScore = score;
+                bestMove = move;
+            }
+        }
+
+        synchronized int getBestMove() {
+            return bestMove;
+        }
+
+        int getBestScore() {
+            return bestScore;
+        }
+
+        boolean isComplete() {
+            return searched.get() == count;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package g56065.atlir.othello.strategy.search;
+
+import g56065.atlir.othello.model.ColorPiece;
+
+/**
+ * Evaluation by patterns: the configurations of the corners, edges,
+ * diagonals and 2x5 blocks of the board are looked up in tables of weights
+ * trained for each game phase, and the mobility difference is added. The
+ * pattern indices are attached to the board at the first evaluation and then
+ * updated by the board on each move, so an evaluation only sums a few table
+ * entries. Weights exist only for the board sizes that were trained, see
+ * {@link #isAvailable(int)}; without fixed weights, the other sizes are
+ * scored by a {@link MobilityEvaluator}.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public class PatternEvaluator implements Evaluator {
+
+    private final PatternWeights weights; // Null when chosen by the size of the board
+    private final Evaluator fallback = new MobilityEvaluator();
+    private PatternWeights sizeWeights;
+    private int weightsSize;
+
+    /**
+     * Constructor that uses the weights shipped for the size of each board
+     * evaluated.
+     */
+    public PatternEvaluator() {
+        this.weights = null;
+    }
+
+    /**
+     * Constructor that uses the weights shipped for a board size.
+     *
+     * @param size The size of the board.
+     */
+    public PatternEvaluator(int size) {
+        this(PatternWeights.forSize(size));
+    }
+
+    /**
+     * Constructor for the PatternEvaluator class.
+     *
+     * @param weights The weights of the patterns.
+     */
+    public PatternEvaluator(PatternWeights weights) {
+        if (weights == null) {
+            throw new IllegalArgumentException("No pattern weights for this board size.");
+        }
+        this.weights = weights;
+    }
+
+    /**
+     * Checks if weights were trained for a board size.
+     *
+     * @param size The size of the board.
+     * @return True if a PatternEvaluator can be created for that size.
+     */
+    public static boolean isAvailable(int size) {
+        return PatternWeights.forSize(size) != null;
+    }
+
+    @Override
+    public int evaluate(SearchBoard board, ColorPiece player) {
+        PatternWeights used = weights;
+        if (used == null) {
+            if (weightsSize != board.getSize()) {
+                sizeWeights = PatternWeights.forSize(board.getSize());
+                weightsSize = board.getSize();
+            }
+            used = sizeWeights;
+            if (used == null) {
+                return fallback.evaluate(board, player);
+            }
+        }
+        PatternIndex index = board.getPatternIndex();
+        if (index == null || index.getPatterns() != used.getPatterns()) {
+            index = new PatternIndex(used.getPatterns());
+            board.setPatternIndex(index);
+        }
+        int score = used.score(board, index);
+        return Score.clampEval(player == ColorPiece.BLACK ? score : -score);
+    }
+}
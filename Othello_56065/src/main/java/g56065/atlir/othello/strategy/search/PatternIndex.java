@@ -0,0 +1,102 @@
+package g56065.atlir.othello.strategy.search;
+
+import g56065.atlir.othello.model.ColorPiece;
+
+/**
+ * Base-3 indices of all the pattern instances of a {@link SearchBoard},
+ * updated by the board on each move and take-back: only the instances
+ * holding the played square or a flipped piece change, by one power of 3
+ * each.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public final class PatternIndex {
+
+    private final PatternSet patterns;
+    private final int[] indices;
+
+    /**
+     * Constructor for the PatternIndex class.
+     *
+     * @param patterns The patterns to index.
+     */
+    public PatternIndex(PatternSet patterns) {
+        if (patterns == null) {
+            throw new IllegalArgumentException("Patterns cannot be null.");
+        }
+        this.patterns = patterns;
+        this.indices = new int[patterns.getInstanceCount()];
+    }
+
+    /**
+     * Gets the indexed patterns.
+     *
+     * @return The pattern set.
+     */
+    public PatternSet getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * Computes all the indices from scratch.
+     *
+     * @param board The position.
+     */
+    public void reset(SearchBoard board) {
+        for (int instance = 0; instance < indices.length; instance++) {
+            indices[instance] = patterns.indexOf(board, instance);
+        }
+    }
+
+    /**
+     * Gets the index of an instance.
+     *
+     * @param instance The index of the instance.
+     * @return The base-3 index of its squares.
+     */
+    public int getIndex(int instance) {
+        return indices[instance];
+    }
+
+    /**
+     * Updates the indices after a move.
+     *
+     * @param square The square of the move.
+     * @param color The color of the player.
+     * @param flips The flipped squares.
+     */
+    void played(int square, ColorPiece color, long[] flips) {
+        int digit = PatternSet.digit(color);
+        add(square, digit);
+        addFlips(flips, digit + digit - 3); // From the digit of the opponent to the one of the player
+    }
+
+    /**
+     * Updates the indices after a move is taken back.
+     *
+     * @param square The square of the move.
+     * @param color The color of the player who made it.
+     * @param flips The flipped squares.
+     */
+    void undone(int square, ColorPiece color, long[] flips) {
+        int digit = PatternSet.digit(color);
+        add(square, -digit);
+        addFlips(flips, 3 - digit - digit);
+    }
+
+    private void addFlips(long[] flips, int delta) {
+        for (int word = 0; word < flips.length; word++) {
+            long bits = flips[word];
+            while (bits != 0) {
+                add((word << 6) + Long.numberOfTrailingZeros(bits), delta);
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    private void add(int square, int delta) {
+        for (int entry = patterns.squareStart(square), end = patterns.squareStart(square + 1); entry < end; entry++) {
+            indices[patterns.squareInstance(entry)] += delta * patterns.squarePower(entry);
+        }
+    }
+}
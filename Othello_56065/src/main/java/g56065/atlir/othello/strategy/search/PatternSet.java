@@ -0,0 +1,277 @@
+package g56065.atlir.othello.strategy.search;
+
+import g56065.atlir.othello.model.ColorPiece;
+import g56065.atlir.othello.strategy.book.Symmetry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The patterns scored by the {@link PatternEvaluator} on a board size. A
+ * pattern type is a shape anchored in a corner: the 3x3 corner block, the
+ * edge, the 2x5 block along an edge and the diagonal, the last two being
+ * limited to 8 squares on large boards. Each type is placed in every
+ * orientation given by the symmetries of the board, and all the instances of
+ * a type share the same table of weights.
+ * <p>
+ * The squares of an instance form a number in base 3 (0 for an empty
+ * square, 1 for black, 2 for white), its first square being the lowest
+ * digit; that number indexes the table of the type. For each square, the
+ * set also lists the instances it belongs to with the power of 3 of its
+ * digit, so that a move updates the indices without scanning the patterns.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public final class PatternSet {
+
+    /**
+     * The 3x3 block of a corner.
+     */
+    public static final int CORNER = 0;
+
+    /**
+     * The edge, from a corner.
+     */
+    public static final int EDGE = 1;
+
+    /**
+     * The 2x5 block along an edge, from a corner.
+     */
+    public static final int BLOCK = 2;
+
+    /**
+     * The diagonal, from a corner.
+     */
+    public static final int DIAGONAL = 3;
+
+    /**
+     * Number of pattern types.
+     */
+    public static final int TYPES = 4;
+
+    private static final int MAX_LENGTH = 8;
+    private static final PatternSet[] CACHE = new PatternSet[16];
+
+    private final int size;
+    private final int[] lengths = new int[TYPES];
+    private final int[] instanceTypes;
+    private final int[][] instanceSquares;
+    private final int[] squareStart;    // Entries of square s: squareStart[s] to squareStart[s + 1] - 1.
+    private final int[] squareInstance;
+    private final int[] squarePower;
+
+    private PatternSet(int size) {
+        this.size = size;
+        List<int[]> shapes = new ArrayList<>();
+        shapes.add(size >= 3 ? block(3, 3) : null);
+        shapes.add(line(0, 1, Math.min(size, MAX_LENGTH)));
+        shapes.add(size >= 5 ? block(2, 5) : null);
+        shapes.add(size >= 4 ? line(1, 1, Math.min(size, MAX_LENGTH)) : null);
+
+        List<Integer> types = new ArrayList<>();
+        List<int[]> instances = new ArrayList<>();
+        for (int type = 0; type < TYPES; type++) {
+            int[] shape = shapes.get(type);
+            if (shape == null) {
+                continue;
+            }
+            lengths[type] = shape.length;
+            List<int[]> sets = new ArrayList<>();
+            for (int symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+                int[] squares = new int[shape.length];
+                for (int i = 0; i < shape.length; i++) {
+                    squares[i] = Symmetry.transform(symmetry, shape[i], size);
+                }
+                int[] sorted = squares.clone();
+                Arrays.sort(sorted);
+                if (sets.stream().noneMatch(set -> Arrays.equals(set, sorted))) { // Same squares in another order
+                    sets.add(sorted);
+                    types.add(type);
+                    instances.add(squares);
+                }
+            }
+        }
+        instanceTypes = types.stream().mapToInt(Integer::intValue).toArray();
+        instanceSquares = instances.toArray(new int[0][]);
+
+        int squares = size * size;
+        squareStart = new int[squares + 1];
+        for (int[] instance : instanceSquares) {
+            for (int square : instance) {
+                squareStart[square + 1]++;
+            }
+        }
+        for (int square = 0; square < squares; square++) {
+            squareStart[square + 1] += squareStart[square];
+        }
+        squareInstance = new int[squareStart[squares]];
+        squarePower = new int[squareStart[squares]];
+        int[] filled = Arrays.copyOf(squareStart, squares);
+        for (int instance = 0; instance < instanceSquares.length; instance++) {
+            int power = 1;
+            for (int square : instanceSquares[instance]) {
+                squareInstance[filled[square]] = instance;
+                squarePower[filled[square]++] = power;
+                power *= 3;
+            }
+        }
+    }
+
+    /**
+     * Gets the patterns of a board size, built once.
+     *
+     * @param size The size of the board (3 to 15).
+     * @return The shared pattern set.
+     */
+    public static PatternSet of(int size) {
+        if (size < 3 || size > 15) {
+            throw new IllegalArgumentException("The size must be between 3 and 15.");
+        }
+        synchronized (CACHE) {
+            if (CACHE[size] == null) {
+                CACHE[size] = new PatternSet(size);
+            }
+            return CACHE[size];
+        }
+    }
+
+    /**
+     * Gets the size of the board.
+     *
+     * @return The size of the board.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the number of squares of a pattern type.
+     *
+     * @param type The pattern type.
+     * @return The number of squares, 0 if the type does not fit the board.
+     */
+    public int getLength(int type) {
+        return lengths[type];
+    }
+
+    /**
+     * Gets the number of configurations of a pattern type, the length of its
+     * table of weights.
+     *
+     * @param type The pattern type.
+     * @return 3 to the power of the length, 0 if the type does not fit the board.
+     */
+    public int getTableSize(int type) {
+        return lengths[type] == 0 ? 0 : pow3(lengths[type]);
+    }
+
+    /**
+     * Gets the number of instances of all types.
+     *
+     * @return The number of instances.
+     */
+    public int getInstanceCount() {
+        return instanceTypes.length;
+    }
+
+    /**
+     * Gets the type of an instance.
+     *
+     * @param instance The index of the instance.
+     * @return Its pattern type.
+     */
+    public int getInstanceType(int instance) {
+        return instanceTypes[instance];
+    }
+
+    /**
+     * Computes the index of an instance from scratch.
+     *
+     * @param board The position.
+     * @param instance The index of the instance.
+     * @return The base-3 index of the squares of the instance.
+     */
+    public int indexOf(SearchBoard board, int instance) {
+        int index = 0;
+        int power = 1;
+        for (int square : instanceSquares[instance]) {
+            index += power * digit(board.getSquare(square));
+            power *= 3;
+        }
+        return index;
+    }
+
+    /**
+     * Swaps the colors in an index: the same squares with black and white
+     * exchanged.
+     *
+     * @param type The pattern type.
+     * @param index The index of a configuration.
+     * @return The index of the configuration with the colors swapped.
+     */
+    public int swapColors(int type, int index) {
+        int swapped = 0;
+        int power = 1;
+        for (int i = 0; i < lengths[type]; i++) {
+            int digit = index % 3;
+            swapped += power * (digit == 0 ? 0 : 3 - digit);
+            index /= 3;
+            power *= 3;
+        }
+        return swapped;
+    }
+
+    /**
+     * Gets the first entry of a square in the lists of instances and powers.
+     */
+    int squareStart(int square) {
+        return squareStart[square];
+    }
+
+    int squareInstance(int entry) {
+        return squareInstance[entry];
+    }
+
+    int squarePower(int entry) {
+        return squarePower[entry];
+    }
+
+    /**
+     * Gives the base-3 digit of a square.
+     *
+     * @param color The color of the piece, or null for an empty square.
+     * @return 0 when empty, 1 for black, 2 for white.
+     */
+    static int digit(ColorPiece color) {
+        if (color == null) {
+            return 0;
+        }
+        return color == ColorPiece.BLACK ? 1 : 2;
+    }
+
+    private int[] block(int rows, int cols) {
+        int[] squares = new int[rows * cols];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                squares[row * cols + col] = row * size + col;
+            }
+        }
+        return squares;
+    }
+
+    private int[] line(int rowStep, int colStep, int length) {
+        int[] squares = new int[length];
+        for (int i = 0; i < length; i++) {
+            squares[i] = i * rowStep * size + i * colStep;
+        }
+        return squares;
+    }
+
+    private static int pow3(int exponent) {
+        int power = 1;
+        for (int i = 0; i < exponent; i++) {
+            power *= 3;
+        }
+        return power;
+    }
+}
@@ -0,0 +1,234 @@
+package g56065.atlir.othello.strategy.search;
+
+import g56065.atlir.othello.model.ColorPiece;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Weights of the {@link PatternEvaluator} for one board size: for each game
+ * phase, a table of 16-bit weights per pattern type and a weight of the
+ * mobility difference. Scores are seen from black, in hundredths of a disc
+ * of the final difference.
+ * <p>
+ * The weights are stored in a gzip-compressed binary file, big-endian:
+ * magic (int), version (short), board size (short), number of phases
+ * (byte), number of types (byte), then for each phase the mobility weight
+ * (short) and for each type the length of its table (int) followed by its
+ * weights (shorts). The files of the sizes that have one are resources of
+ * this package, named patterns-&lt;size&gt;.bin.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public final class PatternWeights {
+
+    /**
+     * Number of game phases, each with its own weights.
+     */
+    public static final int PHASES = 6;
+
+    private static final int MAGIC = 0x4F505731; // "OPW1"
+    private static final short VERSION = 1;
+    private static final PatternWeights[] RESOURCES = new PatternWeights[16];
+    private static final boolean[] LOADED = new boolean[16];
+
+    private final PatternSet patterns;
+    private final short[][][] tables; // By phase, type and index
+    private final short[] mobility;   // By phase
+
+    /**
+     * Constructor with all the weights set to 0.
+     *
+     * @param patterns The patterns of the board size.
+     */
+    public PatternWeights(PatternSet patterns) {
+        if (patterns == null) {
+            throw new IllegalArgumentException("Patterns cannot be null.");
+        }
+        this.patterns = patterns;
+        this.tables = new short[PHASES][PatternSet.TYPES][];
+        this.mobility = new short[PHASES];
+        for (int phase = 0; phase < PHASES; phase++) {
+            for (int type = 0; type < PatternSet.TYPES; type++) {
+                tables[phase][type] = new short[patterns.getTableSize(type)];
+            }
+        }
+    }
+
+    /**
+     * Gets the weights shipped for a board size, loaded once.
+     *
+     * @param size The size of the board.
+     * @return The shared weights, or null if no weights were trained for it.
+     */
+    public static PatternWeights forSize(int size) {
+        if (size < 3 || size > 15) {
+            return null;
+        }
+        synchronized (RESOURCES) {
+            if (!LOADED[size]) {
+                LOADED[size] = true;
+                try (InputStream in = PatternWeights.class.getResourceAsStream("patterns-" + size + ".bin")) {
+                    if (in != null) {
+                        RESOURCES[size] = read(in);
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException("The pattern weights of size " + size + " cannot be read.", e);
+                }
+            }
+            return RESOURCES[size];
+        }
+    }
+
+    /**
+     * Reads weights written by {@link #write(OutputStream)}.
+     *
+     * @param stream The compressed weights, not closed.
+     * @return The weights.
+     * @throws IOException If the stream cannot be read or is not a weight file.
+     */
+    public static PatternWeights read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(stream)));
+        if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+            throw new IOException("Not a pattern weight file.");
+        }
+        int size = in.readShort();
+        if (in.readByte() != PHASES || in.readByte() != PatternSet.TYPES) {
+            throw new IOException("The pattern weight file does not match the evaluator.");
+        }
+        PatternWeights weights = new PatternWeights(PatternSet.of(size));
+        for (int phase = 0; phase < PHASES; phase++) {
+            weights.mobility[phase] = in.readShort();
+            for (int type = 0; type < PatternSet.TYPES; type++) {
+                short[] table = weights.tables[phase][type];
+                if (in.readInt() != table.length) {
+                    throw new IOException("The pattern weight file does not match the patterns.");
+                }
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = in.readShort();
+                }
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * Writes the weights, compressed.
+     *
+     * @param stream The stream receiving the weights, not closed.
+     * @throws IOException If the stream cannot be written.
+     */
+    public void write(OutputStream stream) throws IOException {
+        GZIPOutputStream zip = new GZIPOutputStream(stream);
+        DataOutputStream out = new DataOutputStream(zip);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeShort(patterns.getSize());
+        out.writeByte(PHASES);
+        out.writeByte(PatternSet.TYPES);
+        for (int phase = 0; phase < PHASES; phase++) {
+            out.writeShort(mobility[phase]);
+            for (short[] table : tables[phase]) {
+                out.writeInt(table.length);
+                for (short weight : table) {
+                    out.writeShort(weight);
+                }
+            }
+        }
+        out.flush();
+        zip.finish();
+    }
+
+    /**
+     * Gets the patterns of the weights.
+     *
+     * @return The pattern set.
+     */
+    public PatternSet getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * Gives the phase of a position from its number of empty squares.
+     *
+     * @param empties The number of empty squares.
+     * @return The phase, from 0 at the start to PHASES - 1 at the end.
+     */
+    public int phaseOf(int empties) {
+        int squares = patterns.getSize() * patterns.getSize();
+        int played = Math.max(0, squares - 4 - empties);
+        return Math.min(PHASES - 1, played * PHASES / (squares - 3));
+    }
+
+    /**
+     * Gets a weight of a pattern configuration.
+     *
+     * @param phase The game phase.
+     * @param type The pattern type.
+     * @param index The index of the configuration.
+     * @return The weight, from black.
+     */
+    public int getWeight(int phase, int type, int index) {
+        return tables[phase][type][index];
+    }
+
+    /**
+     * Sets a weight of a pattern configuration, clamped to 16 bits.
+     *
+     * @param phase The game phase.
+     * @param type The pattern type.
+     * @param index The index of the configuration.
+     * @param weight The weight, from black.
+     */
+    public void setWeight(int phase, int type, int index, int weight) {
+        tables[phase][type][index] = clamp(weight);
+    }
+
+    /**
+     * Gets the weight of the mobility difference.
+     *
+     * @param phase The game phase.
+     * @return The weight of one move of difference.
+     */
+    public int getMobilityWeight(int phase) {
+        return mobility[phase];
+    }
+
+    /**
+     * Sets the weight of the mobility difference, clamped to 16 bits.
+     *
+     * @param phase The game phase.
+     * @param weight The weight of one move of difference.
+     */
+    public void setMobilityWeight(int phase, int weight) {
+        mobility[phase] = clamp(weight);
+    }
+
+    /**
+     * Scores a position from black: the sum of the weights of all the pattern
+     * instances and of the mobility difference.
+     *
+     * @param board The position.
+     * @param index The pattern indices of the position.
+     * @return The score for black.
+     */
+    int score(SearchBoard board, PatternIndex index) {
+        int phase = phaseOf(board.countEmpty());
+        short[][] phaseTables = tables[phase];
+        int score = mobility[phase] * (board.countMoves(ColorPiece.BLACK)
+                - board.countMoves(ColorPiece.WHITE));
+        for (int instance = 0, count = patterns.getInstanceCount(); instance < count; instance++) {
+            score += phaseTables[patterns.getInstanceType(instance)][index.getIndex(instance)];
+        }
+        return score;
+    }
+
+    private static short clamp(int weight) {
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, weight));
+    }
+}
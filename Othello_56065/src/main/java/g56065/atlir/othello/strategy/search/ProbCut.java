@@ -0,0 +1,275 @@
+package g56065.atlir.othello.strategy.search;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Parameters of the Multi-ProbCut selective search of an
+ * {@link AlphaBetaSearch}. The score of a deep search is predicted from the
+ * score v of a shallow search of the same position by a linear regression,
+ * a * v + b, whose error has a standard deviation sigma. When the shallow
+ * score makes the deep one lie beyond the window with a high enough
+ * probability, the position is cut off without the deep search. Each game
+ * phase and each depth has its own checks, one or more shallow depths with
+ * their own regression, the cheapest being tried first.
+ * <p>
+ * The parameters are fitted by the CalibrateProbCut tool for the
+ * {@link PatternEvaluator} of one board size, and stored in a
+ * gzip-compressed binary file, big-endian: magic (int), version (short),
+ * board size (short), number of phases (byte), number of depths (byte),
+ * then for each phase and each depth the number of checks (byte) and for
+ * each check its shallow depth (byte), a, b and sigma (floats). The files of
+ * the sizes that have one are resources of this package, named
+ * probcut-&lt;size&gt;.bin.
+ * <p>
+ * Depths deeper than the deepest one calibrated use its checks, their
+ * shallow depths being shifted by the difference.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public final class ProbCut {
+
+    /**
+     * Number of depths that can have checks, from 0 to DEPTHS - 1.
+     */
+    public static final int DEPTHS = 24;
+
+    /**
+     * Shallowest depth searched selectively.
+     */
+    public static final int MIN_DEPTH = 3;
+
+    /**
+     * Confidence of a cut, in standard deviations of the error of the
+     * regression: the deep score has about 7% chance to be on the other side.
+     */
+    public static final double THRESHOLD = 1.5;
+
+    private static final int MAGIC = 0x4F504331; // "OPC1"
+    private static final short VERSION = 1;
+    private static final ProbCut[] RESOURCES = new ProbCut[16];
+    private static final boolean[] LOADED = new boolean[16];
+
+    private final int size;
+    private final int[][][] shallow;  // By phase, depth and check
+    private final float[][][] slope;
+    private final float[][][] intercept;
+    private final float[][][] sigma;
+    private final int[] deepest = new int[PatternWeights.PHASES]; // Deepest depth with checks by phase, 0 if none
+
+    /**
+     * Constructor without any check.
+     *
+     * @param size The size of the board.
+     */
+    public ProbCut(int size) {
+        if (size < 3 || size > 15) {
+            throw new IllegalArgumentException("The board size must be between 3 and 15.");
+        }
+        this.size = size;
+        this.shallow = new int[PatternWeights.PHASES][DEPTHS][0];
+        this.slope = new float[PatternWeights.PHASES][DEPTHS][0];
+        this.intercept = new float[PatternWeights.PHASES][DEPTHS][0];
+        this.sigma = new float[PatternWeights.PHASES][DEPTHS][0];
+    }
+
+    /**
+     * Gets the parameters shipped for a board size, loaded once.
+     *
+     * @param size The size of the board.
+     * @return The shared parameters, or null if none were calibrated for it.
+     */
+    public static ProbCut forSize(int size) {
+        if (size < 3 || size > 15) {
+            return null;
+        }
+        synchronized (RESOURCES) {
+            if (!LOADED[size]) {
+                LOADED[size] = true;
+                try (InputStream in = ProbCut.class.getResourceAsStream("probcut-" + size + ".bin")) {
+                    if (in != null) {
+                        RESOURCES[size] = read(in);
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException("The ProbCut parameters of size " + size + " cannot be read.", e);
+                }
+            }
+            return RESOURCES[size];
+        }
+    }
+
+    /**
+     * Reads parameters written by {@link #write(OutputStream)}.
+     *
+     * @param stream The compressed parameters, not closed.
+     * @return The parameters.
+     * @throws IOException If the stream cannot be read or is not a ProbCut
+     * file.
+     */
+    public static ProbCut read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(stream)));
+        if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+            throw new IOException("Not a ProbCut file.");
+        }
+        ProbCut probCut = new ProbCut(in.readShort());
+        if (in.readByte() != PatternWeights.PHASES || in.readByte() != DEPTHS) {
+            throw new IOException("The ProbCut file does not match the search.");
+        }
+        for (int phase = 0; phase < PatternWeights.PHASES; phase++) {
+            for (int depth = 0; depth < DEPTHS; depth++) {
+                int checks = in.readByte();
+                for (int check = 0; check < checks; check++) {
+                    probCut.addCheck(phase, depth, in.readByte(), in.readFloat(), in.readFloat(), in.readFloat());
+                }
+            }
+        }
+        return probCut;
+    }
+
+    /**
+     * Writes the parameters, compressed.
+     *
+     * @param stream The stream receiving the parameters, not closed.
+     * @throws IOException If the stream cannot be written.
+     */
+    public void write(OutputStream stream) throws IOException {
+        GZIPOutputStream zip = new GZIPOutputStream(stream);
+        DataOutputStream out = new DataOutputStream(zip);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeShort(size);
+        out.writeByte(PatternWeights.PHASES);
+        out.writeByte(DEPTHS);
+        for (int phase = 0; phase < PatternWeights.PHASES; phase++) {
+            for (int depth = 0; depth < DEPTHS; depth++) {
+                out.writeByte(shallow[phase][depth].length);
+                for (int check = 0; check < shallow[phase][depth].length; check++) {
+                    out.writeByte(shallow[phase][depth][check]);
+                    out.writeFloat(slope[phase][depth][check]);
+                    out.writeFloat(intercept[phase][depth][check]);
+                    out.writeFloat(sigma[phase][depth][check]);
+                }
+            }
+        }
+        out.flush();
+        zip.finish();
+    }
+
+    /**
+     * Adds a check after those of a phase and depth, which are tried in the
+     * order they were added.
+     *
+     * @param phase The game phase.
+     * @param depth The depth of the deep search.
+     * @param shallowDepth The depth of the shallow search, from 1 to depth - 1.
+     * @param a The slope of the regression.
+     * @param b The intercept of the regression.
+     * @param deviation The standard deviation of the error of the regression.
+     */
+    public void addCheck(int phase, int depth, int shallowDepth, double a, double b, double deviation) {
+        if (phase < 0 || phase >= PatternWeights.PHASES || depth < MIN_DEPTH || depth >= DEPTHS
+                || shallowDepth < 1 || shallowDepth >= depth) {
+            throw new IllegalArgumentException("No check for phase " + phase + " at depth " + depth
+                    + " from depth " + shallowDepth + ".");
+        }
+        if (!(a > 0) || !(deviation >= 0)) {
+            throw new IllegalArgumentException("The slope must be positive and the deviation cannot be negative.");
+        }
+        int checks = shallow[phase][depth].length;
+        shallow[phase][depth] = Arrays.copyOf(shallow[phase][depth], checks + 1);
+        slope[phase][depth] = Arrays.copyOf(slope[phase][depth], checks + 1);
+        intercept[phase][depth] = Arrays.copyOf(intercept[phase][depth], checks + 1);
+        sigma[phase][depth] = Arrays.copyOf(sigma[phase][depth], checks + 1);
+        shallow[phase][depth][checks] = shallowDepth;
+        slope[phase][depth][checks] = (float) a;
+        intercept[phase][depth][checks] = (float) b;
+        sigma[phase][depth][checks] = (float) deviation;
+        deepest[phase] = Math.max(deepest[phase], depth);
+    }
+
+    /**
+     * Gets the size of the board of the parameters.
+     *
+     * @return The size of the board.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gives the phase of a position from its number of empty squares, as the
+     * pattern weights do.
+     *
+     * @param empties The number of empty squares.
+     * @return The phase, from 0 at the start to PatternWeights.PHASES - 1 at
+     * the end.
+     */
+    public int phaseOf(int empties) {
+        int squares = size * size;
+        int played = Math.max(0, squares - 4 - empties);
+        return Math.min(PatternWeights.PHASES - 1, played * PatternWeights.PHASES / (squares - 3));
+    }
+
+    /**
+     * Gets the number of checks of a position.
+     *
+     * @param phase The game phase.
+     * @param depth The depth of the deep search.
+     * @return The number of checks, 0 if the position is searched fully.
+     */
+    public int getCheckCount(int phase, int depth) {
+        return depth < MIN_DEPTH || deepest[phase] == 0 ? 0 : shallow[phase][Math.min(depth, deepest[phase])].length;
+    }
+
+    /**
+     * Gets the depth of the shallow search of a check.
+     *
+     * @param phase The game phase.
+     * @param depth The depth of the deep search.
+     * @param check The index of the check.
+     * @return The shallow depth, 1 at least.
+     */
+    public int getShallowDepth(int phase, int depth, int check) {
+        int row = Math.min(depth, deepest[phase]);
+        return shallow[phase][row][check] + depth - row;
+    }
+
+    /**
+     * Gives the shallow score from which the deep score is likely to be at
+     * least beta.
+     *
+     * @param phase The game phase.
+     * @param depth The depth of the deep search.
+     * @param check The index of the check.
+     * @param beta The upper bound of the window.
+     * @return The shallow bound.
+     */
+    public int getBetaBound(int phase, int depth, int check, int beta) {
+        int row = Math.min(depth, deepest[phase]);
+        return (int) Math.ceil((beta + THRESHOLD * sigma[phase][row][check] - intercept[phase][row][check])
+                / slope[phase][row][check]);
+    }
+
+    /**
+     * Gives the shallow score from which the deep score is likely to be at
+     * most alpha.
+     *
+     * @param phase The game phase.
+     * @param depth The depth of the deep search.
+     * @param check The index of the check.
+     * @param alpha The lower bound of the window.
+     * @return The shallow bound.
+     */
+    public int getAlphaBound(int phase, int depth, int check, int alpha) {
+        int row = Math.min(depth, deepest[phase]);
+        return (int) Math.floor((alpha - THRESHOLD * sigma[phase][row][check] - intercept[phase][row][check])
+                / slope[phase][row][check]);
+    }
+}
@@ -0,0 +1,88 @@
+package g56065.atlir.othello.strategy.search;
+
+/**
+ * Scale of the scores used by the searches. Heuristic evaluations stay in
+ * ]-MAX_EVAL, MAX_EVAL[, while the score of a finished game is WIN plus the
+ * final disc difference for a win, -WIN plus the difference for a loss and 0
+ * for a draw, as GameOthello.determineWinner decides it. Any game result is
+ * thus better than any heuristic guess, and a bigger win is preferred.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public final class Score {
+
+    /**
+     * Bound larger than every score.
+     */
+    public static final int INFINITY = 2_000_000;
+
+    /**
+     * Base score of a won game. WIN alone, a win by no disc, stands for a win
+     * whose margin was not searched.
+     */
+    public static final int WIN = 1_000_000;
+
+    /**
+     * Bound of the heuristic evaluations.
+     */
+    public static final int MAX_EVAL = WIN / 2;
+
+    /**
+     * Private constructor, this class only holds constants and helpers.
+     */
+    private Score() {
+    }
+
+    /**
+     * Returns the score of a finished game.
+     *
+     * @param discDifference The pieces of the player minus the pieces of the opponent.
+     * @return The exact score of the game for the player.
+     */
+    public static int ofResult(int discDifference) {
+        if (discDifference > 0) {
+            return WIN + discDifference;
+        }
+        if (discDifference < 0) {
+            return -WIN + discDifference;
+        }
+        return 0;
+    }
+
+    /**
+     * Checks if a score is the exact score of a finished game, other than a
+     * draw.
+     *
+     * @param score The score to check.
+     * @return True for a won or lost game.
+     */
+    public static boolean isResult(int score) {
+        return score > MAX_EVAL || score < -MAX_EVAL;
+    }
+
+    /**
+     * Returns the final disc difference of an exact score.
+     *
+     * @param score The exact score of a finished game.
+     * @return The disc difference for the player.
+     */
+    public static int toDiscDifference(int score) {
+        if (score > MAX_EVAL) {
+            return score - WIN;
+        }
+        if (score < -MAX_EVAL) {
+            return score + WIN;
+        }
+        return 0;
+    }
+
+    /**
+     * Keeps a heuristic score within the bounds of the evaluations.
+     *
+     * @param score The raw score.
+     * @return The score clamped to ]-MAX_EVAL, MAX_EVAL[.
+     */
+    public static int clampEval(int score) {
+        return Math.max(-MAX_EVAL + 1, Math.min(MAX_EVAL - 1, score));
+    }
+}
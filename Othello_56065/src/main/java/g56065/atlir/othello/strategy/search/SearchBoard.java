@@ -0,0 +1,260 @@
+package g56065.atlir.othello.strategy.search;
+
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import g56065.atlir.othello.model.MoveEngine;
+import g56065.atlir.othello.model.SquareSet;
+import g56065.atlir.othello.model.Stability;
+import g56065.atlir.othello.model.Zobrist;
+
+/**
+ * Private copy of a position used by a search. Moves are played and taken
+ * back on the fastest engine of the board size, with the flipped squares
+ * written in buffers owned by the search, and the Zobrist hash of the pieces
+ * is kept up to date unless the search does not need it. The indices of an
+ * attached {@link PatternIndex} are updated as well. Each search thread
+ * works on its own instance.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public final class SearchBoard {
+
+    private final int size;
+    private final MoveEngine engine;
+    private final boolean hashed;
+    private long pieceKey;
+    private PatternIndex patterns;
+    private final long[] blackLanes; // Scratch copies of the pieces for the stability.
+    private final long[] whiteLanes;
+
+    /**
+     * Constructor that copies the pieces of a snapshot and keeps their hash.
+     *
+     * @param snapshot The position to copy.
+     */
+    public SearchBoard(BoardSnapshot snapshot) {
+        this(snapshot, true);
+    }
+
+    /**
+     * Constructor that copies the pieces of a snapshot.
+     *
+     * @param snapshot The position to copy.
+     * @param hashed False to skip the updates of the hash, for random
+     * playouts that never look it up.
+     */
+    public SearchBoard(BoardSnapshot snapshot, boolean hashed) {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Snapshot cannot be null.");
+        }
+        this.size = snapshot.getSize();
+        this.hashed = hashed;
+        this.engine = MoveEngine.create(size);
+        this.blackLanes = new long[SquareSet.wordsFor(size)];
+        this.whiteLanes = new long[blackLanes.length];
+        for (int square = 0; square < size * size; square++) {
+            ColorPiece color = snapshot.getColorAtSquare(square);
+            if (color != null) {
+                engine.setSquare(square, color);
+                pieceKey ^= Zobrist.pieceKey(color, square);
+            }
+        }
+    }
+
+    /**
+     * Returns the size of the board.
+     *
+     * @return The size of the board.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of squares of the board.
+     *
+     * @return size * size.
+     */
+    public int getSquareCount() {
+        return size * size;
+    }
+
+    /**
+     * Returns the number of words needed by the flip buffers.
+     *
+     * @return The length of a flip buffer.
+     */
+    public int getWordCount() {
+        return SquareSet.wordsFor(size);
+    }
+
+    /**
+     * Gets the color of the piece on a square.
+     *
+     * @param square The index of the square.
+     * @return The color of the piece, or null if the square is empty.
+     */
+    public ColorPiece getSquare(int square) {
+        return engine.getSquare(square);
+    }
+
+    /**
+     * Writes the valid moves of a color in increasing order.
+     *
+     * @param color The color of the player.
+     * @param moves The array receiving the squares, of length getSquareCount() at least.
+     * @return The number of valid moves.
+     */
+    public int generateMoves(ColorPiece color, int[] moves) {
+        return engine.generateMoves(color, moves);
+    }
+
+    /**
+     * Checks if a color has at least one valid move.
+     *
+     * @param color The color of the player.
+     * @return True if the player can play.
+     */
+    public boolean hasValidMoves(ColorPiece color) {
+        return engine.hasValidMoves(color);
+    }
+
+    /**
+     * Counts the valid moves of a color.
+     *
+     * @param color The color of the player.
+     * @return The mobility of the player.
+     */
+    public int countMoves(ColorPiece color) {
+        return engine.countMoves(color);
+    }
+
+    /**
+     * Counts the pieces that a move would flip, without playing it.
+     *
+     * @param square The index of the square.
+     * @param color The color of the player.
+     * @return The number of flipped pieces, 0 if the move is not valid.
+     */
+    public int countCaptures(int square, ColorPiece color) {
+        return engine.countCaptures(square, color);
+    }
+
+    /**
+     * Plays a move and updates the hash.
+     *
+     * @param square The index of the square.
+     * @param color The color of the player.
+     * @param flips The buffer receiving the flipped squares.
+     * @return The number of flipped pieces, 0 if the move is not valid.
+     */
+    public int makeMove(int square, ColorPiece color, long[] flips) {
+        int captures = engine.makeMove(square, color, flips);
+        if (captures > 0) {
+            if (hashed) {
+                pieceKey ^= Zobrist.pieceKey(color, square) ^ Zobrist.flipKey(flips);
+            }
+            if (patterns != null) {
+                patterns.played(square, color, flips);
+            }
+        }
+        return captures;
+    }
+
+    /**
+     * Takes back a move played with makeMove.
+     *
+     * @param square The index of the square.
+     * @param color The color of the player who made the move.
+     * @param flips The squares flipped by the move.
+     */
+    public void unmakeMove(int square, ColorPiece color, long[] flips) {
+        engine.unmakeMove(square, color, flips);
+        if (hashed) {
+            pieceKey ^= Zobrist.pieceKey(color, square) ^ Zobrist.flipKey(flips);
+        }
+        if (patterns != null) {
+            patterns.undone(square, color, flips);
+        }
+    }
+
+    /**
+     * Counts the pieces of a color.
+     *
+     * @param color The color of the pieces.
+     * @return The number of pieces.
+     */
+    public int countPieces(ColorPiece color) {
+        return engine.countPieces(color);
+    }
+
+    /**
+     * Counts the discs of a color that can never be flipped again.
+     *
+     * @param color The color of the pieces.
+     * @return The number of stable discs, see {@link Stability}.
+     */
+    public int countStableDiscs(ColorPiece color) {
+        engine.copyPieces(blackLanes, whiteLanes);
+        return color == ColorPiece.BLACK ? Stability.countStable(size, blackLanes, whiteLanes)
+                : Stability.countStable(size, whiteLanes, blackLanes);
+    }
+
+    /**
+     * Counts the empty squares.
+     *
+     * @return The number of empty squares.
+     */
+    public int countEmpty() {
+        return engine.countEmpty();
+    }
+
+    /**
+     * Returns the Zobrist hash of the position with a given side to move.
+     *
+     * @param sideToMove The color of the player to move.
+     * @return The hash key, equal to Board.getHashKey() for the same position,
+     * or meaningless if the board is not hashed.
+     */
+    public long getKey(ColorPiece sideToMove) {
+        return sideToMove == ColorPiece.WHITE ? pieceKey ^ Zobrist.WHITE_TO_MOVE : pieceKey;
+    }
+
+    /**
+     * Gets the pattern indices kept up to date by the board.
+     *
+     * @return The attached indices, or null if there are none.
+     */
+    public PatternIndex getPatternIndex() {
+        return patterns;
+    }
+
+    /**
+     * Attaches pattern indices, computed from the current position and then
+     * updated on each move.
+     *
+     * @param patterns The indices of the patterns of the board size, or null
+     * to detach them.
+     */
+    public void setPatternIndex(PatternIndex patterns) {
+        if (patterns != null) {
+            if (patterns.getPatterns().getSize() != size) {
+                throw new IllegalArgumentException("The patterns are not made for this board size.");
+            }
+            patterns.reset(this);
+        }
+        this.patterns = patterns;
+    }
+
+    /**
+     * Takes an immutable copy of the current pieces.
+     *
+     * @return The snapshot of the position.
+     */
+    public BoardSnapshot snapshot() {
+        long[] black = new long[getWordCount()];
+        long[] white = new long[black.length];
+        engine.copyPieces(black, white);
+        return BoardSnapshot.of(size, SquareSet.of(black), SquareSet.of(white));
+    }
+}
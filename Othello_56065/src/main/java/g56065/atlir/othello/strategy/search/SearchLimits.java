@@ -0,0 +1,93 @@
+package g56065.atlir.othello.strategy.search;
+
+/**
+ * Bounds of a search: maximum depth, time and number of nodes. A value of 0
+ * means no limit for that criterion. The search stops at the first limit
+ * reached and returns the best move of the last finished iteration.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public final class SearchLimits {
+
+    private final int maxDepth;
+    private final long timeMillis;
+    private final long maxNodes;
+
+    /**
+     * Constructor for the SearchLimits class.
+     *
+     * @param maxDepth The maximum depth in plies, 0 for no limit.
+     * @param timeMillis The time budget in milliseconds, 0 for no limit.
+     * @param maxNodes The maximum number of nodes, 0 for no limit.
+     */
+    public SearchLimits(int maxDepth, long timeMillis, long maxNodes) {
+        if (maxDepth < 0 || timeMillis < 0 || maxNodes < 0) {
+            throw new IllegalArgumentException("Search limits cannot be negative.");
+        }
+        this.maxDepth = maxDepth;
+        this.timeMillis = timeMillis;
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * Creates limits with a time budget only.
+     *
+     * @param timeMillis The time budget in milliseconds.
+     * @return The limits.
+     */
+    public static SearchLimits ofTime(long timeMillis) {
+        return new SearchLimits(0, timeMillis, 0);
+    }
+
+    /**
+     * Creates limits with a fixed depth only.
+     *
+     * @param maxDepth The depth in plies.
+     * @return The limits.
+     */
+    public static SearchLimits ofDepth(int maxDepth) {
+        return new SearchLimits(maxDepth, 0, 0);
+    }
+
+    /**
+     * Creates limits with a node budget only.
+     *
+     * @param maxNodes The maximum number of nodes.
+     * @return The limits.
+     */
+    public static SearchLimits ofNodes(long maxNodes) {
+        return new SearchLimits(0, 0, maxNodes);
+    }
+
+    /**
+     * Gets the maximum depth.
+     *
+     * @return The maximum depth in plies, 0 for no limit.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Gets the time budget.
+     *
+     * @return The time budget in milliseconds, 0 for no limit.
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    /**
+     * Gets the node budget.
+     *
+     * @return The maximum number of nodes, 0 for no limit.
+     */
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchLimits[depth=" + maxDepth + ", time=" + timeMillis + "ms, nodes=" + maxNodes + "]";
+    }
+}
@@ -0,0 +1,107 @@
+package g56065.atlir.othello.strategy.search;
+
+/**
+ * Outcome of a search: the chosen move, its score and some statistics.
+ * Instances are immutable.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public final class SearchResult {
+
+    /**
+     * Move value used when the player has to pass.
+     */
+    public static final int PASS = -1;
+
+    private final int move;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedNanos;
+
+    /**
+     * Constructor for the SearchResult class.
+     *
+     * @param move The square of the chosen move, or PASS.
+     * @param score The score of the move for the player, see {@link Score}.
+     * @param depth The depth of the last finished iteration.
+     * @param nodes The number of nodes visited.
+     * @param elapsedNanos The duration of the search in nanoseconds.
+     */
+    public SearchResult(int move, int score, int depth, long nodes, long elapsedNanos) {
+        this.move = move;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Gets the chosen move.
+     *
+     * @return The index of the square (row * size + col), or PASS.
+     */
+    public int getMove() {
+        return move;
+    }
+
+    /**
+     * Checks if the player has no move and must pass.
+     *
+     * @return True if there is no move.
+     */
+    public boolean isPass() {
+        return move == PASS;
+    }
+
+    /**
+     * Gets the score of the chosen move.
+     *
+     * @return The score for the player to move.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the depth of the last finished iteration.
+     *
+     * @return The depth in plies.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Gets the number of nodes visited.
+     *
+     * @return The number of nodes.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Gets the duration of the search.
+     *
+     * @return The duration in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the speed of the search.
+     *
+     * @return The number of nodes per second.
+     */
+    public long getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchResult[move=" + move + ", score=" + score + ", depth=" + depth
+                + ", nodes=" + nodes + ", nps=" + getNodesPerSecond() + "]";
+    }
+}
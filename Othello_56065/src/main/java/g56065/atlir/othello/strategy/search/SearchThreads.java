@@ -0,0 +1,35 @@
+package g56065.atlir.othello.strategy.search;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Helpers shared by the searches running on several threads.
+ *
+ * Author: Youssef El Ouahabi
+ */
+final class SearchThreads {
+
+    private SearchThreads() {
+    }
+
+    /**
+     * Waits for the result of a search thread.
+     *
+     * @param <T> The type of the result.
+     * @param future The pending result.
+     * @return The result of the thread.
+     * @throws IllegalStateException If the waiting thread is interrupted or
+     * the search thread failed.
+     */
+    static <T> T join(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a search thread.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A search thread failed.", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package g56065.atlir.othello.strategy.search;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Fixed-size transposition table shared by the searches, sized from a memory
+ * budget. The table is a power-of-two array of buckets holding two entries:
+ * a depth-preferred slot, only replaced by a deeper or newer result, and an
+ * always-replace slot. Each entry is two 64-bit words, the packed data and
+ * the data XORed with the position key, read and written without locks. An
+ * entry torn by two threads writing at the same time fails the XOR check and
+ * reads as a miss, so the table can be shared by any number of threads.
+ *
+ * Packed data layout, from the lowest bit: score (24 bits, signed), depth
+ * (8 bits), bound (2 bits), move (8 bits, 255 for none), age (6 bits).
+ *
+ * Author: Youssef El Ouahabi
+ */
+public final class TranspositionTable {
+
+    /**
+     * The stored score is a lower bound (the search failed high).
+     */
+    public static final int LOWER = 1;
+
+    /**
+     * The stored score is an upper bound (the search failed low).
+     */
+    public static final int UPPER = 2;
+
+    /**
+     * The stored score is exact.
+     */
+    public static final int EXACT = 3;
+
+    /**
+     * Move value stored when there is no best move.
+     */
+    public static final int NO_MOVE = 255;
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int BUCKET_BYTES = 32; // Two entries of two words.
+    private static final int SCORE_BITS = 24;
+    private static final long SCORE_MASK = (1L << SCORE_BITS) - 1;
+
+    private final long[] table;
+    private final long bucketMask;
+    private volatile int age;
+
+    /**
+     * Constructor that creates the largest table fitting in a memory budget.
+     *
+     * @param memoryBytes The memory budget in bytes, at least 32.
+     */
+    public TranspositionTable(long memoryBytes) {
+        if (memoryBytes < BUCKET_BYTES) {
+            throw new IllegalArgumentException("The memory budget is too small.");
+        }
+        long buckets = Long.highestOneBit(Math.min(memoryBytes / BUCKET_BYTES, 1L << 28));
+        this.table = new long[(int) (buckets * 4)];
+        this.bucketMask = buckets - 1;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key The Zobrist key of the position, side to move included.
+     * @return The packed data of the entry, or 0 if the position is not stored.
+     */
+    public long probe(long key) {
+        int index = (int) (key & bucketMask) << 2;
+        for (int slot = index; slot < index + 4; slot += 2) {
+            long data = (long) WORDS.getOpaque(table, slot + 1);
+            if (data != 0 && ((long) WORDS.getOpaque(table, slot) ^ data) == key) {
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores the result of a search. The depth-preferred slot keeps the
+     * deepest result of the current search, the other slot takes the rest.
+     *
+     * @param key The Zobrist key of the position, side to move included.
+     * @param depth The depth of the search (0 to 255).
+     * @param bound LOWER, UPPER or EXACT.
+     * @param score The score of the position.
+     * @param move The best move found, or a negative value for none.
+     */
+    public void store(long key, int depth, int bound, int score, int move) {
+        long data = pack(depth, bound, score, move, age);
+        int index = (int) (key & bucketMask) << 2;
+        long preferred = (long) WORDS.getOpaque(table, index + 1);
+        boolean samePosition = preferred != 0 && ((long) WORDS.getOpaque(table, index) ^ preferred) == key;
+        if (preferred == 0 || samePosition || depth >= depthOf(preferred) || ageOf(preferred) != age) {
+            write(index, key, data);
+        } else {
+            write(index + 2, key, data);
+        }
+    }
+
+    /**
+     * Starts a new search: entries of previous searches become the first to
+     * be replaced.
+     */
+    public void newSearch() {
+        age = (age + 1) & 63;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        for (int i = 0; i < table.length; i++) {
+            WORDS.setOpaque(table, i, 0L);
+        }
+    }
+
+    /**
+     * Returns the number of buckets.
+     *
+     * @return The number of buckets, a power of two.
+     */
+    public long getBucketCount() {
+        return bucketMask + 1;
+    }
+
+    /**
+     * Returns the memory used by the entries.
+     *
+     * @return The size of the table in bytes.
+     */
+    public long getMemoryBytes() {
+        return (long) table.length * Long.BYTES;
+    }
+
+    /**
+     * Estimates how full the table is from its first thousand buckets.
+     *
+     * @return The number of used entries per thousand of the current search.
+     */
+    public int getUsagePermille() {
+        int sample = (int) Math.min(1000, getBucketCount());
+        int used = 0;
+        for (int bucket = 0; bucket < sample; bucket++) {
+            for (int slot = 1; slot < 4; slot += 2) {
+                long data = (long) WORDS.getOpaque(table, (bucket << 2) + slot);
+                if (data != 0 && ageOf(data) == age) {
+                    used++;
+                }
+            }
+        }
+        return used * 500 / sample;
+    }
+
+    /**
+     * Extracts the score of an entry.
+     *
+     * @param data The packed data returned by probe.
+     * @return The score.
+     */
+    public static int scoreOf(long data) {
+        return (int) (data << (64 - SCORE_BITS) >> (64 - SCORE_BITS));
+    }
+
+    /**
+     * Extracts the depth of an entry.
+     *
+     * @param data The packed data returned by probe.
+     * @return The depth of the search that produced the entry.
+     */
+    public static int depthOf(long data) {
+        return (int) (data >>> 24) & 0xFF;
+    }
+
+    /**
+     * Extracts the bound of an entry.
+     *
+     * @param data The packed data returned by probe.
+     * @return LOWER, UPPER or EXACT.
+     */
+    public static int boundOf(long data) {
+        return (int) (data >>> 32) & 3;
+    }
+
+    /**
+     * Extracts the best move of an entry.
+     *
+     * @param data The packed data returned by probe.
+     * @return The square of the best move, or -1 for none.
+     */
+    public static int moveOf(long data) {
+        int move = (int) (data >>> 34) & 0xFF;
+        return move == NO_MOVE ? -1 : move;
+    }
+
+    /**
+     * Extracts the age of an entry.
+     *
+     * @param data The packed data.
+     * @return The age of the search that produced the entry.
+     */
+    private static int ageOf(long data) {
+        return (int) (data >>> 42) & 63;
+    }
+
+    /**
+     * Packs the fields of an entry. The bound is never 0, so valid data is
+     * never 0 either.
+     *
+     * @param depth The depth of the search.
+     * @param bound The bound of the score.
+     * @param score The score.
+     * @param move The best move, or a negative value for none.
+     * @param age The age of the search.
+     * @return The packed data.
+     */
+    private static long pack(int depth, int bound, int score, int move, int age) {
+        if (bound < LOWER || bound > EXACT) {
+            throw new IllegalArgumentException("Invalid bound: " + bound);
+        }
+        long packedMove = move < 0 ? NO_MOVE : move;
+        return (score & SCORE_MASK)
+                | (long) (Math.min(depth, 255) & 0xFF) << 24
+                | (long) bound << 32
+                | packedMove << 34
+                | (long) age << 42;
+    }
+
+    /**
+     * Writes an entry in a slot.
+     *
+     * @param slot The index of the first word of the entry.
+     * @param key The key of the position.
+     * @param data The packed data.
+     */
+    private void write(int slot, long key, long data) {
+        WORDS.setOpaque(table, slot, key ^ data);
+        WORDS.setOpaque(table, slot + 1, data);
+    }
+}
@@ -0,0 +1,119 @@
+package g56065.atlir.othello.tools;
+
+import g56065.atlir.othello.model.Board;
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import g56065.atlir.othello.strategy.book.CanonicalPosition;
+import g56065.atlir.othello.strategy.book.OpeningBook;
+import g56065.atlir.othello.strategy.book.OpeningBookWriter;
+import g56065.atlir.othello.strategy.search.AlphaBetaSearch;
+import g56065.atlir.othello.strategy.search.MobilityEvaluator;
+import g56065.atlir.othello.strategy.search.Score;
+import g56065.atlir.othello.strategy.search.SearchBoard;
+import g56065.atlir.othello.strategy.search.SearchLimits;
+import g56065.atlir.othello.strategy.search.SearchResult;
+import g56065.atlir.othello.strategy.search.TranspositionTable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds an opening book file. Every position reachable from the start in a
+ * number of plies is visited once up to the symmetries, and each of its
+ * moves is scored by a fixed-depth search. The count of a move is the
+ * number of move orders leading to its position.
+ *
+ * Usage: BuildOpeningBook [size] [plies] [depth] [file]
+ *
+ * Author: Youssef El Ouahabi
+ */
+public class BuildOpeningBook {
+
+    private static final long TABLE_BYTES = 64L << 20;
+
+    /**
+     * A position of the current ply with the number of ways to reach it.
+     */
+    private static final class Node {
+
+        private final BoardSnapshot snapshot;
+        private final ColorPiece player;
+        private int paths;
+
+        private Node(BoardSnapshot snapshot, ColorPiece player, int paths) {
+            this.snapshot = snapshot;
+            this.player = player;
+            this.paths = paths;
+        }
+    }
+
+    /**
+     * Entry point of the tool.
+     *
+     * @param args Optional board size, number of plies, search depth and
+     * output file.
+     * @throws IOException If the book cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int plies = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        Path file = Paths.get(args.length > 3 ? args[3] : OpeningBook.defaultFileName(size));
+
+        OpeningBookWriter writer = build(size, plies, depth);
+        writer.write(file);
+        System.out.printf("%d records written to %s%n", writer.getRecordCount(), file);
+    }
+
+    /**
+     * Visits the positions ply by ply and scores their moves.
+     *
+     * @param size The size of the board.
+     * @param plies The number of plies covered by the book.
+     * @param depth The depth of the search of each move.
+     * @return The writer holding the book.
+     */
+    static OpeningBookWriter build(int size, int plies, int depth) {
+        OpeningBookWriter writer = new OpeningBookWriter(size);
+        AlphaBetaSearch search = new AlphaBetaSearch(new MobilityEvaluator(), new TranspositionTable(TABLE_BYTES));
+        SearchLimits limits = SearchLimits.ofDepth(depth);
+        int[] moves = new int[size * size];
+
+        Map<Long, Node> level = new LinkedHashMap<>();
+        BoardSnapshot start = new Board(size).snapshot();
+        level.put(CanonicalPosition.of(start, ColorPiece.BLACK).getKey(), new Node(start, ColorPiece.BLACK, 1));
+        for (int ply = 0; ply < plies && !level.isEmpty(); ply++) {
+            Map<Long, Node> next = new LinkedHashMap<>();
+            for (Node node : level.values()) {
+                int count = node.snapshot.generateMoves(node.player, moves);
+                for (int i = 0; i < count; i++) {
+                    SearchBoard board = new SearchBoard(node.snapshot);
+                    board.makeMove(moves[i], node.player, new long[board.getWordCount()]);
+                    ColorPiece opponent = node.player.opposite();
+                    ColorPiece toMove = board.hasValidMoves(opponent) ? opponent
+                            : board.hasValidMoves(node.player) ? node.player : null;
+                    int score;
+                    if (toMove == null) { // The move ends the game
+                        int difference = board.countPieces(node.player) - board.countPieces(opponent);
+                        score = Score.ofResult(difference);
+                    } else {
+                        SearchResult result = search.search(board.snapshot(), toMove, limits);
+                        score = toMove == node.player ? result.getScore() : -result.getScore();
+                        BoardSnapshot child = board.snapshot();
+                        Node known = next.putIfAbsent(CanonicalPosition.of(child, toMove).getKey(),
+                                new Node(child, toMove, node.paths));
+                        if (known != null) {
+                            known.paths += node.paths;
+                        }
+                    }
+                    writer.add(node.snapshot, node.player, moves[i], score, node.paths);
+                }
+            }
+            System.out.printf("ply %d: %d positions%n", ply, level.size());
+            level = next;
+        }
+        return writer;
+    }
+}
@@ -0,0 +1,273 @@
+package g56065.atlir.othello.tools;
+
+import g56065.atlir.othello.model.Board;
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import g56065.atlir.othello.strategy.search.AlphaBetaSearch;
+import g56065.atlir.othello.strategy.search.HeuristicMoveOrdering;
+import g56065.atlir.othello.strategy.search.PatternEvaluator;
+import g56065.atlir.othello.strategy.search.PatternWeights;
+import g56065.atlir.othello.strategy.search.ProbCut;
+import g56065.atlir.othello.strategy.search.Score;
+import g56065.atlir.othello.strategy.search.SearchBoard;
+import g56065.atlir.othello.strategy.search.SearchLimits;
+import g56065.atlir.othello.strategy.search.TranspositionTable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fits the parameters of the Multi-ProbCut selective search. Positions are
+ * taken from self-play games, a shallow search with random moves mixed in,
+ * so that every game phase gets the same number of them. Each position is
+ * searched fully by iterative deepening with the pattern evaluation, and the
+ * score of every depth is recorded; the scores of finished games are left
+ * out. For each phase and depth, the deep scores are then regressed on the
+ * scores of the shallow depths of its checks.
+ * <p>
+ * A depth d is checked from the shallow depth d / 4 * 2 + d % 2, of the same
+ * parity, and from 7 on first from two plies less, which is cheaper. The
+ * tool then measures the depth reached in a fixed time by the search with
+ * and without the new parameters.
+ *
+ * Usage: CalibrateProbCut [size] [positions] [maxDepth] [file] [millis] [seed]
+ *
+ * Author: Youssef El Ouahabi
+ */
+public class CalibrateProbCut {
+
+    private static final double RANDOM_MOVES = 0.3;
+    private static final int GAME_DEPTH = 2;
+    private static final int MIN_SAMPLES = 20;
+    private static final int TEST_POSITIONS = 20;
+    private static final long TABLE_BYTES = 16L << 20;
+
+    /**
+     * Entry point of the tool.
+     *
+     * @param args Optional board size, number of positions, deepest depth,
+     * output file, time of the depth comparison in milliseconds and seed.
+     * @throws IOException If the parameters cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int positionCount = args.length > 1 ? Integer.parseInt(args[1]) : 600;
+        int maxDepth = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        Path file = Paths.get(args.length > 3 ? args[3] : "probcut-" + size + ".bin");
+        long millis = args.length > 4 ? Long.parseLong(args[4]) : 1000;
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 1;
+        if (maxDepth < ProbCut.MIN_DEPTH || maxDepth >= ProbCut.DEPTHS) {
+            throw new IllegalArgumentException("The deepest depth must be between " + ProbCut.MIN_DEPTH + " and "
+                    + (ProbCut.DEPTHS - 1) + ".");
+        }
+
+        Random random = new Random(seed);
+        List<BoardSnapshot> positions = positions(size, positionCount, random);
+        int[][] scores = new int[positions.size()][];
+        int[] phases = new int[positions.size()];
+        ProbCut probCut = new ProbCut(size);
+        AlphaBetaSearch search = new AlphaBetaSearch(new PatternEvaluator(), new TranspositionTable(TABLE_BYTES));
+        long start = System.nanoTime();
+        for (int i = 0; i < positions.size(); i++) {
+            scores[i] = scoresByDepth(search, positions.get(i), maxDepth);
+            phases[i] = probCut.phaseOf(empties(positions.get(i)));
+            if ((i + 1) % 50 == 0) {
+                System.out.printf("%d positions searched in %.0f s%n", i + 1, (System.nanoTime() - start) / 1e9);
+            }
+        }
+
+        System.out.printf("%5s %5s %7s %8s %8s %8s %6s%n", "phase", "depth", "shallow", "a", "b", "sigma", "n");
+        for (int phase = 0; phase < PatternWeights.PHASES; phase++) {
+            for (int depth = ProbCut.MIN_DEPTH; depth <= maxDepth; depth++) {
+                for (int shallow : checks(depth)) {
+                    double[] fit = fit(scores, phases, phase, shallow, depth);
+                    if (fit != null) {
+                        probCut.addCheck(phase, depth, shallow, fit[0], fit[1], fit[2]);
+                        System.out.printf("%5d %5d %7d %8.3f %8.1f %8.1f %6d%n", phase, depth, shallow,
+                                fit[0], fit[1], fit[2], (int) fit[3]);
+                    }
+                }
+            }
+        }
+        try (OutputStream out = Files.newOutputStream(file)) {
+            probCut.write(out);
+        }
+        System.out.printf("%d positions, parameters written to %s%n", positions.size(), file);
+        if (millis > 0) {
+            compareDepths(size, probCut, millis, new Random(seed + 1));
+        }
+    }
+
+    /**
+     * Gives the shallow depths checked for a depth, in the order they are
+     * tried.
+     *
+     * @param depth The depth of the deep search.
+     * @return The shallow depths.
+     */
+    static int[] checks(int depth) {
+        int shallow = depth / 4 * 2 + depth % 2;
+        if (shallow < 1) {
+            return new int[0];
+        }
+        return depth >= 7 && shallow > 2 ? new int[]{shallow - 2, shallow} : new int[]{shallow};
+    }
+
+    /**
+     * Plays self-play games and keeps the same number of their positions in
+     * every phase, the player to move having a move.
+     *
+     * @param size The size of the board.
+     * @param count The number of positions wanted.
+     * @param random The source of the random moves and choices.
+     * @return The positions, black to move.
+     */
+    private static List<BoardSnapshot> positions(int size, int count, Random random) {
+        ProbCut phases = new ProbCut(size);
+        int perPhase = (count + PatternWeights.PHASES - 1) / PatternWeights.PHASES;
+        List<List<BoardSnapshot>> byPhase = new ArrayList<>();
+        for (int phase = 0; phase < PatternWeights.PHASES; phase++) {
+            byPhase.add(new ArrayList<>());
+        }
+        AlphaBetaSearch player = new AlphaBetaSearch(new PatternEvaluator(), new TranspositionTable(TABLE_BYTES));
+        int[] moves = new int[size * size];
+        int games = 0;
+        while (byPhase.stream().anyMatch(list -> list.size() < perPhase) && games < count * 10) {
+            games++;
+            SearchBoard board = new SearchBoard(new Board(size).snapshot());
+            long[] flips = new long[board.getWordCount()];
+            ColorPiece color = ColorPiece.BLACK;
+            while (true) {
+                int moveCount = board.generateMoves(color, moves);
+                if (moveCount == 0) {
+                    if (!board.hasValidMoves(color.opposite())) {
+                        break;
+                    }
+                    color = color.opposite();
+                    continue;
+                }
+                List<BoardSnapshot> list = byPhase.get(phases.phaseOf(board.countEmpty()));
+                // About two positions of each phase per game, from every part of the phase
+                if (list.size() < perPhase && random.nextInt(Math.max(1, (size * size - 4) / PatternWeights.PHASES / 2)) == 0) {
+                    BoardSnapshot position = board.snapshot();
+                    // The colors are swapped when white is to move
+                    list.add(color == ColorPiece.BLACK ? position : BoardSnapshot.of(size,
+                            position.getPieces(ColorPiece.WHITE), position.getPieces(ColorPiece.BLACK)));
+                }
+                int move = random.nextDouble() < RANDOM_MOVES ? moves[random.nextInt(moveCount)]
+                        : player.search(board.snapshot(), color, SearchLimits.ofDepth(GAME_DEPTH)).getMove();
+                board.makeMove(move, color, flips);
+                color = color.opposite();
+            }
+        }
+        List<BoardSnapshot> positions = new ArrayList<>();
+        byPhase.forEach(positions::addAll);
+        return positions;
+    }
+
+    /**
+     * Searches a position fully by iterative deepening.
+     *
+     * @param search The search, without ProbCut.
+     * @param position The position, black to move.
+     * @param maxDepth The deepest depth.
+     * @return The scores by depth, Integer.MIN_VALUE for the depths without
+     * a heuristic score.
+     */
+    private static int[] scoresByDepth(AlphaBetaSearch search, BoardSnapshot position, int maxDepth) {
+        int[] scores = new int[maxDepth + 1];
+        Arrays.fill(scores, Integer.MIN_VALUE);
+        search.getTranspositionTable().clear();
+        search.setProgressListener(result -> {
+            if (!Score.isResult(result.getScore())) {
+                scores[result.getDepth()] = result.getScore();
+            }
+        });
+        search.search(position, ColorPiece.BLACK, SearchLimits.ofDepth(maxDepth));
+        search.setProgressListener(null);
+        return scores;
+    }
+
+    /**
+     * Fits the deep scores of a phase to the shallow ones by least squares.
+     *
+     * @return The slope, the intercept, the standard deviation of the error
+     * and the number of positions, or null with too few positions.
+     */
+    private static double[] fit(int[][] scores, int[] phases, int phase, int shallow, int depth) {
+        int n = 0;
+        double sumX = 0;
+        double sumY = 0;
+        double sumXX = 0;
+        double sumXY = 0;
+        for (int i = 0; i < scores.length; i++) {
+            if (phases[i] == phase && scores[i][shallow] != Integer.MIN_VALUE && scores[i][depth] != Integer.MIN_VALUE) {
+                double x = scores[i][shallow];
+                double y = scores[i][depth];
+                n++;
+                sumX += x;
+                sumY += y;
+                sumXX += x * x;
+                sumXY += x * y;
+            }
+        }
+        double variance = n * sumXX - sumX * sumX;
+        if (n < MIN_SAMPLES || variance <= 0) {
+            return null;
+        }
+        double a = (n * sumXY - sumX * sumY) / variance;
+        double b = (sumY - a * sumX) / n;
+        if (a <= 0) {
+            return null;
+        }
+        double squares = 0;
+        for (int i = 0; i < scores.length; i++) {
+            if (phases[i] == phase && scores[i][shallow] != Integer.MIN_VALUE && scores[i][depth] != Integer.MIN_VALUE) {
+                double error = scores[i][depth] - (a * scores[i][shallow] + b);
+                squares += error * error;
+            }
+        }
+        return new double[]{a, b, Math.sqrt(squares / (n - 2)), n};
+    }
+
+    /**
+     * Counts the empty squares of a position.
+     */
+    private static int empties(BoardSnapshot position) {
+        int size = position.getSize();
+        return size * size - position.countPieces(ColorPiece.BLACK) - position.countPieces(ColorPiece.WHITE);
+    }
+
+    /**
+     * Prints the mean depth reached in a fixed time by the search with and
+     * without the parameters, on positions of the middle game.
+     */
+    private static void compareDepths(int size, ProbCut probCut, long millis, Random random) {
+        List<BoardSnapshot> positions = positions(size, TEST_POSITIONS * PatternWeights.PHASES, random);
+        AlphaBetaSearch full = new AlphaBetaSearch(new PatternEvaluator(), new TranspositionTable(TABLE_BYTES));
+        AlphaBetaSearch selective = new AlphaBetaSearch(new PatternEvaluator(), new TranspositionTable(TABLE_BYTES),
+                null, new HeuristicMoveOrdering(), boardSize -> boardSize == size ? probCut : null);
+        int[] depths = new int[2];
+        int count = 0;
+        for (BoardSnapshot position : positions) {
+            int phase = probCut.phaseOf(empties(position));
+            if (phase == 0 || phase == PatternWeights.PHASES - 1) {
+                continue; // The book and the solver play these phases
+            }
+            count++;
+            AlphaBetaSearch[] searches = {full, selective};
+            for (int i = 0; i < 2; i++) {
+                searches[i].getTranspositionTable().clear();
+                depths[i] += searches[i].search(position, ColorPiece.BLACK, SearchLimits.ofTime(millis)).getDepth();
+            }
+        }
+        System.out.printf("Mean depth in %d ms over %d positions: %.2f without ProbCut, %.2f with it%n",
+                millis, count, depths[0] / (double) count, depths[1] / (double) count);
+    }
+}
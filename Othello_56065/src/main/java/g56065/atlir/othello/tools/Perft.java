@@ -0,0 +1,286 @@
+package g56065.atlir.othello.tools;
+
+import g56065.atlir.othello.model.Board;
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import g56065.atlir.othello.model.GameOthello;
+import g56065.atlir.othello.model.GridEngine;
+import g56065.atlir.othello.model.MoveEngine;
+import g56065.atlir.othello.model.Position;
+import g56065.atlir.othello.model.SquareSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Counts the positions reached from the start after a number of plies, to
+ * check the move generators against each other and to measure their speed.
+ * A player who cannot move passes, as in GameOthello.passTurn(), and the
+ * pass counts as a ply; a game that ends before the last ply counts as one
+ * position. With these rules the 8x8 counts are the published ones (4, 12,
+ * 56, 244, 1396...).
+ *
+ * The backends are the engine chosen by MoveEngine.create() for the size,
+ * the grid engine walking the rays square by square like the rules of the
+ * board, and the game as the window plays it: the moves are found by asking
+ * isValidMove() of every square and played with GameOthello.addPiece() and
+ * undo(), which makes the passes. It does not use the move generation of the
+ * engines, so it checks it instead of repeating it. The root moves can be
+ * split between several threads.
+ *
+ * Usage: Perft [depth] [sizes] [backend] [threads]
+ * where sizes is a list such as 6,8 or a range such as 3-15 and backend is
+ * engine, grid, board or all.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public class Perft {
+
+    /**
+     * The ways to play the moves.
+     */
+    enum Backend {
+        ENGINE, GRID, BOARD
+    }
+
+    /**
+     * Entry point of the tool.
+     *
+     * @param args Optional depth, board sizes, backend and number of threads.
+     * @throws InterruptedException If interrupted while waiting for a thread.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 7;
+        String sizes = args.length > 1 ? args[1] : "3-15";
+        String backend = args.length > 2 ? args[2] : "all";
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        List<Backend> backends = new ArrayList<>();
+        for (Backend candidate : Backend.values()) {
+            if (backend.equals("all") || backend.equalsIgnoreCase(candidate.name())) {
+                backends.add(candidate);
+            }
+        }
+        if (backends.isEmpty()) {
+            throw new IllegalArgumentException("Unknown backend: " + backend);
+        }
+        System.out.printf("%5s %6s %-7s %8s %16s %10s %10s%n", "size", "depth", "backend", "threads", "nodes", "time(ms)", "Mnps");
+        for (String part : sizes.split(",")) {
+            String[] range = part.split("-", 2);
+            int from = Integer.parseInt(range[0].trim());
+            int to = range.length > 1 ? Integer.parseInt(range[1].trim()) : from;
+            for (int size = from; size <= to; size++) {
+                long expected = -1;
+                for (Backend candidate : backends) {
+                    long start = System.nanoTime();
+                    long nodes = perft(size, depth, candidate, threads);
+                    long nanos = System.nanoTime() - start;
+                    System.out.printf("%5d %6d %-7s %8d %16d %10.1f %10.2f%s%n", size, depth,
+                            candidate.name().toLowerCase(), threads, nodes, nanos / 1e6, nodes / (nanos / 1e3),
+                            expected >= 0 && nodes != expected ? "  MISMATCH" : "");
+                    expected = nodes;
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the positions reached from the start of a board.
+     *
+     * @param size The size of the board, from 3 to 15.
+     * @param depth The number of plies.
+     * @param backend The way to play the moves.
+     * @param threads The number of threads sharing the root moves.
+     * @return The number of positions.
+     * @throws InterruptedException If interrupted while waiting for a thread.
+     */
+    static long perft(int size, int depth, Backend backend, int threads) throws InterruptedException {
+        if (depth < 0 || threads < 1) {
+            throw new IllegalArgumentException("The depth cannot be negative and one thread is needed at least.");
+        }
+        BoardSnapshot start = new Board(size).snapshot();
+        if (backend == Backend.BOARD) {
+            // The game holds caches shared by its methods, it is searched on one thread
+            return new GameCounter(new GameOthello(size)).count(depth);
+        }
+        IntFunction<MoveEngine> engines = backend == Backend.GRID ? GridEngine::new : MoveEngine::create;
+        if (threads == 1 || depth < 2) {
+            return new EngineCounter(copy(start, engines), depth).count(ColorPiece.BLACK, depth);
+        }
+        return splitRoot(start, depth, engines, threads);
+    }
+
+    /**
+     * Counts in parallel: each root move is searched by a task on its own
+     * copy of the position.
+     *
+     * @param start The root position, black to move.
+     * @param depth The number of plies, 2 at least.
+     * @param engines Creates the engine of a task for the board size.
+     * @param threads The number of threads.
+     * @return The number of positions.
+     * @throws InterruptedException If interrupted while waiting for a thread.
+     */
+    private static long splitRoot(BoardSnapshot start, int depth, IntFunction<MoveEngine> engines, int threads)
+            throws InterruptedException {
+        int[] rootMoves = new int[start.getSize() * start.getSize()];
+        int count = start.generateMoves(ColorPiece.BLACK, rootMoves);
+        if (count == 0) {
+            return new EngineCounter(copy(start, engines), depth).count(ColorPiece.BLACK, depth);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "perft");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Long>> parts = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                int move = rootMoves[i];
+                parts.add(pool.submit(() -> {
+                    MoveEngine engine = copy(start, engines);
+                    engine.makeMove(move, ColorPiece.BLACK, new long[SquareSet.wordsFor(start.getSize())]);
+                    return new EngineCounter(engine, depth).count(ColorPiece.WHITE, depth - 1);
+                }));
+            }
+            long nodes = 0;
+            for (Future<Long> part : parts) {
+                nodes += part.get();
+            }
+            return nodes;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A perft thread failed.", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Copies a position into a new engine.
+     *
+     * @param snapshot The position.
+     * @param engines Creates the engine for the board size.
+     * @return The engine holding the pieces of the position.
+     */
+    private static MoveEngine copy(BoardSnapshot snapshot, IntFunction<MoveEngine> engines) {
+        MoveEngine engine = engines.apply(snapshot.getSize());
+        for (int square = 0; square < snapshot.getSize() * snapshot.getSize(); square++) {
+            ColorPiece color = snapshot.getColorAtSquare(square);
+            if (color != null) {
+                engine.setSquare(square, color);
+            }
+        }
+        return engine;
+    }
+
+    /**
+     * Counts on a move engine, with buffers allocated once per ply.
+     */
+    private static final class EngineCounter {
+
+        private final MoveEngine engine;
+        private final int[][] moves;
+        private final long[][] flips;
+
+        private EngineCounter(MoveEngine engine, int depth) {
+            this.engine = engine;
+            int size = engine.getSize();
+            this.moves = new int[depth + 1][size * size];
+            this.flips = new long[depth + 1][SquareSet.wordsFor(size)];
+        }
+
+        private long count(ColorPiece player, int depth) {
+            if (depth == 0) {
+                return 1;
+            }
+            int[] list = moves[depth];
+            int count = engine.generateMoves(player, list);
+            if (count == 0) {
+                if (!engine.hasValidMoves(player.opposite())) {
+                    return 1; // The game is over
+                }
+                return count(player.opposite(), depth - 1);
+            }
+            if (depth == 1) {
+                return count;
+            }
+            long[] flipped = flips[depth];
+            long nodes = 0;
+            for (int i = 0; i < count; i++) {
+                engine.makeMove(list[i], player, flipped);
+                nodes += count(player.opposite(), depth - 1);
+                engine.unmakeMove(list[i], player, flipped);
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * Counts on a game, through the moves a player can make in the window.
+     */
+    private static final class GameCounter {
+
+        private final GameOthello game;
+        private final Board board;
+
+        private GameCounter(GameOthello game) {
+            this.game = game;
+            this.board = game.getBoard();
+        }
+
+        /**
+         * Counts the positions reached from the game, with its current player
+         * to move.
+         */
+        private long count(int depth) {
+            if (depth == 0) {
+                return 1;
+            }
+            ColorPiece player = game.getCurrentPlayer();
+            int size = board.getSize();
+            long nodes = 0;
+            boolean moved = false;
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    if (board.isValidMove(Position.of(row, col), player)) {
+                        moved = true;
+                        game.addPiece(row, col);
+                        nodes += countAfter(player, depth - 1);
+                        game.undo();
+                    }
+                }
+            }
+            return moved ? nodes : 1; // Nobody can move: the game is over
+        }
+
+        /**
+         * Counts the positions reached after a move, the game having already
+         * passed the turn of an opponent without moves.
+         */
+        private long countAfter(ColorPiece mover, int depth) {
+            if (!canMove(ColorPiece.BLACK) && !canMove(ColorPiece.WHITE)) {
+                return 1; // The game is over
+            }
+            if (game.getCurrentPlayer() == mover) { // The opponent passed, which counts as a ply
+                return depth == 0 ? 1 : count(depth - 1);
+            }
+            return count(depth);
+        }
+
+        private boolean canMove(ColorPiece color) {
+            int size = board.getSize();
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    if (board.isValidMove(Position.of(row, col), color)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package g56065.atlir.othello.tools;
+
+import g56065.atlir.othello.model.Board;
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import g56065.atlir.othello.strategy.search.MobilityEvaluator;
+import g56065.atlir.othello.strategy.search.ParallelSearch;
+import g56065.atlir.othello.strategy.search.SearchLimits;
+import g56065.atlir.othello.strategy.search.SearchResult;
+import g56065.atlir.othello.strategy.search.TranspositionTable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures how the parallel search scales with the number of threads. The
+ * same positions, reached by seeded random openings, are searched to a fixed
+ * depth with 1, 2, 4... threads; the tool prints the time, the nodes per
+ * second (in total and per thread) and the speedup over one thread.
+ *
+ * Usage: SearchBenchmark [size] [depth] [maxThreads] [positions]
+ *
+ * Author: Youssef El Ouahabi
+ */
+public class SearchBenchmark {
+
+    private static final long TABLE_BYTES = 64L << 20;
+
+    /**
+     * Entry point of the benchmark.
+     *
+     * @param args Optional board size, depth, maximum number of threads and
+     * number of positions.
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int positionCount = args.length > 3 ? Integer.parseInt(args[3]) : 8;
+
+        List<BoardSnapshot> positions = openings(size, positionCount, 42);
+        System.out.printf("Board %dx%d, depth %d, %d positions%n", size, size, depth, positions.size());
+        System.out.printf("%8s %10s %14s %12s %14s %8s%n", "threads", "time(ms)", "nodes", "Mnps", "Mnps/thread", "speedup");
+        double baseTime = 0;
+        for (int threads = 1; threads <= maxThreads; threads = nextThreadCount(threads, maxThreads)) {
+            ParallelSearch search = new ParallelSearch(threads, MobilityEvaluator::new, new TranspositionTable(TABLE_BYTES));
+            long nodes = 0;
+            long nanos = 0;
+            for (BoardSnapshot position : positions) {
+                search.getTranspositionTable().clear();
+                SearchResult result = search.searchLazySmp(position, ColorPiece.BLACK, SearchLimits.ofDepth(depth));
+                nodes += result.getNodes();
+                nanos += result.getElapsedNanos();
+            }
+            search.shutdown();
+            double millis = nanos / 1e6;
+            if (threads == 1) {
+                baseTime = millis;
+            }
+            double mnps = nodes / (nanos / 1e9) / 1e6;
+            System.out.printf("%8d %10.0f %14d %12.2f %14.2f %8.2f%n",
+                    threads, millis, nodes, mnps, mnps / threads, baseTime / millis);
+        }
+    }
+
+    /**
+     * Plays seeded random openings to get positions with black to move.
+     *
+     * @param size The size of the board.
+     * @param count The number of positions.
+     * @param seed The seed of the random moves.
+     * @return The positions reached.
+     */
+    static List<BoardSnapshot> openings(int size, int count, long seed) {
+        Random random = new Random(seed);
+        List<BoardSnapshot> positions = new ArrayList<>();
+        int[] moves = new int[size * size];
+        while (positions.size() < count) {
+            Board board = new Board(size);
+            ColorPiece player = ColorPiece.BLACK;
+            int plies = 2 * (2 + random.nextInt(4)); // An even number of plies, black to move
+            boolean ended = false;
+            for (int ply = 0; ply < plies && !ended; ply++) {
+                int moveCount = board.generateMoves(player, moves);
+                if (moveCount == 0) {
+                    ended = true;
+                } else {
+                    board.makeMove(moves[random.nextInt(moveCount)], player);
+                    player = player.opposite();
+                }
+            }
+            if (!ended && board.hasValidMoves(ColorPiece.BLACK)) {
+                positions.add(board.snapshot());
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Gives the next number of threads to measure: powers of two, then the
+     * maximum.
+     *
+     * @param threads The current number of threads.
+     * @param maxThreads The maximum number of threads.
+     * @return The next number of threads.
+     */
+    private static int nextThreadCount(int threads, int maxThreads) {
+        if (threads == maxThreads) {
+            return maxThreads + 1;
+        }
+        return Math.min(threads * 2, maxThreads);
+    }
+}
@@ -0,0 +1,489 @@
+package g56065.atlir.othello.tools;
+
+import g56065.atlir.othello.model.Board;
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import g56065.atlir.othello.strategy.AlphaBetaStrategy;
+import g56065.atlir.othello.strategy.MctsStrategy;
+import g56065.atlir.othello.strategy.RandomStrategy;
+import g56065.atlir.othello.strategy.SmartStrategy;
+import g56065.atlir.othello.strategy.Strategy;
+import g56065.atlir.othello.strategy.search.MctsSearch;
+import g56065.atlir.othello.strategy.search.SearchBoard;
+import g56065.atlir.othello.strategy.search.SearchLimits;
+import g56065.atlir.othello.strategy.search.SearchResult;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Plays a headless tournament between strategies, on all the cores. Every
+ * pair of strategies meets on every board size, from seeded random
+ * openings that are each played twice with the colors swapped, so the
+ * results can be reproduced and no side gets the better openings. The tool
+ * prints the wins, draws and losses of each pairing with the Elo difference
+ * and its 95% error bar, then the latency percentiles of the moves of each
+ * strategy and the number of games per second.
+ *
+ * Each thread keeps its own instance of every strategy, searching on a
+ * single thread, so that the games are the unit of parallelism.
+ *
+ * Usage: Tournament [games] [sizes] [strategy...]
+ * where sizes is a list such as 6,8 or a range such as 3-15, and a strategy
+ * is random, smart, alphabeta or mcts, followed for the last two by a budget
+ * per move: alphabeta:d4 (depth), mcts:200ms (time) or mcts:n5000 (nodes or
+ * playouts), 50 ms by default. A fixed depth does not bound the latency near
+ * the end of the game, where the alpha-beta strategy solves the position.
+ *
+ * Author: Youssef El Ouahabi
+ */
+public class Tournament {
+
+    private static final long SEED = 20240917L;
+    private static final int OPENING_PLIES = 6;
+    private static final double Z_95 = 1.96;
+    private static final long DEFAULT_TIME_MILLIS = 50;
+
+    /**
+     * A strategy of the tournament with the way to create its instances.
+     */
+    static final class Entrant {
+
+        private final String name;
+        private final Supplier<Strategy> factory;
+
+        private Entrant(String name, Supplier<Strategy> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+
+        /**
+         * Parses a strategy of the command line.
+         *
+         * @param spec The name of the strategy, with a budget for the searches.
+         * @return The entrant.
+         */
+        static Entrant parse(String spec) {
+            String[] parts = spec.split(":", 2);
+            SearchLimits limits = parts.length > 1 ? parseLimits(parts[1]) : SearchLimits.ofTime(DEFAULT_TIME_MILLIS);
+            switch (parts[0]) {
+                case "random":
+                    return new Entrant(spec, RandomStrategy::new);
+                case "smart":
+                    return new Entrant(spec, SmartStrategy::new);
+                case "alphabeta":
+                    return new Entrant(spec, () -> {
+                        AlphaBetaStrategy strategy = new AlphaBetaStrategy(limits, 1);
+                        strategy.setPondering(false);
+                        return strategy;
+                    });
+                case "mcts":
+                    return new Entrant(spec, () -> new MctsStrategy(limits, 1, 1, MctsSearch.DEFAULT_EXPLORATION, SEED));
+                default:
+                    throw new IllegalArgumentException("Unknown strategy: " + parts[0]);
+            }
+        }
+
+        /**
+         * Parses a budget: d followed by a depth, n followed by a number of
+         * nodes, or a time ending with ms.
+         *
+         * @param budget The budget of the command line.
+         * @return The limits of the search.
+         */
+        private static SearchLimits parseLimits(String budget) {
+            if (budget.startsWith("d")) {
+                return SearchLimits.ofDepth(Integer.parseInt(budget.substring(1)));
+            } else if (budget.startsWith("n")) {
+                return SearchLimits.ofNodes(Long.parseLong(budget.substring(1)));
+            } else if (budget.endsWith("ms")) {
+                return SearchLimits.ofTime(Long.parseLong(budget.substring(0, budget.length() - 2)));
+            }
+            throw new IllegalArgumentException("Unknown budget: " + budget);
+        }
+    }
+
+    /**
+     * The end of a game with the time taken by each move.
+     */
+    static final class Outcome {
+
+        private final int discDifference; // Black minus white
+        private final long[] blackNanos;
+        private final long[] whiteNanos;
+
+        Outcome(int discDifference, long[] blackNanos, long[] whiteNanos) {
+            this.discDifference = discDifference;
+            this.blackNanos = blackNanos;
+            this.whiteNanos = whiteNanos;
+        }
+    }
+
+    /**
+     * Wins, draws and losses of the first strategy of a pairing.
+     */
+    static final class PairResult {
+
+        private int wins;
+        private int draws;
+        private int losses;
+
+        /**
+         * Adds the result of a game.
+         *
+         * @param discDifference The disc difference for the first strategy.
+         */
+        void add(int discDifference) {
+            if (discDifference > 0) {
+                wins++;
+            } else if (discDifference < 0) {
+                losses++;
+            } else {
+                draws++;
+            }
+        }
+
+        /**
+         * Adds the two games of an opening, the first strategy playing black
+         * then white. The results are turned to the side of the first
+         * strategy.
+         *
+         * @param firstAsBlack The game where the first strategy is black.
+         * @param firstAsWhite The game where the first strategy is white.
+         */
+        void addPair(Outcome firstAsBlack, Outcome firstAsWhite) {
+            add(firstAsBlack.discDifference);
+            add(-firstAsWhite.discDifference);
+        }
+
+        int games() {
+            return wins + draws + losses;
+        }
+
+        int wins() {
+            return wins;
+        }
+
+        int draws() {
+            return draws;
+        }
+
+        int losses() {
+            return losses;
+        }
+
+        double score() {
+            return (wins + 0.5 * draws) / games();
+        }
+
+        /**
+         * Computes the half width of the 95% confidence interval of the
+         * score, from the variance of the results of the games.
+         *
+         * @return The margin of the score.
+         */
+        double scoreMargin() {
+            double score = score();
+            double variance = (wins * (1 - score) * (1 - score) + draws * (0.5 - score) * (0.5 - score)
+                    + losses * score * score) / games();
+            return Z_95 * Math.sqrt(variance / games());
+        }
+
+        @Override
+        public String toString() {
+            double score = score();
+            double margin = scoreMargin();
+            double low = elo(Math.max(score - margin, 0));
+            double high = elo(Math.min(score + margin, 1));
+            String halfWidth = Double.isInfinite(low) || Double.isInfinite(high) ? "inf"
+                    : String.format("%.0f", (high - low) / 2);
+            return String.format("%4d/%4d/%4d  %5.1f%%  Elo %s +/- %s", wins, draws, losses, 100 * score,
+                    formatElo(elo(score)), halfWidth);
+        }
+    }
+
+    /**
+     * Entry point of the tournament.
+     *
+     * @param args Optional number of games per pairing and size, board
+     * sizes and strategies.
+     * @throws InterruptedException If interrupted while waiting for the games.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int[] sizes = parseSizes(args.length > 1 ? args[1] : "8");
+        List<Entrant> entrants = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            entrants.add(Entrant.parse(args[i]));
+        }
+        if (entrants.size() < 2) {
+            entrants = List.of(Entrant.parse("smart"), Entrant.parse("alphabeta"));
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        run(entrants, sizes, (games + 1) / 2, threads);
+    }
+
+    /**
+     * Plays the tournament and prints its results.
+     *
+     * @param entrants The strategies.
+     * @param sizes The board sizes.
+     * @param openingCount The number of openings per pairing and size, each
+     * played with both colors.
+     * @param threads The number of games played at the same time.
+     * @throws InterruptedException If interrupted while waiting for the games.
+     */
+    static void run(List<Entrant> entrants, int[] sizes, int openingCount, int threads) throws InterruptedException {
+        ThreadLocal<Strategy[]> instances = ThreadLocal.withInitial(() -> {
+            Strategy[] strategies = new Strategy[entrants.size()];
+            for (int i = 0; i < strategies.length; i++) {
+                strategies[i] = entrants.get(i).factory.get();
+            }
+            return strategies;
+        });
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "tournament");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        System.out.printf("%d strategies, sizes %s, %d games per pairing and size, %d threads%n",
+                entrants.size(), Arrays.toString(sizes), 2 * openingCount, threads);
+
+        List<List<Long>> latencies = new ArrayList<>();
+        for (int i = 0; i < entrants.size(); i++) {
+            latencies.add(new ArrayList<>());
+        }
+        PairResult[][] totals = new PairResult[entrants.size()][entrants.size()];
+        int played = 0;
+        for (int size : sizes) {
+            List<int[]> openings = openings(size, openingCount, SEED + size);
+            List<Future<Outcome>> outcomes = new ArrayList<>();
+            for (int a = 0; a < entrants.size(); a++) {
+                for (int b = a + 1; b < entrants.size(); b++) {
+                    int first = a;
+                    int second = b;
+                    for (int[] opening : openings) {
+                        outcomes.add(pool.submit(() -> play(size, opening, instances.get()[first], instances.get()[second])));
+                        outcomes.add(pool.submit(() -> play(size, opening, instances.get()[second], instances.get()[first])));
+                    }
+                }
+            }
+            System.out.printf("%nBoard %dx%d%n", size, size);
+            int next = 0;
+            for (int a = 0; a < entrants.size(); a++) {
+                for (int b = a + 1; b < entrants.size(); b++) {
+                    PairResult record = new PairResult();
+                    if (totals[a][b] == null) {
+                        totals[a][b] = new PairResult();
+                    }
+                    for (int k = 0; k < openings.size(); k++) {
+                        Outcome firstAsBlack = join(outcomes.get(next++));
+                        Outcome firstAsWhite = join(outcomes.get(next++));
+                        record.addPair(firstAsBlack, firstAsWhite);
+                        totals[a][b].addPair(firstAsBlack, firstAsWhite);
+                        addAll(latencies.get(a), firstAsBlack.blackNanos);
+                        addAll(latencies.get(b), firstAsBlack.whiteNanos);
+                        addAll(latencies.get(b), firstAsWhite.blackNanos);
+                        addAll(latencies.get(a), firstAsWhite.whiteNanos);
+                    }
+                    played += record.games();
+                    System.out.printf("  %-16s vs %-16s %s%n", entrants.get(a).name, entrants.get(b).name, record);
+                }
+            }
+        }
+        pool.shutdownNow();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        if (sizes.length > 1) {
+            System.out.printf("%nAll sizes%n");
+            for (int a = 0; a < entrants.size(); a++) {
+                for (int b = a + 1; b < entrants.size(); b++) {
+                    System.out.printf("  %-16s vs %-16s %s%n", entrants.get(a).name, entrants.get(b).name, totals[a][b]);
+                }
+            }
+        }
+        System.out.printf("%nMove latency (ms)%n  %-16s %8s %8s %8s %8s %8s%n", "strategy", "moves", "p50", "p90", "p99", "max");
+        for (int i = 0; i < entrants.size(); i++) {
+            long[] nanos = latencies.get(i).stream().mapToLong(Long::longValue).sorted().toArray();
+            System.out.printf("  %-16s %8d %8.2f %8.2f %8.2f %8.2f%n", entrants.get(i).name, nanos.length,
+                    percentile(nanos, 0.5) / 1e6, percentile(nanos, 0.9) / 1e6, percentile(nanos, 0.99) / 1e6,
+                    percentile(nanos, 1) / 1e6);
+        }
+        System.out.printf("%n%d games in %.1f s, %.1f games/s%n", played, seconds, played / seconds);
+    }
+
+    /**
+     * Plays a game between two strategies from an opening, on a private
+     * board. A player without a valid move passes, and the game ends when
+     * neither can play.
+     *
+     * @param size The size of the board.
+     * @param opening The squares of the opening moves, black first.
+     * @param black The strategy playing black.
+     * @param white The strategy playing white.
+     * @return The final disc difference and the time of every move.
+     */
+    static Outcome play(int size, int[] opening, Strategy black, Strategy white) {
+        SearchBoard board = new SearchBoard(new Board(size).snapshot(), false);
+        long[] flips = new long[board.getWordCount()];
+        ColorPiece player = ColorPiece.BLACK;
+        for (int move : opening) {
+            board.makeMove(move, player, flips);
+            player = player.opposite();
+        }
+        long[] blackNanos = new long[board.getSquareCount()];
+        long[] whiteNanos = new long[board.getSquareCount()];
+        int blackMoves = 0;
+        int whiteMoves = 0;
+        int passes = 0;
+        while (passes < 2) {
+            if (!board.hasValidMoves(player)) {
+                passes++;
+            } else {
+                passes = 0;
+                BoardSnapshot snapshot = board.snapshot();
+                long start = System.nanoTime();
+                SearchResult result = (player == ColorPiece.BLACK ? black : white).chooseMove(snapshot, player);
+                long nanos = System.nanoTime() - start;
+                if (result.isPass() || board.makeMove(result.getMove(), player, flips) == 0) {
+                    throw new IllegalStateException("Invalid move " + result.getMove() + " chosen for " + player);
+                }
+                if (player == ColorPiece.BLACK) {
+                    blackNanos[blackMoves++] = nanos;
+                } else {
+                    whiteNanos[whiteMoves++] = nanos;
+                }
+            }
+            player = player.opposite();
+        }
+        int difference = board.countPieces(ColorPiece.BLACK) - board.countPieces(ColorPiece.WHITE);
+        return new Outcome(difference, Arrays.copyOf(blackNanos, blackMoves), Arrays.copyOf(whiteNanos, whiteMoves));
+    }
+
+    /**
+     * Plays seeded random openings, each ending with black to move and
+     * both players still able to play. Small boards get fewer plies, down to
+     * none on a board where no such opening exists, such as 3x3.
+     *
+     * @param size The size of the board.
+     * @param count The number of openings.
+     * @param seed The seed of the random moves.
+     * @return The squares of the moves of each opening, black first.
+     */
+    static List<int[]> openings(int size, int count, long seed) {
+        Random random = new Random(seed);
+        BoardSnapshot start = new Board(size).snapshot();
+        int plies = Math.min(OPENING_PLIES, (size * size - 4) / 4 * 2);
+        List<int[]> openings = new ArrayList<>();
+        int[] moves = new int[size * size];
+        int failures = 0;
+        while (openings.size() < count) {
+            SearchBoard board = new SearchBoard(start, false);
+            long[] flips = new long[board.getWordCount()];
+            int[] opening = new int[plies];
+            ColorPiece player = ColorPiece.BLACK;
+            boolean ended = false;
+            for (int ply = 0; ply < plies && !ended; ply++) {
+                int moveCount = board.generateMoves(player, moves);
+                if (moveCount == 0) {
+                    ended = true;
+                } else {
+                    opening[ply] = moves[random.nextInt(moveCount)];
+                    board.makeMove(opening[ply], player, flips);
+                    player = player.opposite();
+                }
+            }
+            if (!ended && (plies == 0 || board.hasValidMoves(ColorPiece.BLACK) && board.hasValidMoves(ColorPiece.WHITE))) {
+                openings.add(opening);
+            } else if (++failures > 100 * count) {
+                plies -= 2; // No such opening on a board this small
+                failures = 0;
+            }
+        }
+        return openings;
+    }
+
+    /**
+     * Converts a score into an Elo difference.
+     *
+     * @param score The score, from 0 to 1.
+     * @return The Elo difference, infinite for a score of 0 or 1.
+     */
+    static double elo(double score) {
+        if (score <= 0) {
+            return Double.NEGATIVE_INFINITY;
+        } else if (score >= 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return -400 * Math.log10(1 / score - 1) + 0.0; // No negative zero
+    }
+
+    /**
+     * Gets a percentile of sorted values.
+     *
+     * @param sorted The values in increasing order.
+     * @param fraction The fraction of the values below the percentile.
+     * @return The percentile, 0 if there are no values.
+     */
+    static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * Parses the board sizes: a comma separated list of sizes or ranges.
+     *
+     * @param text The sizes of the command line.
+     * @return The sizes, between 3 and 15.
+     */
+    private static int[] parseSizes(String text) {
+        List<Integer> sizes = new ArrayList<>();
+        for (String part : text.split(",")) {
+            String[] range = part.split("-", 2);
+            int from = Integer.parseInt(range[0].trim());
+            int to = range.length > 1 ? Integer.parseInt(range[1].trim()) : from;
+            for (int size = from; size <= to; size++) {
+                if (size < 3 || size > 15) {
+                    throw new IllegalArgumentException("The size must be between 3 and 15: " + size);
+                }
+                sizes.add(size);
+            }
+        }
+        return sizes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static String formatElo(double elo) {
+        return Double.isInfinite(elo) ? (elo > 0 ? "+inf" : "-inf") : String.format("%+.0f", elo);
+    }
+
+    private static void addAll(List<Long> list, long[] values) {
+        for (long value : values) {
+            list.add(value);
+        }
+    }
+
+    /**
+     * Waits for the outcome of a game.
+     *
+     * @param future The pending game.
+     * @return The outcome.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    private static Outcome join(Future<Outcome> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A game failed.", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package g56065.atlir.othello.tools;
+
+import g56065.atlir.othello.model.Board;
+import g56065.atlir.othello.model.ColorPiece;
+import g56065.atlir.othello.strategy.search.AlphaBetaSearch;
+import g56065.atlir.othello.strategy.search.EndgameSolver;
+import g56065.atlir.othello.strategy.search.MobilityEvaluator;
+import g56065.atlir.othello.strategy.search.PatternIndex;
+import g56065.atlir.othello.strategy.search.PatternSet;
+import g56065.atlir.othello.strategy.search.PatternWeights;
+import g56065.atlir.othello.strategy.search.Score;
+import g56065.atlir.othello.strategy.search.SearchBoard;
+import g56065.atlir.othello.strategy.search.SearchLimits;
+import g56065.atlir.othello.strategy.search.SearchResult;
+import g56065.atlir.othello.strategy.search.TranspositionTable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Trains the weights of the pattern evaluation. Games are played by a
+ * shallow search with random moves mixed in, and solved exactly once few
+ * enough squares are left: every position of a game is labelled with that
+ * perfect-play result, in hundredths of a disc. The weights of each phase
+ * are then fitted by stochastic gradient descent on the positions and on
+ * their color-swapped copies, which keeps the tables antisymmetric.
+ *
+ * Usage: TrainPatternWeights [size] [games] [file] [seed]
+ *
+ * Author: Youssef El Ouahabi
+ */
+public class TrainPatternWeights {
+
+    private static final double RANDOM_MOVES = 0.2;
+    private static final int SEARCH_DEPTH = 2;
+    private static final int SOLVE_EMPTIES = 14;
+    private static final long SOLVE_NODES = 5_000_000;
+    private static final int EPOCHS = 12;
+    private static final double LEARNING_RATE = 0.3;
+
+    private final PatternSet patterns;
+    private final PatternWeights phases; // Only gives the phase of the positions
+    private final int stride; // Ints per sample: the indices, the phase, the mobility and the target.
+    private int[] samples = new int[1 << 20];
+    private int sampleCount;
+
+    private TrainPatternWeights(int size) {
+        this.patterns = PatternSet.of(size);
+        this.phases = new PatternWeights(patterns);
+        this.stride = patterns.getInstanceCount() + 3;
+    }
+
+    /**
+     * Entry point of the tool.
+     *
+     * @param args Optional board size, number of games, output file and seed.
+     * @throws IOException If the weights cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        Path file = Paths.get(args.length > 2 ? args[2] : "patterns-" + size + ".bin");
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+
+        TrainPatternWeights trainer = new TrainPatternWeights(size);
+        trainer.play(games, new Random(seed));
+        PatternWeights weights = trainer.fit(new Random(seed + 1));
+        try (OutputStream out = Files.newOutputStream(file)) {
+            weights.write(out);
+        }
+        System.out.printf("%d positions, weights written to %s%n", trainer.sampleCount, file);
+    }
+
+    /**
+     * Plays the training games and records their positions.
+     */
+    private void play(int games, Random random) {
+        int size = patterns.getSize();
+        AlphaBetaSearch search = new AlphaBetaSearch(new MobilityEvaluator(), new TranspositionTable(8L << 20));
+        EndgameSolver solver = new EndgameSolver(SOLVE_EMPTIES, new TranspositionTable(16L << 20));
+        PatternIndex index = new PatternIndex(patterns);
+        int[] moves = new int[size * size];
+        for (int game = 0; game < games; game++) {
+            SearchBoard board = new SearchBoard(new Board(size).snapshot());
+            board.setPatternIndex(index);
+            long[] flips = new long[board.getWordCount()];
+            int first = sampleCount;
+            ColorPiece player = ColorPiece.BLACK;
+            Integer result = null; // Final disc difference for black under perfect play, once solved
+            while (true) {
+                int count = board.generateMoves(player, moves);
+                if (count == 0) {
+                    if (!board.hasValidMoves(player.opposite())) {
+                        break;
+                    }
+                    player = player.opposite();
+                    continue;
+                }
+                record(board, index);
+                int move;
+                if (board.countEmpty() <= SOLVE_EMPTIES) {
+                    SearchResult solved = solver.solveExact(board.snapshot(), player, SearchLimits.ofNodes(SOLVE_NODES));
+                    if (solved != null && result == null) {
+                        int difference = Score.toDiscDifference(solved.getScore());
+                        result = player == ColorPiece.BLACK ? difference : -difference;
+                    }
+                    move = solved != null ? solved.getMove() : moves[random.nextInt(count)];
+                } else if (random.nextDouble() < RANDOM_MOVES) {
+                    move = moves[random.nextInt(count)];
+                } else {
+                    move = search.search(board.snapshot(), player, SearchLimits.ofDepth(SEARCH_DEPTH)).getMove();
+                }
+                board.makeMove(move, player, flips);
+                player = player.opposite();
+            }
+            if (result == null) {
+                result = board.countPieces(ColorPiece.BLACK) - board.countPieces(ColorPiece.WHITE);
+            }
+            for (int sample = first; sample < sampleCount; sample++) {
+                samples[sample * stride + stride - 1] = result * 100;
+            }
+            if ((game + 1) % 1000 == 0) {
+                System.out.printf("%d games, %d positions%n", game + 1, sampleCount);
+            }
+        }
+    }
+
+    /**
+     * Records a position: its pattern indices, phase and mobility difference.
+     */
+    private void record(SearchBoard board, PatternIndex index) {
+        if ((sampleCount + 1) * stride > samples.length) {
+            samples = Arrays.copyOf(samples, samples.length * 2);
+        }
+        int base = sampleCount * stride;
+        int instances = patterns.getInstanceCount();
+        for (int instance = 0; instance < instances; instance++) {
+            samples[base + instance] = index.getIndex(instance);
+        }
+        samples[base + instances] = phases.phaseOf(board.countEmpty());
+        samples[base + instances + 1] = board.countMoves(ColorPiece.BLACK) - board.countMoves(ColorPiece.WHITE);
+        sampleCount++;
+    }
+
+    /**
+     * Fits the weights of each phase to the recorded positions.
+     */
+    private PatternWeights fit(Random random) {
+        int instances = patterns.getInstanceCount();
+        double[][][] weights = new double[PatternWeights.PHASES][PatternSet.TYPES][];
+        int[][] swaps = new int[PatternSet.TYPES][];
+        for (int type = 0; type < PatternSet.TYPES; type++) {
+            swaps[type] = new int[patterns.getTableSize(type)];
+            for (int i = 0; i < swaps[type].length; i++) {
+                swaps[type][i] = patterns.swapColors(type, i);
+            }
+            for (int phase = 0; phase < PatternWeights.PHASES; phase++) {
+                weights[phase][type] = new double[patterns.getTableSize(type)];
+            }
+        }
+        double[] mobility = new double[PatternWeights.PHASES];
+        int[] order = new int[sampleCount];
+        for (int i = 0; i < sampleCount; i++) {
+            order[i] = i;
+        }
+        double rate = LEARNING_RATE / (instances + 1);
+
+        for (int epoch = 0; epoch < EPOCHS; epoch++) {
+            for (int i = sampleCount - 1; i > 0; i--) { // Shuffle
+                int j = random.nextInt(i + 1);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+            double squares = 0;
+            for (int sample : order) {
+                int base = sample * stride;
+                int phase = samples[base + instances];
+                double[][] tables = weights[phase];
+                for (int swapped = 0; swapped < 2; swapped++) {
+                    int sign = swapped == 0 ? 1 : -1;
+                    int mobilityDifference = sign * samples[base + instances + 1];
+                    double prediction = mobility[phase] * mobilityDifference;
+                    for (int instance = 0; instance < instances; instance++) {
+                        int type = patterns.getInstanceType(instance);
+                        int index = samples[base + instance];
+                        prediction += tables[type][swapped == 0 ? index : swaps[type][index]];
+                    }
+                    double error = sign * samples[base + stride - 1] - prediction;
+                    squares += error * error;
+                    double step = rate * error;
+                    mobility[phase] += step * mobilityDifference / 10.0;
+                    for (int instance = 0; instance < instances; instance++) {
+                        int type = patterns.getInstanceType(instance);
+                        int index = samples[base + instance];
+                        tables[type][swapped == 0 ? index : swaps[type][index]] += step;
+                    }
+                }
+            }
+            rate *= 0.75;
+            System.out.printf("epoch %d: error %.1f discs%n", epoch + 1, Math.sqrt(squares / (2.0 * sampleCount)) / 100);
+        }
+
+        PatternWeights result = new PatternWeights(patterns);
+        for (int phase = 0; phase < PatternWeights.PHASES; phase++) {
+            result.setMobilityWeight(phase, (int) Math.round(mobility[phase]));
+            for (int type = 0; type < PatternSet.TYPES; type++) {
+                for (int i = 0; i < weights[phase][type].length; i++) {
+                    result.setWeight(phase, type, i, (int) Math.round(weights[phase][type][i]));
+                }
+            }
+        }
+        return result;
+    }
+}
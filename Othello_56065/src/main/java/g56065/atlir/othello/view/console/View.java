@@ -103,10 +103,10 @@ public class View implements PropertyChangeListener {
         for (int row = 0; row < board.getSize(); row++) {
             System.out.print(row + "  "); // Row number
             for (int col = 0; col < board.getSize(); col++) {
-                ColorPiece piece = board.getPieceAt(new Position(row, col));
+                ColorPiece piece = board.getPieceAt(Position.of(row, col));
                 if (piece == null) {
                     // If the square is empty, check if it's a valid move
-                    if (validMoves != null && validMoves.contains(new Position(row, col))) {
+                    if (validMoves != null && validMoves.contains(Position.of(row, col))) {
                         System.out.print("* "); // Display an asterisk to indicate a valid move
                     } else {
                         System.out.print("- ");
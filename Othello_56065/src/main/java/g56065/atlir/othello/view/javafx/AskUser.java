@@ -2,9 +2,17 @@ package g56065.atlir.othello.view.javafx;
 
 import g56065.atlir.othello.controller.Controler;
 import g56065.atlir.othello.model.GameOthello;
+import g56065.atlir.othello.strategy.AlphaBetaStrategy;
+import g56065.atlir.othello.strategy.MctsStrategy;
 import g56065.atlir.othello.strategy.RandomStrategy;
 import g56065.atlir.othello.strategy.SmartStrategy;
 import g56065.atlir.othello.strategy.Strategy;
+import g56065.atlir.othello.strategy.book.OpeningBook;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import javafx.application.Platform;
 import javafx.geometry.HPos;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
@@ -55,7 +63,7 @@ public class AskUser extends GridPane {
             String selectedMode = modeComboBox.getValue();
             strategyComboBox.getItems().clear();
             if ("Joueur vs Strategie".equals(selectedMode)) {
-                strategyComboBox.getItems().addAll("Random stratégie", "Smart stratégie");
+                strategyComboBox.getItems().addAll("Random stratégie", "Smart stratégie", "Alpha-beta stratégie", "MCTS stratégie");
             } else {
                 strategyComboBox.getItems().add(""); // Adds only the empty option for "2 Joueurs"
             }
@@ -118,7 +126,7 @@ public class AskUser extends GridPane {
                     showErrorAlert("Stratégie requise", "Veuillez choisir une stratégie pour ce mode de jeu.");
                     return;
                 }
-                Strategy selectedStrategy = getStrategy(strategy);
+                Strategy selectedStrategy = getStrategy(strategy, size);
                 game = new GameOthello(size, selectedStrategy);
                 
             } else if ("2 Joueurs".equals(mode)) {
@@ -127,7 +135,7 @@ public class AskUser extends GridPane {
                 showErrorAlert("Mode de jeu invalide", "Le mode de jeu sélectionné n'est pas valide.");
                 return;
             }
-            Controler controller = new Controler(game, null);
+            Controler controller = new Controler(game, null, Platform::runLater); // The computer thinks off the JavaFX thread
             MainPane mainPane = new MainPane(game,controller);
             Scene scene = new Scene(mainPane, 800, 600);
             stage.setScene(scene);
@@ -142,19 +150,47 @@ public class AskUser extends GridPane {
      * Retrieves the strategy selected by the user.
      *
      * @param strategyName The name of the selected strategy
+     * @param size The size of the board, to find its opening book
      * @return The corresponding strategy
      */
-    private Strategy getStrategy(String strategyName) {
+    private Strategy getStrategy(String strategyName, int size) {
         switch (strategyName) {
             case "Random stratégie":
                 return new RandomStrategy();
             case "Smart stratégie":
                 return new SmartStrategy();
+            case "Alpha-beta stratégie":
+                AlphaBetaStrategy alphaBeta = new AlphaBetaStrategy();
+                alphaBeta.setOpeningBook(loadBook(size));
+                return alphaBeta;
+            case "MCTS stratégie":
+                MctsStrategy mcts = new MctsStrategy();
+                mcts.setOpeningBook(loadBook(size));
+                return mcts;
             default:
                 return new RandomStrategy();
         }
     }
 
+    /**
+     * Opens the opening book of a board size if its file is in the working
+     * directory.
+     *
+     * @param size The size of the board
+     * @return The opening book, or null if there is none or it cannot be read
+     */
+    private static OpeningBook loadBook(int size) {
+        Path file = Paths.get(OpeningBook.defaultFileName(size));
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return OpeningBook.open(file);
+        } catch (IOException | IllegalArgumentException e) {
+            return null; // The strategy searches every move instead
+        }
+    }
+
     /**
      * Displays an alert dialog with a specified title and message.
      *
@@ -125,7 +125,7 @@ public class BoardPane extends GridPane {
      * @return The color of the piece to display.
      */
     public Color determinePieceColor(int row, int col) {
-        Position position = new Position(row, col);
+        Position position = Position.of(row, col);
         ColorPiece pieceColor = board.getPieceAt(position);
         if (pieceColor == ColorPiece.WHITE) {
             return Color.WHITE;
@@ -150,7 +150,7 @@ public class BoardPane extends GridPane {
         for (int row = 0; row < board.getSize(); row++) {
             for (int col = 0; col < board.getSize(); col++) {
                 cases[row][col].setFill(Color.GREEN);
-                Position currrent = new Position(row, col);
+                Position currrent = Position.of(row, col);
                 ColorPiece colorPiece = board.getPieceAt(currrent);
 
                 if (colorPiece != null) {
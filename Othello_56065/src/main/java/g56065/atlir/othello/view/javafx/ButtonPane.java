@@ -1,5 +1,6 @@
 package g56065.atlir.othello.view.javafx;
 
+import g56065.atlir.othello.controller.Controler;
 import g56065.atlir.othello.model.ColorPiece;
 import g56065.atlir.othello.model.GameOthello;
 import javafx.application.Platform;
@@ -22,14 +23,17 @@ import javafx.scene.layout.VBox;
 public class ButtonPane extends VBox {
 
     private GameOthello gameOthello;
+    private Controler controller; // Keeps the buttons from changing the game while the computer plays
 
     /**
      * Constructor for the ButtonPane class.
      *
      * @param game The Othello game associated with these interaction buttons.
+     * @param controller The controller that undoes and redoes the moves.
      */
-    public ButtonPane(GameOthello game) {
+    public ButtonPane(GameOthello game, Controler controller) {
         this.gameOthello = game;
+        this.controller = controller;
         Region spacer = new Region();
         spacer.setPrefHeight(10);
         this.getChildren().addAll(createMenuBar(), spacer, createUndoRedoButtons());
@@ -44,7 +48,10 @@ public class ButtonPane extends VBox {
         MenuBar menuBar = new MenuBar();
         Menu fileMenu = new Menu("File");
         MenuItem abandonItem = new MenuItem("Forfeit");
-        abandonItem.setOnAction(event -> abandon());
+        abandonItem.setOnAction(event -> {
+            controller.stopThinking(); // The dialog runs the event loop, where the computer's move could still land
+            abandon();
+        });
 
         fileMenu.getItems().add(abandonItem);
         menuBar.getMenus().add(fileMenu);
@@ -59,10 +66,10 @@ public class ButtonPane extends VBox {
      */
     private HBox createUndoRedoButtons() {
         Button undoButton = new Button("Undo");
-        undoButton.setOnAction(event -> gameOthello.undo());
+        undoButton.setOnAction(event -> controller.undo());
 
         Button redoButton = new Button("Redo");
-        redoButton.setOnAction(event -> gameOthello.redo());
+        redoButton.setOnAction(event -> controller.redo());
 
         HBox buttonBox = new HBox(10, undoButton, redoButton);
         buttonBox.setAlignment(Pos.CENTER);
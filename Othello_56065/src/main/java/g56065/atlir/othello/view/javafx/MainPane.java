@@ -4,6 +4,9 @@ import g56065.atlir.othello.controller.Controler;
 import g56065.atlir.othello.model.GameOthello;
 import g56065.atlir.othello.model.ColorPiece;
 import g56065.atlir.othello.model.Board;
+import g56065.atlir.othello.model.Position;
+import g56065.atlir.othello.strategy.search.SearchResult;
+import javafx.scene.control.Label;
 import javafx.scene.layout.VBox;
 import javafx.scene.shape.Circle;
 import javafx.geometry.Pos;
@@ -24,6 +27,7 @@ public class MainPane extends VBox implements PropertyChangeListener {
     private ScorePane scorePane;
     private Circle currentPlayerIndicator;
     private ButtonPane buttonPane;
+    private Label searchLabel; // Best move found so far by the computer
     private Controler controller;  // Reference to the controller
 
     /**
@@ -40,7 +44,9 @@ public class MainPane extends VBox implements PropertyChangeListener {
         boardPane = new BoardPane(gameOthello.getBoardSize(), gameOthello, controller);
         scorePane = new ScorePane();
         currentPlayerIndicator = new Circle(25); // Creates a circle with a radius of 25
-        buttonPane = new ButtonPane(gameOthello); // Handles all buttons and menu items
+        buttonPane = new ButtonPane(gameOthello, controller); // Handles all buttons and menu items
+        searchLabel = new Label();
+        searchLabel.setStyle("-fx-font-size: 14px;");
 
         // Setup layout and styling   
         updateCurrentPlayerIndicator();
@@ -54,10 +60,13 @@ public class MainPane extends VBox implements PropertyChangeListener {
         Region spacer = new Region();
         spacer.setPrefHeight(20);
         // Adding components to VBox
-        this.getChildren().addAll(buttonPane, spacer, boardPane, scorePane, currentPlayerIndicator);
+        this.getChildren().addAll(buttonPane, spacer, boardPane, scorePane, searchLabel, currentPlayerIndicator);
 
         // Register as an observer to the game
         gameOthello.addObserver(this);
+        if (controller != null) {
+            controller.setView(this); // The computer reports the progress of its search
+        }
         boardPane.refresh(gameOthello.getBoard());
     }
 
@@ -72,8 +81,8 @@ public void propertyChange(PropertyChangeEvent evt) {
 
 
     updateCurrentPlayerIndicator();
-    int[] scores = gameOthello.getBoard().countPieces();
-    scorePane.updateScores(scores[0], scores[1]);
+    Board currentBoard = gameOthello.getBoard();
+    scorePane.updateScores(currentBoard.countPieces(ColorPiece.BLACK), currentBoard.countPieces(ColorPiece.WHITE));
 
 
     switch (propName) {
@@ -88,6 +97,7 @@ public void propertyChange(PropertyChangeEvent evt) {
             break;
 
         case "gameOver":
+            controller.stopThinking();
             boardPane.showGameOverAlert();
             break;
 
@@ -95,14 +105,12 @@ public void propertyChange(PropertyChangeEvent evt) {
         case "redo":
             if (evt.getNewValue() instanceof Board) {
                 Board board = (Board) evt.getNewValue();
+                controller.stopThinking(); // The position the computer thinks about is gone
                 boardPane.initializeBoard(board);
+                controller.ponder();
             }
             break;
 
-        case "playerForfeited":
-            buttonPane.abandon();
-            break;
-
         default:
             break;
     }
@@ -117,6 +125,24 @@ public void propertyChange(PropertyChangeEvent evt) {
     }
 
 
+    /**
+     * Shows the best move found so far by the computer, with the depth and
+     * the score of its search. It is called on the JavaFX thread after each
+     * finished depth.
+     *
+     * @param result The best move of the last finished depth, or null to
+     * clear the display when a new search starts.
+     */
+    public void showSearchProgress(SearchResult result) {
+        if (result == null || result.isPass()) {
+            searchLabel.setText("");
+            return;
+        }
+        Position move = gameOthello.getBoard().getPosition(result.getMove());
+        searchLabel.setText(String.format("Ordinateur : profondeur %d, meilleur coup (%d, %d), score %d",
+                result.getDepth(), move.getRow(), move.getCol(), result.getScore()));
+    }
+
     /**
      * Returns the game board pane.
      *
@@ -0,0 +1,80 @@
+package g56065.atlir.othello.controller;
+
+import g56065.atlir.othello.model.ColorPiece;
+import g56065.atlir.othello.model.GameOthello;
+import g56065.atlir.othello.strategy.AlphaBetaStrategy;
+import g56065.atlir.othello.strategy.search.SearchLimits;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ControlerTest {
+
+    private ExecutorService gameThread;
+
+    @BeforeEach
+    void setUp() {
+        gameThread = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        gameThread.shutdownNow();
+    }
+
+    @Test
+    void testUndoAndRedoIgnoredWhileComputerThinks() throws Exception {
+        AlphaBetaStrategy strategy = new AlphaBetaStrategy(SearchLimits.ofTime(60_000), 1);
+        GameOthello game = new GameOthello(8, strategy);
+        Controler controller = new Controler(game, null, gameThread);
+        gameThread.submit(() -> {
+            controller.handleCellClick(2, 3);
+            controller.computerPlay();
+        }).get();
+        long version = game.getBoard().getModificationCount();
+
+        gameThread.submit(controller::undo).get();
+        assertTrue(gameThread.submit(controller::isComputerThinking).get(), "L'annulation ne doit pas arrêter l'ordinateur");
+        assertEquals(ColorPiece.WHITE, game.getCurrentPlayer());
+        assertEquals(version, game.getBoard().getModificationCount(), "Le coup du joueur doit rester joué");
+
+        gameThread.submit(controller::redo).get();
+        assertTrue(gameThread.submit(controller::isComputerThinking).get(), "Rétablir ne doit pas arrêter l'ordinateur");
+        assertEquals(version, game.getBoard().getModificationCount());
+
+        gameThread.submit(controller::stopThinking).get();
+        strategy.shutdown();
+    }
+
+    @Test
+    void testUndoAfterComputerMoveGivesTurnBack() throws Exception {
+        AlphaBetaStrategy strategy = new AlphaBetaStrategy(SearchLimits.ofDepth(2), 1);
+        GameOthello game = new GameOthello(8, strategy);
+        Controler controller = new Controler(game, null, gameThread);
+        gameThread.submit(() -> {
+            controller.handleCellClick(2, 3);
+            controller.computerPlay();
+        }).get();
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (gameThread.submit(controller::isComputerThinking).get()) {
+            assertTrue(System.nanoTime() < deadline, "L'ordinateur doit jouer son coup");
+            Thread.sleep(10);
+        }
+        assertEquals(ColorPiece.BLACK, game.getCurrentPlayer());
+
+        gameThread.submit(controller::undo).get();
+        assertEquals(ColorPiece.BLACK, game.getCurrentPlayer(), "Les deux coups sont annulés");
+        assertEquals(4, game.getBoard().countPieces(ColorPiece.BLACK) + game.getBoard().countPieces(ColorPiece.WHITE));
+
+        gameThread.submit(controller::redo).get();
+        assertEquals(ColorPiece.BLACK, game.getCurrentPlayer(), "Les deux coups sont rejoués");
+        assertEquals(6, game.getBoard().countPieces(ColorPiece.BLACK) + game.getBoard().countPieces(ColorPiece.WHITE));
+
+        gameThread.submit(controller::stopThinking).get();
+        strategy.shutdown();
+    }
+}
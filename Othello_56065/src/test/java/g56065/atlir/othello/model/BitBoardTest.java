@@ -0,0 +1,63 @@
+package g56065.atlir.othello.model;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitBoardTest {
+
+    @Test
+    void testInitialMoves() {
+        long black = (1L << 28) | (1L << 35);
+        long white = (1L << 27) | (1L << 36);
+        long moves = BitBoard.legalMoves(black, white);
+        assertEquals((1L << 19) | (1L << 26) | (1L << 37) | (1L << 44), moves, "Les 4 coups d'ouverture de noir");
+        assertEquals(1L << 27, BitBoard.flips(black, white, 26), "Jouer (3, 2) retourne (3, 3)");
+    }
+
+    @Test
+    void testNoWrapAroundColumns() {
+        // Une ligne noire sur la colonne 7 ne doit pas capturer sur la colonne 0 de la ligne suivante
+        long black = 1L << 7;
+        long white = 1L << 8;
+        assertEquals(0, BitBoard.flips(black, white, 9), "Pas de capture à travers le bord");
+    }
+
+    @Test
+    void testSameMovesAsGridEngine() {
+        Random random = new Random(42);
+        for (int game = 0; game < 50; game++) {
+            BitBoard bitBoard = new BitBoard();
+            GridEngine gridEngine = new GridEngine(8);
+            ReferenceRules.setStart(bitBoard);
+            ReferenceRules.setStart(gridEngine);
+            ColorPiece player = ColorPiece.BLACK;
+            int[] bitMoves = new int[64];
+            int[] gridMoves = new int[64];
+            int passes = 0;
+            while (passes < 2) {
+                int count = bitBoard.generateMoves(player, bitMoves);
+                assertEquals(gridEngine.generateMoves(player, gridMoves), count);
+                for (int i = 0; i < count; i++) {
+                    assertEquals(gridMoves[i], bitMoves[i]);
+                    assertEquals(gridEngine.countCaptures(bitMoves[i], player), bitBoard.countCaptures(bitMoves[i], player));
+                }
+                if (count == 0) {
+                    passes++;
+                } else {
+                    passes = 0;
+                    int move = bitMoves[random.nextInt(count)];
+                    long[] flips = new long[1];
+                    bitBoard.makeMove(move, player, flips);
+                    assertEquals(0, bitBoard.countCaptures(move, player), "La case est maintenant occupée");
+                    ReferenceRules.play(gridEngine, move, player);
+                    for (int square = 0; square < 64; square++) {
+                        assertEquals(gridEngine.getSquare(square), bitBoard.getSquare(square));
+                    }
+                }
+                player = player.opposite();
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package g56065.atlir.othello.model;
 
+import java.util.Arrays;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -63,5 +64,73 @@ class BoardTest {
         captures = board.evaluateMoveEfficiency(new Position(3, 5), ColorPiece.WHITE);
         assertEquals(0, captures, "Aucune capture possible pour le joueur blanc");
     }
-}
 
+    @Test
+    void testPositionsAndRays() {
+        assertSame(Position.of(2, 5), board.getPosition(board.toSquare(2, 5)), "Les positions sont partagées");
+        assertEquals(new Position(2, 5), Position.of(2, 5));
+        int[] ray = board.getRayTable().getRay(board.toSquare(0, 0), Direction.S_E.ordinal());
+        assertArrayEquals(new int[]{9, 18, 27, 36, 45, 54, 63}, ray, "La diagonale depuis le coin");
+    }
+
+    @Test
+    void testHashKeyAndCache() {
+        board.updateValidMoves();
+        long start = board.getHashKey();
+        MoveRecord move = board.makeMove(board.toSquare(3, 2), ColorPiece.BLACK);
+        assertNotEquals(start, board.getHashKey(), "Le coup change la clé");
+        board.setSideToMove(ColorPiece.WHITE);
+        Board other = new Board(8);
+        other.placePiece(new Position(3, 2), ColorPiece.BLACK);
+        other.placePiece(new Position(3, 3), ColorPiece.BLACK);
+        other.setSideToMove(ColorPiece.WHITE);
+        assertEquals(other.getHashKey(), board.getHashKey(), "Même position, même clé");
+
+        board.updateValidMoves();
+        board.unmakeMove(move);
+        board.setSideToMove(ColorPiece.BLACK);
+        assertEquals(start, board.getHashKey(), "Annuler le coup rend la clé de départ");
+        long hits = board.getPositionCache().getHits();
+        board.updateValidMoves();
+        assertEquals(hits + 1, board.getPositionCache().getHits(), "La position initiale vient du cache");
+        assertEquals(4, board.getValidMoves(ColorPiece.BLACK).size());
+    }
+
+    @Test
+    void testMakeMoveOutsideTheBoard() {
+        long key = board.getHashKey();
+        assertThrows(IllegalArgumentException.class, () -> board.makeMove(83, ColorPiece.BLACK));
+        assertThrows(IllegalArgumentException.class, () -> board.makeMove(-1, ColorPiece.BLACK, new long[1]));
+        assertThrows(IllegalArgumentException.class, () -> board.makeMove(64, ColorPiece.BLACK, new long[1]));
+        assertEquals(key, board.getHashKey(), "Rien n'est joué");
+        assertNull(board.getPieceAt(new Position(2, 3)), "83 n'est pas pris pour la case 19");
+    }
+
+    @Test
+    void testGenerateMovesPrimitive() {
+        int[] moves = new int[64];
+        assertEquals(4, board.generateMoves(ColorPiece.BLACK, moves));
+        assertArrayEquals(new int[]{19, 26, 37, 44}, Arrays.copyOf(moves, 4), "Les coups triés par case");
+
+        MoveList list = new MoveList(8);
+        assertEquals(4, board.generateMoves(ColorPiece.WHITE, list));
+        assertTrue(list.contains(board.toSquare(2, 4)));
+
+        board.updateValidMoves();
+        assertThrows(UnsupportedOperationException.class, () -> board.getValidMoves(ColorPiece.BLACK).clear(),
+                "La liste interne ne peut pas être modifiée");
+    }
+
+    @Test
+    void testSnapshotAnalyzeMove() {
+        BoardSnapshot snapshot = board.snapshot();
+        MoveAnalysis analysis = snapshot.analyzeMove(board.toSquare(3, 2), ColorPiece.BLACK);
+        assertTrue(analysis.isValid());
+        assertEquals(1, analysis.getCaptureCount());
+        assertTrue(analysis.getFlips().contains(board.toSquare(3, 3)), "Le coup retourne (3, 3)");
+
+        board.placePiece(new Position(3, 2), ColorPiece.BLACK);
+        assertNull(snapshot.getColorAtSquare(board.toSquare(3, 2)), "La copie ne change pas avec le plateau");
+        assertFalse(snapshot.analyzeMove(board.toSquare(0, 0), ColorPiece.BLACK).isValid());
+    }
+}
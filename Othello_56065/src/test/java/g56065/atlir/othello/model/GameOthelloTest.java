@@ -4,6 +4,7 @@
  */
 package g56065.atlir.othello.model;
 
+import java.util.Random;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -66,5 +67,114 @@ public class GameOthelloTest {
 
         assertTrue(game.isGameOver(), "Le jeu devrait être terminé");
     }
-}
 
+    @Test
+    void testUndoRedo() {
+        ColorPiece[][] initial = game.getBoard().saveState();
+        game.addPiece(3, 2);
+        game.addPiece(2, 2);
+        ColorPiece[][] afterTwoMoves = game.getBoard().saveState();
+
+        game.undo();
+        game.undo();
+        assertArrayEquals(initial, game.getBoard().saveState(), "Le plateau revient à l'état initial");
+        assertEquals(ColorPiece.BLACK, game.getCurrentPlayer());
+        assertEquals(null, game.determineWinner(), "Les compteurs sont restaurés (2 contre 2)");
+
+        game.redo();
+        game.redo();
+        assertArrayEquals(afterTwoMoves, game.getBoard().saveState(), "Les deux coups sont rejoués");
+        assertEquals(ColorPiece.BLACK, game.getCurrentPlayer());
+    }
+
+    @Test
+    void testCountersFollowMovesPassesUndoAndRedo() {
+        Random random = new Random(4);
+        boolean passed = false;
+        for (int size = 4; size <= 6; size++) {
+            for (int round = 0; round < 10; round++) {
+                GameOthello game = new GameOthello(size);
+                int[] moves = new int[size * size];
+                int played = 0;
+                while (!game.isGameOver()) {
+                    int count = game.generateMoves(moves);
+                    int square = moves[random.nextInt(count)];
+                    game.addPiece(square / size, square % size);
+                    passed |= game.getPassCount() == 1;
+                    played++;
+                    assertCountersMatchBoard(game);
+                }
+                for (int i = 0; i < played; i++) {
+                    game.undo();
+                    assertCountersMatchBoard(game);
+                }
+                assertEquals(size * size - 4, game.getBoard().getEmptyCount(), "Tous les coups sont défaits");
+                for (int i = 0; i < played; i++) {
+                    game.redo();
+                    assertCountersMatchBoard(game);
+                }
+                assertTrue(game.isGameOver(), "Les coups rejoués mènent à la même fin");
+            }
+        }
+        assertTrue(passed, "Au moins une partie doit passer un tour");
+    }
+
+    @Test
+    void testGameOverCacheFollowsModificationCount() {
+        GameOthello game = new GameOthello(4);
+        Board board = game.getBoard();
+        board.clearBoard();
+        board.placePiece(new Position(0, 0), ColorPiece.BLACK);
+        board.placePiece(new Position(0, 1), ColorPiece.BLACK);
+        assertTrue(game.isGameOver(), "Personne ne peut jouer");
+        assertFalse(board.isBoardFull());
+        long version = board.getModificationCount();
+        game.togglePlayer(); // Un passe ne touche pas au plateau
+        assertTrue(game.isGameOver());
+        assertEquals(version, board.getModificationCount(), "Lire l'état ne modifie pas le plateau");
+
+        board.placePiece(new Position(1, 1), ColorPiece.WHITE);
+        assertFalse(game.isGameOver(), "Noir peut jouer en (2, 2) : le cache doit être recalculé");
+        assertEquals(2, board.countPieces(ColorPiece.BLACK));
+        assertEquals(1, board.countPieces(ColorPiece.WHITE));
+        assertEquals(13, board.getEmptyCount());
+
+        game.togglePlayer();
+        game.addPiece(2, 2);
+        assertEquals(4, board.countPieces(ColorPiece.BLACK));
+        assertTrue(game.isGameOver(), "Blanc n'a plus de pion");
+        game.undo();
+        assertFalse(game.isGameOver(), "Le coup défait rend la position d'avant");
+        assertEquals(13, board.getEmptyCount());
+        game.redo();
+        assertTrue(game.isGameOver());
+        assertCountersMatchBoard(game);
+    }
+
+    /**
+     * Checks the counters of the board and the end of the game against a
+     * count of the squares and a scan of the moves.
+     */
+    private static void assertCountersMatchBoard(GameOthello game) {
+        Board board = game.getBoard();
+        int size = board.getSize();
+        int black = 0;
+        int white = 0;
+        boolean canMove = false;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                ColorPiece color = board.getColorAtPosition(row, col);
+                black += color == ColorPiece.BLACK ? 1 : 0;
+                white += color == ColorPiece.WHITE ? 1 : 0;
+                canMove |= board.isValidMove(Position.of(row, col), ColorPiece.BLACK)
+                        || board.isValidMove(Position.of(row, col), ColorPiece.WHITE);
+            }
+        }
+        assertEquals(black, board.countPieces(ColorPiece.BLACK));
+        assertEquals(white, board.countPieces(ColorPiece.WHITE));
+        assertArrayEquals(new int[]{black, white}, board.countPieces());
+        assertEquals(size * size - black - white, board.getEmptyCount());
+        assertEquals(black + white == size * size, board.isBoardFull());
+        assertEquals(!canMove, game.isGameOver());
+    }
+}
@@ -0,0 +1,129 @@
+package g56065.atlir.othello.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GridEngineTest {
+
+    @Test
+    void testCachedMovesMatchGridEngine() {
+        Random random = new Random(3);
+        for (int size = 3; size <= 15; size++) {
+            MoveEngine engine = MoveEngine.create(size);
+            ReferenceRules.setStart(engine);
+            Deque<long[]> flipsStack = new ArrayDeque<>();
+            Deque<int[]> movesStack = new ArrayDeque<>(); // {case, couleur}
+            int[] moves = new int[size * size];
+            for (int step = 0; step < 300; step++) {
+                int action = random.nextInt(10);
+                ColorPiece color = random.nextBoolean() ? ColorPiece.BLACK : ColorPiece.WHITE;
+                if (action < 5) {
+                    int count = engine.generateMoves(color, moves);
+                    if (count > 0) {
+                        long[] flips = new long[(size * size + 63) / 64];
+                        int square = moves[random.nextInt(count)];
+                        engine.makeMove(square, color, flips);
+                        flipsStack.push(flips);
+                        movesStack.push(new int[]{square, color.ordinal()});
+                    }
+                } else if (action < 8) {
+                    if (!movesStack.isEmpty()) {
+                        int[] move = movesStack.pop();
+                        engine.unmakeMove(move[0], ColorPiece.values()[move[1]], flipsStack.pop());
+                    }
+                } else if (action < 9) {
+                    // Modification directe d'une case, comme Board.setBoard : les coups joués ne se défont plus
+                    int square = random.nextInt(size * size);
+                    int value = random.nextInt(3);
+                    engine.setSquare(square, value == 2 ? null : ColorPiece.values()[value]);
+                    flipsStack.clear();
+                    movesStack.clear();
+                } else {
+                    engine.clear();
+                    ReferenceRules.setStart(engine);
+                    flipsStack.clear();
+                    movesStack.clear();
+                }
+                if (random.nextInt(3) == 0) {
+                    continue; // Plusieurs changements s'accumulent avant la lecture suivante
+                }
+                GridEngine rescan = new GridEngine(size);
+                for (int square = 0; square < size * size; square++) {
+                    rescan.setSquare(square, engine.getSquare(square));
+                }
+                for (ColorPiece player : ColorPiece.values()) {
+                    assertEquals(legalSquares(rescan, player), legalSquares(engine, player),
+                            "Coups de " + player + " en " + size + "x" + size + " après " + step + " actions");
+                    assertEquals(rescan.hasValidMoves(player), engine.hasValidMoves(player));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testBoardValidMovesMatchFullScan() {
+        Random random = new Random(8);
+        for (int size = 3; size <= 15; size++) {
+            Board board = new Board(size);
+            Deque<MoveRecord> played = new ArrayDeque<>();
+            int[] moves = new int[size * size];
+            for (int step = 0; step < 200; step++) {
+                int action = random.nextInt(10);
+                ColorPiece color = random.nextBoolean() ? ColorPiece.BLACK : ColorPiece.WHITE;
+                if (action < 5) {
+                    int count = board.generateMoves(color, moves);
+                    if (count > 0) {
+                        played.push(board.makeMove(moves[random.nextInt(count)], color));
+                    }
+                } else if (action < 8) {
+                    if (!played.isEmpty()) {
+                        board.unmakeMove(played.pop());
+                    }
+                } else if (action < 9) {
+                    ColorPiece[][] grid = board.saveState();
+                    int square = random.nextInt(size * size);
+                    int value = random.nextInt(3);
+                    grid[square / size][square % size] = value == 2 ? null : ColorPiece.values()[value];
+                    board.setBoard(grid);
+                    played.clear();
+                } else {
+                    board.setBoard(board.saveState()); // Rien ne change : la mise à jour suivante peut être sautée
+                }
+                if (random.nextInt(3) == 0) {
+                    continue;
+                }
+                board.updateValidMoves();
+                for (ColorPiece player : ColorPiece.values()) {
+                    List<Position> expected = new ArrayList<>();
+                    for (int square = 0; square < size * size; square++) {
+                        if (board.isValidMove(board.getPosition(square), player)) {
+                            expected.add(board.getPosition(square));
+                        }
+                    }
+                    assertEquals(expected, board.getValidMoves(player),
+                            "Coups de " + player + " en " + size + "x" + size + " après " + step + " actions");
+                }
+            }
+        }
+    }
+
+    /**
+     * Lists the valid moves of a color in increasing order of square.
+     */
+    private static List<Integer> legalSquares(MoveEngine engine, ColorPiece color) {
+        int[] moves = new int[engine.getSize() * engine.getSize()];
+        int count = engine.generateMoves(color, moves);
+        List<Integer> squares = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            squares.add(moves[i]);
+        }
+        squares.sort(null);
+        return squares;
+    }
+}
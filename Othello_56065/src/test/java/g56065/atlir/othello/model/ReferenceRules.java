@@ -0,0 +1,47 @@
+package g56065.atlir.othello.model;
+
+/**
+ * Rules of the game written square by square, without any engine, which the
+ * tests of the engines compare them against.
+ */
+final class ReferenceRules {
+
+    private ReferenceRules() {
+    }
+
+    /**
+     * Places the pieces of the start of a game, as the Board places them.
+     */
+    static void setStart(MoveEngine engine) {
+        Board start = new Board(engine.getSize());
+        for (int square = 0; square < engine.getSize() * engine.getSize(); square++) {
+            engine.setSquare(square, start.getColorAtSquare(square));
+        }
+    }
+
+    /**
+     * Plays a valid move by walking the eight directions from its square
+     * and flipping the enclosed pieces one by one.
+     */
+    static void play(MoveEngine engine, int move, ColorPiece player) {
+        int size = engine.getSize();
+        int row = move / size;
+        int col = move % size;
+        for (Direction dir : Direction.values()) {
+            int r = row + dir.getDeltaX();
+            int c = col + dir.getDeltaY();
+            int length = 0;
+            while (r >= 0 && r < size && c >= 0 && c < size && engine.getSquare(r * size + c) == player.opposite()) {
+                r += dir.getDeltaX();
+                c += dir.getDeltaY();
+                length++;
+            }
+            if (length > 0 && r >= 0 && r < size && c >= 0 && c < size && engine.getSquare(r * size + c) == player) {
+                for (int i = 1; i <= length; i++) {
+                    engine.setSquare((row + i * dir.getDeltaX()) * size + col + i * dir.getDeltaY(), player);
+                }
+            }
+        }
+        engine.setSquare(move, player);
+    }
+}
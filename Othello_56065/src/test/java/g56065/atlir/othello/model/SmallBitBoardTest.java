@@ -0,0 +1,82 @@
+package g56065.atlir.othello.model;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmallBitBoardTest {
+
+    @Test
+    void testInitialMoves() {
+        SmallBitBoard engine = new SmallBitBoard(4);
+        ReferenceRules.setStart(engine);
+        int[] moves = new int[16];
+        assertEquals(4, engine.generateMoves(ColorPiece.BLACK, moves), "Les 4 coups d'ouverture de noir");
+        assertArrayEquals(new int[]{1, 4, 11, 14}, Arrays.copyOf(moves, 4));
+        assertEquals(1, engine.countCaptures(1, ColorPiece.BLACK), "Jouer (0, 1) retourne (1, 1)");
+        assertEquals(4, engine.countMoves(ColorPiece.WHITE));
+    }
+
+    @Test
+    void testNoWrapAroundColumns() {
+        // En 5x5, une pièce noire sur la colonne 4 ne doit pas capturer sur la colonne 0 de la ligne suivante
+        SmallBitBoard engine = new SmallBitBoard(5);
+        engine.setSquare(4, ColorPiece.BLACK);
+        engine.setSquare(5, ColorPiece.WHITE);
+        assertFalse(engine.isValidMove(6, ColorPiece.BLACK), "Pas de capture à travers le bord");
+        assertEquals(0, engine.countMoves(ColorPiece.BLACK));
+    }
+
+    @Test
+    void testInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new SmallBitBoard(2));
+        assertThrows(IllegalArgumentException.class, () -> new SmallBitBoard(8));
+    }
+
+    @Test
+    void testUnmakeAndRemakeRestoreThePieces() {
+        Random random = new Random(13);
+        for (int size = 3; size < BitBoard.SIZE; size++) {
+            for (int game = 0; game < 20; game++) {
+                SmallBitBoard engine = new SmallBitBoard(size);
+                GridEngine grid = new GridEngine(size);
+                ReferenceRules.setStart(engine);
+                ReferenceRules.setStart(grid);
+                ColorPiece player = ColorPiece.BLACK;
+                int[] moves = new int[size * size];
+                int passes = 0;
+                while (passes < 2) {
+                    int count = engine.generateMoves(player, moves);
+                    if (count == 0) {
+                        passes++;
+                    } else {
+                        passes = 0;
+                        int move = moves[random.nextInt(count)];
+                        long[] flips = new long[1];
+                        int captures = engine.makeMove(move, player, flips);
+                        assertEquals(Long.bitCount(flips[0]), captures);
+                        engine.unmakeMove(move, player, flips);
+                        assertSamePieces(grid, engine, "Taille " + size + " après unmakeMove");
+                        engine.remakeMove(move, player, flips);
+                        ReferenceRules.play(grid, move, player);
+                        assertSamePieces(grid, engine, "Taille " + size + " après remakeMove");
+                    }
+                    player = player.opposite();
+                }
+                assertEquals(grid.countPieces(ColorPiece.BLACK), engine.countPieces(ColorPiece.BLACK));
+                assertEquals(grid.countEmpty(), engine.countEmpty());
+            }
+        }
+    }
+
+    /**
+     * Checks that two engines hold the same piece on every square.
+     */
+    private static void assertSamePieces(MoveEngine expected, MoveEngine actual, String message) {
+        for (int square = 0; square < expected.getSize() * expected.getSize(); square++) {
+            assertEquals(expected.getSquare(square), actual.getSquare(square), message);
+        }
+    }
+}
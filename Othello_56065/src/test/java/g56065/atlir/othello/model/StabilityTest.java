@@ -0,0 +1,143 @@
+package g56065.atlir.othello.model;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StabilityTest {
+
+    @Test
+    void testNoStableDiscAtTheStart() {
+        for (int size = 3; size <= 15; size++) {
+            Board board = new Board(size);
+            assertEquals(0, board.countStableDiscs(ColorPiece.BLACK));
+            assertEquals(0, board.countStableDiscs(ColorPiece.WHITE));
+        }
+    }
+
+    @Test
+    void testFullBoardIsStable() {
+        for (int size = 3; size <= 15; size++) {
+            Board board = new Board(size);
+            for (int square = 0; square < size * size; square++) {
+                board.placePiece(board.getPosition(square), square % 3 == 0 ? ColorPiece.WHITE : ColorPiece.BLACK);
+            }
+            BoardSnapshot snapshot = board.snapshot();
+            assertEquals(snapshot.countPieces(ColorPiece.BLACK), snapshot.countStableDiscs(ColorPiece.BLACK));
+            assertEquals(snapshot.countPieces(ColorPiece.WHITE), snapshot.countStableDiscs(ColorPiece.WHITE));
+        }
+    }
+
+    @Test
+    void testCornerRunsAndEdges() {
+        Board board = new Board(8);
+        board.clearBoard();
+        // Noir : A1, B1, C1, A2 et B2 ; blanc : D1 et F1, séparés par une case vide
+        board.placePiece(Position.of(0, 0), ColorPiece.BLACK);
+        board.placePiece(Position.of(0, 1), ColorPiece.BLACK);
+        board.placePiece(Position.of(0, 2), ColorPiece.BLACK);
+        board.placePiece(Position.of(1, 0), ColorPiece.BLACK);
+        board.placePiece(Position.of(1, 1), ColorPiece.BLACK);
+        board.placePiece(Position.of(0, 3), ColorPiece.WHITE);
+        board.placePiece(Position.of(0, 5), ColorPiece.WHITE);
+        SquareSet stable = board.snapshot().getStableDiscs(ColorPiece.BLACK);
+        assertTrue(stable.contains(0) && stable.contains(1) && stable.contains(2) && stable.contains(8));
+        assertTrue(stable.contains(9), "B2 est tenu par ses voisins stables sur les quatre axes");
+        assertEquals(5, stable.size());
+        assertEquals(0, board.countStableDiscs(ColorPiece.WHITE), "D1 peut encore être repris");
+    }
+
+    @Test
+    void testStableDiscsNeverFlip() {
+        Random random = new Random(11);
+        for (int size = 4; size <= 6; size++) {
+            for (int game = 0; game < 40; game++) {
+                Board board = new Board(size);
+                int[] moves = new int[size * size];
+                ColorPiece player = ColorPiece.BLACK;
+                int plies = size * size - 4 - 3 - random.nextInt(3);
+                for (int ply = 0; ply < plies; ply++) {
+                    int count = board.generateMoves(player, moves);
+                    if (count == 0) {
+                        player = player.opposite();
+                        count = board.generateMoves(player, moves);
+                        if (count == 0) {
+                            break;
+                        }
+                    }
+                    board.makeMove(moves[random.nextInt(count)], player);
+                    player = player.opposite();
+                }
+                BoardSnapshot snapshot = board.snapshot();
+                SquareSet black = snapshot.getStableDiscs(ColorPiece.BLACK);
+                SquareSet white = snapshot.getStableDiscs(ColorPiece.WHITE);
+                assertNeverFlipped(board, black, white, 5);
+            }
+        }
+    }
+
+    @Test
+    void testBitBoardAgreesWithSquareBySquare() {
+        Random random = new Random(5);
+        for (int game = 0; game < 200; game++) {
+            Board board = new Board(8);
+            int[] moves = new int[64];
+            ColorPiece player = ColorPiece.BLACK;
+            int plies = random.nextInt(60);
+            for (int ply = 0; ply < plies; ply++) {
+                int count = board.generateMoves(player, moves);
+                if (count == 0) {
+                    player = player.opposite();
+                    count = board.generateMoves(player, moves);
+                    if (count == 0) {
+                        break;
+                    }
+                }
+                board.makeMove(moves[random.nextInt(count)], player);
+                player = player.opposite();
+            }
+            long[] black = {board.snapshot().getPieces(ColorPiece.BLACK).getWord(0)};
+            long[] white = {board.snapshot().getPieces(ColorPiece.WHITE).getWord(0)};
+            long[] stable = new long[1];
+            Stability.stableDiscsBySquare(8, black, white, stable);
+            assertEquals(stable[0], Stability.stableDiscs(black[0], white[0]));
+        }
+    }
+
+    @Test
+    void testLongEdgesWithoutTable() {
+        int size = 12;
+        int all = (1 << size) - 1;
+        assertEquals(all, Stability.edgeStable(size, 0b101010101010, 0b010101010101));
+        assertEquals(0b111000000011, Stability.edgeStable(size, 0b111000000011, 0b000100000000));
+        assertEquals(0, Stability.edgeStable(size, 0b000110000000, 0));
+    }
+
+    /**
+     * Plays every continuation of a position a few plies deep and checks
+     * that the stable discs keep their color.
+     */
+    private static void assertNeverFlipped(Board board, SquareSet black, SquareSet white, int depth) {
+        if (depth == 0) {
+            return;
+        }
+        int size = board.getSize();
+        int[] moves = new int[size * size];
+        for (ColorPiece player : ColorPiece.values()) {
+            int count = board.generateMoves(player, moves);
+            for (int i = 0; i < count; i++) {
+                MoveRecord move = board.makeMove(moves[i], player);
+                for (int square = 0; square < size * size; square++) {
+                    if (black.contains(square)) {
+                        assertEquals(ColorPiece.BLACK, board.getColorAtSquare(square));
+                    } else if (white.contains(square)) {
+                        assertEquals(ColorPiece.WHITE, board.getColorAtSquare(square));
+                    }
+                }
+                assertNeverFlipped(board, black, white, depth - 1);
+                board.unmakeMove(move);
+            }
+        }
+    }
+}
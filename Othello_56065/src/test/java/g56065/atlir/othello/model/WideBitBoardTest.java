@@ -0,0 +1,60 @@
+package g56065.atlir.othello.model;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WideBitBoardTest {
+
+    @Test
+    void testEngineChosenBySize() {
+        assertTrue(MoveEngine.create(8) instanceof BitBoard);
+        assertTrue(MoveEngine.create(12) instanceof WideBitBoard);
+        assertTrue(MoveEngine.create(15) instanceof WideBitBoard);
+        assertTrue(MoveEngine.create(6) instanceof SmallBitBoard);
+        assertTrue(MoveEngine.create(3) instanceof SmallBitBoard);
+    }
+
+    @Test
+    void testSameMovesAsGridEngine() {
+        Random random = new Random(7);
+        for (int size = 3; size <= 15; size++) {
+            if (size == 8) {
+                continue; // Covered by BitBoardTest
+            }
+            for (int game = 0; game < 5; game++) {
+                MoveEngine wide = MoveEngine.create(size);
+                GridEngine grid = new GridEngine(size);
+                ReferenceRules.setStart(wide);
+                ReferenceRules.setStart(grid);
+                ColorPiece player = ColorPiece.BLACK;
+                int[] wideMoves = new int[size * size];
+                int[] gridMoves = new int[size * size];
+                int passes = 0;
+                while (passes < 2) {
+                    int count = wide.generateMoves(player, wideMoves);
+                    assertEquals(grid.generateMoves(player, gridMoves), count, "Taille " + size);
+                    assertEquals(count, wide.countMoves(player));
+                    for (int i = 0; i < count; i++) {
+                        assertEquals(gridMoves[i], wideMoves[i]);
+                        assertEquals(grid.countCaptures(wideMoves[i], player), wide.countCaptures(wideMoves[i], player));
+                    }
+                    if (count == 0) {
+                        passes++;
+                    } else {
+                        passes = 0;
+                        int move = wideMoves[random.nextInt(count)];
+                        int captures = wide.countCaptures(move, player);
+                        assertEquals(captures, wide.makeMove(move, player, new long[4]));
+                        ReferenceRules.play(grid, move, player);
+                        for (int square = 0; square < size * size; square++) {
+                            assertEquals(grid.getSquare(square), wide.getSquare(square));
+                        }
+                    }
+                    player = player.opposite();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package g56065.atlir.othello.strategy;
+
+import g56065.atlir.othello.model.Board;
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import g56065.atlir.othello.model.GameOthello;
+import g56065.atlir.othello.strategy.search.SearchLimits;
+import g56065.atlir.othello.strategy.search.SearchResult;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlphaBetaStrategyTest {
+
+    @Test
+    void testChooseMoveWithoutGame() {
+        AlphaBetaStrategy strategy = new AlphaBetaStrategy(SearchLimits.ofTime(60_000), 1);
+        BoardSnapshot start = new Board(8).snapshot();
+        SearchResult result = strategy.chooseMove(start, ColorPiece.BLACK, SearchLimits.ofDepth(3));
+        assertEquals(3, result.getDepth(), "Le budget donné remplace celui du constructeur");
+        assertTrue(start.isValidMove(result.getMove(), ColorPiece.BLACK));
+        SearchResult smart = new SmartStrategy().chooseMove(start, ColorPiece.BLACK);
+        assertTrue(start.isValidMove(smart.getMove(), ColorPiece.BLACK));
+        assertEquals(1, smart.getScore(), "Le score de la stratégie gloutonne est le nombre de prises");
+    }
+
+    @Test
+    void testPonderHitsDuringGame() {
+        AlphaBetaStrategy white = new AlphaBetaStrategy(SearchLimits.ofDepth(5), 1);
+        AlphaBetaStrategy black = new AlphaBetaStrategy(SearchLimits.ofDepth(5), 1);
+        black.setPondering(false);
+        GameOthello game = new GameOthello(6, white);
+        int moves = 0;
+        while (!game.isGameOver() && moves < 40) {
+            if (game.getCurrentPlayer() == ColorPiece.WHITE) {
+                white.strat(game);
+                if (game.getCurrentPlayer() == ColorPiece.BLACK) {
+                    white.ponder(game);
+                }
+            } else {
+                black.strat(game);
+            }
+            moves++;
+        }
+        white.stopPondering();
+        assertTrue(game.isGameOver(), "La partie doit aller jusqu'au bout avec la réflexion anticipée");
+        assertTrue(white.getPonderHits() > 0, "La réponse attendue doit être jouée au moins une fois");
+        assertEquals(0, black.getPonderHits());
+    }
+
+    @Test
+    void testPonderMissStillPlaysValidMove() {
+        AlphaBetaStrategy white = new AlphaBetaStrategy(SearchLimits.ofTime(50), 1);
+        GameOthello game = new GameOthello(8, white);
+        game.addPiece(2, 3);
+        white.strat(game);
+        white.ponder(game);
+        int[] moves = new int[64];
+        int count = game.generateMoves(moves);
+        int square = moves[count - 1];
+        int before = game.getBoard().countPieces(ColorPiece.WHITE) + game.getBoard().countPieces(ColorPiece.BLACK);
+        game.addPiece(square / 8, square % 8);
+        white.strat(game);
+        int after = game.getBoard().countPieces(ColorPiece.WHITE) + game.getBoard().countPieces(ColorPiece.BLACK);
+        assertEquals(before + 2, after, "L'ordinateur doit jouer après sa réflexion, attendue ou non");
+    }
+}
@@ -0,0 +1,94 @@
+package g56065.atlir.othello.strategy;
+
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import g56065.atlir.othello.model.GameOthello;
+import g56065.atlir.othello.strategy.search.SearchLimits;
+import g56065.atlir.othello.strategy.search.SearchResult;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncStrategyTest {
+
+    private ExecutorService gameThread;
+
+    @BeforeEach
+    void setUp() {
+        gameThread = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        gameThread.shutdownNow();
+    }
+
+    @Test
+    void testMovePlayedOnGameThreadWithProgress() throws Exception {
+        AlphaBetaStrategy strategy = new AlphaBetaStrategy(SearchLimits.ofDepth(4), 1);
+        GameOthello game = new GameOthello(8, strategy);
+        game.addPiece(2, 3);
+        AsyncStrategy async = new AsyncStrategy(strategy, gameThread);
+        List<SearchResult> progress = new CopyOnWriteArrayList<>();
+        List<String> threads = new CopyOnWriteArrayList<>();
+        String gameThreadName = gameThread.submit(() -> Thread.currentThread().getName()).get();
+        CompletableFuture<SearchResult> move = gameThread.submit(() -> async.play(game, result -> {
+            threads.add(Thread.currentThread().getName());
+            progress.add(result);
+        })).get();
+        SearchResult result = move.get(30, TimeUnit.SECONDS);
+        async.shutdown();
+        assertEquals(ColorPiece.BLACK, game.getCurrentPlayer(), "Le coup de l'ordinateur doit être joué");
+        assertEquals(ColorPiece.WHITE, game.getBoard().getColorAtSquare(result.getMove()));
+        assertEquals(4, progress.size(), "Chaque profondeur terminée doit être annoncée");
+        assertEquals(List.of(gameThreadName), threads.stream().distinct().toList(), "Les annonces arrivent sur le thread du jeu");
+    }
+
+    @Test
+    void testCancelStopsSearchWithoutPlaying() throws Exception {
+        AlphaBetaStrategy strategy = new AlphaBetaStrategy(SearchLimits.ofTime(60_000), 1);
+        GameOthello game = new GameOthello(8, strategy);
+        game.addPiece(2, 3);
+        AsyncStrategy async = new AsyncStrategy(strategy, gameThread);
+        CompletableFuture<SearchResult> move = gameThread.submit(() -> async.play(game, null)).get();
+        Thread.sleep(100);
+        long start = System.nanoTime();
+        gameThread.submit(async::cancel).get();
+        assertTrue(System.nanoTime() - start < 5_000_000_000L, "L'annulation doit arrêter la recherche rapidement");
+        assertTrue(move.isCancelled());
+        assertFalse(gameThread.submit(async::isRunning).get());
+        gameThread.submit(() -> { }).get(); // Lets a late move reach the game thread
+        assertEquals(ColorPiece.WHITE, game.getCurrentPlayer(), "Un coup annulé ne doit pas être joué");
+        async.shutdown();
+    }
+
+    @Test
+    void testMoveDroppedWhenGameChanged() throws Exception {
+        Strategy slow = new SmartStrategy() {
+            @Override
+            public SearchResult chooseMove(BoardSnapshot snapshot, ColorPiece player, SearchLimits limits) {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.chooseMove(snapshot, player, limits);
+            }
+        };
+        GameOthello game = new GameOthello(8, slow);
+        AsyncStrategy async = new AsyncStrategy(slow, gameThread);
+        CompletableFuture<SearchResult> move = gameThread.submit(() -> async.play(game, null)).get();
+        gameThread.submit(() -> game.addPiece(2, 3)).get(); // Played while the strategy thinks
+        assertThrows(CancellationException.class, () -> move.get(30, TimeUnit.SECONDS));
+        async.shutdown();
+    }
+}
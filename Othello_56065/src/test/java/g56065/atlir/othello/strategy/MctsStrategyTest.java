@@ -0,0 +1,47 @@
+package g56065.atlir.othello.strategy;
+
+import g56065.atlir.othello.model.Board;
+import g56065.atlir.othello.model.ColorPiece;
+import g56065.atlir.othello.strategy.search.MctsSearch;
+import g56065.atlir.othello.strategy.search.SearchLimits;
+import g56065.atlir.othello.strategy.search.SearchResult;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MctsStrategyTest {
+
+    @Test
+    void testSameSeedPlaysSameGame() {
+        assertEquals(playGame(42), playGame(42), "La même graine doit rejouer la même partie");
+    }
+
+    /**
+     * Plays a game of two seeded strategies on a 6x6 board.
+     *
+     * @return The squares played, -1 for a pass.
+     */
+    private static List<Integer> playGame(long seed) {
+        Strategy black = new MctsStrategy(SearchLimits.ofNodes(300), 1, 1, MctsSearch.DEFAULT_EXPLORATION, seed);
+        Strategy white = new MctsStrategy(SearchLimits.ofNodes(300), 1, 1, MctsSearch.DEFAULT_EXPLORATION, seed + 1);
+        Board board = new Board(6);
+        ColorPiece player = ColorPiece.BLACK;
+        List<Integer> moves = new ArrayList<>();
+        int passes = 0;
+        while (passes < 2) {
+            SearchResult result = (player == ColorPiece.BLACK ? black : white).chooseMove(board.snapshot(), player);
+            if (result.isPass()) {
+                passes++;
+                moves.add(-1);
+            } else {
+                passes = 0;
+                board.makeMove(result.getMove(), player);
+                moves.add(result.getMove());
+            }
+            player = player.opposite();
+        }
+        return moves;
+    }
+}
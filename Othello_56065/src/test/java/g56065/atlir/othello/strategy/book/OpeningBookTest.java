@@ -0,0 +1,77 @@
+package g56065.atlir.othello.strategy.book;
+
+import g56065.atlir.othello.model.Board;
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpeningBookTest {
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void testSymmetriesAreInverted() {
+        for (int size = 3; size <= 15; size++) {
+            for (int s = 0; s < Symmetry.COUNT; s++) {
+                for (int square = 0; square < size * size; square++) {
+                    int moved = Symmetry.transform(s, square, size);
+                    assertEquals(square, Symmetry.transform(Symmetry.inverse(s), moved, size));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSymmetricPositionsShareKey() {
+        Board board = new Board(8);
+        board.makeMove(board.toSquare(2, 3), ColorPiece.BLACK);
+        BoardSnapshot played = board.snapshot();
+        Board mirror = new Board(8);
+        mirror.makeMove(mirror.toSquare(5, 4), ColorPiece.BLACK); // The same move, half a turn away
+        CanonicalPosition first = CanonicalPosition.of(played, ColorPiece.WHITE);
+        CanonicalPosition second = CanonicalPosition.of(mirror.snapshot(), ColorPiece.WHITE);
+        assertEquals(first.getKey(), second.getKey(), "Les positions symétriques ont la même clé");
+        assertNotEquals(first.getKey(), CanonicalPosition.of(played, ColorPiece.BLACK).getKey(), "Le trait compte");
+    }
+
+    @Test
+    void testWriteAndLookup() throws IOException {
+        BoardSnapshot start = new Board(8).snapshot();
+        OpeningBookWriter writer = new OpeningBookWriter(8);
+        writer.add(start, ColorPiece.BLACK, 19, 10, 1); // (2, 3)
+        writer.add(start, ColorPiece.BLACK, 44, 10, 2); // (5, 4), symmetric to (2, 3)
+        Board other = new Board(8);
+        other.makeMove(other.toSquare(2, 3), ColorPiece.BLACK);
+        writer.add(other.snapshot(), ColorPiece.WHITE, other.toSquare(2, 2), 5, 1);
+        writer.add(other.snapshot(), ColorPiece.WHITE, other.toSquare(2, 4), -3, 4);
+        assertEquals(3, writer.getRecordCount());
+        Path file = folder.resolve(OpeningBook.defaultFileName(8));
+        writer.write(file);
+
+        OpeningBook book = OpeningBook.open(file);
+        assertEquals(8, book.getSize());
+        assertEquals(3, book.getRecordCount());
+        BookMove move = book.lookup(start, ColorPiece.BLACK);
+        assertEquals(3, move.getCount(), "Les coups symétriques sont fusionnés");
+        assertTrue(start.isValidMove(move.getMove(), ColorPiece.BLACK));
+
+        // The same position seen in a mirror gives the mirrored best move
+        Board mirror = new Board(8);
+        mirror.makeMove(mirror.toSquare(5, 4), ColorPiece.BLACK);
+        BookMove mirrored = book.lookup(mirror.snapshot(), ColorPiece.WHITE);
+        assertEquals(mirror.toSquare(5, 5), mirrored.getMove());
+        assertEquals(5, mirrored.getScore());
+        List<BookMove> moves = book.getMoves(mirror.snapshot(), ColorPiece.WHITE);
+        assertEquals(2, moves.size());
+
+        assertNull(book.lookup(start, ColorPiece.WHITE), "Position absente du livre");
+        assertNull(book.lookup(new Board(6).snapshot(), ColorPiece.BLACK), "Autre taille de plateau");
+    }
+}
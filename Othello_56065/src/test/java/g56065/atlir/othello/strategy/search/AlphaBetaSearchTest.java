@@ -0,0 +1,74 @@
+package g56065.atlir.othello.strategy.search;
+
+import g56065.atlir.othello.model.Board;
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import g56065.atlir.othello.model.SquareSet;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlphaBetaSearchTest {
+
+    @Test
+    void testExactScoreOnSmallBoard() {
+        BoardSnapshot start = new Board(4).snapshot();
+        SearchResult result = new AlphaBetaSearch(new MobilityEvaluator()).search(start, ColorPiece.BLACK, new SearchLimits(0, 0, 0));
+        int expected = Score.ofResult(ReferenceSearch.minimax(new SearchBoard(start), ColorPiece.BLACK));
+        assertEquals(expected, result.getScore(), "La recherche complète donne le score exact");
+        assertTrue(start.isValidMove(result.getMove(), ColorPiece.BLACK));
+    }
+
+    @Test
+    void testStabilityCutoffsKeepExactScore() {
+        BoardSnapshot start = new Board(4).snapshot();
+        AlphaBetaSearch search = new AlphaBetaSearch(new MobilityEvaluator());
+        SearchResult result = search.search(start, ColorPiece.BLACK, new SearchLimits(0, 0, 0));
+        assertEquals(Score.ofResult(ReferenceSearch.minimax(new SearchBoard(start), ColorPiece.BLACK)), result.getScore());
+        assertTrue(search.getStabilityCutoffs() > 0, "Les pions stables décident des fins de partie");
+    }
+
+    @Test
+    void testTranspositionTableKeepsExactScore() {
+        BoardSnapshot start = new Board(4).snapshot();
+        TranspositionTable table = new TranspositionTable(1 << 20);
+        AlphaBetaSearch search = new AlphaBetaSearch(new MobilityEvaluator(), table);
+        SearchResult withTable = search.search(start, ColorPiece.BLACK, new SearchLimits(0, 0, 0));
+        SearchResult without = new AlphaBetaSearch(new MobilityEvaluator()).search(start, ColorPiece.BLACK, new SearchLimits(0, 0, 0));
+        assertEquals(without.getScore(), withTable.getScore());
+        assertTrue(withTable.getNodes() < without.getNodes(), "Les transpositions sont coupées");
+    }
+
+    @Test
+    void testNodeBudget() {
+        BoardSnapshot start = new Board(8).snapshot();
+        SearchResult result = new AlphaBetaSearch(new MobilityEvaluator()).search(start, ColorPiece.BLACK, SearchLimits.ofNodes(20_000));
+        assertTrue(start.isValidMove(result.getMove(), ColorPiece.BLACK));
+        assertTrue(result.getNodes() <= 20_000 + 1024, "Le budget de noeuds est respecté");
+        assertTrue(result.getDepth() >= 1);
+    }
+
+    @Test
+    void testOrderingKeepsScoreWithFewerNodes() {
+        Board board = new Board(8);
+        board.makeMove(19, ColorPiece.BLACK);
+        board.makeMove(18, ColorPiece.WHITE);
+        BoardSnapshot position = board.snapshot();
+        AlphaBetaSearch plain = new AlphaBetaSearch(new MobilityEvaluator(), null, null, MoveOrdering.NONE);
+        AlphaBetaSearch ordered = new AlphaBetaSearch(new MobilityEvaluator(), null, null, new HeuristicMoveOrdering());
+        SearchResult expected = plain.search(position, ColorPiece.BLACK, SearchLimits.ofDepth(6));
+        SearchResult result = ordered.search(position, ColorPiece.BLACK, SearchLimits.ofDepth(6));
+        assertEquals(expected.getScore(), result.getScore(), "L'ordre des coups ne change pas le score");
+        assertTrue(result.getNodes() < expected.getNodes(), "Le tri des coups coupe plus tôt");
+        assertTrue(ordered.getFirstMoveCutoffs() <= ordered.getCutoffs());
+        assertTrue(ordered.getFirstMoveCutoffs() > plain.getFirstMoveCutoffs() * ordered.getCutoffs() / plain.getCutoffs());
+    }
+
+    @Test
+    void testPassWithoutMoves() {
+        // Noir n'a aucun coup : seulement des pions blancs
+        BoardSnapshot snapshot = BoardSnapshot.of(4, SquareSet.of(new long[]{0}), SquareSet.of(new long[]{1L << 5}));
+        SearchResult result = new AlphaBetaSearch(new MobilityEvaluator()).search(snapshot, ColorPiece.BLACK, SearchLimits.ofDepth(3));
+        assertTrue(result.isPass());
+    }
+}
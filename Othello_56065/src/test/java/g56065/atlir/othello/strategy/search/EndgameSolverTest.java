@@ -0,0 +1,112 @@
+package g56065.atlir.othello.strategy.search;
+
+import g56065.atlir.othello.model.Board;
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndgameSolverTest {
+
+    @Test
+    void testExactScoreAgainstMinimax() {
+        Random random = new Random(3);
+        for (int size : new int[]{4, 6, 8, 11}) {
+            for (int game = 0; game < 6; game++) {
+                int empties = 1 + game + (size > 4 ? 3 : 0);
+                SearchBoard board = playRandomly(size, empties, random);
+                if (board == null) {
+                    continue;
+                }
+                BoardSnapshot snapshot = board.snapshot();
+                SearchResult result = new EndgameSolver().solveExact(snapshot, ColorPiece.BLACK, new SearchLimits(0, 0, 0));
+                if (!board.hasValidMoves(ColorPiece.BLACK)) {
+                    assertTrue(result.isPass());
+                    continue;
+                }
+                int expected = ReferenceSearch.minimax(board, ColorPiece.BLACK);
+                assertEquals(Score.ofResult(expected), result.getScore(), "Taille " + size + ", " + empties + " cases vides");
+                assertTrue(snapshot.isValidMove(result.getMove(), ColorPiece.BLACK));
+            }
+        }
+    }
+
+    @Test
+    void testWinLossDrawAgreesWithExactScore() {
+        Random random = new Random(5);
+        for (int game = 0; game < 10; game++) {
+            SearchBoard board = playRandomly(8, 10, random);
+            if (board == null || !board.hasValidMoves(ColorPiece.BLACK)) {
+                continue;
+            }
+            BoardSnapshot snapshot = board.snapshot();
+            EndgameSolver solver = new EndgameSolver();
+            SearchResult exact = solver.solveExact(snapshot, ColorPiece.BLACK, new SearchLimits(0, 0, 0));
+            SearchResult result = solver.solveWinLossDraw(snapshot, ColorPiece.BLACK, new SearchLimits(0, 0, 0));
+            assertEquals(Integer.signum(exact.getScore()), Integer.signum(result.getScore()));
+            assertTrue(Math.abs(result.getScore()) == Score.WIN || result.getScore() == 0, "Seul le résultat est donné");
+        }
+    }
+
+    @Test
+    void testSearchUsesSolver() {
+        SearchBoard board = playRandomly(8, 12, new Random(9));
+        BoardSnapshot snapshot = board.snapshot();
+        if (!board.hasValidMoves(ColorPiece.BLACK)) {
+            return;
+        }
+        AlphaBetaSearch search = new AlphaBetaSearch(new MobilityEvaluator(), null, new EndgameSolver());
+        SearchResult result = search.search(snapshot, ColorPiece.BLACK, SearchLimits.ofDepth(2));
+        int expected = ReferenceSearch.minimax(board, ColorPiece.BLACK);
+        assertEquals(Score.ofResult(expected), result.getScore(), "La fin de partie est résolue malgré la profondeur");
+        assertEquals(12, result.getDepth());
+    }
+
+    @Test
+    void testSolverBudgetFollowsSearchLimits() {
+        assertEquals(810_000, AlphaBetaSearch.solverLimits(SearchLimits.ofDepth(4)).getMaxNodes(),
+                "Une profondeur fixe borne aussi le solveur");
+        assertEquals(3_000_000, AlphaBetaSearch.solverLimits(SearchLimits.ofDepth(30)).getMaxNodes());
+        assertEquals(2000, AlphaBetaSearch.solverLimits(SearchLimits.ofNodes(3000)).getMaxNodes());
+        SearchLimits timed = AlphaBetaSearch.solverLimits(SearchLimits.ofTime(300));
+        assertEquals(200, timed.getTimeMillis());
+        assertEquals(0, timed.getMaxNodes());
+        SearchLimits unlimited = AlphaBetaSearch.solverLimits(new SearchLimits(0, 0, 0));
+        assertEquals(0, unlimited.getTimeMillis() + unlimited.getMaxNodes(), "Sans limite, la fin est résolue entièrement");
+    }
+
+    @Test
+    void testNodeBudgetAborts() {
+        SearchBoard board = playRandomly(8, 18, new Random(1));
+        SearchResult result = new EndgameSolver().solveExact(board.snapshot(), ColorPiece.BLACK, SearchLimits.ofNodes(5000));
+        assertNull(result, "Le budget est épuisé avant la fin");
+    }
+
+    /**
+     * Plays random moves from the start until a number of empty squares is
+     * left, with black to move.
+     */
+    private static SearchBoard playRandomly(int size, int empties, Random random) {
+        SearchBoard board = new SearchBoard(new Board(size).snapshot());
+        int[] moves = new int[size * size];
+        long[] flips = new long[board.getWordCount()];
+        ColorPiece player = ColorPiece.BLACK;
+        while (board.countEmpty() > empties) {
+            int count = board.generateMoves(player, moves);
+            if (count == 0) {
+                if (!board.hasValidMoves(player.opposite())) {
+                    return null;
+                }
+            } else {
+                board.makeMove(moves[random.nextInt(count)], player, flips);
+            }
+            player = player.opposite();
+        }
+        if (player != ColorPiece.BLACK) {
+            return playRandomly(size, empties, random);
+        }
+        return board;
+    }
+}
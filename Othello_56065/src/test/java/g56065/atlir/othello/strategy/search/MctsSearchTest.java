@@ -0,0 +1,40 @@
+package g56065.atlir.othello.strategy.search;
+
+import g56065.atlir.othello.model.Board;
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import g56065.atlir.othello.model.SquareSet;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MctsSearchTest {
+
+    @Test
+    void testPlayoutBudgetAndValidMove() {
+        for (int size = 3; size <= 15; size += 4) {
+            BoardSnapshot start = new Board(size).snapshot();
+            MctsSearch search = new MctsSearch(2, 2, MctsSearch.DEFAULT_EXPLORATION, 7);
+            SearchResult result = search.search(start, ColorPiece.BLACK, SearchLimits.ofNodes(2_000));
+            search.shutdown();
+            assertTrue(start.isValidMove(result.getMove(), ColorPiece.BLACK), "Un coup valide en " + size + "x" + size);
+            assertTrue(result.getNodes() >= 2_000);
+        }
+    }
+
+    @Test
+    void testFindsWinningCorner() {
+        // 4x4 : noir (X) gagne toute la diagonale en prenant le coin (3, 3)
+        // X . . .
+        // . O . .
+        // . . O .
+        // . . . .
+        long black = 1L;
+        long white = (1L << 5) | (1L << 10);
+        BoardSnapshot snapshot = BoardSnapshot.of(4, SquareSet.of(new long[]{black}), SquareSet.of(new long[]{white}));
+        MctsSearch search = new MctsSearch(1, 1, MctsSearch.DEFAULT_EXPLORATION, 1);
+        SearchResult result = search.search(snapshot, ColorPiece.BLACK, SearchLimits.ofNodes(1_000));
+        assertEquals(15, result.getMove());
+        assertEquals(1000, result.getScore(), "Toutes les parties sont gagnées");
+    }
+}
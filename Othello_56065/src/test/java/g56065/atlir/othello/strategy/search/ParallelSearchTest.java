@@ -0,0 +1,56 @@
+package g56065.atlir.othello.strategy.search;
+
+import g56065.atlir.othello.model.Board;
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelSearchTest {
+
+    @Test
+    void testLazySmpFindsExactScore() {
+        BoardSnapshot start = new Board(4).snapshot();
+        int expected = new AlphaBetaSearch(new MobilityEvaluator()).search(start, ColorPiece.BLACK, new SearchLimits(0, 0, 0)).getScore();
+        ParallelSearch search = new ParallelSearch(3, MobilityEvaluator::new, new TranspositionTable(1 << 20));
+        SearchResult result = search.search(start, ColorPiece.BLACK, new SearchLimits(0, 0, 0));
+        search.shutdown();
+        assertEquals(expected, result.getScore(), "Les threads partagent la table sans fausser le score");
+        assertTrue(start.isValidMove(result.getMove(), ColorPiece.BLACK));
+    }
+
+    @Test
+    void testRootSplitMatchesSingleThread() {
+        BoardSnapshot start = new Board(6).snapshot();
+        SearchResult single = new AlphaBetaSearch(new MobilityEvaluator()).search(start, ColorPiece.BLACK, SearchLimits.ofDepth(3));
+        ParallelSearch search = new ParallelSearch(2, MobilityEvaluator::new, new TranspositionTable(1 << 20));
+        SearchResult split = search.search(start, ColorPiece.BLACK, SearchLimits.ofDepth(3));
+        search.shutdown();
+        assertEquals(single.getScore(), split.getScore());
+        assertEquals(3, split.getDepth());
+        assertTrue(start.isValidMove(split.getMove(), ColorPiece.BLACK));
+    }
+
+    @Test
+    void testNodeBudgetIsShared() {
+        BoardSnapshot start = new Board(8).snapshot();
+        ParallelSearch search = new ParallelSearch(4, MobilityEvaluator::new, new TranspositionTable(1 << 20));
+        SearchResult result = search.search(start, ColorPiece.BLACK, SearchLimits.ofNodes(50_000));
+        search.shutdown();
+        // Chaque thread vérifie le budget toutes les 1024 positions
+        assertTrue(result.getNodes() <= 50_000 + 4 * 2048, "Le budget vaut pour tous les threads ensemble");
+    }
+
+    @Test
+    void testStopBeforeStartIsKept() {
+        BoardSnapshot start = new Board(6).snapshot();
+        ParallelSearch search = new ParallelSearch(2, MobilityEvaluator::new, new TranspositionTable(1 << 20));
+        search.stop();
+        assertEquals(0, search.search(start, ColorPiece.BLACK, SearchLimits.ofDepth(6)).getDepth());
+        assertEquals(0, search.search(start, ColorPiece.BLACK, SearchLimits.ofDepth(3)).getDepth());
+        search.resetStop();
+        assertEquals(6, search.search(start, ColorPiece.BLACK, SearchLimits.ofDepth(6)).getDepth());
+        search.shutdown();
+    }
+}
@@ -0,0 +1,81 @@
+package g56065.atlir.othello.strategy.search;
+
+import g56065.atlir.othello.model.Board;
+import g56065.atlir.othello.model.ColorPiece;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatternEvaluatorTest {
+
+    @Test
+    void testIncrementalIndicesMatchScratch() {
+        Random random = new Random(4);
+        for (int size = 3; size <= 15; size++) {
+            SearchBoard board = new SearchBoard(new Board(size).snapshot());
+            PatternIndex index = new PatternIndex(PatternSet.of(size));
+            board.setPatternIndex(index);
+            int[] moves = new int[size * size];
+            long[][] flips = new long[size * size][board.getWordCount()];
+            int[] played = new int[size * size];
+            ColorPiece[] colors = new ColorPiece[size * size];
+            int plies = 0;
+            ColorPiece player = ColorPiece.BLACK;
+            for (int turn = 0; turn < size * size; turn++) {
+                int count = board.generateMoves(player, moves);
+                if (count > 0) {
+                    played[plies] = moves[random.nextInt(count)];
+                    colors[plies] = player;
+                    board.makeMove(played[plies], player, flips[plies]);
+                    plies++;
+                    assertScratch(board, index, size);
+                }
+                player = player.opposite();
+            }
+            while (plies > 0) {
+                plies--;
+                board.unmakeMove(played[plies], colors[plies], flips[plies]);
+                assertScratch(board, index, size);
+            }
+        }
+    }
+
+    @Test
+    void testWeightsRoundTrip() throws IOException {
+        PatternWeights weights = new PatternWeights(PatternSet.of(6));
+        weights.setWeight(2, PatternSet.EDGE, 17, 1234);
+        weights.setWeight(5, PatternSet.CORNER, 100, -40000);
+        weights.setMobilityWeight(3, 25);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        weights.write(out);
+        PatternWeights read = PatternWeights.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(1234, read.getWeight(2, PatternSet.EDGE, 17));
+        assertEquals(Short.MIN_VALUE, read.getWeight(5, PatternSet.CORNER, 100), "Les poids tiennent sur 16 bits");
+        assertEquals(25, read.getMobilityWeight(3));
+        assertEquals(6, read.getPatterns().getSize());
+    }
+
+    @Test
+    void testShippedWeightsAreSymmetric() {
+        assertTrue(PatternEvaluator.isAvailable(8));
+        PatternEvaluator evaluator = new PatternEvaluator();
+        SearchBoard board = new SearchBoard(new Board(8).snapshot());
+        board.makeMove(19, ColorPiece.BLACK, new long[1]);
+        int black = evaluator.evaluate(board, ColorPiece.BLACK);
+        assertEquals(-black, evaluator.evaluate(board, ColorPiece.WHITE));
+        // Sizes without weights use the mobility evaluation
+        SearchBoard small = new SearchBoard(new Board(5).snapshot());
+        assertEquals(new MobilityEvaluator().evaluate(small, ColorPiece.BLACK), evaluator.evaluate(small, ColorPiece.BLACK));
+    }
+
+    private static void assertScratch(SearchBoard board, PatternIndex index, int size) {
+        PatternSet patterns = index.getPatterns();
+        for (int instance = 0; instance < patterns.getInstanceCount(); instance++) {
+            assertEquals(patterns.indexOf(board, instance), index.getIndex(instance), "Taille " + size);
+        }
+    }
+}
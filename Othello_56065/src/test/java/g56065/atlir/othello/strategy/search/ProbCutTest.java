@@ -0,0 +1,83 @@
+package g56065.atlir.othello.strategy.search;
+
+import g56065.atlir.othello.model.Board;
+import g56065.atlir.othello.model.BoardSnapshot;
+import g56065.atlir.othello.model.ColorPiece;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProbCutTest {
+
+    @Test
+    void testParametersRoundTrip() throws IOException {
+        ProbCut probCut = new ProbCut(8);
+        probCut.addCheck(2, 6, 2, 1.05, 40, 500);
+        probCut.addCheck(2, 8, 2, 1.0, 0, 600);
+        probCut.addCheck(2, 8, 4, 1.1, -20, 450);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        probCut.write(out);
+        ProbCut read = ProbCut.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(8, read.getSize());
+        assertEquals(2, read.getCheckCount(2, 8));
+        assertEquals(4, read.getShallowDepth(2, 8, 1));
+        assertEquals(0, read.getCheckCount(1, 8), "Les autres phases sont cherchées entièrement");
+        assertEquals(probCut.getBetaBound(2, 8, 1, 100), read.getBetaBound(2, 8, 1, 100));
+    }
+
+    @Test
+    void testDeeperDepthsShiftTheDeepestChecks() {
+        ProbCut probCut = new ProbCut(8);
+        probCut.addCheck(3, 8, 2, 1.0, 0, 600);
+        probCut.addCheck(3, 8, 4, 1.0, 0, 400);
+        assertEquals(2, probCut.getCheckCount(3, 12));
+        assertEquals(8, probCut.getShallowDepth(3, 12, 1));
+        assertEquals(0, probCut.getCheckCount(3, 2));
+    }
+
+    @Test
+    void testBoundsAreBeyondTheWindow() {
+        ProbCut probCut = new ProbCut(8);
+        probCut.addCheck(0, 5, 3, 1.0, 0, 100);
+        assertTrue(probCut.getBetaBound(0, 5, 0, 200) > 200, "Il faut une marge pour couper au-dessus de beta");
+        assertTrue(probCut.getAlphaBound(0, 5, 0, 199) < 199, "Il faut une marge pour couper sous alpha");
+    }
+
+    @Test
+    void testInvalidCheck() {
+        ProbCut probCut = new ProbCut(8);
+        assertThrows(IllegalArgumentException.class, () -> probCut.addCheck(0, 6, 6, 1.0, 0, 100));
+        assertThrows(IllegalArgumentException.class, () -> probCut.addCheck(0, 6, 2, -1.0, 0, 100));
+        assertThrows(IllegalArgumentException.class, () -> probCut.addCheck(PatternWeights.PHASES, 6, 2, 1.0, 0, 100));
+    }
+
+    @Test
+    void testShippedSizes() {
+        assertNotNull(ProbCut.forSize(8));
+        assertNotNull(ProbCut.forSize(6));
+        assertSame(ProbCut.forSize(8), ProbCut.forSize(8), "Les paramètres sont chargés une fois");
+        assertNull(ProbCut.forSize(5));
+        assertTrue(ProbCut.forSize(8).getCheckCount(2, 8) > 0);
+    }
+
+    @Test
+    void testSelectiveSearchPrunesAndPlaysValidMoves() {
+        Board board = new Board(8);
+        board.makeMove(19, ColorPiece.BLACK);
+        board.makeMove(18, ColorPiece.WHITE);
+        BoardSnapshot position = board.snapshot();
+        AlphaBetaSearch full = new AlphaBetaSearch(new PatternEvaluator(), new TranspositionTable(1 << 20));
+        AlphaBetaSearch selective = new AlphaBetaSearch(new PatternEvaluator(), new TranspositionTable(1 << 20),
+                null, new HeuristicMoveOrdering(), ProbCut::forSize);
+        SearchResult expected = full.search(position, ColorPiece.BLACK, SearchLimits.ofDepth(8));
+        SearchResult result = selective.search(position, ColorPiece.BLACK, SearchLimits.ofDepth(8));
+        assertTrue(position.isValidMove(result.getMove(), ColorPiece.BLACK));
+        assertEquals(8, result.getDepth());
+        assertTrue(selective.getProbCutCutoffs() > 0);
+        assertEquals(0, full.getProbCutCutoffs());
+        assertTrue(result.getNodes() < expected.getNodes(), "La recherche sélective visite moins de noeuds");
+    }
+}
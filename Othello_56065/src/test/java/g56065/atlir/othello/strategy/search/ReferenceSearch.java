@@ -0,0 +1,41 @@
+package g56065.atlir.othello.strategy.search;
+
+import g56065.atlir.othello.model.ColorPiece;
+
+/**
+ * Plain searches without pruning, giving the exact values the optimized
+ * searches are tested against.
+ */
+final class ReferenceSearch {
+
+    private ReferenceSearch() {
+    }
+
+    /**
+     * Plays every line to the end of the game.
+     *
+     * @return The final disc difference for the player with perfect play.
+     */
+    static int minimax(SearchBoard board, ColorPiece player) {
+        return minimax(board, player, false);
+    }
+
+    private static int minimax(SearchBoard board, ColorPiece player, boolean passed) {
+        int[] moves = new int[board.getSquareCount()];
+        int count = board.generateMoves(player, moves);
+        if (count == 0) {
+            if (passed) {
+                return board.countPieces(player) - board.countPieces(player.opposite());
+            }
+            return -minimax(board, player.opposite(), true);
+        }
+        int best = -Integer.MAX_VALUE;
+        long[] flips = new long[board.getWordCount()];
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i], player, flips);
+            best = Math.max(best, -minimax(board, player.opposite(), false));
+            board.unmakeMove(moves[i], player, flips);
+        }
+        return best;
+    }
+}
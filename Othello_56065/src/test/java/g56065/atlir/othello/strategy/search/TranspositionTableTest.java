@@ -0,0 +1,67 @@
+package g56065.atlir.othello.strategy.search;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+
+    @Test
+    void testStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable(1 << 16);
+        assertEquals(1 << 11, table.getBucketCount(), "Une puissance de deux tenant dans le budget");
+        long key = 0x1234_5678_9ABC_DEF0L;
+        table.store(key, 7, TranspositionTable.LOWER, -Score.WIN - 12, 42);
+        long data = table.probe(key);
+        assertNotEquals(0, data);
+        assertEquals(-Score.WIN - 12, TranspositionTable.scoreOf(data));
+        assertEquals(7, TranspositionTable.depthOf(data));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.boundOf(data));
+        assertEquals(42, TranspositionTable.moveOf(data));
+        assertEquals(0, table.probe(key + table.getBucketCount()), "Même seau, autre clé : absent");
+    }
+
+    @Test
+    void testDepthPreferredReplacement() {
+        TranspositionTable table = new TranspositionTable(1 << 10);
+        long deep = 5;
+        long shallow = 5 + table.getBucketCount();
+        table.store(deep, 10, TranspositionTable.EXACT, 100, -1);
+        table.store(shallow, 2, TranspositionTable.EXACT, 50, 3);
+        assertEquals(10, TranspositionTable.depthOf(table.probe(deep)), "L'entrée profonde est gardée");
+        assertEquals(-1, TranspositionTable.moveOf(table.probe(deep)));
+        assertEquals(50, TranspositionTable.scoreOf(table.probe(shallow)), "L'autre entrée prend la seconde place");
+    }
+
+    @Test
+    void testConcurrentAccessNeverReturnsCorruptEntries() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1 << 12); // Petit tableau : beaucoup de collisions
+        AtomicInteger corrupted = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            long seed = t;
+            threads[t] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    long key = random.nextLong(1 << 14) * 0x9E37_79B9_7F4A_7C15L;
+                    int expected = (int) (key >>> 44); // Le score dépend uniquement de la clé
+                    if (random.nextBoolean()) {
+                        table.store(key, (int) (key & 15), TranspositionTable.EXACT, expected, -1);
+                    } else {
+                        long data = table.probe(key);
+                        if (data != 0 && TranspositionTable.scoreOf(data) != expected) {
+                            corrupted.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, corrupted.get(), "Aucune entrée incohérente");
+    }
+}
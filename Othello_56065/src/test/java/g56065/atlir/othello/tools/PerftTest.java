@@ -0,0 +1,33 @@
+package g56065.atlir.othello.tools;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTest {
+
+    @Test
+    void testPublishedCountsOn8x8() throws InterruptedException {
+        long[] expected = {1, 4, 12, 56, 244, 1396, 8200, 55092, 390216};
+        for (int depth = 0; depth < expected.length; depth++) {
+            assertEquals(expected[depth], Perft.perft(8, depth, Perft.Backend.ENGINE, 1), "Profondeur " + depth);
+        }
+        // La partie ne se sert pas de la génération des coups des moteurs
+        assertEquals(expected[6], Perft.perft(8, 6, Perft.Backend.BOARD, 1));
+    }
+
+    @Test
+    void testBackendsAgreeOnAllSizes() throws InterruptedException {
+        for (int size = 3; size <= 15; size++) {
+            long grid = Perft.perft(size, 5, Perft.Backend.GRID, 1);
+            assertEquals(grid, Perft.perft(size, 5, Perft.Backend.ENGINE, 1), "Moteur rapide, taille " + size);
+            assertEquals(grid, Perft.perft(size, 5, Perft.Backend.BOARD, 1), "Plateau, taille " + size);
+        }
+    }
+
+    @Test
+    void testRootSplitMatchesSingleThread() throws InterruptedException {
+        assertEquals(Perft.perft(6, 7, Perft.Backend.ENGINE, 1), Perft.perft(6, 7, Perft.Backend.ENGINE, 3));
+        assertEquals(Perft.perft(11, 5, Perft.Backend.GRID, 1), Perft.perft(11, 5, Perft.Backend.GRID, 2));
+    }
+}
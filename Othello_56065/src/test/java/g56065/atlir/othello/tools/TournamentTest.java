@@ -0,0 +1,72 @@
+package g56065.atlir.othello.tools;
+
+import g56065.atlir.othello.model.Board;
+import g56065.atlir.othello.model.ColorPiece;
+import g56065.atlir.othello.strategy.search.SearchBoard;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentTest {
+
+    @Test
+    void testElo() {
+        assertEquals(0.0, Tournament.elo(0.5));
+        assertEquals(Double.NEGATIVE_INFINITY, Tournament.elo(0));
+        assertEquals(Double.POSITIVE_INFINITY, Tournament.elo(1));
+        assertEquals(-Tournament.elo(0.25), Tournament.elo(0.75), 1e-9, "Perdre autant que l'on gagne est symétrique");
+        assertEquals(400 * Math.log10(3), Tournament.elo(0.75), 1e-9);
+    }
+
+    @Test
+    void testPercentileIndexes() {
+        long[] sorted = {10, 20, 30, 40, 50, 60, 70, 80, 90, 100};
+        assertEquals(50, Tournament.percentile(sorted, 0.5));
+        assertEquals(90, Tournament.percentile(sorted, 0.9));
+        assertEquals(100, Tournament.percentile(sorted, 0.99), "Le p99 de dix valeurs est la plus grande");
+        assertEquals(100, Tournament.percentile(sorted, 1));
+        assertEquals(10, Tournament.percentile(sorted, 0), "L'index ne descend pas sous zéro");
+        assertEquals(7, Tournament.percentile(new long[]{7}, 0.5));
+        assertEquals(0, Tournament.percentile(new long[0], 0.5));
+    }
+
+    @Test
+    void testOpeningsAreSeededAndPlayable() {
+        for (int size : new int[]{4, 5, 8, 11}) {
+            List<int[]> openings = Tournament.openings(size, 10, 5);
+            List<int[]> again = Tournament.openings(size, 10, 5);
+            assertEquals(10, openings.size());
+            for (int i = 0; i < openings.size(); i++) {
+                assertArrayEquals(openings.get(i), again.get(i), "La même graine donne les mêmes ouvertures");
+                SearchBoard board = new SearchBoard(new Board(size).snapshot(), false);
+                long[] flips = new long[board.getWordCount()];
+                ColorPiece player = ColorPiece.BLACK;
+                for (int move : openings.get(i)) {
+                    assertTrue(board.makeMove(move, player, flips) > 0, "Coup valide en " + size + "x" + size);
+                    player = player.opposite();
+                }
+                assertEquals(ColorPiece.BLACK, player, "Noir joue après l'ouverture");
+                assertTrue(board.hasValidMoves(ColorPiece.BLACK) && board.hasValidMoves(ColorPiece.WHITE));
+            }
+        }
+        // En 3x3, aucun coup ne laisse un coup à chacun : les parties partent du début
+        assertEquals(0, Tournament.openings(3, 2, 5).get(0).length);
+    }
+
+    @Test
+    void testPairResultsSwapColors() {
+        Tournament.PairResult result = new Tournament.PairResult();
+        long[] none = new long[0];
+        // Noir gagne de 10 les deux parties : chaque stratégie gagne avec noir
+        result.addPair(new Tournament.Outcome(10, none, none), new Tournament.Outcome(10, none, none));
+        // La première stratégie gagne avec noir puis avec blanc
+        result.addPair(new Tournament.Outcome(4, none, none), new Tournament.Outcome(-6, none, none));
+        result.addPair(new Tournament.Outcome(0, none, none), new Tournament.Outcome(0, none, none));
+        assertEquals(3, result.wins());
+        assertEquals(2, result.draws());
+        assertEquals(1, result.losses());
+        assertEquals(6, result.games());
+        assertEquals(4.0 / 6, result.score(), 1e-9);
+    }
+}